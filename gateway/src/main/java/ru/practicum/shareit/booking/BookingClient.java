@@ -4,16 +4,20 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.util.DefaultUriBuilderFactory;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingState;
 import ru.practicum.shareit.client.BaseClient;
 import ru.practicum.shareit.exception.UnknownBookingStateException;
 
 import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
 
 @Slf4j
@@ -35,10 +39,26 @@ public class BookingClient extends BaseClient {
         return post("", userId, bookingDto);
     }
 
+    public ResponseEntity<Object> holdBooking(long userId, BookingDto bookingDto) {
+        return post("/holds", userId, bookingDto);
+    }
+
+    public ResponseEntity<Object> confirmHold(long userId, String holdId) {
+        return post("/holds/{holdId}/confirm", userId, Map.of("holdId", holdId), null);
+    }
+
+    public ResponseEntity<Object> joinWaitlist(long userId, BookingDto bookingDto) {
+        return post("/waitlist", userId, bookingDto);
+    }
+
     public ResponseEntity<Object> approveBooking(long userId, long bookingId, boolean approved) {
         return patch("/" + bookingId + "?approved=" + approved, userId);
     }
 
+    public ResponseEntity<Object> approveBookings(long userId, List<BookingDecisionDto> decisions) {
+        return patch("/batch", userId, decisions);
+    }
+
     public ResponseEntity<Object> getBookingInfo(long userId, long bookingId) {
         return get("/" + bookingId, userId);
     }
@@ -63,6 +83,42 @@ public class BookingClient extends BaseClient {
         return get("/owner?state={state}&from={from}&size={size}", userId, parameters);
     }
 
+    public ResponseEntity<Object> getBookings(long userId, String state, String cursor, int size) {
+        validateIncomingBookingState(state);
+        Map<String, Object> parameters = Map.of(
+                "state", state,
+                "cursor", cursor,
+                "size", size
+        );
+        return get("?state={state}&cursor={cursor}&size={size}", userId, parameters);
+    }
+
+    public ResponseEntity<Object> getBookingsOfOwner(long userId, String state, String cursor, int size) {
+        validateIncomingBookingState(state);
+        Map<String, Object> parameters = Map.of(
+                "state", state,
+                "cursor", cursor,
+                "size", size
+        );
+        return get("/owner?state={state}&cursor={cursor}&size={size}", userId, parameters);
+    }
+
+    public ResponseEntity<Object> getBookingCounts(long userId) {
+        return get("/counts", userId);
+    }
+
+    public ResponseEntity<Object> getBookingCountsOfOwner(long userId) {
+        return get("/owner/counts", userId);
+    }
+
+    public ResponseEntity<StreamingResponseBody> subscribeToEventsOfOwner(long userId) {
+        return stream("/owner/events", userId, MediaType.TEXT_EVENT_STREAM, null);
+    }
+
+    public ResponseEntity<StreamingResponseBody> exportBookingsOfOwner(long userId) {
+        return stream("/owner/export", userId, MediaType.APPLICATION_NDJSON, null);
+    }
+
     private void validateIncomingBookingState(String state) {
         if (Arrays.stream(BookingState.values()).noneMatch(bs -> bs.name().equals(state))) {
             log.error("Передан неизвестный статус бронирования: {}", state);
@@ -2,16 +2,22 @@ package ru.practicum.shareit.booking;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.validation.Marker;
 
 import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import javax.validation.constraints.Size;
+import java.util.List;
 
 @Slf4j
 @Validated
@@ -19,6 +25,8 @@ import javax.validation.constraints.PositiveOrZero;
 @RequiredArgsConstructor
 @RequestMapping(path = "/bookings")
 public class BookingController {
+    private static final int MAX_BATCH_SIZE = 100;
+
     private final BookingClient bookingClient;
 
     @PostMapping
@@ -29,6 +37,29 @@ public class BookingController {
         return bookingClient.addBooking(userId, bookingDto);
     }
 
+    @PostMapping("/holds")
+    @Validated({Marker.OnCreate.class})
+    public ResponseEntity<Object> holdBooking(@RequestHeader("X-Sharer-User-Id") long userId,
+                                              @RequestBody @Valid BookingDto bookingDto) {
+        log.debug("Удержание вещи для бронирования пользователем с id = {}.", userId);
+        return bookingClient.holdBooking(userId, bookingDto);
+    }
+
+    @PostMapping("/holds/{holdId}/confirm")
+    public ResponseEntity<Object> confirmHold(@RequestHeader("X-Sharer-User-Id") long userId,
+                                              @PathVariable String holdId) {
+        log.debug("Подтверждение удержания с id = {} пользователем с id = {}.", holdId, userId);
+        return bookingClient.confirmHold(userId, holdId);
+    }
+
+    @PostMapping("/waitlist")
+    @Validated({Marker.OnCreate.class})
+    public ResponseEntity<Object> joinWaitlist(@RequestHeader("X-Sharer-User-Id") long userId,
+                                               @RequestBody @Valid BookingDto bookingDto) {
+        log.debug("Добавление в лист ожидания пользователем с id = {}.", userId);
+        return bookingClient.joinWaitlist(userId, bookingDto);
+    }
+
     @PatchMapping("/{bookingId}")
     public ResponseEntity<Object> approveBooking(@RequestHeader("X-Sharer-User-Id") long userId,
                                                  @PathVariable long bookingId,
@@ -37,6 +68,14 @@ public class BookingController {
         return bookingClient.approveBooking(userId, bookingId, approved);
     }
 
+    @PatchMapping("/batch")
+    public ResponseEntity<Object> approveBookings(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                  @RequestBody @NotEmpty @Size(max = MAX_BATCH_SIZE)
+                                                  List<@Valid BookingDecisionDto> decisions) {
+        log.debug("Пакетное изменение статуса бронирований пользователем с id = {}.", userId);
+        return bookingClient.approveBookings(userId, decisions);
+    }
+
     @GetMapping("/{bookingId}")
     public ResponseEntity<Object> getBookingInfo(@RequestHeader("X-Sharer-User-Id") long userId,
                                                  @PathVariable long bookingId) {
@@ -51,11 +90,42 @@ public class BookingController {
                                               @PositiveOrZero @RequestParam(name = "from",
                                                       defaultValue = "0") int from,
                                               @Positive @RequestParam(name = "size",
-                                                      defaultValue = "10") int size) {
+                                                      defaultValue = "10") int size,
+                                              @RequestParam(name = "cursor", required = false) String cursor) {
         log.debug("Получение информации о бронированиях со статусом \"{}\" пользователем с id = {}.", state, userId);
+        if (cursor != null) {
+            return bookingClient.getBookings(userId, state, cursor, size);
+        }
+
         return bookingClient.getBookings(userId, state, from, size);
     }
 
+    @GetMapping("/counts")
+    public ResponseEntity<Object> getBookingCounts(@RequestHeader("X-Sharer-User-Id") long userId) {
+        log.debug("Получение количества бронирований по статусам пользователем с id = {}.", userId);
+        return bookingClient.getBookingCounts(userId);
+    }
+
+    @GetMapping("/owner/counts")
+    public ResponseEntity<Object> getBookingCountsOfOwner(@RequestHeader("X-Sharer-User-Id") long userId) {
+        log.debug("Получение количества бронирований по статусам владельцем с id = {}.", userId);
+        return bookingClient.getBookingCountsOfOwner(userId);
+    }
+
+    @GetMapping(path = "/owner/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<StreamingResponseBody> subscribeToEventsOfOwner(
+            @RequestHeader("X-Sharer-User-Id") long userId) {
+        log.debug("Подписка на события бронирований владельцем с id = {}.", userId);
+        return bookingClient.subscribeToEventsOfOwner(userId);
+    }
+
+    @GetMapping(path = "/owner/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportBookingsOfOwner(
+            @RequestHeader("X-Sharer-User-Id") long userId) {
+        log.debug("Выгрузка истории бронирований владельцем с id = {}.", userId);
+        return bookingClient.exportBookingsOfOwner(userId);
+    }
+
     @GetMapping("/owner")
     public ResponseEntity<Object> getBookingsOfOwner(@RequestHeader("X-Sharer-User-Id") long userId,
                                                      @RequestParam(name = "state", required = false,
@@ -63,8 +133,13 @@ public class BookingController {
                                                      @PositiveOrZero @RequestParam(name = "from",
                                                              defaultValue = "0") int from,
                                                      @Positive @RequestParam(name = "size",
-                                                             defaultValue = "10") int size) {
+                                                             defaultValue = "10") int size,
+                                                     @RequestParam(name = "cursor", required = false) String cursor) {
         log.debug("Получение информации о бронированиях со статусом \"{}\" владельцем с id = {}.", state, userId);
+        if (cursor != null) {
+            return bookingClient.getBookingsOfOwner(userId, state, cursor, size);
+        }
+
         return bookingClient.getBookingsOfOwner(userId, state, from, size);
     }
 }
\ No newline at end of file
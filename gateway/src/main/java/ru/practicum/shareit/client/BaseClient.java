@@ -1,19 +1,32 @@
 package ru.practicum.shareit.client;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 import java.util.Map;
 
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
 import org.springframework.lang.Nullable;
+import org.springframework.util.StreamUtils;
 import org.springframework.web.client.HttpStatusCodeException;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 public class BaseClient {
+    private static final int STREAM_BUFFER_SIZE = 8192;
+    private static final String FORWARDED_HEADER_PREFIX = "X-";
+
     protected final RestTemplate rest;
+    private final ClientHttpRequestFactory streamingRequestFactory = new SimpleClientHttpRequestFactory();
 
     public BaseClient(RestTemplate rest) {
         this.rest = rest;
@@ -79,6 +92,51 @@ public class BaseClient {
         return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null);
     }
 
+    protected ResponseEntity<StreamingResponseBody> stream(String path, long userId, MediaType mediaType,
+                                                           @Nullable Map<String, Object> parameters) {
+        final ClientHttpResponse response;
+        try {
+            final ClientHttpRequest request = streamingRequestFactory.createRequest(parameters != null
+                    ? rest.getUriTemplateHandler().expand(path, parameters)
+                    : rest.getUriTemplateHandler().expand(path), HttpMethod.GET);
+            request.getHeaders().setAccept(List.of(mediaType, MediaType.APPLICATION_JSON));
+            request.getHeaders().set("X-Sharer-User-Id", String.valueOf(userId));
+            response = request.execute();
+            if (!response.getStatusCode().is2xxSuccessful()) {
+                final int status = response.getRawStatusCode();
+                final MediaType contentType = response.getHeaders().getContentType();
+                final byte[] body = StreamUtils.copyToByteArray(response.getBody());
+                response.close();
+                final ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(status);
+                if (contentType != null) {
+                    responseBuilder.contentType(contentType);
+                }
+
+                return responseBuilder.body(out -> out.write(body));
+            }
+        } catch (IOException e) {
+            return ResponseEntity.status(HttpStatus.BAD_GATEWAY).build();
+        }
+
+        final ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.ok()
+                .contentType(mediaType);
+        response.getHeaders().forEach((name, values) -> {
+            if (name.regionMatches(true, 0, FORWARDED_HEADER_PREFIX, 0, FORWARDED_HEADER_PREFIX.length())) {
+                responseBuilder.header(name, values.toArray(new String[0]));
+            }
+        });
+        return responseBuilder.body(out -> {
+            try (response; InputStream in = response.getBody()) {
+                final byte[] buffer = new byte[STREAM_BUFFER_SIZE];
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    out.write(buffer, 0, read);
+                    out.flush();
+                }
+            }
+        });
+    }
+
     private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
         HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
 
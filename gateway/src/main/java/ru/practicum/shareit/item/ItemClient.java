@@ -3,13 +3,19 @@ package ru.practicum.shareit.item;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.item.dto.AvailabilityRangeDto;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.SearchWindowDto;
+
+import java.util.Map;
 
 @Service
 public class ItemClient extends BaseClient {
@@ -42,8 +48,34 @@ public class ItemClient extends BaseClient {
         return get("/", userId);
     }
 
-    public ResponseEntity<Object> getByText(long userId, String text) {
-        return get("/search?text=" + text, userId);
+    public ResponseEntity<StreamingResponseBody> getByText(long userId, String text, int from, int size) {
+        Map<String, Object> parameters = Map.of(
+                "text", text,
+                "from", from,
+                "size", size
+        );
+        return stream("/search?text={text}&from={from}&size={size}", userId, MediaType.APPLICATION_JSON, parameters);
+    }
+
+    public ResponseEntity<StreamingResponseBody> getByText(long userId, String text, SearchWindowDto window,
+                                                           int from, int size) {
+        Map<String, Object> parameters = Map.of(
+                "text", text,
+                "start", window.getStart(),
+                "end", window.getEnd(),
+                "from", from,
+                "size", size
+        );
+        return stream("/search?text={text}&start={start}&end={end}&from={from}&size={size}", userId,
+                MediaType.APPLICATION_JSON, parameters);
+    }
+
+    public ResponseEntity<Object> getAvailability(long userId, long itemId, AvailabilityRangeDto range) {
+        Map<String, Object> parameters = Map.of(
+                "from", range.getFrom(),
+                "to", range.getTo()
+        );
+        return get("/" + itemId + "/availability?from={from}&to={to}", userId, parameters);
     }
 
     public ResponseEntity<Object> addComment(CommentDto commentCreateDto, Long itemId, Long userId) {
@@ -6,11 +6,16 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.item.dto.AvailabilityRangeDto;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.SearchWindowDto;
 import ru.practicum.shareit.validation.Marker;
 
 import javax.validation.Valid;
+import javax.validation.constraints.Positive;
+import javax.validation.constraints.PositiveOrZero;
 
 @Slf4j
 @Validated
@@ -51,10 +56,27 @@ public class ItemController {
     }
 
     @GetMapping("/search")
-    public ResponseEntity<Object> getByText(@RequestHeader("X-Sharer-User-Id") long userId,
-                                            @RequestParam(name = "text") String text) {
+    public ResponseEntity<StreamingResponseBody> getByText(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                           @RequestParam(name = "text") String text,
+                                                           @Valid SearchWindowDto window,
+                                                           @PositiveOrZero @RequestParam(name = "from",
+                                                                   defaultValue = "0") int from,
+                                                           @Positive @RequestParam(name = "size",
+                                                                   defaultValue = "10") int size) {
         log.debug("Пользователь с id = {} ищет вещь по запросу \"{}\".", userId, text);
-        return itemClient.getByText(userId, text);
+        if (window.isPresent()) {
+            return itemClient.getByText(userId, text, window, from, size);
+        }
+
+        return itemClient.getByText(userId, text, from, size);
+    }
+
+    @GetMapping("/{itemId}/availability")
+    public ResponseEntity<Object> getAvailability(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                  @PathVariable long itemId,
+                                                  @Valid AvailabilityRangeDto range) {
+        log.debug("Пользователь с id = {} запрашивает свободные периоды вещи с id = {}.", userId, itemId);
+        return itemClient.getAvailability(userId, itemId, range);
     }
 
     @PostMapping("/{itemId}/comment")
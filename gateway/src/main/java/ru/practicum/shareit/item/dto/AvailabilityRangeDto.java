@@ -0,0 +1,36 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.*;
+import org.springframework.format.annotation.DateTimeFormat;
+import ru.practicum.shareit.validation.startend.StartBeforeEndValid;
+import ru.practicum.shareit.validation.startend.StartEndDated;
+
+import javax.validation.constraints.NotNull;
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@StartBeforeEndValid(start = "from", end = "to")
+public class AvailabilityRangeDto implements StartEndDated {
+
+    @NotNull
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime from;
+
+    @NotNull
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime to;
+
+    @Override
+    public LocalDateTime getStart() {
+        return from;
+    }
+
+    @Override
+    public LocalDateTime getEnd() {
+        return to;
+    }
+}
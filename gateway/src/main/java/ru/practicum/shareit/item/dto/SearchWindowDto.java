@@ -0,0 +1,33 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.*;
+import org.springframework.format.annotation.DateTimeFormat;
+import ru.practicum.shareit.validation.startend.StartBeforeEndValid;
+import ru.practicum.shareit.validation.startend.StartEndDated;
+
+import javax.validation.constraints.AssertTrue;
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@StartBeforeEndValid(start = "start", end = "end")
+public class SearchWindowDto implements StartEndDated {
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime start;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime end;
+
+    @AssertTrue(message = "Период поиска должен содержать и дату начала, и дату завершения!")
+    public boolean isComplete() {
+        return (start == null) == (end == null);
+    }
+
+    public boolean isPresent() {
+        return start != null;
+    }
+}
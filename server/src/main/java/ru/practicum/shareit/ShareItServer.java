@@ -2,7 +2,12 @@ package ru.practicum.shareit;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
+import java.time.Clock;
+
+@EnableScheduling
 @SpringBootApplication
 public class ShareItServer {
 
@@ -10,4 +15,9 @@ public class ShareItServer {
 		SpringApplication.run(ShareItServer.class, args);
 	}
 
+	@Bean
+	public Clock clock() {
+		return Clock.systemDefaultZone();
+	}
+
 }
@@ -0,0 +1,140 @@
+package ru.practicum.shareit.booking;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import ru.practicum.shareit.booking.dto.BookingDtoForResponse;
+import ru.practicum.shareit.booking.model.ArchivedBooking;
+import ru.practicum.shareit.booking.model.BookingStateTotals;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.user.model.User;
+
+import javax.persistence.QueryHint;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+public interface BookingArchiveRepository extends JpaRepository<ArchivedBooking, Long> {
+    @Modifying
+    @Query("insert into ArchivedBooking (id, start, end, item, booker, status) " +
+            "select bkg.id, bkg.start, bkg.end, bkg.item, bkg.booker, bkg.status " +
+            "from Booking bkg " +
+            "where bkg.id in :ids")
+    int copyFromBookings(Collection<Long> ids);
+
+    @Query("select bkg " +
+            "from ArchivedBooking bkg " +
+            "where bkg.item.id in :itemIds " +
+            "AND bkg.status in :statuses " +
+            "AND bkg.start = (select max(pastBkg.start) " +
+            "from ArchivedBooking pastBkg " +
+            "where pastBkg.item = bkg.item " +
+            "AND pastBkg.status in :statuses)")
+    List<ArchivedBooking> findLastBookingsByItemIds(Collection<Long> itemIds, Collection<BookingStatus> statuses);
+
+    @Query(BookingRepository.BOOKING_RESPONSE_PROJECTION +
+            "from ArchivedBooking bkg " +
+            "where bkg.id = :bookingId " +
+            "AND (bkg.booker.id = :userId or bkg.item.owner.id = :userId)")
+    Optional<BookingDtoForResponse> findByIdForBookerOrOwner(Long bookingId, Long userId);
+
+    @Query(BookingRepository.BOOKING_RESPONSE_PROJECTION +
+            "from ArchivedBooking bkg " +
+            "where bkg.item.owner.id = :ownerId " +
+            "order by bkg.start desc, bkg.id desc")
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE,
+            value = BookingRepository.EXPORT_FETCH_SIZE))
+    Stream<BookingDtoForResponse> streamAllByItemOwnerId(long ownerId);
+
+    boolean existsByBooker(User booker);
+
+    boolean existsByBookerAndStatus(User booker, BookingStatus status);
+
+    boolean existsByItemOwner(User owner);
+
+    boolean existsByItemOwnerAndStatus(User owner, BookingStatus status);
+
+    @Query(BookingRepository.BOOKING_RESPONSE_PROJECTION +
+            "from ArchivedBooking bkg " +
+            "where bkg.booker = :booker " +
+            "order by bkg.start desc, bkg.id desc")
+    Slice<BookingDtoForResponse> getAllByBookerOrderByStartDesc(User booker, Pageable pageable);
+
+    @Query(BookingRepository.BOOKING_RESPONSE_PROJECTION +
+            "from ArchivedBooking bkg " +
+            "where bkg.booker = :booker " +
+            "AND bkg.status = :status " +
+            "order by bkg.start desc, bkg.id desc")
+    Slice<BookingDtoForResponse> getAllByBookerAndStatusOrderByStartDesc(User booker, BookingStatus status,
+                                                                         Pageable pageable);
+
+    @Query(BookingRepository.BOOKING_RESPONSE_PROJECTION +
+            "from ArchivedBooking bkg " +
+            "where bkg.item.owner = :owner " +
+            "order by bkg.start desc, bkg.id desc")
+    Slice<BookingDtoForResponse> getAllByItemOwnerOrderByStartDesc(User owner, Pageable pageable);
+
+    @Query(BookingRepository.BOOKING_RESPONSE_PROJECTION +
+            "from ArchivedBooking bkg " +
+            "where bkg.item.owner = :owner " +
+            "AND bkg.status = :status " +
+            "order by bkg.start desc, bkg.id desc")
+    Slice<BookingDtoForResponse> getAllByItemOwnerAndStatusOrderByStartDesc(User owner, BookingStatus status,
+                                                                            Pageable pageable);
+
+    @Query(BookingRepository.BOOKING_RESPONSE_PROJECTION +
+            "from ArchivedBooking bkg " +
+            "where bkg.booker = :booker " +
+            "AND (bkg.start < :start or (bkg.start = :start and bkg.id < :id)) " +
+            "order by bkg.start desc, bkg.id desc")
+    Slice<BookingDtoForResponse> getAllByBookerBeforeCursor(User booker, LocalDateTime start, Long id,
+                                                            Pageable pageable);
+
+    @Query(BookingRepository.BOOKING_RESPONSE_PROJECTION +
+            "from ArchivedBooking bkg " +
+            "where bkg.booker = :booker " +
+            "AND bkg.status = :status " +
+            "AND (bkg.start < :start or (bkg.start = :start and bkg.id < :id)) " +
+            "order by bkg.start desc, bkg.id desc")
+    Slice<BookingDtoForResponse> getAllByBookerAndStatusBeforeCursor(User booker, BookingStatus status,
+                                                                     LocalDateTime start, Long id, Pageable pageable);
+
+    @Query(BookingRepository.BOOKING_RESPONSE_PROJECTION +
+            "from ArchivedBooking bkg " +
+            "where bkg.item.owner = :owner " +
+            "AND (bkg.start < :start or (bkg.start = :start and bkg.id < :id)) " +
+            "order by bkg.start desc, bkg.id desc")
+    Slice<BookingDtoForResponse> getAllByItemOwnerBeforeCursor(User owner, LocalDateTime start, Long id,
+                                                               Pageable pageable);
+
+    @Query(BookingRepository.BOOKING_RESPONSE_PROJECTION +
+            "from ArchivedBooking bkg " +
+            "where bkg.item.owner = :owner " +
+            "AND bkg.status = :status " +
+            "AND (bkg.start < :start or (bkg.start = :start and bkg.id < :id)) " +
+            "order by bkg.start desc, bkg.id desc")
+    Slice<BookingDtoForResponse> getAllByItemOwnerAndStatusBeforeCursor(User owner, BookingStatus status,
+                                                                        LocalDateTime start, Long id,
+                                                                        Pageable pageable);
+
+    @Query("select new ru.practicum.shareit.booking.model.BookingStateTotals(bkg.booker.id, " +
+            BookingRepository.BOOKING_STATE_TOTALS +
+            "from ArchivedBooking bkg " +
+            "where bkg.booker.id in :userIds " +
+            "group by bkg.booker.id")
+    List<BookingStateTotals> countStatesByBookerIds(Collection<Long> userIds, LocalDateTime now,
+                                                    BookingStatus waiting, BookingStatus rejected);
+
+    @Query("select new ru.practicum.shareit.booking.model.BookingStateTotals(bkg.item.owner.id, " +
+            BookingRepository.BOOKING_STATE_TOTALS +
+            "from ArchivedBooking bkg " +
+            "where bkg.item.owner.id in :userIds " +
+            "group by bkg.item.owner.id")
+    List<BookingStateTotals> countStatesByOwnerIds(Collection<Long> userIds, LocalDateTime now,
+                                                   BookingStatus waiting, BookingStatus rejected);
+}
@@ -0,0 +1,75 @@
+package ru.practicum.shareit.booking;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.lease.LeaseService;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+@Slf4j
+@Component
+public class BookingArchiver {
+    static final String LEASE_NAME = "booking-archiver";
+
+    private final BookingService bookingService;
+    private final LeaseService leaseService;
+    private final int retentionMonths;
+    private final int batchSize;
+    private final int maxBatches;
+    private final Duration leaseDuration;
+    private final Counter archivedCounter;
+
+    public BookingArchiver(BookingService bookingService,
+                           LeaseService leaseService,
+                           MeterRegistry meterRegistry,
+                           @Value("${shareit.booking-archive.retention-months:6}") int retentionMonths,
+                           @Value("${shareit.booking-archive.batch-size:500}") int batchSize,
+                           @Value("${shareit.booking-archive.max-batches:20}") int maxBatches,
+                           @Value("${shareit.booking-archive.lease:PT30M}") Duration leaseDuration) {
+        this.bookingService = bookingService;
+        this.leaseService = leaseService;
+        this.retentionMonths = retentionMonths;
+        this.batchSize = batchSize;
+        this.maxBatches = maxBatches;
+        this.leaseDuration = leaseDuration;
+        this.archivedCounter = Counter.builder("shareit.booking.archiver.archived")
+                .description("Бронирования, перенесённые в архивную таблицу")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.booking-archive.delay:PT1H}")
+    public void archive() {
+        if (!leaseService.tryAcquire(LEASE_NAME, leaseDuration)) {
+            return;
+        }
+
+        final LocalDateTime endedBefore = LocalDateTime.now().minusMonths(retentionMonths);
+        int total = 0;
+        int batches = 0;
+        int archived;
+        do {
+            archived = bookingService.archiveBookings(endedBefore, batchSize);
+            total += archived;
+            batches++;
+            archivedCounter.increment(archived);
+        } while (archived == batchSize && batches < maxBatches && renewLease());
+
+        if (total > 0) {
+            log.debug("Перенесено в архив бронирований, завершённых до {}: {}.", endedBefore, total);
+        }
+    }
+
+    private boolean renewLease() {
+        if (leaseService.tryAcquire(LEASE_NAME, leaseDuration)) {
+            return true;
+        }
+
+        log.warn("Аренда \"{}\" потеряна, перенос бронирований в архив прерван.", LEASE_NAME);
+        return false;
+    }
+}
@@ -2,17 +2,32 @@ package ru.practicum.shareit.booking;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingDtoForResponse;
+import ru.practicum.shareit.booking.dto.BookingHoldDto;
+import ru.practicum.shareit.booking.dto.BookingIntentDto;
+import ru.practicum.shareit.booking.dto.BookingStateCountsDto;
 
 import java.util.Collection;
+import java.util.List;
 
 @Slf4j
 @RestController
 @RequiredArgsConstructor
 @RequestMapping(path = "/bookings")
 public class BookingController {
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    static final String HAS_MORE_HEADER = "X-Has-More";
+
     private final BookingService bookingService;
 
     @PostMapping
@@ -22,6 +37,27 @@ public class BookingController {
         return bookingService.addBooking(userId, bookingDto);
     }
 
+    @PostMapping("/holds")
+    public BookingHoldDto holdBooking(@RequestHeader("X-Sharer-User-Id") long userId,
+                                      @RequestBody BookingDto bookingDto) {
+        log.debug("Удержание вещи для бронирования пользователем с id = {}.", userId);
+        return bookingService.holdBooking(userId, bookingDto);
+    }
+
+    @PostMapping("/holds/{holdId}/confirm")
+    public BookingDtoForResponse confirmHold(@RequestHeader("X-Sharer-User-Id") long userId,
+                                             @PathVariable String holdId) {
+        log.debug("Подтверждение удержания с id = {} пользователем с id = {}.", holdId, userId);
+        return bookingService.confirmHold(userId, holdId);
+    }
+
+    @PostMapping("/waitlist")
+    public BookingIntentDto joinWaitlist(@RequestHeader("X-Sharer-User-Id") long userId,
+                                         @RequestBody BookingDto bookingDto) {
+        log.debug("Добавление в лист ожидания пользователем с id = {}.", userId);
+        return bookingService.joinWaitlist(userId, bookingDto);
+    }
+
     @PatchMapping("/{bookingId}")
     public BookingDtoForResponse approveBooking(@RequestHeader("X-Sharer-User-Id") long userId,
                                                 @PathVariable long bookingId,
@@ -30,6 +66,13 @@ public class BookingController {
         return bookingService.approveBooking(userId, bookingId, approved);
     }
 
+    @PatchMapping("/batch")
+    public List<BookingDecisionResultDto> approveBookings(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                          @RequestBody List<BookingDecisionDto> decisions) {
+        log.debug("Пакетное изменение статуса бронирований пользователем с id = {}.", userId);
+        return bookingService.approveBookings(userId, decisions);
+    }
+
     @GetMapping("/{bookingId}")
     public BookingDtoForResponse getBookingInfo(@RequestHeader("X-Sharer-User-Id") long userId,
                                                 @PathVariable long bookingId) {
@@ -38,26 +81,70 @@ public class BookingController {
     }
 
     @GetMapping
-    public Collection<BookingDtoForResponse> getBookings(@RequestHeader("X-Sharer-User-Id") long userId,
-                                                         @RequestParam(name = "state", required = false,
-                                                                 defaultValue = "ALL") String state,
-                                                         @RequestParam(name = "from",
-                                                                 defaultValue = "0") int from,
-                                                         @RequestParam(name = "size",
-                                                                 defaultValue = "10") int size) {
+    public ResponseEntity<Collection<BookingDtoForResponse>> getBookings(
+            @RequestHeader("X-Sharer-User-Id") long userId,
+            @RequestParam(name = "state", required = false, defaultValue = "ALL") String state,
+            @RequestParam(name = "from", defaultValue = "0") int from,
+            @RequestParam(name = "size", defaultValue = "10") int size,
+            @RequestParam(name = "cursor", required = false) String cursor) {
         log.debug("Получение информации о бронированиях со статусом \"{}\" пользователем с id = {}.", state, userId);
-        return bookingService.getBookings(userId, state, from, size);
+        final Slice<BookingDtoForResponse> bookings = cursor == null
+                ? bookingService.getBookings(userId, state, from, size)
+                : bookingService.getBookings(userId, state, cursor, size);
+        return withNextCursor(bookings);
     }
 
     @GetMapping("/owner")
-    public Collection<BookingDtoForResponse> getBookingsOfOwner(@RequestHeader("X-Sharer-User-Id") long userId,
-                                                                @RequestParam(name = "state", required = false,
-                                                                        defaultValue = "ALL") String state,
-                                                                @RequestParam(name = "from",
-                                                                        defaultValue = "0") int from,
-                                                                @RequestParam(name = "size",
-                                                                        defaultValue = "10") int size) {
+    public ResponseEntity<Collection<BookingDtoForResponse>> getBookingsOfOwner(
+            @RequestHeader("X-Sharer-User-Id") long userId,
+            @RequestParam(name = "state", required = false, defaultValue = "ALL") String state,
+            @RequestParam(name = "from", defaultValue = "0") int from,
+            @RequestParam(name = "size", defaultValue = "10") int size,
+            @RequestParam(name = "cursor", required = false) String cursor) {
         log.debug("Получение информации о бронированиях со статусом \"{}\" владельцем с id = {}.", state, userId);
-        return bookingService.getBookingsOfOwner(userId, state, from, size);
+        final Slice<BookingDtoForResponse> bookings = cursor == null
+                ? bookingService.getBookingsOfOwner(userId, state, from, size)
+                : bookingService.getBookingsOfOwner(userId, state, cursor, size);
+        return withNextCursor(bookings);
+    }
+
+    @GetMapping("/counts")
+    public BookingStateCountsDto getBookingCounts(@RequestHeader("X-Sharer-User-Id") long userId) {
+        log.debug("Получение количества бронирований по статусам пользователем с id = {}.", userId);
+        return bookingService.getBookingCounts(userId);
+    }
+
+    @GetMapping("/owner/counts")
+    public BookingStateCountsDto getBookingCountsOfOwner(@RequestHeader("X-Sharer-User-Id") long userId) {
+        log.debug("Получение количества бронирований по статусам владельцем с id = {}.", userId);
+        return bookingService.getBookingCountsOfOwner(userId);
+    }
+
+    @GetMapping(path = "/owner/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribeToEventsOfOwner(@RequestHeader("X-Sharer-User-Id") long userId) {
+        log.debug("Подписка на события бронирований владельцем с id = {}.", userId);
+        return bookingService.subscribeToEventsOfOwner(userId);
+    }
+
+    @GetMapping(path = "/owner/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportBookingsOfOwner(
+            @RequestHeader("X-Sharer-User-Id") long userId) {
+        log.debug("Выгрузка истории бронирований владельцем с id = {}.", userId);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(bookingService.exportBookingsOfOwner(userId));
+    }
+
+    private static ResponseEntity<Collection<BookingDtoForResponse>> withNextCursor(
+            Slice<BookingDtoForResponse> bookings) {
+        final ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.ok()
+                .header(HAS_MORE_HEADER, String.valueOf(bookings.hasNext()));
+        if (bookings.hasNext()) {
+            final List<BookingDtoForResponse> content = bookings.getContent();
+            final BookingDtoForResponse last = content.get(content.size() - 1);
+            responseBuilder.header(NEXT_CURSOR_HEADER, new BookingCursor(last.getStart(), last.getId()).encode());
+        }
+
+        return responseBuilder.body(bookings.getContent());
     }
 }
\ No newline at end of file
@@ -0,0 +1,202 @@
+package ru.practicum.shareit.booking;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingDtoForResponse;
+import ru.practicum.shareit.booking.dto.BookingEvent;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@Slf4j
+@Component
+public class BookingCurrentCache {
+    private static final int GENERATION_STRIPES = 1024;
+
+    private final Clock clock;
+    private final int window;
+    private final Duration maxTtl;
+    private final Segment bookers;
+    private final Segment owners;
+
+    @Autowired
+    public BookingCurrentCache(BookingRepository bookingRepository,
+                               Clock clock,
+                               @Value("${shareit.booking-current.cache-size:10000}") int cacheSize,
+                               @Value("${shareit.booking-current.window:200}") int window,
+                               @Value("${shareit.booking-current.max-ttl:PT1M}") Duration maxTtl) {
+        this.clock = clock;
+        this.window = window;
+        this.maxTtl = maxTtl;
+        this.bookers = new Segment("бронирующего", cacheSize, bookingRepository::findAllCurrentByBookerId,
+                bookingRepository::findAllCurrentByBookerIdBeforeCursor,
+                bookingRepository::findEarliestStartByBookerIdAndStartNotBefore);
+        this.owners = new Segment("владельца", cacheSize, bookingRepository::findAllCurrentByItemOwnerId,
+                bookingRepository::findAllCurrentByItemOwnerIdBeforeCursor,
+                bookingRepository::findEarliestStartByItemOwnerIdAndStartNotBefore);
+    }
+
+    public Slice<BookingDtoForResponse> getCurrentOfBooker(long bookerId, Pageable pageable) {
+        return bookers.get(bookerId, pageable);
+    }
+
+    public Slice<BookingDtoForResponse> getCurrentOfBooker(long bookerId, BookingCursor cursor, Pageable pageable) {
+        return bookers.get(bookerId, cursor, pageable);
+    }
+
+    public Slice<BookingDtoForResponse> getCurrentOfOwner(long ownerId, Pageable pageable) {
+        return owners.get(ownerId, pageable);
+    }
+
+    public Slice<BookingDtoForResponse> getCurrentOfOwner(long ownerId, BookingCursor cursor, Pageable pageable) {
+        return owners.get(ownerId, cursor, pageable);
+    }
+
+    @TransactionalEventListener
+    public void onBookingEvent(BookingEvent event) {
+        bookers.evict(event.getBooking().getBooker().getId());
+        owners.evict(event.getOwnerId());
+    }
+
+    private static List<BookingDtoForResponse> before(List<BookingDtoForResponse> bookings, BookingCursor cursor) {
+        return bookings.stream()
+                .filter(booking -> booking.getStart().isBefore(cursor.getStart())
+                        || booking.getStart().isEqual(cursor.getStart()) && booking.getId() < cursor.getId())
+                .collect(Collectors.toList());
+    }
+
+    private static Slice<BookingDtoForResponse> toSlice(List<BookingDtoForResponse> bookings, Pageable pageable) {
+        final int from = (int) Math.min(pageable.getOffset(), bookings.size());
+        final int to = Math.min(from + pageable.getPageSize(), bookings.size());
+        return new SliceImpl<>(bookings.subList(from, to), pageable, to < bookings.size());
+    }
+
+    private static int stripeOf(long userId) {
+        return (int) (userId & (GENERATION_STRIPES - 1));
+    }
+
+    private class Segment {
+        private final String role;
+        private final Map<Long, CurrentBookings> entries;
+        private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+        private final CurrentLoader currentLoader;
+        private final CurrentBeforeCursorLoader beforeCursorLoader;
+        private final BiFunction<Long, LocalDateTime, Optional<LocalDateTime>> nextStartLoader;
+
+        Segment(String role, int cacheSize,
+                CurrentLoader currentLoader,
+                CurrentBeforeCursorLoader beforeCursorLoader,
+                BiFunction<Long, LocalDateTime, Optional<LocalDateTime>> nextStartLoader) {
+            this.role = role;
+            this.currentLoader = currentLoader;
+            this.beforeCursorLoader = beforeCursorLoader;
+            this.nextStartLoader = nextStartLoader;
+            this.entries = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Long, CurrentBookings> eldest) {
+                    return size() > cacheSize;
+                }
+            });
+        }
+
+        Slice<BookingDtoForResponse> get(long userId, Pageable pageable) {
+            final LocalDateTime now = LocalDateTime.now(clock);
+            final CurrentBookings current = load(userId, now);
+            if (current.complete || pageable.getOffset() + pageable.getPageSize() < current.bookings.size()) {
+                return toSlice(current.bookings, pageable);
+            }
+
+            return currentLoader.load(userId, now, pageable);
+        }
+
+        Slice<BookingDtoForResponse> get(long userId, BookingCursor cursor, Pageable pageable) {
+            final LocalDateTime now = LocalDateTime.now(clock);
+            final CurrentBookings current = load(userId, now);
+            final List<BookingDtoForResponse> bookings = before(current.bookings, cursor);
+            if (current.complete || pageable.getOffset() + pageable.getPageSize() < bookings.size()) {
+                return toSlice(bookings, pageable);
+            }
+
+            return beforeCursorLoader.load(userId, now, cursor.getStart(), cursor.getId(), pageable);
+        }
+
+        private CurrentBookings load(long userId, LocalDateTime now) {
+            final CurrentBookings cached = entries.get(userId);
+            if (cached != null && now.isBefore(cached.validUntil)) {
+                return cached;
+            }
+
+            final int stripe = stripeOf(userId);
+            final long generation = generations.get(stripe);
+            final Slice<BookingDtoForResponse> head = currentLoader.load(userId, now, PageRequest.of(0, window));
+            final List<BookingDtoForResponse> bookings = List.copyOf(head.getContent());
+            final LocalDateTime validUntil = Stream.of(
+                            bookings.stream().map(BookingDtoForResponse::getEnd),
+                            nextStartLoader.apply(userId, now).stream(),
+                            Stream.of(now.plus(maxTtl)))
+                    .flatMap(Function.identity())
+                    .min(Comparator.naturalOrder())
+                    .orElseThrow();
+            final CurrentBookings current = new CurrentBookings(bookings, !head.hasNext(), validUntil);
+            synchronized (entries) {
+                if (generations.get(stripe) == generation) {
+                    entries.put(userId, current);
+                }
+            }
+
+            log.debug("Загружено текущих бронирований {} с id = {}: {}, действительны до {}.", role, userId,
+                    bookings.size(), validUntil);
+            return current;
+        }
+
+        void evict(long userId) {
+            synchronized (entries) {
+                generations.incrementAndGet(stripeOf(userId));
+                entries.remove(userId);
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface CurrentLoader {
+        Slice<BookingDtoForResponse> load(long userId, LocalDateTime now, Pageable pageable);
+    }
+
+    @FunctionalInterface
+    private interface CurrentBeforeCursorLoader {
+        Slice<BookingDtoForResponse> load(long userId, LocalDateTime now, LocalDateTime start, Long id,
+                                          Pageable pageable);
+    }
+
+    private static class CurrentBookings {
+        private final List<BookingDtoForResponse> bookings;
+        private final boolean complete;
+        private final LocalDateTime validUntil;
+
+        CurrentBookings(List<BookingDtoForResponse> bookings, boolean complete, LocalDateTime validUntil) {
+            this.bookings = bookings;
+            this.complete = complete;
+            this.validUntil = validUntil;
+        }
+    }
+}
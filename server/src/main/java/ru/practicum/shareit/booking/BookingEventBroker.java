@@ -0,0 +1,156 @@
+package ru.practicum.shareit.booking;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.booking.dto.BookingEvent;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Slf4j
+@Component
+public class BookingEventBroker {
+    private final ConcurrentMap<Long, Set<Subscriber>> subscribersByOwner = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private final int bufferCapacity;
+    private final long timeoutMillis;
+    private final Executor dispatcher;
+
+    @Autowired
+    public BookingEventBroker(@Value("${shareit.booking-events.buffer-capacity:256}") int bufferCapacity,
+                              @Value("${shareit.booking-events.timeout:PT30M}") Duration timeout,
+                              @Value("${shareit.booking-events.dispatch-threads:4}") int dispatchThreads) {
+        this(bufferCapacity, timeout, Executors.newFixedThreadPool(dispatchThreads, runnable -> {
+            final Thread thread = new Thread(runnable, "booking-events");
+            thread.setDaemon(true);
+            return thread;
+        }));
+    }
+
+    BookingEventBroker(int bufferCapacity, Duration timeout, Executor dispatcher) {
+        this.bufferCapacity = bufferCapacity;
+        this.timeoutMillis = timeout.toMillis();
+        this.dispatcher = dispatcher;
+    }
+
+    public SseEmitter subscribe(long ownerId) {
+        final SseEmitter emitter = createEmitter(timeoutMillis);
+        final Subscriber subscriber = new Subscriber(ownerId, emitter);
+        subscribersByOwner.computeIfAbsent(ownerId, id -> ConcurrentHashMap.newKeySet()).add(subscriber);
+        emitter.onCompletion(() -> unsubscribe(subscriber));
+        emitter.onTimeout(() -> unsubscribe(subscriber));
+        emitter.onError(e -> unsubscribe(subscriber));
+        log.debug("Владелец с id = {} подписался на события бронирований.", ownerId);
+        return emitter;
+    }
+
+    @TransactionalEventListener
+    public void onBookingEvent(BookingEvent event) {
+        publish(event);
+    }
+
+    void publish(BookingEvent event) {
+        final Set<Subscriber> subscribers = subscribersByOwner.getOrDefault(event.getOwnerId(),
+                Collections.emptySet());
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(event);
+        }
+    }
+
+    int getSubscriberCount(long ownerId) {
+        return subscribersByOwner.getOrDefault(ownerId, Collections.emptySet()).size();
+    }
+
+    SseEmitter createEmitter(long timeoutMillis) {
+        return new SseEmitter(timeoutMillis);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribersByOwner.values().forEach(subscribers -> subscribers.forEach(Subscriber::close));
+        if (dispatcher instanceof ExecutorService) {
+            ((ExecutorService) dispatcher).shutdownNow();
+        }
+    }
+
+    private void unsubscribe(Subscriber subscriber) {
+        subscribersByOwner.computeIfPresent(subscriber.ownerId, (id, subscribers) -> {
+            subscribers.remove(subscriber);
+            return subscribers.isEmpty() ? null : subscribers;
+        });
+    }
+
+    private class Subscriber {
+        private final long ownerId;
+        private final SseEmitter emitter;
+        private final BlockingQueue<BookingEvent> buffer = new ArrayBlockingQueue<>(bufferCapacity);
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        Subscriber(long ownerId, SseEmitter emitter) {
+            this.ownerId = ownerId;
+            this.emitter = emitter;
+        }
+
+        void offer(BookingEvent event) {
+            if (!buffer.offer(event)) {
+                log.warn("Буфер событий владельца с id = {} переполнен, подписка закрыта.", ownerId);
+                close();
+                return;
+            }
+
+            scheduleDrain();
+        }
+
+        void close() {
+            unsubscribe(this);
+            buffer.clear();
+            emitter.complete();
+        }
+
+        private void scheduleDrain() {
+            if (draining.compareAndSet(false, true)) {
+                dispatcher.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                BookingEvent event;
+                while ((event = buffer.poll()) != null) {
+                    emitter.send(SseEmitter.event()
+                            .id(String.valueOf(sequence.incrementAndGet()))
+                            .name(event.getType().name())
+                            .data(event.getBooking(), MediaType.APPLICATION_JSON));
+                }
+            } catch (IOException | IllegalStateException e) {
+                log.debug("Не удалось отправить событие владельцу с id = {}: {}", ownerId, e.getMessage());
+                unsubscribe(this);
+                buffer.clear();
+                return;
+            } finally {
+                draining.set(false);
+            }
+
+            if (!buffer.isEmpty()) {
+                scheduleDrain();
+            }
+        }
+    }
+}
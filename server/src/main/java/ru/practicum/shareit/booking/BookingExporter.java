@@ -0,0 +1,105 @@
+package ru.practicum.shareit.booking;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.booking.dto.BookingDtoForResponse;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.stream.Stream;
+
+@Slf4j
+@Component
+public class BookingExporter {
+    private static final Comparator<BookingDtoForResponse> BY_START_DESC = Comparator
+            .comparing(BookingDtoForResponse::getStart)
+            .thenComparing(BookingDtoForResponse::getId)
+            .reversed();
+
+    private final BookingRepository bookingRepository;
+    private final BookingArchiveRepository bookingArchiveRepository;
+    private final ObjectWriter writer;
+    private final TransactionTemplate transactionTemplate;
+
+    public BookingExporter(BookingRepository bookingRepository,
+                           BookingArchiveRepository bookingArchiveRepository,
+                           ObjectMapper objectMapper,
+                           PlatformTransactionManager transactionManager) {
+        this.bookingRepository = bookingRepository;
+        this.bookingArchiveRepository = bookingArchiveRepository;
+        this.writer = objectMapper.writer()
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    public StreamingResponseBody exportOfOwner(long ownerId) {
+        return out -> transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<BookingDtoForResponse> hot = bookingRepository.streamAllByItemOwnerId(ownerId);
+                 Stream<BookingDtoForResponse> archived = bookingArchiveRepository.streamAllByItemOwnerId(ownerId)) {
+                final long written = write(merge(hot.iterator(), archived.iterator()), out);
+                log.debug("Выгружено бронирований вещей владельца с id = {}: {}.", ownerId, written);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private long write(Iterator<BookingDtoForResponse> bookings, OutputStream out) throws IOException {
+        long written = 0;
+        try (JsonGenerator generator = writer.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+            while (bookings.hasNext()) {
+                writer.writeValue(generator, bookings.next());
+                generator.writeRaw('\n');
+                written++;
+            }
+        }
+
+        return written;
+    }
+
+    private static Iterator<BookingDtoForResponse> merge(Iterator<BookingDtoForResponse> first,
+                                                         Iterator<BookingDtoForResponse> second) {
+        return new Iterator<>() {
+            private BookingDtoForResponse nextOfFirst = first.hasNext() ? first.next() : null;
+            private BookingDtoForResponse nextOfSecond = second.hasNext() ? second.next() : null;
+
+            @Override
+            public boolean hasNext() {
+                return nextOfFirst != null || nextOfSecond != null;
+            }
+
+            @Override
+            public BookingDtoForResponse next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+
+                final BookingDtoForResponse next;
+                if (nextOfSecond == null
+                        || nextOfFirst != null && BY_START_DESC.compare(nextOfFirst, nextOfSecond) <= 0) {
+                    next = nextOfFirst;
+                    nextOfFirst = first.hasNext() ? first.next() : null;
+                } else {
+                    next = nextOfSecond;
+                    nextOfSecond = second.hasNext() ? second.next() : null;
+                }
+
+                return next;
+            }
+        };
+    }
+}
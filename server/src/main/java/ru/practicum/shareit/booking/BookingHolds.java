@@ -0,0 +1,210 @@
+package ru.practicum.shareit.booking;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.exception.BookingConflictException;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Slf4j
+@Component
+public class BookingHolds {
+    private final BookingIntervalIndex bookingIntervalIndex;
+    private final Clock clock;
+    private final Duration ttl;
+    private final Duration tickPeriod;
+    private final long ticksPerTtl;
+    private final List<Queue<Hold>> wheel;
+    private final AtomicLong currentTick = new AtomicLong();
+    private final ConcurrentMap<Long, ItemHolds> holdsByItem = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Hold> holdsById = new ConcurrentHashMap<>();
+    private ScheduledExecutorService ticker;
+
+    @Autowired
+    public BookingHolds(BookingIntervalIndex bookingIntervalIndex,
+                        Clock clock,
+                        @Value("${shareit.booking-hold.ttl:PT5S}") Duration ttl,
+                        @Value("${shareit.booking-hold.tick:PT0.1S}") Duration tick) {
+        this.bookingIntervalIndex = bookingIntervalIndex;
+        this.clock = clock;
+        this.ttl = ttl;
+        this.tickPeriod = tick;
+        this.ticksPerTtl = Math.max(1, (ttl.toMillis() + tick.toMillis() - 1) / tick.toMillis());
+        this.wheel = new ArrayList<>();
+        for (int i = 0; i <= ticksPerTtl; i++) {
+            this.wheel.add(new ConcurrentLinkedQueue<>());
+        }
+    }
+
+    public boolean isHeld(long itemId, LocalDateTime start, LocalDateTime end) {
+        return bookingIntervalIndex.hasConflict(itemId, start, end)
+                || isHeldByOthers(itemId, null, start, end);
+    }
+
+    public boolean isHeldByOthers(long itemId, Long bookerId, LocalDateTime start, LocalDateTime end) {
+        final ItemHolds itemHolds = holdsByItem.get(itemId);
+        return itemHolds != null && itemHolds.overlaps(bookerId, start, end, LocalDateTime.now(clock));
+    }
+
+    public Hold hold(long itemId, long bookerId, LocalDateTime start, LocalDateTime end) {
+        final LocalDateTime now = LocalDateTime.now(clock);
+        final Hold hold = new Hold(UUID.randomUUID().toString(), itemId, bookerId, start, end, now.plus(ttl));
+        if (bookingIntervalIndex.hasConflict(itemId, start, end)) {
+            log.error("Период удержания вещи с id = {} пересекается с существующим бронированием!", itemId);
+            throw new BookingConflictException(itemId);
+        }
+
+        holdsByItem.compute(itemId, (id, existing) -> {
+            final ItemHolds itemHolds = existing == null ? new ItemHolds() : existing;
+            if (!itemHolds.tryAdd(hold, now)) {
+                log.error("Период удержания вещи с id = {} пересекается с другим удержанием!", itemId);
+                throw new BookingConflictException(itemId);
+            }
+
+            return itemHolds;
+        });
+        holdsById.put(hold.getId(), hold);
+        wheel.get(slotOf(currentTick.get() + ticksPerTtl)).add(hold);
+        return hold;
+    }
+
+    public Optional<Hold> get(String holdId, long bookerId) {
+        final LocalDateTime now = LocalDateTime.now(clock);
+        return Optional.ofNullable(holdsById.get(holdId))
+                .filter(hold -> hold.getBookerId() == bookerId)
+                .filter(hold -> !hold.isExpiredAt(now));
+    }
+
+    public void release(Hold hold) {
+        holdsById.remove(hold.getId(), hold);
+        holdsByItem.computeIfPresent(hold.getItemId(), (id, itemHolds) -> itemHolds.remove(hold) ? null : itemHolds);
+    }
+
+    @PostConstruct
+    public void start() {
+        ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "booking-holds");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ticker.scheduleAtFixedRate(() -> {
+            try {
+                tick();
+            } catch (RuntimeException e) {
+                log.error("Ошибка при снятии просроченных удержаний вещей.", e);
+            }
+        }, tickPeriod.toMillis(), tickPeriod.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (ticker != null) {
+            ticker.shutdownNow();
+        }
+    }
+
+    void tick() {
+        final LocalDateTime now = LocalDateTime.now(clock);
+        final long tick = currentTick.incrementAndGet();
+        final Queue<Hold> slot = wheel.get(slotOf(tick));
+        final List<Hold> pending = new ArrayList<>();
+        int released = 0;
+        Hold hold;
+        while ((hold = slot.poll()) != null) {
+            if (hold.isExpiredAt(now)) {
+                release(hold);
+                released++;
+            } else {
+                pending.add(hold);
+            }
+        }
+
+        pending.forEach(wheel.get(slotOf(tick + 1))::add);
+        if (released > 0) {
+            log.debug("Снято просроченных удержаний вещей: {}.", released);
+        }
+    }
+
+    int size() {
+        return holdsById.size();
+    }
+
+    private int slotOf(long tick) {
+        return (int) (tick % wheel.size());
+    }
+
+    @Getter
+    public static class Hold {
+        private final String id;
+        private final long itemId;
+        private final long bookerId;
+        private final LocalDateTime start;
+        private final LocalDateTime end;
+        private final LocalDateTime expiresAt;
+
+        private Hold(String id, long itemId, long bookerId, LocalDateTime start, LocalDateTime end,
+                     LocalDateTime expiresAt) {
+            this.id = id;
+            this.itemId = itemId;
+            this.bookerId = bookerId;
+            this.start = start;
+            this.end = end;
+            this.expiresAt = expiresAt;
+        }
+
+        boolean isExpiredAt(LocalDateTime now) {
+            return !now.isBefore(expiresAt);
+        }
+    }
+
+    private static class ItemHolds {
+        private final List<Hold> holds = new ArrayList<>();
+
+        synchronized boolean tryAdd(Hold hold, LocalDateTime now) {
+            holds.removeIf(existing -> existing.isExpiredAt(now));
+            if (overlaps(null, hold.getStart(), hold.getEnd(), now)) {
+                return false;
+            }
+
+            holds.add(hold);
+            return true;
+        }
+
+        synchronized boolean remove(Hold hold) {
+            holds.remove(hold);
+            return holds.isEmpty();
+        }
+
+        synchronized boolean overlaps(Long exceptBookerId, LocalDateTime start, LocalDateTime end,
+                                      LocalDateTime now) {
+            for (Hold hold : holds) {
+                if (!hold.isExpiredAt(now)
+                        && (exceptBookerId == null || hold.getBookerId() != exceptBookerId)
+                        && hold.getStart().isBefore(end) && hold.getEnd().isAfter(start)) {
+                    return true;
+                }
+            }
+
+            return false;
+        }
+    }
+}
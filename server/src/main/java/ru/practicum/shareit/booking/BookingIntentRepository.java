@@ -0,0 +1,21 @@
+package ru.practicum.shareit.booking;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import ru.practicum.shareit.booking.model.BookingIntent;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface BookingIntentRepository extends JpaRepository<BookingIntent, Long> {
+    @EntityGraph(attributePaths = {"item", "booker"})
+    List<BookingIntent> findAllByItemIdInOrderByCreatedAscIdAsc(Collection<Long> itemIds);
+
+    @Query("select distinct intent.item.id " +
+            "from BookingIntent intent " +
+            "where intent.item.id > :afterId " +
+            "order by intent.item.id asc")
+    List<Long> findItemIdsAfter(Long afterId, Pageable pageable);
+}
@@ -0,0 +1,239 @@
+package ru.practicum.shareit.booking;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.model.BookingInterval;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.exception.BookingConflictException;
+import ru.practicum.shareit.util.TransactionCallbacks;
+
+import javax.annotation.PostConstruct;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BookingIntervalIndex {
+    public static final Collection<BookingStatus> BLOCKING_STATUSES = List.of(BookingStatus.WAITING, BookingStatus.APPROVED);
+
+    private final BookingRepository bookingRepository;
+    private final ConcurrentMap<Long, ItemIntervals> intervalsByItem = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+
+    @PostConstruct
+    public void load() {
+        intervalsByItem.clear();
+        final Collection<BookingInterval> intervals = bookingRepository.findAllIntervalsByStatusIn(BLOCKING_STATUSES);
+        int overlapping = 0;
+        for (BookingInterval interval : intervals) {
+            final ItemIntervals itemIntervals = getItemIntervals(interval.getItemId());
+            final Reservation reservation = new Reservation(itemIntervals, interval.getStart(), interval.getEnd(),
+                    sequence.incrementAndGet());
+            if (!itemIntervals.add(reservation)) {
+                log.warn("Бронирование с id = {} пересекается с другим бронированием вещи с id = {}!",
+                        interval.getBookingId(), interval.getItemId());
+                overlapping++;
+            }
+
+            reservation.bind(interval.getBookingId());
+            itemIntervals.confirm(reservation, sequence.incrementAndGet());
+        }
+
+        log.debug("Загружено периодов бронирований в индекс: {}, из них пересекающихся: {}.", intervals.size(),
+                overlapping);
+    }
+
+    public Reservation reserve(long itemId, LocalDateTime start, LocalDateTime end) {
+        final ItemIntervals itemIntervals = getItemIntervals(itemId);
+        final Reservation reservation = new Reservation(itemIntervals, start, end, sequence.incrementAndGet());
+        if (!itemIntervals.tryAdd(reservation)
+                && !(resyncIfStale(itemId, itemIntervals, start, end) && itemIntervals.tryAdd(reservation))) {
+            log.error("Период бронирования вещи с id = {} пересекается с существующим бронированием!", itemId);
+            throw new BookingConflictException(itemId);
+        }
+
+        TransactionCallbacks.runAfterRollback(() -> itemIntervals.remove(reservation));
+        TransactionCallbacks.runAfterCommit(() -> itemIntervals.confirm(reservation, sequence.incrementAndGet()));
+        return reservation;
+    }
+
+    public void release(long itemId, long bookingId) {
+        TransactionCallbacks.runAfterCommit(() -> getItemIntervals(itemId).removeBooking(bookingId));
+    }
+
+    public boolean hasConflict(long itemId, LocalDateTime start, LocalDateTime end) {
+        final ItemIntervals itemIntervals = intervalsByItem.get(itemId);
+        if (itemIntervals == null || !itemIntervals.overlaps(start, end)) {
+            return false;
+        }
+
+        return !resyncIfStale(itemId, itemIntervals, start, end) || itemIntervals.overlaps(start, end);
+    }
+
+    private boolean resyncIfStale(long itemId, ItemIntervals itemIntervals, LocalDateTime start, LocalDateTime end) {
+        if (!itemIntervals.overlapsConfirmed(start, end)) {
+            return false;
+        }
+
+        final long watermark = sequence.get();
+        final List<BookingInterval> committed = bookingRepository.findIntervalsByItemIdAndStatusIn(itemId,
+                BLOCKING_STATUSES);
+        final int removed = itemIntervals.resync(committed, watermark, sequence);
+        if (removed > 0) {
+            log.debug("Из индекса удалено снятых бронирований вещи с id = {}: {}.", itemId, removed);
+        }
+
+        return removed > 0;
+    }
+
+    private ItemIntervals getItemIntervals(long itemId) {
+        return intervalsByItem.computeIfAbsent(itemId, id -> new ItemIntervals());
+    }
+
+    @Getter
+    public static class Reservation {
+        @Getter(AccessLevel.NONE)
+        private final ItemIntervals itemIntervals;
+        private final LocalDateTime start;
+        private final LocalDateTime end;
+        private final long sequence;
+        @Getter(AccessLevel.NONE)
+        private Long bookingId;
+        @Getter(AccessLevel.NONE)
+        private long confirmedAt;
+
+        private Reservation(ItemIntervals itemIntervals, LocalDateTime start, LocalDateTime end, long sequence) {
+            this.itemIntervals = itemIntervals;
+            this.start = start;
+            this.end = end;
+            this.sequence = sequence;
+        }
+
+        public void bind(Long bookingId) {
+            if (bookingId != null) {
+                itemIntervals.bind(bookingId, this);
+            }
+        }
+    }
+
+    private static class ItemIntervals {
+        private static final Comparator<Reservation> BY_START = Comparator
+                .comparing(Reservation::getStart)
+                .thenComparingLong(Reservation::getSequence);
+
+        private final NavigableSet<Reservation> intervals = new TreeSet<>(BY_START);
+        private final List<Reservation> overlapping = new ArrayList<>();
+        private final Map<Long, Reservation> byBookingId = new HashMap<>();
+
+        synchronized boolean tryAdd(Reservation reservation) {
+            if (overlaps(reservation.getStart(), reservation.getEnd())) {
+                return false;
+            }
+
+            intervals.add(reservation);
+            return true;
+        }
+
+        synchronized boolean add(Reservation reservation) {
+            if (tryAdd(reservation)) {
+                return true;
+            }
+
+            overlapping.add(reservation);
+            return false;
+        }
+
+        synchronized void bind(long bookingId, Reservation reservation) {
+            if (intervals.contains(reservation) || overlapping.contains(reservation)) {
+                reservation.bookingId = bookingId;
+                byBookingId.put(bookingId, reservation);
+            }
+        }
+
+        synchronized void confirm(Reservation reservation, long confirmedAt) {
+            reservation.confirmedAt = confirmedAt;
+        }
+
+        synchronized boolean overlapsConfirmed(LocalDateTime start, LocalDateTime end) {
+            return byBookingId.values().stream()
+                    .anyMatch(reservation -> reservation.confirmedAt > 0
+                            && reservation.getStart().isBefore(end) && reservation.getEnd().isAfter(start));
+        }
+
+        synchronized int resync(Collection<BookingInterval> committed, long watermark, AtomicLong sequence) {
+            final Set<Long> committedIds = committed.stream()
+                    .map(BookingInterval::getBookingId)
+                    .collect(Collectors.toSet());
+            int removed = 0;
+            final Iterator<Reservation> iterator = byBookingId.values().iterator();
+            while (iterator.hasNext()) {
+                final Reservation reservation = iterator.next();
+                if (reservation.confirmedAt > 0 && reservation.confirmedAt <= watermark
+                        && !committedIds.contains(reservation.bookingId)) {
+                    iterator.remove();
+                    intervals.remove(reservation);
+                    overlapping.remove(reservation);
+                    removed++;
+                }
+            }
+
+            for (BookingInterval interval : committed) {
+                if (!byBookingId.containsKey(interval.getBookingId())) {
+                    final Reservation reservation = new Reservation(this, interval.getStart(), interval.getEnd(),
+                            sequence.incrementAndGet());
+                    add(reservation);
+                    bind(interval.getBookingId(), reservation);
+                    reservation.confirmedAt = sequence.incrementAndGet();
+                }
+            }
+
+            return removed;
+        }
+
+        synchronized void remove(Reservation reservation) {
+            intervals.remove(reservation);
+            overlapping.remove(reservation);
+            byBookingId.values().remove(reservation);
+        }
+
+        synchronized void removeBooking(long bookingId) {
+            final Reservation reservation = byBookingId.remove(bookingId);
+            if (reservation != null) {
+                intervals.remove(reservation);
+                overlapping.remove(reservation);
+            }
+        }
+
+        synchronized boolean overlaps(LocalDateTime start, LocalDateTime end) {
+            final Reservation previous = intervals.lower(probe(end, Long.MIN_VALUE));
+            if (previous != null && previous.getEnd().isAfter(start)) {
+                return true;
+            }
+
+            return overlapping.stream()
+                    .anyMatch(reservation -> reservation.getStart().isBefore(end)
+                            && reservation.getEnd().isAfter(start));
+        }
+
+        private static Reservation probe(LocalDateTime start, long sequence) {
+            return new Reservation(null, start, start, sequence);
+        }
+    }
+}
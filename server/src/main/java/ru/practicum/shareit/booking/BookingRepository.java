@@ -1,81 +1,357 @@
 package ru.practicum.shareit.booking;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import ru.practicum.shareit.booking.dto.BookingDtoForResponse;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingInterval;
+import ru.practicum.shareit.booking.model.BookingStateTotals;
 import ru.practicum.shareit.booking.model.BookingStatus;
-import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
 
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
 public interface BookingRepository extends JpaRepository<Booking, Long> {
+    String BOOKING_RESPONSE_PROJECTION = "select new ru.practicum.shareit.booking.dto.BookingDtoForResponse(" +
+            "bkg.id, bkg.status, bkg.start, bkg.end, bkg.booker.id, bkg.item.id, bkg.item.name) ";
 
-    Page<Booking> getAllByBookerOrderByStartDesc(User booker, Pageable pageable);
+    String BOOKING_STATE_TOTALS = "count(bkg), " +
+            "sum(case when bkg.status = :waiting then 1 else 0 end), " +
+            "sum(case when bkg.status = :rejected then 1 else 0 end), " +
+            "sum(case when bkg.start < :now and bkg.end > :now then 1 else 0 end), " +
+            "sum(case when bkg.end < :now then 1 else 0 end), " +
+            "sum(case when bkg.start > :now then 1 else 0 end), " +
+            "min(case when bkg.start > :now then bkg.start end), " +
+            "min(case when bkg.start <= :now and bkg.end > :now then bkg.end end)) ";
 
-    @Query("select bkg " +
+    String EXPORT_FETCH_SIZE = "500";
+
+    String SKIP_LOCKED = "-2";
+
+    @Override
+    @EntityGraph(Booking.ITEM_AND_BOOKER_GRAPH)
+    Optional<Booking> findById(Long id);
+
+    @Query(BOOKING_RESPONSE_PROJECTION +
             "from Booking bkg " +
             "where bkg.booker = :booker " +
-            "AND bkg.start < current_timestamp " +
-            "AND bkg.end > current_timestamp " +
-            "order by bkg.start desc")
-    Page<Booking> getAllCurrentByBookerOrderByStartDesc(User booker, Pageable pageable);
+            "order by bkg.start desc, bkg.id desc")
+    Slice<BookingDtoForResponse> getAllByBookerOrderByStartDesc(User booker, Pageable pageable);
 
-    @Query("select bkg " +
+    @Query(BOOKING_RESPONSE_PROJECTION +
+            "from Booking bkg " +
+            "where bkg.booker.id = :bookerId " +
+            "AND bkg.start < :now " +
+            "AND bkg.end > :now " +
+            "order by bkg.start desc, bkg.id desc")
+    Slice<BookingDtoForResponse> findAllCurrentByBookerId(long bookerId, LocalDateTime now, Pageable pageable);
+
+    @Query(BOOKING_RESPONSE_PROJECTION +
+            "from Booking bkg " +
+            "where bkg.booker.id = :bookerId " +
+            "AND bkg.start < :now " +
+            "AND bkg.end > :now " +
+            "AND (bkg.start < :start or (bkg.start = :start and bkg.id < :id)) " +
+            "order by bkg.start desc, bkg.id desc")
+    Slice<BookingDtoForResponse> findAllCurrentByBookerIdBeforeCursor(long bookerId, LocalDateTime now,
+                                                                      LocalDateTime start, Long id, Pageable pageable);
+
+    @Query("select min(bkg.start) " +
+            "from Booking bkg " +
+            "where bkg.booker.id = :bookerId " +
+            "AND bkg.start >= :now")
+    Optional<LocalDateTime> findEarliestStartByBookerIdAndStartNotBefore(long bookerId, LocalDateTime now);
+
+    @Query(BOOKING_RESPONSE_PROJECTION +
             "from Booking bkg " +
             "where bkg.booker = :booker " +
             "AND bkg.end < current_timestamp " +
-            "order by bkg.start desc")
-    Page<Booking> getAllPastByBookerOrderByStartDesc(User booker, Pageable pageable);
+            "order by bkg.start desc, bkg.id desc")
+    Slice<BookingDtoForResponse> getAllPastByBookerOrderByStartDesc(User booker, Pageable pageable);
 
-    @Query("select bkg " +
+    @Query(BOOKING_RESPONSE_PROJECTION +
             "from Booking bkg " +
             "where bkg.booker = :booker " +
             "AND bkg.start > current_timestamp " +
-            "order by bkg.start desc")
-    Page<Booking> getAllFutureByBookerOrderByStartDesc(User booker, Pageable pageable);
-
-    Page<Booking> getAllByBookerAndStatusOrderByStartDesc(User booker, BookingStatus status, Pageable pageable);
+            "order by bkg.start desc, bkg.id desc")
+    Slice<BookingDtoForResponse> getAllFutureByBookerOrderByStartDesc(User booker, Pageable pageable);
 
-    Page<Booking> getAllByItemOwnerOrderByStartDesc(User owner, Pageable pageable);
+    @Query(BOOKING_RESPONSE_PROJECTION +
+            "from Booking bkg " +
+            "where bkg.booker = :booker " +
+            "AND bkg.status = :status " +
+            "order by bkg.start desc, bkg.id desc")
+    Slice<BookingDtoForResponse> getAllByBookerAndStatusOrderByStartDesc(User booker, BookingStatus status,
+                                                                         Pageable pageable);
 
-    @Query("select bkg " +
+    @Query(BOOKING_RESPONSE_PROJECTION +
             "from Booking bkg " +
             "where bkg.item.owner = :owner " +
-            "AND bkg.start < current_timestamp " +
-            "AND bkg.end > current_timestamp " +
-            "order by bkg.start desc")
-    Page<Booking> getAllCurrentByItemOwnerOrderByStartDesc(User owner, Pageable pageable);
+            "order by bkg.start desc, bkg.id desc")
+    Slice<BookingDtoForResponse> getAllByItemOwnerOrderByStartDesc(User owner, Pageable pageable);
 
-    @Query("select bkg " +
+    @Query(BOOKING_RESPONSE_PROJECTION +
+            "from Booking bkg " +
+            "where bkg.item.owner.id = :ownerId " +
+            "AND bkg.start < :now " +
+            "AND bkg.end > :now " +
+            "order by bkg.start desc, bkg.id desc")
+    Slice<BookingDtoForResponse> findAllCurrentByItemOwnerId(long ownerId, LocalDateTime now, Pageable pageable);
+
+    @Query(BOOKING_RESPONSE_PROJECTION +
+            "from Booking bkg " +
+            "where bkg.item.owner.id = :ownerId " +
+            "AND bkg.start < :now " +
+            "AND bkg.end > :now " +
+            "AND (bkg.start < :start or (bkg.start = :start and bkg.id < :id)) " +
+            "order by bkg.start desc, bkg.id desc")
+    Slice<BookingDtoForResponse> findAllCurrentByItemOwnerIdBeforeCursor(long ownerId, LocalDateTime now,
+                                                                         LocalDateTime start, Long id,
+                                                                         Pageable pageable);
+
+    @Query("select min(bkg.start) " +
+            "from Booking bkg " +
+            "where bkg.item.owner.id = :ownerId " +
+            "AND bkg.start >= :now")
+    Optional<LocalDateTime> findEarliestStartByItemOwnerIdAndStartNotBefore(long ownerId, LocalDateTime now);
+
+    @Query(BOOKING_RESPONSE_PROJECTION +
             "from Booking bkg " +
             "where bkg.item.owner = :owner " +
             "AND bkg.end < current_timestamp " +
-            "order by bkg.start desc")
-    Page<Booking> getAllPastByItemOwnerOrderByStartDesc(User owner, Pageable pageable);
+            "order by bkg.start desc, bkg.id desc")
+    Slice<BookingDtoForResponse> getAllPastByItemOwnerOrderByStartDesc(User owner, Pageable pageable);
 
-    @Query("select bkg " +
+    @Query(BOOKING_RESPONSE_PROJECTION +
             "from Booking bkg " +
             "where bkg.item.owner = :owner " +
             "AND bkg.start > current_timestamp " +
-            "order by bkg.start desc")
-    Page<Booking> getAllFutureByItemOwnerOrderByStartDesc(User owner, Pageable pageable);
+            "order by bkg.start desc, bkg.id desc")
+    Slice<BookingDtoForResponse> getAllFutureByItemOwnerOrderByStartDesc(User owner, Pageable pageable);
 
-    Page<Booking> getAllByItemOwnerAndStatusOrderByStartDesc(User owner, BookingStatus status, Pageable pageable);
+    @Query(BOOKING_RESPONSE_PROJECTION +
+            "from Booking bkg " +
+            "where bkg.item.owner = :owner " +
+            "AND bkg.status = :status " +
+            "order by bkg.start desc, bkg.id desc")
+    Slice<BookingDtoForResponse> getAllByItemOwnerAndStatusOrderByStartDesc(User owner, BookingStatus status,
+                                                                            Pageable pageable);
+
+    @Query(BOOKING_RESPONSE_PROJECTION +
+            "from Booking bkg " +
+            "where bkg.item.owner.id = :ownerId " +
+            "order by bkg.start desc, bkg.id desc")
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE))
+    Stream<BookingDtoForResponse> streamAllByItemOwnerId(long ownerId);
 
     @Query("select bkg " +
             "from Booking bkg " +
-            "where bkg.item = :item " +
-            "AND bkg.start < current_timestamp " +
-            "or bkg.end < current_timestamp " +
-            "AND bkg.end > current_timestamp " +
-            "order by bkg.start desc nulls first")
-    Booking getCurrentOrPastBookingByItem(Item item);
+            "join fetch bkg.item item " +
+            "join fetch bkg.booker booker " +
+            "where bkg.id = :bookingId " +
+            "AND (booker.id = :userId or item.owner.id = :userId)")
+    Optional<Booking> findByIdForBookerOrOwner(Long bookingId, Long userId);
 
     @Query("select bkg " +
             "from Booking bkg " +
-            "where bkg.item = :item " +
+            "where bkg.item.id in :itemIds " +
+            "AND bkg.status in :statuses " +
+            "AND bkg.start = (select max(pastBkg.start) " +
+            "from Booking pastBkg " +
+            "where pastBkg.item = bkg.item " +
+            "AND pastBkg.status in :statuses " +
+            "AND pastBkg.start < current_timestamp)")
+    @EntityGraph(Booking.ITEM_AND_BOOKER_GRAPH)
+    List<Booking> findLastBookingsByItemIds(Collection<Long> itemIds, Collection<BookingStatus> statuses);
+
+    @Query("select bkg " +
+            "from Booking bkg " +
+            "where bkg.item.id in :itemIds " +
+            "AND bkg.status in :statuses " +
+            "AND bkg.start = (select min(futureBkg.start) " +
+            "from Booking futureBkg " +
+            "where futureBkg.item = bkg.item " +
+            "AND futureBkg.status in :statuses " +
+            "AND futureBkg.start > current_timestamp)")
+    @EntityGraph(Booking.ITEM_AND_BOOKER_GRAPH)
+    List<Booking> findNextBookingsByItemIds(Collection<Long> itemIds, Collection<BookingStatus> statuses);
+
+    @EntityGraph(Booking.ITEM_AND_BOOKER_GRAPH)
+    List<Booking> findAllByIdIn(Collection<Long> ids);
+
+    @Query("select bkg.item.id " +
+            "from Booking bkg " +
+            "where bkg.id = :bookingId")
+    Optional<Long> findItemIdById(long bookingId);
+
+    @Query("select distinct bkg.item.id " +
+            "from Booking bkg " +
+            "where bkg.id in :ids")
+    List<Long> findItemIdsByIdIn(Collection<Long> ids);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "javax.persistence.lock.timeout", value = SKIP_LOCKED))
+    @Query("select bkg " +
+            "from Booking bkg " +
+            "where bkg.status = :status " +
+            "AND bkg.start < :before " +
+            "order by bkg.start asc, bkg.id asc")
+    List<Booking> findAllByStatusAndStartBeforeForUpdate(BookingStatus status, LocalDateTime before,
+                                                         Pageable pageable);
+
+    @Query("select min(bkg.start) " +
+            "from Booking bkg " +
+            "where bkg.status = :status " +
+            "AND bkg.start < :before")
+    Optional<LocalDateTime> findEarliestStartByStatusAndStartBefore(BookingStatus status, LocalDateTime before);
+
+    @Modifying(clearAutomatically = true)
+    @Query("update Booking bkg " +
+            "set bkg.status = :status, " +
+            "bkg.version = bkg.version + 1 " +
+            "where bkg.id in :ids " +
+            "AND bkg.status = :expected")
+    int updateStatus(Collection<Long> ids, BookingStatus expected, BookingStatus status);
+
+    @Query("select new ru.practicum.shareit.booking.model.BookingStateTotals(bkg.booker.id, " +
+            BOOKING_STATE_TOTALS +
+            "from Booking bkg " +
+            "where bkg.booker.id in :userIds " +
+            "group by bkg.booker.id")
+    List<BookingStateTotals> countStatesByBookerIds(Collection<Long> userIds, LocalDateTime now,
+                                                    BookingStatus waiting, BookingStatus rejected);
+
+    @Query("select new ru.practicum.shareit.booking.model.BookingStateTotals(bkg.item.owner.id, " +
+            BOOKING_STATE_TOTALS +
+            "from Booking bkg " +
+            "where bkg.item.owner.id in :userIds " +
+            "group by bkg.item.owner.id")
+    List<BookingStateTotals> countStatesByOwnerIds(Collection<Long> userIds, LocalDateTime now,
+                                                   BookingStatus waiting, BookingStatus rejected);
+
+    @Query("select new ru.practicum.shareit.booking.model.BookingInterval(bkg.id, bkg.item.id, bkg.start, bkg.end) " +
+            "from Booking bkg " +
+            "where bkg.item.id = :itemId " +
+            "AND bkg.status in :statuses " +
+            "AND bkg.end > :after " +
+            "order by bkg.start asc")
+    List<BookingInterval> findIntervalsByItemIdAndEndAfter(long itemId, Collection<BookingStatus> statuses,
+                                                           LocalDateTime after);
+
+    @Query("select new ru.practicum.shareit.booking.model.BookingInterval(bkg.id, bkg.item.id, bkg.start, bkg.end) " +
+            "from Booking bkg " +
+            "where bkg.status in :statuses")
+    Collection<BookingInterval> findAllIntervalsByStatusIn(Collection<BookingStatus> statuses);
+
+    @Query("select new ru.practicum.shareit.booking.model.BookingInterval(bkg.id, bkg.item.id, bkg.start, bkg.end) " +
+            "from Booking bkg " +
+            "where bkg.item.id = :itemId " +
+            "AND bkg.status in :statuses")
+    List<BookingInterval> findIntervalsByItemIdAndStatusIn(long itemId, Collection<BookingStatus> statuses);
+
+    @Query("select count(bkg) > 0 " +
+            "from Booking bkg " +
+            "where bkg.item.id = :itemId " +
+            "AND bkg.id <> :bookingId " +
+            "AND bkg.status = :status " +
+            "AND bkg.start < :end " +
+            "AND bkg.end > :start")
+    boolean existsOverlappingByStatus(long itemId, long bookingId, BookingStatus status, LocalDateTime start,
+                                      LocalDateTime end);
+
+    @Query("select new ru.practicum.shareit.booking.model.BookingInterval(bkg.id, bkg.item.id, bkg.start, bkg.end) " +
+            "from Booking bkg " +
+            "where bkg.end < :before " +
+            "AND bkg.status <> :excluded " +
+            "order by bkg.end asc, bkg.id asc")
+    List<BookingInterval> findIntervalsByEndBeforeAndStatusNot(LocalDateTime before, BookingStatus excluded,
+                                                               Pageable pageable);
+
+    @Modifying(clearAutomatically = true)
+    @Query("delete from Booking bkg " +
+            "where bkg.id in :ids")
+    int deleteAllByIdIn(Collection<Long> ids);
+
+    @Query(BOOKING_RESPONSE_PROJECTION +
+            "from Booking bkg " +
+            "where bkg.booker = :booker " +
+            "AND (bkg.start < :start or (bkg.start = :start and bkg.id < :id)) " +
+            "order by bkg.start desc, bkg.id desc")
+    Slice<BookingDtoForResponse> getAllByBookerBeforeCursor(User booker, LocalDateTime start, Long id,
+                                                            Pageable pageable);
+
+    @Query(BOOKING_RESPONSE_PROJECTION +
+            "from Booking bkg " +
+            "where bkg.booker = :booker " +
+            "AND bkg.end < current_timestamp " +
+            "AND (bkg.start < :start or (bkg.start = :start and bkg.id < :id)) " +
+            "order by bkg.start desc, bkg.id desc")
+    Slice<BookingDtoForResponse> getAllPastByBookerBeforeCursor(User booker, LocalDateTime start, Long id,
+                                                                Pageable pageable);
+
+    @Query(BOOKING_RESPONSE_PROJECTION +
+            "from Booking bkg " +
+            "where bkg.booker = :booker " +
             "AND bkg.start > current_timestamp " +
-            "order by bkg.start asc nulls last ")
-    Booking getFutureBookingByItem(Item item);
+            "AND (bkg.start < :start or (bkg.start = :start and bkg.id < :id)) " +
+            "order by bkg.start desc, bkg.id desc")
+    Slice<BookingDtoForResponse> getAllFutureByBookerBeforeCursor(User booker, LocalDateTime start, Long id,
+                                                                  Pageable pageable);
+
+    @Query(BOOKING_RESPONSE_PROJECTION +
+            "from Booking bkg " +
+            "where bkg.booker = :booker " +
+            "AND bkg.status = :status " +
+            "AND (bkg.start < :start or (bkg.start = :start and bkg.id < :id)) " +
+            "order by bkg.start desc, bkg.id desc")
+    Slice<BookingDtoForResponse> getAllByBookerAndStatusBeforeCursor(User booker, BookingStatus status,
+                                                                     LocalDateTime start, Long id, Pageable pageable);
+
+    @Query(BOOKING_RESPONSE_PROJECTION +
+            "from Booking bkg " +
+            "where bkg.item.owner = :owner " +
+            "AND (bkg.start < :start or (bkg.start = :start and bkg.id < :id)) " +
+            "order by bkg.start desc, bkg.id desc")
+    Slice<BookingDtoForResponse> getAllByItemOwnerBeforeCursor(User owner, LocalDateTime start, Long id,
+                                                               Pageable pageable);
+
+    @Query(BOOKING_RESPONSE_PROJECTION +
+            "from Booking bkg " +
+            "where bkg.item.owner = :owner " +
+            "AND bkg.end < current_timestamp " +
+            "AND (bkg.start < :start or (bkg.start = :start and bkg.id < :id)) " +
+            "order by bkg.start desc, bkg.id desc")
+    Slice<BookingDtoForResponse> getAllPastByItemOwnerBeforeCursor(User owner, LocalDateTime start, Long id,
+                                                                   Pageable pageable);
+
+    @Query(BOOKING_RESPONSE_PROJECTION +
+            "from Booking bkg " +
+            "where bkg.item.owner = :owner " +
+            "AND bkg.start > current_timestamp " +
+            "AND (bkg.start < :start or (bkg.start = :start and bkg.id < :id)) " +
+            "order by bkg.start desc, bkg.id desc")
+    Slice<BookingDtoForResponse> getAllFutureByItemOwnerBeforeCursor(User owner, LocalDateTime start, Long id,
+                                                                     Pageable pageable);
+
+    @Query(BOOKING_RESPONSE_PROJECTION +
+            "from Booking bkg " +
+            "where bkg.item.owner = :owner " +
+            "AND bkg.status = :status " +
+            "AND (bkg.start < :start or (bkg.start = :start and bkg.id < :id)) " +
+            "order by bkg.start desc, bkg.id desc")
+    Slice<BookingDtoForResponse> getAllByItemOwnerAndStatusBeforeCursor(User owner, BookingStatus status,
+                                                                        LocalDateTime start, Long id,
+                                                                        Pageable pageable);
 }
\ No newline at end of file
@@ -1,19 +1,55 @@
 package ru.practicum.shareit.booking;
 
+import org.springframework.data.domain.Slice;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingDtoForResponse;
+import ru.practicum.shareit.booking.dto.BookingHoldDto;
+import ru.practicum.shareit.booking.dto.BookingIntentDto;
+import ru.practicum.shareit.booking.dto.BookingStateCountsDto;
 
+import java.time.LocalDateTime;
 import java.util.Collection;
+import java.util.List;
 
 public interface BookingService {
 
     BookingDtoForResponse addBooking(Long userId, BookingDto bookingDto);
 
+    BookingHoldDto holdBooking(long userId, BookingDto bookingDto);
+
+    BookingDtoForResponse confirmHold(long userId, String holdId);
+
+    BookingIntentDto joinWaitlist(long userId, BookingDto bookingDto);
+
     BookingDtoForResponse approveBooking(long userId, long bookingId, boolean approved);
 
+    List<BookingDecisionResultDto> approveBookings(long userId, List<BookingDecisionDto> decisions);
+
     BookingDtoForResponse getBookingInfo(long userId, long bookingId);
 
-    Collection<BookingDtoForResponse> getBookings(long userId, String state, int from, int size);
+    Slice<BookingDtoForResponse> getBookings(long userId, String state, int from, int size);
+
+    Slice<BookingDtoForResponse> getBookingsOfOwner(long userId, String state, int from, int size);
+
+    Slice<BookingDtoForResponse> getBookings(long userId, String state, String cursor, int size);
+
+    Slice<BookingDtoForResponse> getBookingsOfOwner(long userId, String state, String cursor, int size);
+
+    SseEmitter subscribeToEventsOfOwner(long userId);
+
+    StreamingResponseBody exportBookingsOfOwner(long userId);
+
+    BookingStateCountsDto getBookingCounts(long userId);
+
+    BookingStateCountsDto getBookingCountsOfOwner(long userId);
+
+    int expireWaitingBookings(LocalDateTime now, int batchSize);
+
+    int archiveBookings(LocalDateTime endedBefore, int batchSize);
 
-    Collection<BookingDtoForResponse> getBookingsOfOwner(long userId, String state, int from, int size);
+    int promoteWaitlist(Collection<Long> itemIds, LocalDateTime now);
 }
\ No newline at end of file
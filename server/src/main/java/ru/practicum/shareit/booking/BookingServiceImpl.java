@@ -2,32 +2,88 @@ package ru.practicum.shareit.booking;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingDtoForResponse;
+import ru.practicum.shareit.booking.dto.BookingEvent;
+import ru.practicum.shareit.booking.dto.BookingHoldDto;
+import ru.practicum.shareit.booking.dto.BookingIntentDto;
 import ru.practicum.shareit.booking.dto.BookingMapper;
+import ru.practicum.shareit.booking.dto.BookingStateCountsDto;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingDecisionOutcome;
+import ru.practicum.shareit.booking.model.BookingEventType;
+import ru.practicum.shareit.booking.model.BookingIntent;
+import ru.practicum.shareit.booking.model.BookingInterval;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.model.BookingStatusChange;
 import ru.practicum.shareit.exception.*;
+import ru.practicum.shareit.item.ItemBookingSummaryService;
+import ru.practicum.shareit.item.ItemLocks;
 import ru.practicum.shareit.item.ItemService;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.UserService;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.util.TransactionCallbacks;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class BookingServiceImpl implements BookingService {
+    private static final Comparator<BookingDtoForResponse> BY_START_DESC = Comparator
+            .comparing(BookingDtoForResponse::getStart)
+            .thenComparing(BookingDtoForResponse::getId)
+            .reversed();
+
     private final UserService userService;
     private final ItemService itemService;
     private final BookingRepository bookingRepository;
+    private final BookingArchiveRepository bookingArchiveRepository;
+    private final BookingIntentRepository bookingIntentRepository;
+    private final BookingIntervalIndex bookingIntervalIndex;
+    private final BookingCurrentCache bookingCurrentCache;
+    private final BookingHolds bookingHolds;
+    private final ItemBookingSummaryService itemBookingSummaryService;
+    private final BookingStateCountersService bookingStateCountersService;
+    private final BookingEventBroker bookingEventBroker;
+    private final BookingExporter bookingExporter;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ItemLocks itemLocks;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${shareit.booking.approve-attempts:3}")
+    private int approveAttempts = 3;
 
     @Override
     @Transactional
@@ -38,8 +94,15 @@ public class BookingServiceImpl implements BookingService {
         bookingDto.setBookerId(userId);
         final Booking booking = BookingMapper.toBooking(bookingDto, item, booker);
         if (item.getAvailable() != null && item.getAvailable()) {
+            validateNotHeldByOthers(item.getId(), userId, booking.getStart(), booking.getEnd());
+            final BookingIntervalIndex.Reservation reservation = bookingIntervalIndex.reserve(item.getId(),
+                    booking.getStart(), booking.getEnd());
             booking.setStatus(BookingStatus.WAITING);
             bookingRepository.save(booking);
+            reservation.bind(booking.getId());
+            itemBookingSummaryService.onBookingCreated(booking);
+            bookingStateCountersService.onBookingCreated(booking);
+            eventPublisher.publishEvent(BookingEvent.of(BookingEventType.BOOKING_CREATED, booking));
         } else {
             log.error("Вещь с id = {} недоступна для бронирования!", bookingDto.getItemId());
             throw new ItemUnavailableException(bookingDto.getItemId());
@@ -48,52 +111,351 @@ public class BookingServiceImpl implements BookingService {
         return BookingMapper.toBookingDtoForResponse(booking);
     }
 
+    @Override
+    public BookingHoldDto holdBooking(long userId, BookingDto bookingDto) {
+        if (bookingHolds.isHeld(bookingDto.getItemId(), bookingDto.getStart(), bookingDto.getEnd())) {
+            log.error("Вещь с id = {} уже удерживается или забронирована на указанный период!",
+                    bookingDto.getItemId());
+            throw new BookingConflictException(bookingDto.getItemId());
+        }
+
+        final User booker = userService.getUser(userId);
+        final Item item = itemService.getItem(bookingDto.getItemId());
+        validateBookerIsOwner(booker, item);
+        if (item.getAvailable() == null || !item.getAvailable()) {
+            log.error("Вещь с id = {} недоступна для бронирования!", bookingDto.getItemId());
+            throw new ItemUnavailableException(bookingDto.getItemId());
+        }
+
+        final BookingHolds.Hold hold = bookingHolds.hold(item.getId(), userId, bookingDto.getStart(),
+                bookingDto.getEnd());
+        log.debug("Вещь с id = {} удерживается пользователем с id = {} до {}.", item.getId(), userId,
+                hold.getExpiresAt());
+        return BookingMapper.toBookingHoldDto(hold);
+    }
+
+    @Override
+    @Transactional
+    public BookingDtoForResponse confirmHold(long userId, String holdId) {
+        final BookingHolds.Hold hold = bookingHolds.get(holdId, userId)
+                .orElseThrow(() -> {
+                    log.error("Удержание с id = {} пользователя с id = {} не найдено или истекло!", holdId, userId);
+                    return new BookingHoldNotFoundException(holdId);
+                });
+        final BookingDtoForResponse booking = addBooking(userId, BookingMapper.toBookingDto(hold));
+        TransactionCallbacks.runAfterCommit(() -> bookingHolds.release(hold));
+        return booking;
+    }
+
     @Override
     @Transactional
+    public BookingIntentDto joinWaitlist(long userId, BookingDto bookingDto) {
+        final User booker = userService.getUser(userId);
+        final Item item = itemService.getItem(bookingDto.getItemId());
+        validateBookerIsOwner(booker, item);
+        if (item.getAvailable() == null || !item.getAvailable()) {
+            log.error("Вещь с id = {} недоступна для бронирования!", bookingDto.getItemId());
+            throw new ItemUnavailableException(bookingDto.getItemId());
+        }
+
+        final BookingIntent intent = BookingMapper.toBookingIntent(bookingDto, item, booker);
+        intent.setCreated(LocalDateTime.now());
+        bookingIntentRepository.save(intent);
+        log.debug("Пользователь с id = {} добавлен в лист ожидания вещи с id = {}.", userId, item.getId());
+        return BookingMapper.toBookingIntentDto(intent);
+    }
+
+    @Override
     public BookingDtoForResponse approveBooking(long userId, long bookingId, boolean approved) {
+        final List<Long> itemIds = bookingRepository.findItemIdById(bookingId)
+                .map(List::of)
+                .orElse(List.of());
+        return itemLocks.withItemLocks(itemIds,
+                () -> executeWithRetry(() -> doApproveBooking(userId, bookingId, approved)));
+    }
+
+    @Override
+    public List<BookingDecisionResultDto> approveBookings(long userId, List<BookingDecisionDto> decisions) {
+        final Set<Long> bookingIds = decisions.stream()
+                .map(BookingDecisionDto::getBookingId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        final List<Long> itemIds = bookingIds.isEmpty() ? List.of() : bookingRepository.findItemIdsByIdIn(bookingIds);
+        return itemLocks.withItemLocks(itemIds,
+                () -> executeWithRetry(() -> doApproveBookings(userId, bookingIds, decisions)));
+    }
+
+    private BookingDtoForResponse doApproveBooking(long userId, long bookingId, boolean approved) {
         final User user = userService.getUser(userId);
         final Booking booking = getBooking(bookingId);
         validateUserIsOwner(user, booking.getItem());
-        validateBookingHaveSameStatus(booking, approved);
-        if (approved) {
-            booking.setStatus(BookingStatus.APPROVED);
-            log.debug("Бронирование с id = {} подтверждено.", bookingId);
-        } else {
-            booking.setStatus(BookingStatus.REJECTED);
-            log.debug("Бронирование с id = {} отклонено.", bookingId);
-        }
-
+        final BookingStatus previousStatus = booking.getStatus();
+        applyDecision(booking, approved);
+        itemBookingSummaryService.onBookingStatusChanged(booking);
+        bookingStateCountersService.onStatusChanged(List.of(BookingStatusChange.of(booking, previousStatus,
+                booking.getStatus())));
+        eventPublisher.publishEvent(BookingEvent.of(BookingEventType.BOOKING_STATUS_CHANGED, booking));
         return BookingMapper
                 .toBookingDtoForResponse(booking);
     }
 
+    private List<BookingDecisionResultDto> doApproveBookings(long userId, Set<Long> bookingIds,
+                                                            List<BookingDecisionDto> decisions) {
+        userService.validateUserExists(userId);
+        final Map<Long, Booking> bookings = bookingRepository.findAllByIdIn(bookingIds).stream()
+                .filter(booking -> booking.getItem().getOwner().getId().equals(userId))
+                .collect(Collectors.toMap(Booking::getId, Function.identity()));
+        final List<BookingDecisionResultDto> results = new ArrayList<>(decisions.size());
+        final Map<Long, Booking> changed = new LinkedHashMap<>();
+        final List<BookingStatusChange> statusChanges = new ArrayList<>();
+        for (BookingDecisionDto decision : decisions) {
+            final Booking booking = bookings.get(decision.getBookingId());
+            if (booking == null) {
+                log.error("Бронирование с id = {} не найдено среди бронирований вещей владельца с id = {}!",
+                        decision.getBookingId(), userId);
+                results.add(toDecisionResult(decision.getBookingId(), BookingDecisionOutcome.NOT_FOUND, null));
+                continue;
+            }
+
+            final BookingStatus previousStatus = booking.getStatus();
+            try {
+                applyDecision(booking, Boolean.TRUE.equals(decision.getApproved()));
+                changed.put(booking.getId(), booking);
+                statusChanges.add(BookingStatusChange.of(booking, previousStatus, booking.getStatus()));
+                results.add(toDecisionResult(booking.getId(), BookingDecisionOutcome.UPDATED, booking.getStatus()));
+            } catch (BookingStatusException e) {
+                results.add(toDecisionResult(booking.getId(), BookingDecisionOutcome.INVALID_STATUS,
+                        booking.getStatus()));
+            } catch (BookingConflictException e) {
+                results.add(toDecisionResult(booking.getId(), BookingDecisionOutcome.CONFLICT, booking.getStatus()));
+            }
+        }
+
+        if (!changed.isEmpty()) {
+            itemBookingSummaryService.refresh(changed.values().stream()
+                    .map(booking -> booking.getItem().getId())
+                    .collect(Collectors.toSet()));
+            bookingStateCountersService.onStatusChanged(statusChanges);
+            changed.values().forEach(booking -> eventPublisher.publishEvent(
+                    BookingEvent.of(BookingEventType.BOOKING_STATUS_CHANGED, booking)));
+        }
+
+        log.debug("Изменён статус бронирований владельцем с id = {}: {} из {}.", userId, changed.size(),
+                decisions.size());
+        return results;
+    }
+
     @Override
     public BookingDtoForResponse getBookingInfo(long userId, long bookingId) {
-        final User user = userService.getUser(userId);
-        final Booking booking = getBooking(bookingId);
-        final Item item = itemService.getItem(booking.getItem().getId());
-        validateUserIsOwnerOrBooker(user, booking, item);
-        return BookingMapper.toBookingDtoForResponse(booking);
+        return bookingRepository.findByIdForBookerOrOwner(bookingId, userId)
+                .map(BookingMapper::toBookingDtoForResponse)
+                .or(() -> bookingArchiveRepository.findByIdForBookerOrOwner(bookingId, userId))
+                .orElseThrow(() -> resolveBookingInfoMiss(userId, bookingId));
     }
 
     @Override
-    public Collection<BookingDtoForResponse> getBookings(long userId, String state, int from, int size) {
+    public Slice<BookingDtoForResponse> getBookings(long userId, String state, int from, int size) {
         final User booker = userService.getUser(userId);
         final Pageable pageable = PageRequest.of(from / size, size);
-        final Page<Booking> bookings = getBookingsOfBooker(booker, state, pageable);
-        return bookings.stream()
-                .map(BookingMapper::toBookingDtoForResponse)
-                .collect(Collectors.toList());
+        return getBookingsOfBooker(booker, state, pageable);
     }
 
     @Override
-    public Collection<BookingDtoForResponse> getBookingsOfOwner(long userId, String state, int from, int size) {
+    public Slice<BookingDtoForResponse> getBookingsOfOwner(long userId, String state, int from, int size) {
         final User owner = userService.getUser(userId);
         final Pageable pageable = PageRequest.of(from / size, size);
-        final Page<Booking> bookings = getBookingsOfOwner(owner, state, pageable);
-        return bookings.stream()
-                .map(BookingMapper::toBookingDtoForResponse)
+        return getBookingsOfOwner(owner, state, pageable);
+    }
+
+    @Override
+    public Slice<BookingDtoForResponse> getBookings(long userId, String state, String cursor, int size) {
+        final User booker = userService.getUser(userId);
+        final BookingCursor bookingCursor = BookingCursor.decode(cursor);
+        final Pageable pageable = PageRequest.of(0, size);
+        return getBookingsOfBookerBeforeCursor(booker, state, bookingCursor, pageable);
+    }
+
+    @Override
+    public Slice<BookingDtoForResponse> getBookingsOfOwner(long userId, String state, String cursor, int size) {
+        final User owner = userService.getUser(userId);
+        final BookingCursor bookingCursor = BookingCursor.decode(cursor);
+        final Pageable pageable = PageRequest.of(0, size);
+        return getBookingsOfOwnerBeforeCursor(owner, state, bookingCursor, pageable);
+    }
+
+    @Override
+    public SseEmitter subscribeToEventsOfOwner(long userId) {
+        userService.validateUserExists(userId);
+        return bookingEventBroker.subscribe(userId);
+    }
+
+    @Override
+    public StreamingResponseBody exportBookingsOfOwner(long userId) {
+        userService.validateUserExists(userId);
+        return bookingExporter.exportOfOwner(userId);
+    }
+
+    @Override
+    public BookingStateCountsDto getBookingCounts(long userId) {
+        userService.validateUserExists(userId);
+        return bookingStateCountersService.getCountsOfBooker(userId);
+    }
+
+    @Override
+    public BookingStateCountsDto getBookingCountsOfOwner(long userId) {
+        userService.validateUserExists(userId);
+        return bookingStateCountersService.getCountsOfOwner(userId);
+    }
+
+    @Override
+    @Transactional
+    public int expireWaitingBookings(LocalDateTime now, int batchSize) {
+        final List<Long> ids = bookingRepository.findAllByStatusAndStartBeforeForUpdate(BookingStatus.WAITING, now,
+                        PageRequest.of(0, batchSize)).stream()
+                .map(Booking::getId)
+                .collect(Collectors.toList());
+        if (ids.isEmpty()) {
+            return 0;
+        }
+
+        final int updated = bookingRepository.updateStatus(ids, BookingStatus.WAITING, BookingStatus.EXPIRED);
+        if (updated != ids.size()) {
+            throw new IllegalStateException(String.format("Просрочено %d из %d заблокированных бронирований!",
+                    updated, ids.size()));
+        }
+
+        final List<Booking> bookings = bookingRepository.findAllByIdIn(ids);
+        final Set<Long> itemIds = new HashSet<>();
+        final List<BookingStatusChange> statusChanges = new ArrayList<>();
+        for (Booking booking : bookings) {
+            itemIds.add(booking.getItem().getId());
+            statusChanges.add(BookingStatusChange.of(booking, BookingStatus.WAITING, BookingStatus.EXPIRED));
+            bookingIntervalIndex.release(booking.getItem().getId(), booking.getId());
+            eventPublisher.publishEvent(BookingEvent.of(BookingEventType.BOOKING_STATUS_CHANGED, booking));
+        }
+
+        itemBookingSummaryService.refresh(itemIds);
+        bookingStateCountersService.onStatusChanged(statusChanges);
+        log.debug("Просрочено бронирований в ожидании подтверждения: {}.", ids.size());
+        return ids.size();
+    }
+
+    @Override
+    @Transactional
+    public int archiveBookings(LocalDateTime endedBefore, int batchSize) {
+        final List<BookingInterval> intervals = bookingRepository.findIntervalsByEndBeforeAndStatusNot(endedBefore,
+                BookingStatus.WAITING, PageRequest.of(0, batchSize));
+        if (intervals.isEmpty()) {
+            return 0;
+        }
+
+        final List<Long> ids = intervals.stream()
+                .map(BookingInterval::getBookingId)
                 .collect(Collectors.toList());
+        bookingArchiveRepository.copyFromBookings(ids);
+        bookingRepository.deleteAllByIdIn(ids);
+        intervals.forEach(interval -> bookingIntervalIndex.release(interval.getItemId(), interval.getBookingId()));
+        log.debug("Перенесено бронирований в архив: {}.", ids.size());
+        return ids.size();
+    }
+
+    @Override
+    @Transactional
+    public int promoteWaitlist(Collection<Long> itemIds, LocalDateTime now) {
+        final List<BookingIntent> intents = bookingIntentRepository.findAllByItemIdInOrderByCreatedAscIdAsc(itemIds);
+        final List<BookingIntent> processed = new ArrayList<>();
+        int promoted = 0;
+        for (BookingIntent intent : intents) {
+            if (!intent.getStart().isAfter(now)) {
+                processed.add(intent);
+            } else if (tryPromote(intent)) {
+                processed.add(intent);
+                promoted++;
+            }
+        }
+
+        bookingIntentRepository.deleteAllInBatch(processed);
+        log.debug("Переведено из листа ожидания в бронирования: {}, удалено устаревших: {}.", promoted,
+                processed.size() - promoted);
+        return promoted;
+    }
+
+    private boolean tryPromote(BookingIntent intent) {
+        final Item item = intent.getItem();
+        final long bookerId = intent.getBooker().getId();
+        if (item.getAvailable() == null || !item.getAvailable()
+                || bookingIntervalIndex.hasConflict(item.getId(), intent.getStart(), intent.getEnd())
+                || bookingHolds.isHeldByOthers(item.getId(), bookerId, intent.getStart(), intent.getEnd())) {
+            return false;
+        }
+
+        final BookingIntervalIndex.Reservation reservation;
+        try {
+            reservation = bookingIntervalIndex.reserve(item.getId(), intent.getStart(), intent.getEnd());
+        } catch (BookingConflictException e) {
+            return false;
+        }
+
+        final Booking booking = Booking.builder()
+                .item(item)
+                .booker(intent.getBooker())
+                .start(intent.getStart())
+                .end(intent.getEnd())
+                .status(BookingStatus.WAITING).build();
+        bookingRepository.save(booking);
+        reservation.bind(booking.getId());
+        itemBookingSummaryService.onBookingCreated(booking);
+        bookingStateCountersService.onBookingCreated(booking);
+        eventPublisher.publishEvent(BookingEvent.of(BookingEventType.BOOKING_CREATED, booking));
+        log.debug("Бронирование с id = {} создано из листа ожидания пользователя с id = {}.", booking.getId(),
+                bookerId);
+        return true;
+    }
+
+    private <T> T executeWithRetry(Supplier<T> action) {
+        int attempt = 1;
+        while (true) {
+            try {
+                return transactionTemplate.execute(status -> action.get());
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt >= approveAttempts) {
+                    log.error("Не удалось изменить статус бронирования за {} попыток из-за конкурентных изменений!",
+                            attempt);
+                    throw e;
+                }
+
+                attempt++;
+                log.warn("Конкурентное изменение бронирования, попытка {} из {}.", attempt, approveAttempts);
+            }
+        }
+    }
+
+    private void applyDecision(Booking booking, boolean approved) {
+        validateBookingHaveSameStatus(booking, approved);
+        if (approved) {
+            validateNoApprovedOverlap(booking);
+            if (!BookingIntervalIndex.BLOCKING_STATUSES.contains(booking.getStatus())) {
+                bookingIntervalIndex.reserve(booking.getItem().getId(), booking.getStart(), booking.getEnd())
+                        .bind(booking.getId());
+            }
+
+            itemService.incrementItemVersion(booking.getItem().getId());
+            booking.setStatus(BookingStatus.APPROVED);
+            log.debug("Бронирование с id = {} подтверждено.", booking.getId());
+        } else {
+            bookingIntervalIndex.release(booking.getItem().getId(), booking.getId());
+            booking.setStatus(BookingStatus.REJECTED);
+            log.debug("Бронирование с id = {} отклонено.", booking.getId());
+        }
+    }
+
+    private static BookingDecisionResultDto toDecisionResult(Long bookingId, BookingDecisionOutcome outcome,
+                                                             BookingStatus status) {
+        return BookingDecisionResultDto.builder()
+                .bookingId(bookingId)
+                .outcome(outcome)
+                .status(status)
+                .build();
     }
 
     private Booking getBooking(long id) {
@@ -103,12 +465,16 @@ public class BookingServiceImpl implements BookingService {
         });
     }
 
-    private void validateUserIsOwnerOrBooker(User user, Booking booking, Item item) {
-        if (!booking.getBooker().getId().equals(user.getId()) && !item.getOwner().getId().equals(user.getId())) {
+    private RuntimeException resolveBookingInfoMiss(long userId, long bookingId) {
+        userService.validateUserExists(userId);
+        if (!bookingRepository.existsById(bookingId) && !bookingArchiveRepository.existsById(bookingId)) {
+            log.error("Бронирование с id = {} не найдено!", bookingId);
+        } else {
             log.error("Пользователь с id = {} не является владельцем или автором бронирования " +
-                    "вещи с id = {}.", user.getId(), item.getId());
-            throw new BookingNotFoundException(booking.getId());
+                    "с id = {}.", userId, bookingId);
         }
+
+        return new BookingNotFoundException(bookingId);
     }
 
     private void validateUserIsOwner(User user, Item item) {
@@ -118,6 +484,22 @@ public class BookingServiceImpl implements BookingService {
         }
     }
 
+    private void validateNotHeldByOthers(long itemId, long userId, LocalDateTime start, LocalDateTime end) {
+        if (bookingHolds.isHeldByOthers(itemId, userId, start, end)) {
+            log.error("Период бронирования вещи с id = {} удерживается другим пользователем!", itemId);
+            throw new BookingConflictException(itemId);
+        }
+    }
+
+    private void validateNoApprovedOverlap(Booking booking) {
+        if (bookingRepository.existsOverlappingByStatus(booking.getItem().getId(), booking.getId(),
+                BookingStatus.APPROVED, booking.getStart(), booking.getEnd())) {
+            log.error("Бронирование с id = {} пересекается с подтверждённым бронированием вещи с id = {}!",
+                    booking.getId(), booking.getItem().getId());
+            throw new BookingConflictException(booking.getItem().getId());
+        }
+    }
+
     private void validateBookerIsOwner(User booker, Item item) {
         if (item.getOwner().getId().equals(booker.getId())) {
             log.error("Попытка бронирования своей вещи владельцем с id = {}.", booker.getId());
@@ -127,6 +509,11 @@ public class BookingServiceImpl implements BookingService {
     }
 
     private void validateBookingHaveSameStatus(Booking booking, boolean approved) {
+        if (booking.getStatus().equals(BookingStatus.EXPIRED)) {
+            log.error("Бронирование уже имеет статус {}.", BookingStatus.EXPIRED.name());
+            throw new BookingStatusException("Бронирование уже имеет статус " + BookingStatus.EXPIRED.name());
+        }
+
         if (approved && booking.getStatus().equals(BookingStatus.APPROVED)) {
             log.error("Бронирование уже имеет статус {}.", BookingStatus.APPROVED.name());
             throw new BookingStatusException("Бронирование уже имеет статус " + BookingStatus.APPROVED.name());
@@ -138,43 +525,150 @@ public class BookingServiceImpl implements BookingService {
         }
     }
 
-    private Page<Booking> getBookingsOfBooker(User booker, String state, Pageable pageable) {
+    private Slice<BookingDtoForResponse> getBookingsOfBooker(User booker, String state, Pageable pageable) {
         if ("ALL".equals(state)) {
-            return bookingRepository.getAllByBookerOrderByStartDesc(booker, pageable);
+            return mergeWithArchive(pageable, () -> bookingArchiveRepository.existsByBooker(booker),
+                    page -> bookingRepository.getAllByBookerOrderByStartDesc(booker, page),
+                    page -> bookingArchiveRepository.getAllByBookerOrderByStartDesc(booker, page));
         } else if ("CURRENT".equals(state)) {
-            return bookingRepository.getAllCurrentByBookerOrderByStartDesc(booker, pageable);
+            return bookingCurrentCache.getCurrentOfBooker(booker.getId(), pageable);
         } else if ("PAST".equals(state)) {
-            return bookingRepository.getAllPastByBookerOrderByStartDesc(booker, pageable);
+            return mergeWithArchive(pageable, () -> bookingArchiveRepository.existsByBooker(booker),
+                    page -> bookingRepository.getAllPastByBookerOrderByStartDesc(booker, page),
+                    page -> bookingArchiveRepository.getAllByBookerOrderByStartDesc(booker, page));
         } else if ("FUTURE".equals(state)) {
             return bookingRepository.getAllFutureByBookerOrderByStartDesc(booker, pageable);
         } else if ("WAITING".equals(state)) {
             return bookingRepository.getAllByBookerAndStatusOrderByStartDesc(booker, BookingStatus.WAITING,
                     pageable);
         } else if ("REJECTED".equals(state)) {
-            return bookingRepository.getAllByBookerAndStatusOrderByStartDesc(booker, BookingStatus.REJECTED,
-                    pageable);
+            return mergeWithArchive(pageable,
+                    () -> bookingArchiveRepository.existsByBookerAndStatus(booker, BookingStatus.REJECTED),
+                    page -> bookingRepository.getAllByBookerAndStatusOrderByStartDesc(booker, BookingStatus.REJECTED,
+                            page),
+                    page -> bookingArchiveRepository.getAllByBookerAndStatusOrderByStartDesc(booker,
+                            BookingStatus.REJECTED, page));
         } else {
-            return Page.empty();
+            return new SliceImpl<>(Collections.emptyList(), pageable, false);
         }
     }
 
-    private Page<Booking> getBookingsOfOwner(User owner, String state, Pageable pageable) {
+    private Slice<BookingDtoForResponse> getBookingsOfOwner(User owner, String state, Pageable pageable) {
         if ("ALL".equals(state)) {
-            return bookingRepository.getAllByItemOwnerOrderByStartDesc(owner, pageable);
+            return mergeWithArchive(pageable, () -> bookingArchiveRepository.existsByItemOwner(owner),
+                    page -> bookingRepository.getAllByItemOwnerOrderByStartDesc(owner, page),
+                    page -> bookingArchiveRepository.getAllByItemOwnerOrderByStartDesc(owner, page));
         } else if ("CURRENT".equals(state)) {
-            return bookingRepository.getAllCurrentByItemOwnerOrderByStartDesc(owner, pageable);
+            return bookingCurrentCache.getCurrentOfOwner(owner.getId(), pageable);
         } else if ("PAST".equals(state)) {
-            return bookingRepository.getAllPastByItemOwnerOrderByStartDesc(owner, pageable);
+            return mergeWithArchive(pageable, () -> bookingArchiveRepository.existsByItemOwner(owner),
+                    page -> bookingRepository.getAllPastByItemOwnerOrderByStartDesc(owner, page),
+                    page -> bookingArchiveRepository.getAllByItemOwnerOrderByStartDesc(owner, page));
         } else if ("FUTURE".equals(state)) {
             return bookingRepository.getAllFutureByItemOwnerOrderByStartDesc(owner, pageable);
         } else if ("WAITING".equals(state)) {
             return bookingRepository.getAllByItemOwnerAndStatusOrderByStartDesc(owner, BookingStatus.WAITING,
                     pageable);
         } else if ("REJECTED".equals(state)) {
-            return bookingRepository.getAllByItemOwnerAndStatusOrderByStartDesc(owner, BookingStatus.REJECTED,
-                    pageable);
+            return mergeWithArchive(pageable,
+                    () -> bookingArchiveRepository.existsByItemOwnerAndStatus(owner, BookingStatus.REJECTED),
+                    page -> bookingRepository.getAllByItemOwnerAndStatusOrderByStartDesc(owner, BookingStatus.REJECTED,
+                            page),
+                    page -> bookingArchiveRepository.getAllByItemOwnerAndStatusOrderByStartDesc(owner,
+                            BookingStatus.REJECTED, page));
         } else {
-            return Page.empty();
+            return new SliceImpl<>(Collections.emptyList(), pageable, false);
         }
     }
-}
\ No newline at end of file
+
+    private Slice<BookingDtoForResponse> getBookingsOfBookerBeforeCursor(User booker, String state,
+                                                                         BookingCursor cursor, Pageable pageable) {
+        final LocalDateTime start = cursor.getStart();
+        final Long id = cursor.getId();
+        if ("ALL".equals(state)) {
+            return mergeHeads(pageable,
+                    page -> bookingRepository.getAllByBookerBeforeCursor(booker, start, id, page),
+                    page -> bookingArchiveRepository.getAllByBookerBeforeCursor(booker, start, id, page));
+        } else if ("CURRENT".equals(state)) {
+            return bookingCurrentCache.getCurrentOfBooker(booker.getId(), cursor, pageable);
+        } else if ("PAST".equals(state)) {
+            return mergeHeads(pageable,
+                    page -> bookingRepository.getAllPastByBookerBeforeCursor(booker, start, id, page),
+                    page -> bookingArchiveRepository.getAllByBookerBeforeCursor(booker, start, id, page));
+        } else if ("FUTURE".equals(state)) {
+            return bookingRepository.getAllFutureByBookerBeforeCursor(booker, start, id, pageable);
+        } else if ("WAITING".equals(state)) {
+            return bookingRepository.getAllByBookerAndStatusBeforeCursor(booker, BookingStatus.WAITING,
+                    start, id, pageable);
+        } else if ("REJECTED".equals(state)) {
+            return mergeHeads(pageable,
+                    page -> bookingRepository.getAllByBookerAndStatusBeforeCursor(booker, BookingStatus.REJECTED,
+                            start, id, page),
+                    page -> bookingArchiveRepository.getAllByBookerAndStatusBeforeCursor(booker,
+                            BookingStatus.REJECTED, start, id, page));
+        } else {
+            return new SliceImpl<>(Collections.emptyList(), pageable, false);
+        }
+    }
+
+    private Slice<BookingDtoForResponse> getBookingsOfOwnerBeforeCursor(User owner, String state,
+                                                                        BookingCursor cursor, Pageable pageable) {
+        final LocalDateTime start = cursor.getStart();
+        final Long id = cursor.getId();
+        if ("ALL".equals(state)) {
+            return mergeHeads(pageable,
+                    page -> bookingRepository.getAllByItemOwnerBeforeCursor(owner, start, id, page),
+                    page -> bookingArchiveRepository.getAllByItemOwnerBeforeCursor(owner, start, id, page));
+        } else if ("CURRENT".equals(state)) {
+            return bookingCurrentCache.getCurrentOfOwner(owner.getId(), cursor, pageable);
+        } else if ("PAST".equals(state)) {
+            return mergeHeads(pageable,
+                    page -> bookingRepository.getAllPastByItemOwnerBeforeCursor(owner, start, id, page),
+                    page -> bookingArchiveRepository.getAllByItemOwnerBeforeCursor(owner, start, id, page));
+        } else if ("FUTURE".equals(state)) {
+            return bookingRepository.getAllFutureByItemOwnerBeforeCursor(owner, start, id, pageable);
+        } else if ("WAITING".equals(state)) {
+            return bookingRepository.getAllByItemOwnerAndStatusBeforeCursor(owner, BookingStatus.WAITING,
+                    start, id, pageable);
+        } else if ("REJECTED".equals(state)) {
+            return mergeHeads(pageable,
+                    page -> bookingRepository.getAllByItemOwnerAndStatusBeforeCursor(owner, BookingStatus.REJECTED,
+                            start, id, page),
+                    page -> bookingArchiveRepository.getAllByItemOwnerAndStatusBeforeCursor(owner,
+                            BookingStatus.REJECTED, start, id, page));
+        } else {
+            return new SliceImpl<>(Collections.emptyList(), pageable, false);
+        }
+    }
+
+    private static Slice<BookingDtoForResponse> mergeWithArchive(
+            Pageable pageable,
+            BooleanSupplier archiveHasRows,
+            Function<Pageable, Slice<BookingDtoForResponse>> hotQuery,
+            Function<Pageable, Slice<BookingDtoForResponse>> archiveQuery) {
+        if (pageable.getOffset() > 0 && !archiveHasRows.getAsBoolean()) {
+            return hotQuery.apply(pageable);
+        }
+
+        return mergeHeads(pageable, hotQuery, archiveQuery);
+    }
+
+    private static Slice<BookingDtoForResponse> mergeHeads(
+            Pageable pageable,
+            Function<Pageable, Slice<BookingDtoForResponse>> hotQuery,
+            Function<Pageable, Slice<BookingDtoForResponse>> archiveQuery) {
+        final int limit = (int) pageable.getOffset() + pageable.getPageSize();
+        final Pageable head = PageRequest.of(0, limit);
+        final Slice<BookingDtoForResponse> hot = hotQuery.apply(head);
+        final Slice<BookingDtoForResponse> archived = archiveQuery.apply(head);
+        final List<BookingDtoForResponse> merged = Stream.concat(hot.stream(), archived.stream())
+                .sorted(BY_START_DESC)
+                .collect(Collectors.toList());
+        final List<BookingDtoForResponse> content = merged.stream()
+                .skip(pageable.getOffset())
+                .limit(pageable.getPageSize())
+                .collect(Collectors.toList());
+        final boolean hasNext = merged.size() > limit || hot.hasNext() || archived.hasNext();
+        return new SliceImpl<>(content, pageable, hasNext);
+    }
+}
@@ -0,0 +1,68 @@
+package ru.practicum.shareit.booking;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import ru.practicum.shareit.booking.model.BookingStateCounters;
+
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface BookingStateCountersRepository extends JpaRepository<BookingStateCounters, Long> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "javax.persistence.lock.timeout", value = BookingRepository.SKIP_LOCKED))
+    @Query("select counters " +
+            "from BookingStateCounters counters " +
+            "where counters.userId in :userIds " +
+            "order by counters.userId asc")
+    List<BookingStateCounters> findAllByIdForUpdate(Collection<Long> userIds);
+
+    @Query("select counters.userId " +
+            "from BookingStateCounters counters " +
+            "where counters.userId > :afterId " +
+            "order by counters.userId asc")
+    List<Long> findUserIdsAfter(Long afterId, Pageable pageable);
+
+    @Modifying
+    @Query("update BookingStateCounters counters " +
+            "set counters.booker.all = counters.booker.all + :all, " +
+            "counters.booker.current = counters.booker.current + :current, " +
+            "counters.booker.past = counters.booker.past + :past, " +
+            "counters.booker.future = counters.booker.future + :future, " +
+            "counters.booker.waiting = counters.booker.waiting + :waiting, " +
+            "counters.booker.rejected = counters.booker.rejected + :rejected " +
+            "where counters.userId = :userId")
+    int addToBooker(long userId, long all, long current, long past, long future, long waiting, long rejected);
+
+    @Modifying
+    @Query("update BookingStateCounters counters " +
+            "set counters.owner.all = counters.owner.all + :all, " +
+            "counters.owner.current = counters.owner.current + :current, " +
+            "counters.owner.past = counters.owner.past + :past, " +
+            "counters.owner.future = counters.owner.future + :future, " +
+            "counters.owner.waiting = counters.owner.waiting + :waiting, " +
+            "counters.owner.rejected = counters.owner.rejected + :rejected " +
+            "where counters.userId = :userId")
+    int addToOwner(long userId, long all, long current, long past, long future, long waiting, long rejected);
+
+    @Modifying
+    @Query("update BookingStateCounters counters " +
+            "set counters.booker.nextTransition = :boundary " +
+            "where counters.userId = :userId " +
+            "AND (counters.booker.nextTransition is null or counters.booker.nextTransition > :boundary)")
+    int moveBookerTransition(long userId, LocalDateTime boundary);
+
+    @Modifying
+    @Query("update BookingStateCounters counters " +
+            "set counters.owner.nextTransition = :boundary " +
+            "where counters.userId = :userId " +
+            "AND (counters.owner.nextTransition is null or counters.owner.nextTransition > :boundary)")
+    int moveOwnerTransition(long userId, LocalDateTime boundary);
+}
@@ -0,0 +1,24 @@
+package ru.practicum.shareit.booking;
+
+import ru.practicum.shareit.booking.dto.BookingStateCountsDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatusChange;
+
+import java.util.Collection;
+
+public interface BookingStateCountersService {
+
+    void createCounters(long userId);
+
+    void deleteCounters(long userId);
+
+    void onBookingCreated(Booking booking);
+
+    void onStatusChanged(Collection<BookingStatusChange> changes);
+
+    BookingStateCountsDto getCountsOfBooker(long userId);
+
+    BookingStateCountsDto getCountsOfOwner(long userId);
+
+    void reconcile();
+}
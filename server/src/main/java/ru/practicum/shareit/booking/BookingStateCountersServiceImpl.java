@@ -0,0 +1,277 @@
+package ru.practicum.shareit.booking;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.dto.BookingMapper;
+import ru.practicum.shareit.booking.dto.BookingStateCountsDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStateCounters;
+import ru.practicum.shareit.booking.model.BookingStateCounts;
+import ru.practicum.shareit.booking.model.BookingStateTotals;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.model.BookingStatusChange;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BookingStateCountersServiceImpl implements BookingStateCountersService {
+    private final BookingRepository bookingRepository;
+    private final BookingArchiveRepository bookingArchiveRepository;
+    private final BookingStateCountersRepository countersRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${shareit.booking-counters.chunk-size:500}")
+    private int chunkSize = 500;
+
+    @Override
+    @Transactional
+    public void createCounters(long userId) {
+        countersRepository.save(BookingStateCounters.builder()
+                .userId(userId)
+                .booker(new BookingStateCounts())
+                .owner(new BookingStateCounts())
+                .build());
+    }
+
+    @Override
+    @Transactional
+    public void deleteCounters(long userId) {
+        countersRepository.findById(userId).ifPresent(countersRepository::delete);
+    }
+
+    @Override
+    @Transactional
+    public void onBookingCreated(Booking booking) {
+        final LocalDateTime now = LocalDateTime.now();
+        final Map<Long, BookingStateCounts> bookerDeltas = new TreeMap<>();
+        final Map<Long, BookingStateCounts> ownerDeltas = new TreeMap<>();
+        addBooking(deltaOf(bookerDeltas, booking.getBooker().getId()), booking, now);
+        addBooking(deltaOf(ownerDeltas, booking.getItem().getOwner().getId()), booking, now);
+        applyDeltas(bookerDeltas, ownerDeltas);
+    }
+
+    @Override
+    @Transactional
+    public void onStatusChanged(Collection<BookingStatusChange> changes) {
+        if (changes.isEmpty()) {
+            return;
+        }
+
+        final Map<Long, BookingStateCounts> bookerDeltas = new TreeMap<>();
+        final Map<Long, BookingStateCounts> ownerDeltas = new TreeMap<>();
+        for (BookingStatusChange change : changes) {
+            changeStatus(deltaOf(bookerDeltas, change.getBookerId()), change);
+            changeStatus(deltaOf(ownerDeltas, change.getOwnerId()), change);
+        }
+
+        applyDeltas(bookerDeltas, ownerDeltas);
+    }
+
+    @Override
+    @Transactional
+    public BookingStateCountsDto getCountsOfBooker(long userId) {
+        return BookingMapper.toBookingStateCountsDto(getCounters(userId).getBooker());
+    }
+
+    @Override
+    @Transactional
+    public BookingStateCountsDto getCountsOfOwner(long userId) {
+        return BookingMapper.toBookingStateCountsDto(getCounters(userId).getOwner());
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${shareit.booking-counters.reconcile-delay:PT1H}")
+    public void reconcile() {
+        long afterId = 0;
+        int total = 0;
+        List<Long> userIds = countersRepository.findUserIdsAfter(afterId, PageRequest.of(0, chunkSize));
+        while (!userIds.isEmpty()) {
+            final List<Long> chunk = userIds;
+            transactionTemplate.executeWithoutResult(status -> recompute(chunk, LocalDateTime.now()));
+            total += chunk.size();
+            afterId = chunk.get(chunk.size() - 1);
+            userIds = countersRepository.findUserIdsAfter(afterId, PageRequest.of(0, chunkSize));
+        }
+
+        log.debug("Сверено счётчиков бронирований пользователей: {}.", total);
+    }
+
+    private BookingStateCounters getCounters(long userId) {
+        final LocalDateTime now = LocalDateTime.now();
+        return countersRepository.findById(userId)
+                .filter(counters -> !isStale(counters.getBooker(), now) && !isStale(counters.getOwner(), now))
+                .orElseGet(() -> {
+                    log.debug("Пересчёт счётчиков бронирований пользователя с id = {}.", userId);
+                    return recompute(List.of(userId), now).get(userId);
+                });
+    }
+
+    private Map<Long, BookingStateCounters> recompute(Collection<Long> userIds, LocalDateTime now) {
+        final Map<Long, BookingStateCounters> locked = lockCounters(userIds);
+        final Map<Long, BookingStateTotals> bookerTotals = groupByUserId(Stream.concat(
+                bookingRepository.countStatesByBookerIds(userIds, now, BookingStatus.WAITING,
+                        BookingStatus.REJECTED).stream(),
+                bookingArchiveRepository.countStatesByBookerIds(userIds, now, BookingStatus.WAITING,
+                        BookingStatus.REJECTED).stream()));
+        final Map<Long, BookingStateTotals> ownerTotals = groupByUserId(Stream.concat(
+                bookingRepository.countStatesByOwnerIds(userIds, now, BookingStatus.WAITING,
+                        BookingStatus.REJECTED).stream(),
+                bookingArchiveRepository.countStatesByOwnerIds(userIds, now, BookingStatus.WAITING,
+                        BookingStatus.REJECTED).stream()));
+        final Map<Long, BookingStateCounters> counters = new HashMap<>();
+        for (Long userId : userIds) {
+            final BookingStateCounters userCounters = Optional.ofNullable(locked.get(userId))
+                    .orElseGet(() -> BookingStateCounters.builder().userId(userId).build());
+            userCounters.setBooker(toCounts(bookerTotals.get(userId)));
+            userCounters.setOwner(toCounts(ownerTotals.get(userId)));
+            counters.put(userId, userCounters);
+        }
+
+        if (!locked.isEmpty()) {
+            countersRepository.saveAll(locked.values());
+        }
+
+        return counters;
+    }
+
+    private Map<Long, BookingStateCounters> lockCounters(Collection<Long> userIds) {
+        return countersRepository.findAllByIdForUpdate(userIds).stream()
+                .collect(Collectors.toMap(BookingStateCounters::getUserId, Function.identity()));
+    }
+
+    private void applyDeltas(Map<Long, BookingStateCounts> bookerDeltas, Map<Long, BookingStateCounts> ownerDeltas) {
+        final Set<Long> userIds = new TreeSet<>(bookerDeltas.keySet());
+        userIds.addAll(ownerDeltas.keySet());
+        for (Long userId : userIds) {
+            final BookingStateCounts bookerDelta = bookerDeltas.get(userId);
+            if (bookerDelta != null) {
+                countersRepository.addToBooker(userId, bookerDelta.getAll(), bookerDelta.getCurrent(),
+                        bookerDelta.getPast(), bookerDelta.getFuture(), bookerDelta.getWaiting(),
+                        bookerDelta.getRejected());
+                if (bookerDelta.getNextTransition() != null) {
+                    countersRepository.moveBookerTransition(userId, bookerDelta.getNextTransition());
+                }
+            }
+
+            final BookingStateCounts ownerDelta = ownerDeltas.get(userId);
+            if (ownerDelta != null) {
+                countersRepository.addToOwner(userId, ownerDelta.getAll(), ownerDelta.getCurrent(),
+                        ownerDelta.getPast(), ownerDelta.getFuture(), ownerDelta.getWaiting(),
+                        ownerDelta.getRejected());
+                if (ownerDelta.getNextTransition() != null) {
+                    countersRepository.moveOwnerTransition(userId, ownerDelta.getNextTransition());
+                }
+            }
+        }
+    }
+
+    private static BookingStateCounts deltaOf(Map<Long, BookingStateCounts> deltas, long userId) {
+        return deltas.computeIfAbsent(userId, id -> new BookingStateCounts());
+    }
+
+    private static void addBooking(BookingStateCounts counts, Booking booking, LocalDateTime now) {
+        counts.setAll(counts.getAll() + 1);
+        adjustStatus(counts, booking.getStatus(), 1);
+        if (booking.getStart().isAfter(now)) {
+            counts.setFuture(counts.getFuture() + 1);
+            moveNextTransition(counts, booking.getStart());
+        } else if (booking.getEnd().isAfter(now)) {
+            counts.setCurrent(counts.getCurrent() + 1);
+            moveNextTransition(counts, booking.getEnd());
+        } else {
+            counts.setPast(counts.getPast() + 1);
+        }
+    }
+
+    private static void changeStatus(BookingStateCounts counts, BookingStatusChange change) {
+        adjustStatus(counts, change.getFrom(), -1);
+        adjustStatus(counts, change.getTo(), 1);
+    }
+
+    private static void adjustStatus(BookingStateCounts counts, BookingStatus status, int delta) {
+        if (status == BookingStatus.WAITING) {
+            counts.setWaiting(counts.getWaiting() + delta);
+        } else if (status == BookingStatus.REJECTED) {
+            counts.setRejected(counts.getRejected() + delta);
+        }
+    }
+
+    private static void moveNextTransition(BookingStateCounts counts, LocalDateTime boundary) {
+        if (counts.getNextTransition() == null || boundary.isBefore(counts.getNextTransition())) {
+            counts.setNextTransition(boundary);
+        }
+    }
+
+    private static boolean isStale(BookingStateCounts counts, LocalDateTime now) {
+        return counts == null || counts.getNextTransition() != null && !counts.getNextTransition().isAfter(now);
+    }
+
+    private static BookingStateCounts toCounts(BookingStateTotals totals) {
+        final BookingStateCounts counts = new BookingStateCounts();
+        if (totals != null) {
+            counts.setAll(valueOf(totals.getAll()));
+            counts.setWaiting(valueOf(totals.getWaiting()));
+            counts.setRejected(valueOf(totals.getRejected()));
+            counts.setCurrent(valueOf(totals.getCurrent()));
+            counts.setPast(valueOf(totals.getPast()));
+            counts.setFuture(valueOf(totals.getFuture()));
+            if (totals.getNextStart() != null) {
+                moveNextTransition(counts, totals.getNextStart());
+            }
+
+            if (totals.getNextEnd() != null) {
+                moveNextTransition(counts, totals.getNextEnd());
+            }
+        }
+
+        return counts;
+    }
+
+    private static long valueOf(Long value) {
+        return value == null ? 0 : value;
+    }
+
+    private static Map<Long, BookingStateTotals> groupByUserId(Stream<BookingStateTotals> totals) {
+        return totals.collect(Collectors.toMap(BookingStateTotals::getUserId, Function.identity(),
+                BookingStateCountersServiceImpl::combine));
+    }
+
+    private static BookingStateTotals combine(BookingStateTotals first, BookingStateTotals second) {
+        return new BookingStateTotals(first.getUserId(),
+                valueOf(first.getAll()) + valueOf(second.getAll()),
+                valueOf(first.getWaiting()) + valueOf(second.getWaiting()),
+                valueOf(first.getRejected()) + valueOf(second.getRejected()),
+                valueOf(first.getCurrent()) + valueOf(second.getCurrent()),
+                valueOf(first.getPast()) + valueOf(second.getPast()),
+                valueOf(first.getFuture()) + valueOf(second.getFuture()),
+                earliest(first.getNextStart(), second.getNextStart()),
+                earliest(first.getNextEnd(), second.getNextEnd()));
+    }
+
+    private static LocalDateTime earliest(LocalDateTime first, LocalDateTime second) {
+        if (first == null || second != null && second.isBefore(first)) {
+            return second;
+        }
+
+        return first;
+    }
+}
@@ -0,0 +1,87 @@
+package ru.practicum.shareit.booking;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.lease.LeaseService;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Slf4j
+@Component
+public class BookingSweeper {
+    static final String LEASE_NAME = "booking-sweeper";
+
+    private final BookingService bookingService;
+    private final BookingRepository bookingRepository;
+    private final LeaseService leaseService;
+    private final int batchSize;
+    private final int maxBatches;
+    private final Duration leaseDuration;
+    private final Counter sweptCounter;
+    private final AtomicLong lagSeconds = new AtomicLong();
+
+    public BookingSweeper(BookingService bookingService,
+                          BookingRepository bookingRepository,
+                          LeaseService leaseService,
+                          MeterRegistry meterRegistry,
+                          @Value("${shareit.booking-sweeper.batch-size:500}") int batchSize,
+                          @Value("${shareit.booking-sweeper.max-batches:20}") int maxBatches,
+                          @Value("${shareit.booking-sweeper.lease:PT5M}") Duration leaseDuration) {
+        this.bookingService = bookingService;
+        this.bookingRepository = bookingRepository;
+        this.leaseService = leaseService;
+        this.batchSize = batchSize;
+        this.maxBatches = maxBatches;
+        this.leaseDuration = leaseDuration;
+        this.sweptCounter = Counter.builder("shareit.booking.sweeper.swept")
+                .description("Бронирования, переведённые из WAITING в EXPIRED")
+                .register(meterRegistry);
+        Gauge.builder("shareit.booking.sweeper.lag", lagSeconds, AtomicLong::get)
+                .description("Возраст самого старого бронирования, ожидающего просрочки")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.booking-sweeper.delay:PT1M}")
+    public void sweep() {
+        if (!leaseService.tryAcquire(LEASE_NAME, leaseDuration)) {
+            return;
+        }
+
+        final LocalDateTime now = LocalDateTime.now();
+        int total = 0;
+        int batches = 0;
+        int swept;
+        do {
+            swept = bookingService.expireWaitingBookings(now, batchSize);
+            total += swept;
+            batches++;
+            sweptCounter.increment(swept);
+        } while (swept == batchSize && batches < maxBatches && renewLease());
+
+        lagSeconds.set(bookingRepository
+                .findEarliestStartByStatusAndStartBefore(BookingStatus.WAITING, now)
+                .map(start -> Duration.between(start, now).getSeconds())
+                .orElse(0L));
+        if (total > 0) {
+            log.debug("Переведено бронирований в статус {}: {}.", BookingStatus.EXPIRED.name(), total);
+        }
+    }
+
+    private boolean renewLease() {
+        if (leaseService.tryAcquire(LEASE_NAME, leaseDuration)) {
+            return true;
+        }
+
+        log.warn("Аренда \"{}\" потеряна, просрочка бронирований прервана.", LEASE_NAME);
+        return false;
+    }
+}
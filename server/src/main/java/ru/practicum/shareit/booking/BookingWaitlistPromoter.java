@@ -0,0 +1,212 @@
+package ru.practicum.shareit.booking;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.booking.dto.BookingEvent;
+import ru.practicum.shareit.booking.model.BookingEventType;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.lease.LeaseService;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+@Slf4j
+@Component
+public class BookingWaitlistPromoter {
+    static final String LEASE_NAME = "booking-waitlist";
+    private static final int MAX_BACKOFF_SHIFT = 10;
+
+    private final BookingService bookingService;
+    private final BookingIntentRepository bookingIntentRepository;
+    private final LeaseService leaseService;
+    private final Clock clock;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration retryBackoff;
+    private final Duration leaseDuration;
+    private final Counter promotedCounter;
+    private final Set<Long> pendingItemIds = ConcurrentHashMap.newKeySet();
+    private final ConcurrentMap<Long, Retry> retriesByItem = new ConcurrentHashMap<>();
+
+    public BookingWaitlistPromoter(BookingService bookingService,
+                                   BookingIntentRepository bookingIntentRepository,
+                                   LeaseService leaseService,
+                                   MeterRegistry meterRegistry,
+                                   Clock clock,
+                                   @Value("${shareit.booking-waitlist.batch-size:100}") int batchSize,
+                                   @Value("${shareit.booking-waitlist.max-attempts:5}") int maxAttempts,
+                                   @Value("${shareit.booking-waitlist.retry-backoff:PT1S}") Duration retryBackoff,
+                                   @Value("${shareit.booking-waitlist.lease:PT1M}") Duration leaseDuration) {
+        this.bookingService = bookingService;
+        this.bookingIntentRepository = bookingIntentRepository;
+        this.leaseService = leaseService;
+        this.clock = clock;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.retryBackoff = retryBackoff;
+        this.leaseDuration = leaseDuration;
+        this.promotedCounter = Counter.builder("shareit.booking.waitlist.promoted")
+                .description("Бронирования, созданные из листа ожидания")
+                .register(meterRegistry);
+    }
+
+    @TransactionalEventListener
+    public void onBookingEvent(BookingEvent event) {
+        if (event.getType() == BookingEventType.BOOKING_STATUS_CHANGED
+                && event.getBooking().getStatus() == BookingStatus.REJECTED) {
+            pendingItemIds.add(event.getBooking().getItem().getId());
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${shareit.booking-waitlist.rescan-delay:PT15M}",
+            fixedDelayString = "${shareit.booking-waitlist.rescan-delay:PT15M}")
+    public void rescan() {
+        if (!leaseService.tryAcquire(LEASE_NAME, leaseDuration)) {
+            return;
+        }
+
+        long afterId = 0;
+        int total = 0;
+        List<Long> itemIds = bookingIntentRepository.findItemIdsAfter(afterId, PageRequest.of(0, batchSize));
+        while (!itemIds.isEmpty()) {
+            pendingItemIds.addAll(itemIds);
+            total += itemIds.size();
+            afterId = itemIds.get(itemIds.size() - 1);
+            itemIds = bookingIntentRepository.findItemIdsAfter(afterId, PageRequest.of(0, batchSize));
+        }
+
+        log.debug("Найдено вещей с непустым листом ожидания: {}.", total);
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.booking-waitlist.delay:PT1S}")
+    public void promote() {
+        if (pendingItemIds.isEmpty() && retriesByItem.isEmpty()
+                || !leaseService.tryAcquire(LEASE_NAME, leaseDuration)) {
+            return;
+        }
+
+        final LocalDateTime now = LocalDateTime.now(clock);
+        requeueDueRetries(now);
+        int total = 0;
+        List<Long> itemIds;
+        while (!(itemIds = nextBatch(now)).isEmpty()) {
+            total += promoteBatch(itemIds, now);
+            if (!pendingItemIds.isEmpty() && !renewLease()) {
+                break;
+            }
+        }
+
+        if (total > 0) {
+            log.debug("Создано бронирований из листа ожидания: {}.", total);
+        }
+    }
+
+    int getPendingCount() {
+        return pendingItemIds.size();
+    }
+
+    int getRetryCount() {
+        return retriesByItem.size();
+    }
+
+    private boolean renewLease() {
+        if (leaseService.tryAcquire(LEASE_NAME, leaseDuration)) {
+            return true;
+        }
+
+        log.warn("Аренда \"{}\" потеряна, перевод из листа ожидания прерван.", LEASE_NAME);
+        return false;
+    }
+
+    private int promoteBatch(List<Long> itemIds, LocalDateTime now) {
+        final int promoted;
+        try {
+            promoted = bookingService.promoteWaitlist(itemIds, now);
+        } catch (RuntimeException e) {
+            if (itemIds.size() == 1) {
+                scheduleRetry(itemIds.get(0), now, e);
+                return 0;
+            }
+
+            log.warn("Не удалось обработать лист ожидания вещей {}, вещи будут обработаны по одной: {}", itemIds,
+                    e.getMessage());
+            int total = 0;
+            for (Long itemId : itemIds) {
+                total += promoteBatch(List.of(itemId), now);
+            }
+
+            return total;
+        }
+
+        itemIds.forEach(retriesByItem::remove);
+        promotedCounter.increment(promoted);
+        return promoted;
+    }
+
+    private void scheduleRetry(long itemId, LocalDateTime now, RuntimeException e) {
+        final Retry retry = retriesByItem.compute(itemId, (id, previous) -> {
+            final int attempts = previous == null ? 1 : previous.attempts + 1;
+            final long factor = 1L << Math.min(attempts - 1, MAX_BACKOFF_SHIFT);
+            return new Retry(attempts, now.plus(retryBackoff.multipliedBy(factor)));
+        });
+        if (retry.attempts < maxAttempts) {
+            log.warn("Не удалось обработать лист ожидания вещи с id = {}, попытка {} из {} будет повторена " +
+                    "после {}: {}", itemId, retry.attempts, maxAttempts, retry.notBefore, e.getMessage());
+            return;
+        }
+
+        retriesByItem.remove(itemId);
+        log.error("Лист ожидания вещи с id = {} не обработан за {} попыток, вещь будет найдена при следующем " +
+                "обходе листа ожидания: {}", itemId, retry.attempts, e.getMessage(), e);
+    }
+
+    private void requeueDueRetries(LocalDateTime now) {
+        for (Map.Entry<Long, Retry> entry : retriesByItem.entrySet()) {
+            if (!now.isBefore(entry.getValue().notBefore)) {
+                pendingItemIds.add(entry.getKey());
+            }
+        }
+    }
+
+    private List<Long> nextBatch(LocalDateTime now) {
+        final List<Long> itemIds = new ArrayList<>(batchSize);
+        final Iterator<Long> iterator = pendingItemIds.iterator();
+        while (iterator.hasNext() && itemIds.size() < batchSize) {
+            final Long itemId = iterator.next();
+            iterator.remove();
+            final Retry retry = retriesByItem.get(itemId);
+            if (retry == null || !now.isBefore(retry.notBefore)) {
+                itemIds.add(itemId);
+            }
+        }
+
+        return itemIds;
+    }
+
+    private static class Retry {
+        private final int attempts;
+        private final LocalDateTime notBefore;
+
+        Retry(int attempts, LocalDateTime notBefore) {
+            this.attempts = attempts;
+            this.notBefore = notBefore;
+        }
+    }
+}
@@ -2,8 +2,6 @@ package ru.practicum.shareit.booking.dto;
 
 import lombok.*;
 import ru.practicum.shareit.booking.model.BookingStatus;
-import ru.practicum.shareit.item.model.Item;
-import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
 
@@ -19,6 +17,34 @@ public class BookingDtoForResponse {
     private BookingStatus status;
     private LocalDateTime start;
     private LocalDateTime end;
-    private User booker;
-    private Item item;
-}
\ No newline at end of file
+    private BookerDtoForBooking booker;
+    private ItemDtoForBooking item;
+
+    public BookingDtoForResponse(Long id, BookingStatus status, LocalDateTime start, LocalDateTime end,
+                                 Long bookerId, Long itemId, String itemName) {
+        this(id, status, start, end, new BookerDtoForBooking(bookerId), new ItemDtoForBooking(itemId, itemName));
+    }
+
+    @Getter
+    @Setter
+    @Builder
+    @ToString
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode(of = "id")
+    public static class BookerDtoForBooking {
+        private Long id;
+    }
+
+    @Getter
+    @Setter
+    @Builder
+    @ToString
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode(of = "id")
+    public static class ItemDtoForBooking {
+        private Long id;
+        private String name;
+    }
+}
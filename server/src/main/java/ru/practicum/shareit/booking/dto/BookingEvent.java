@@ -0,0 +1,21 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingEventType;
+
+@Getter
+@ToString
+@AllArgsConstructor
+public class BookingEvent {
+    private final BookingEventType type;
+    private final long ownerId;
+    private final BookingDtoForResponse booking;
+
+    public static BookingEvent of(BookingEventType type, Booking booking) {
+        return new BookingEvent(type, booking.getItem().getOwner().getId(),
+                BookingMapper.toBookingDtoForResponse(booking));
+    }
+}
@@ -0,0 +1,20 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@Builder
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(of = "id")
+public class BookingHoldDto {
+    private String id;
+    private Long itemId;
+    private LocalDateTime start;
+    private LocalDateTime end;
+    private LocalDateTime expiresAt;
+}
@@ -3,7 +3,10 @@ package ru.practicum.shareit.booking.dto;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
 import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.BookingHolds;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingIntent;
+import ru.practicum.shareit.booking.model.BookingStateCounts;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
 
@@ -23,13 +26,56 @@ public class BookingMapper {
     public static BookingDtoForResponse toBookingDtoForResponse(Booking booking) {
         final Item item = booking.getItem();
         final User booker = booking.getBooker();
-        return BookingDtoForResponse.builder()
-                .id(booking.getId())
-                .start(booking.getStart())
-                .end(booking.getEnd())
-                .status(booking.getStatus())
+        return new BookingDtoForResponse(booking.getId(), booking.getStatus(), booking.getStart(), booking.getEnd(),
+                booker.getId(), item.getId(), item.getName());
+    }
+
+    public static BookingDto toBookingDto(BookingHolds.Hold hold) {
+        return BookingDto.builder()
+                .itemId(hold.getItemId())
+                .bookerId(hold.getBookerId())
+                .start(hold.getStart())
+                .end(hold.getEnd())
+                .build();
+    }
+
+    public static BookingHoldDto toBookingHoldDto(BookingHolds.Hold hold) {
+        return BookingHoldDto.builder()
+                .id(hold.getId())
+                .itemId(hold.getItemId())
+                .start(hold.getStart())
+                .end(hold.getEnd())
+                .expiresAt(hold.getExpiresAt())
+                .build();
+    }
+
+    public static BookingIntent toBookingIntent(BookingDto bookingDto, Item item, User booker) {
+        return BookingIntent.builder()
+                .start(bookingDto.getStart())
+                .end(bookingDto.getEnd())
                 .item(item)
                 .booker(booker)
                 .build();
     }
+
+    public static BookingIntentDto toBookingIntentDto(BookingIntent intent) {
+        return BookingIntentDto.builder()
+                .id(intent.getId())
+                .itemId(intent.getItem().getId())
+                .start(intent.getStart())
+                .end(intent.getEnd())
+                .created(intent.getCreated())
+                .build();
+    }
+
+    public static BookingStateCountsDto toBookingStateCountsDto(BookingStateCounts counts) {
+        return BookingStateCountsDto.builder()
+                .all(counts.getAll())
+                .current(counts.getCurrent())
+                .past(counts.getPast())
+                .future(counts.getFuture())
+                .waiting(counts.getWaiting())
+                .rejected(counts.getRejected())
+                .build();
+    }
 }
\ No newline at end of file
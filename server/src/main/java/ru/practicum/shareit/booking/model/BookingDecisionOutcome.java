@@ -0,0 +1,5 @@
+package ru.practicum.shareit.booking.model;
+
+public enum BookingDecisionOutcome {
+    UPDATED, NOT_FOUND, INVALID_STATUS, CONFLICT
+}
@@ -0,0 +1,5 @@
+package ru.practicum.shareit.booking.model;
+
+public enum BookingEventType {
+    BOOKING_CREATED, BOOKING_STATUS_CHANGED
+}
@@ -0,0 +1,44 @@
+package ru.practicum.shareit.booking.model;
+
+import lombok.*;
+
+import javax.persistence.*;
+
+@Entity
+@Table(name = "booking_state_counters")
+@Getter
+@Setter
+@Builder
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingStateCounters {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Embedded
+    @AttributeOverrides({
+            @AttributeOverride(name = "all", column = @Column(name = "booker_all")),
+            @AttributeOverride(name = "current", column = @Column(name = "booker_current")),
+            @AttributeOverride(name = "past", column = @Column(name = "booker_past")),
+            @AttributeOverride(name = "future", column = @Column(name = "booker_future")),
+            @AttributeOverride(name = "waiting", column = @Column(name = "booker_waiting")),
+            @AttributeOverride(name = "rejected", column = @Column(name = "booker_rejected")),
+            @AttributeOverride(name = "nextTransition", column = @Column(name = "booker_next_transition"))
+    })
+    private BookingStateCounts booker;
+
+    @Embedded
+    @AttributeOverrides({
+            @AttributeOverride(name = "all", column = @Column(name = "owner_all")),
+            @AttributeOverride(name = "current", column = @Column(name = "owner_current")),
+            @AttributeOverride(name = "past", column = @Column(name = "owner_past")),
+            @AttributeOverride(name = "future", column = @Column(name = "owner_future")),
+            @AttributeOverride(name = "waiting", column = @Column(name = "owner_waiting")),
+            @AttributeOverride(name = "rejected", column = @Column(name = "owner_rejected")),
+            @AttributeOverride(name = "nextTransition", column = @Column(name = "owner_next_transition"))
+    })
+    private BookingStateCounts owner;
+}
@@ -0,0 +1,38 @@
+package ru.practicum.shareit.booking.model;
+
+import lombok.*;
+
+import javax.persistence.Column;
+import javax.persistence.Embeddable;
+import java.time.LocalDateTime;
+
+@Embeddable
+@Getter
+@Setter
+@Builder
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingStateCounts {
+
+    @Column(name = "all_count")
+    private long all;
+
+    @Column(name = "current_count")
+    private long current;
+
+    @Column(name = "past_count")
+    private long past;
+
+    @Column(name = "future_count")
+    private long future;
+
+    @Column(name = "waiting_count")
+    private long waiting;
+
+    @Column(name = "rejected_count")
+    private long rejected;
+
+    @Column(name = "next_transition")
+    private LocalDateTime nextTransition;
+}
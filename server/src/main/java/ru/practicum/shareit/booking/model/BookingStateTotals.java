@@ -0,0 +1,22 @@
+package ru.practicum.shareit.booking.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+
+@Getter
+@ToString
+@AllArgsConstructor
+public class BookingStateTotals {
+    private final Long userId;
+    private final Long all;
+    private final Long waiting;
+    private final Long rejected;
+    private final Long current;
+    private final Long past;
+    private final Long future;
+    private final LocalDateTime nextStart;
+    private final LocalDateTime nextEnd;
+}
@@ -0,0 +1,19 @@
+package ru.practicum.shareit.booking.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+@Getter
+@ToString
+@AllArgsConstructor
+public class BookingStatusChange {
+    private final long bookerId;
+    private final long ownerId;
+    private final BookingStatus from;
+    private final BookingStatus to;
+
+    public static BookingStatusChange of(Booking booking, BookingStatus from, BookingStatus to) {
+        return new BookingStatusChange(booking.getBooker().getId(), booking.getItem().getOwner().getId(), from, to);
+    }
+}
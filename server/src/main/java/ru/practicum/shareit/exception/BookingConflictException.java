@@ -0,0 +1,7 @@
+package ru.practicum.shareit.exception;
+
+public class BookingConflictException extends RuntimeException {
+    public BookingConflictException(long itemId) {
+        super(String.format("Вещь с id = %d уже забронирована на указанный период!", itemId));
+    }
+}
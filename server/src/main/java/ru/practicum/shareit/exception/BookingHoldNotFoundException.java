@@ -0,0 +1,7 @@
+package ru.practicum.shareit.exception;
+
+public class BookingHoldNotFoundException extends RuntimeException {
+    public BookingHoldNotFoundException(String id) {
+        super(String.format("Удержание с id = %s не найдено или истекло!", id));
+    }
+}
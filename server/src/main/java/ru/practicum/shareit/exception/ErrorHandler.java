@@ -2,6 +2,7 @@ package ru.practicum.shareit.exception;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
@@ -11,14 +12,16 @@ import org.springframework.web.bind.annotation.RestControllerAdvice;
 @RestControllerAdvice
 public class ErrorHandler {
 
-    @ExceptionHandler({ItemUnavailableException.class, BookingStatusException.class, IncorrectCommentException.class})
+    @ExceptionHandler({ItemUnavailableException.class, BookingStatusException.class, IncorrectCommentException.class,
+            IncorrectCursorException.class, IncorrectSearchPageException.class})
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     public ErrorResponse handleValidation(final RuntimeException e) {
         log.error("400 - Ошибка при обработке входных данных: {} ", e.getMessage(), e);
         return new ErrorResponse(e.getMessage());
     }
 
-    @ExceptionHandler({DataIntegrityViolationException.class})
+    @ExceptionHandler({DataIntegrityViolationException.class, BookingConflictException.class,
+            OptimisticLockingFailureException.class})
     @ResponseStatus(HttpStatus.CONFLICT)
     public ErrorResponse handleEmailExists(final RuntimeException e) {
         log.error("409 - Конфликт данных: {} ", e.getMessage(), e);
@@ -33,7 +36,8 @@ public class ErrorHandler {
     }
 
     @ExceptionHandler({UserNotFoundException.class, ItemNotFoundException.class,
-            BookingNotFoundException.class, InvalidBookingException.class, ItemRequestNotFoundException.class})
+            BookingNotFoundException.class, InvalidBookingException.class, ItemRequestNotFoundException.class,
+            BookingHoldNotFoundException.class})
     @ResponseStatus(HttpStatus.NOT_FOUND)
     public ErrorResponse handleNotFound(final RuntimeException e) {
         log.error("404 - Объект не найден: {} ", e.getMessage(), e);
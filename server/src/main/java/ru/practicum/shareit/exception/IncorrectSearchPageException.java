@@ -0,0 +1,7 @@
+package ru.practicum.shareit.exception;
+
+public class IncorrectSearchPageException extends RuntimeException {
+    public IncorrectSearchPageException(int maxWindow) {
+        super(String.format("Поиск вещей возвращает не более %d первых результатов!", maxWindow));
+    }
+}
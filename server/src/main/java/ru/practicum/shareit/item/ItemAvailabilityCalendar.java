@@ -0,0 +1,148 @@
+package ru.practicum.shareit.item;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.booking.BookingIntervalIndex;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.dto.BookingEvent;
+import ru.practicum.shareit.booking.model.BookingInterval;
+import ru.practicum.shareit.item.model.TimeInterval;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+@Slf4j
+@Component
+public class ItemAvailabilityCalendar {
+    private static final int GENERATION_STRIPES = 1024;
+
+    private final BookingRepository bookingRepository;
+    private final Map<Long, List<TimeInterval>> busyIntervalsByItem;
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+
+    @Autowired
+    public ItemAvailabilityCalendar(BookingRepository bookingRepository,
+                                    @Value("${shareit.item-availability.cache-size:10000}") int cacheSize) {
+        this.bookingRepository = bookingRepository;
+        this.busyIntervalsByItem = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, List<TimeInterval>> eldest) {
+                return size() > cacheSize;
+            }
+        });
+    }
+
+    public List<TimeInterval> getFreeIntervals(long itemId, LocalDateTime from, LocalDateTime to) {
+        final LocalDateTime now = LocalDateTime.now();
+        return computeFreeIntervals(getBusyIntervals(itemId, now), from.isAfter(now) ? from : now, to);
+    }
+
+    public void evict(long itemId) {
+        synchronized (busyIntervalsByItem) {
+            generations.incrementAndGet(stripeOf(itemId));
+            busyIntervalsByItem.remove(itemId);
+        }
+    }
+
+    @TransactionalEventListener
+    public void onBookingEvent(BookingEvent event) {
+        evict(event.getBooking().getItem().getId());
+    }
+
+    private List<TimeInterval> getBusyIntervals(long itemId, LocalDateTime now) {
+        final List<TimeInterval> cached = busyIntervalsByItem.get(itemId);
+        if (cached != null) {
+            return cached;
+        }
+
+        final int stripe = stripeOf(itemId);
+        final long generation = generations.get(stripe);
+        final List<TimeInterval> busyIntervals = merge(bookingRepository.findIntervalsByItemIdAndEndAfter(itemId,
+                BookingIntervalIndex.BLOCKING_STATUSES, now));
+        synchronized (busyIntervalsByItem) {
+            if (generations.get(stripe) == generation) {
+                busyIntervalsByItem.put(itemId, busyIntervals);
+            }
+        }
+
+        log.debug("Загружено занятых периодов вещи с id = {}: {}.", itemId, busyIntervals.size());
+        return busyIntervals;
+    }
+
+    static List<TimeInterval> merge(List<BookingInterval> intervals) {
+        final List<TimeInterval> merged = new ArrayList<>();
+        LocalDateTime start = null;
+        LocalDateTime end = null;
+        for (BookingInterval interval : intervals) {
+            if (end != null && !interval.getStart().isAfter(end)) {
+                if (interval.getEnd().isAfter(end)) {
+                    end = interval.getEnd();
+                }
+            } else {
+                if (end != null) {
+                    merged.add(new TimeInterval(start, end));
+                }
+
+                start = interval.getStart();
+                end = interval.getEnd();
+            }
+        }
+
+        if (end != null) {
+            merged.add(new TimeInterval(start, end));
+        }
+
+        return Collections.unmodifiableList(merged);
+    }
+
+    static List<TimeInterval> computeFreeIntervals(List<TimeInterval> busyIntervals, LocalDateTime from,
+                                                   LocalDateTime to) {
+        final List<TimeInterval> free = new ArrayList<>();
+        LocalDateTime cursor = from;
+        for (int i = firstEndingAfter(busyIntervals, cursor); i < busyIntervals.size(); i++) {
+            final TimeInterval busy = busyIntervals.get(i);
+            if (!busy.getStart().isBefore(to)) {
+                break;
+            }
+
+            if (busy.getStart().isAfter(cursor)) {
+                free.add(new TimeInterval(cursor, busy.getStart()));
+            }
+
+            cursor = busy.getEnd();
+        }
+
+        if (cursor.isBefore(to)) {
+            free.add(new TimeInterval(cursor, to));
+        }
+
+        return free;
+    }
+
+    private static int firstEndingAfter(List<TimeInterval> busyIntervals, LocalDateTime moment) {
+        int low = 0;
+        int high = busyIntervals.size();
+        while (low < high) {
+            final int middle = (low + high) >>> 1;
+            if (busyIntervals.get(middle).getEnd().isAfter(moment)) {
+                high = middle;
+            } else {
+                low = middle + 1;
+            }
+        }
+
+        return low;
+    }
+
+    private static int stripeOf(long itemId) {
+        return (int) (itemId & (GENERATION_STRIPES - 1));
+    }
+}
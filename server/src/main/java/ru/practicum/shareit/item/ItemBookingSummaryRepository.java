@@ -0,0 +1,28 @@
+package ru.practicum.shareit.item;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import ru.practicum.shareit.item.model.ItemBookingSummary;
+
+import javax.persistence.LockModeType;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface ItemBookingSummaryRepository extends JpaRepository<ItemBookingSummary, Long> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select summary " +
+            "from ItemBookingSummary summary " +
+            "where summary.itemId = :itemId")
+    Optional<ItemBookingSummary> findByIdForUpdate(Long itemId);
+
+    @Query("select summary.itemId " +
+            "from ItemBookingSummary summary " +
+            "where summary.nextBooking.start <= :now " +
+            "AND summary.itemId > :afterId " +
+            "order by summary.itemId asc")
+    List<Long> findItemIdsWithNextBookingStartedBefore(LocalDateTime now, Long afterId, Pageable pageable);
+}
@@ -0,0 +1,23 @@
+package ru.practicum.shareit.item;
+
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.model.ItemBookingSummary;
+
+import java.util.Collection;
+import java.util.Map;
+
+public interface ItemBookingSummaryService {
+    void createSummary(long itemId);
+
+    void onBookingCreated(Booking booking);
+
+    void onBookingStatusChanged(Booking booking);
+
+    Map<Long, ItemBookingSummary> getSummaries(Collection<Long> itemIds);
+
+    void refresh(Collection<Long> itemIds);
+
+    void roll();
+
+    void rebuild();
+}
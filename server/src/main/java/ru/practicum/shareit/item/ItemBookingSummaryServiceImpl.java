@@ -0,0 +1,250 @@
+package ru.practicum.shareit.item;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.BookingArchiveRepository;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.model.BookingSnapshot;
+import ru.practicum.shareit.item.model.ItemBookingSummary;
+import ru.practicum.shareit.lease.LeaseService;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ItemBookingSummaryServiceImpl implements ItemBookingSummaryService {
+    static final Collection<BookingStatus> SUMMARY_STATUSES = List.of(BookingStatus.WAITING, BookingStatus.APPROVED);
+    static final String ROLL_LEASE_NAME = "item-summary-roll";
+    static final String REBUILD_LEASE_NAME = "item-summary-rebuild";
+
+    private final ItemRepository itemRepository;
+    private final BookingRepository bookingRepository;
+    private final BookingArchiveRepository bookingArchiveRepository;
+    private final ItemBookingSummaryRepository summaryRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final LeaseService leaseService;
+
+    @Value("${shareit.booking-summary.chunk-size:500}")
+    private int chunkSize = 500;
+
+    @Value("${shareit.booking-summary.lease:PT5M}")
+    private Duration leaseDuration = Duration.ofMinutes(5);
+
+    @Override
+    @Transactional
+    public void createSummary(long itemId) {
+        summaryRepository.save(ItemBookingSummary.builder()
+                .itemId(itemId)
+                .build());
+    }
+
+    @Override
+    @Transactional
+    public void onBookingCreated(Booking booking) {
+        final ItemBookingSummary summary = lockSummary(booking.getItem().getId());
+        apply(summary, booking, LocalDateTime.now());
+        summaryRepository.save(summary);
+    }
+
+    @Override
+    @Transactional
+    public void onBookingStatusChanged(Booking booking) {
+        final long itemId = booking.getItem().getId();
+        final ItemBookingSummary summary = lockSummary(itemId);
+        if (SUMMARY_STATUSES.contains(booking.getStatus())) {
+            apply(summary, booking, LocalDateTime.now());
+            summaryRepository.save(summary);
+        } else if (references(summary.getLastBooking(), booking) || references(summary.getNextBooking(), booking)) {
+            log.debug("Пересчёт сводки бронирований вещи с id = {}.", itemId);
+            recompute(List.of(itemId));
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<Long, ItemBookingSummary> getSummaries(Collection<Long> itemIds) {
+        final LocalDateTime now = LocalDateTime.now();
+        final Map<Long, ItemBookingSummary> summaries = summaryRepository.findAllById(itemIds).stream()
+                .collect(Collectors.toMap(ItemBookingSummary::getItemId, Function.identity()));
+        final List<Long> staleItemIds = itemIds.stream()
+                .filter(itemId -> !summaries.containsKey(itemId) || isStale(summaries.get(itemId), now))
+                .collect(Collectors.toList());
+        if (!staleItemIds.isEmpty()) {
+            summaries.putAll(compute(staleItemIds));
+        }
+
+        return summaries;
+    }
+
+    @Override
+    @Transactional
+    public void refresh(Collection<Long> itemIds) {
+        if (!itemIds.isEmpty()) {
+            recompute(itemIds);
+        }
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${shareit.booking-summary.roll-delay:PT1M}")
+    public void roll() {
+        if (!leaseService.tryAcquire(ROLL_LEASE_NAME, leaseDuration)) {
+            return;
+        }
+
+        final LocalDateTime now = LocalDateTime.now();
+        long afterId = 0;
+        int total = 0;
+        List<Long> itemIds = summaryRepository.findItemIdsWithNextBookingStartedBefore(now, afterId,
+                PageRequest.of(0, chunkSize));
+        while (!itemIds.isEmpty()) {
+            final List<Long> chunk = itemIds;
+            transactionTemplate.executeWithoutResult(status -> recompute(chunk));
+            total += chunk.size();
+            if (!renewLease(ROLL_LEASE_NAME)) {
+                break;
+            }
+
+            afterId = chunk.get(chunk.size() - 1);
+            itemIds = summaryRepository.findItemIdsWithNextBookingStartedBefore(now, afterId,
+                    PageRequest.of(0, chunkSize));
+        }
+
+        if (total > 0) {
+            log.debug("Обновлено сводок бронирований вещей: {}.", total);
+        }
+    }
+
+    @Override
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        if (!leaseService.tryAcquire(REBUILD_LEASE_NAME, leaseDuration)) {
+            return;
+        }
+
+        long afterId = 0;
+        int total = 0;
+        List<Long> itemIds = itemRepository.findIdsWithoutSummaryAfter(afterId, PageRequest.of(0, chunkSize));
+        while (!itemIds.isEmpty()) {
+            final List<Long> chunk = itemIds;
+            transactionTemplate.executeWithoutResult(status -> recompute(chunk));
+            total += chunk.size();
+            if (!renewLease(REBUILD_LEASE_NAME)) {
+                break;
+            }
+
+            afterId = chunk.get(chunk.size() - 1);
+            itemIds = itemRepository.findIdsWithoutSummaryAfter(afterId, PageRequest.of(0, chunkSize));
+        }
+
+        log.debug("Построено недостающих сводок бронирований вещей: {}.", total);
+    }
+
+    private boolean renewLease(String name) {
+        if (leaseService.tryAcquire(name, leaseDuration)) {
+            return true;
+        }
+
+        log.warn("Аренда \"{}\" потеряна, пересчёт сводок бронирований прерван.", name);
+        return false;
+    }
+
+    private Map<Long, ItemBookingSummary> recompute(Collection<Long> itemIds) {
+        final Map<Long, ItemBookingSummary> summaries = compute(itemIds);
+        summaryRepository.saveAll(summaries.values());
+        return summaries;
+    }
+
+    private Map<Long, ItemBookingSummary> compute(Collection<Long> itemIds) {
+        final Map<Long, Booking> lastBookings = groupByItemId(
+                bookingRepository.findLastBookingsByItemIds(itemIds, SUMMARY_STATUSES));
+        final Map<Long, Booking> nextBookings = groupByItemId(
+                bookingRepository.findNextBookingsByItemIds(itemIds, SUMMARY_STATUSES));
+        final Map<Long, BookingSnapshot> archivedLastBookings = findArchivedLastBookings(itemIds.stream()
+                .filter(itemId -> !lastBookings.containsKey(itemId))
+                .collect(Collectors.toList()));
+        final Map<Long, ItemBookingSummary> summaries = new HashMap<>();
+        for (Long itemId : itemIds) {
+            final ItemBookingSummary summary = ItemBookingSummary.builder()
+                    .itemId(itemId)
+                    .lastBooking(lastBookings.containsKey(itemId)
+                            ? toSnapshot(lastBookings.get(itemId))
+                            : archivedLastBookings.get(itemId))
+                    .nextBooking(toSnapshot(nextBookings.get(itemId)))
+                    .build();
+            summaries.put(itemId, summary);
+        }
+
+        return summaries;
+    }
+
+    private Map<Long, BookingSnapshot> findArchivedLastBookings(Collection<Long> itemIds) {
+        if (itemIds.isEmpty()) {
+            return Map.of();
+        }
+
+        return bookingArchiveRepository.findLastBookingsByItemIds(itemIds, SUMMARY_STATUSES).stream()
+                .collect(Collectors.toMap(booking -> booking.getItem().getId(), BookingSnapshot::of,
+                        BinaryOperator.maxBy(Comparator.comparing(BookingSnapshot::getBookingId))));
+    }
+
+    private ItemBookingSummary lockSummary(long itemId) {
+        return summaryRepository.findByIdForUpdate(itemId)
+                .orElseGet(() -> ItemBookingSummary.builder()
+                        .itemId(itemId)
+                        .build());
+    }
+
+    private static void apply(ItemBookingSummary summary, Booking booking, LocalDateTime now) {
+        if (booking.getStart().isBefore(now)) {
+            final BookingSnapshot last = summary.getLastBooking();
+            if (last == null || last.getStart() == null || booking.getStart().isAfter(last.getStart())) {
+                summary.setLastBooking(BookingSnapshot.of(booking));
+            }
+        } else if (booking.getStart().isAfter(now)) {
+            final BookingSnapshot next = summary.getNextBooking();
+            if (next == null || next.getStart() == null || booking.getStart().isBefore(next.getStart())) {
+                summary.setNextBooking(BookingSnapshot.of(booking));
+            }
+        }
+    }
+
+    private static boolean isStale(ItemBookingSummary summary, LocalDateTime now) {
+        final BookingSnapshot next = summary.getNextBooking();
+        return next != null && next.getStart() != null && !next.getStart().isAfter(now);
+    }
+
+    private static boolean references(BookingSnapshot snapshot, Booking booking) {
+        return snapshot != null && Objects.equals(snapshot.getBookingId(), booking.getId());
+    }
+
+    private static BookingSnapshot toSnapshot(Booking booking) {
+        return booking == null ? null : BookingSnapshot.of(booking);
+    }
+
+    private static Map<Long, Booking> groupByItemId(Collection<Booking> bookings) {
+        return bookings.stream()
+                .collect(Collectors.toMap(booking -> booking.getItem().getId(), Function.identity(),
+                        BinaryOperator.maxBy(Comparator.comparing(Booking::getId))));
+    }
+}
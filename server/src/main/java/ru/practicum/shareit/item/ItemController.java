@@ -2,19 +2,27 @@ package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Slice;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.CommentDtoForResponse;
+import ru.practicum.shareit.item.dto.FreeIntervalDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoForResponse;
 
+import java.time.LocalDateTime;
 import java.util.Collection;
+import java.util.List;
 
 @Slf4j
 @RestController
 @RequestMapping("/items")
 @RequiredArgsConstructor
 public class ItemController {
+    static final String HAS_MORE_HEADER = "X-Has-More";
+
     private final ItemService itemService;
 
     @PostMapping
@@ -46,10 +54,38 @@ public class ItemController {
     }
 
     @GetMapping("/search")
-    public Collection<ItemDto> getByText(@RequestHeader("X-Sharer-User-Id") long userId,
-                                         @RequestParam(name = "text") String text) {
+    public ResponseEntity<Collection<ItemDto>> getByText(
+            @RequestHeader("X-Sharer-User-Id") long userId,
+            @RequestParam(name = "text") String text,
+            @RequestParam(name = "start", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+            @RequestParam(name = "end", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
+            @RequestParam(name = "from", defaultValue = "0") int from,
+            @RequestParam(name = "size", defaultValue = "10") int size) {
         log.debug("Пользователь с id = {} ищет вещь по запросу \"{}\".", userId, text);
-        return itemService.getByText(userId, text);
+        final Slice<ItemDto> items;
+        if (start == null || end == null) {
+            items = itemService.getByText(userId, text, from, size);
+        } else {
+            log.debug("Поиск вещей, свободных с {} по {}.", start, end);
+            items = itemService.getByText(userId, text, start, end, from, size);
+        }
+
+        return ResponseEntity.ok()
+                .header(HAS_MORE_HEADER, String.valueOf(items.hasNext()))
+                .body(items.getContent());
+    }
+
+    @GetMapping("/{itemId}/availability")
+    public List<FreeIntervalDto> getAvailability(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                 @PathVariable long itemId,
+                                                 @RequestParam(name = "from")
+                                                 @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                 @RequestParam(name = "to")
+                                                 @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        log.debug("Пользователь с id = {} запрашивает свободные периоды вещи с id = {}.", userId, itemId);
+        return itemService.getAvailability(userId, itemId, from, to);
     }
 
     @PostMapping("/{itemId}/comment")
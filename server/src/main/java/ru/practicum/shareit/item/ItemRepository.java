@@ -1,18 +1,62 @@
 package ru.practicum.shareit.item;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.item.model.Item;
 
+import javax.persistence.LockModeType;
+import java.time.LocalDateTime;
 import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
 public interface ItemRepository extends JpaRepository<Item, Long> {
     Collection<Item> findAllByOwnerIdOrderByIdAsc(Long ownerId);
 
+    @Query(" select i.id " +
+            "from Item i " +
+            "where (upper(i.name) like upper(concat('%', ?1, '%')) " +
+            "or upper(i.description) like upper(concat('%', ?1, '%'))) " +
+            "and i.available = true " +
+            "order by case when upper(i.name) like upper(concat('%', ?1, '%')) then 0 else 1 end, i.id")
+    List<Long> searchIds(String text, Pageable pageable);
+
+    List<Item> findAllByIdGreaterThanOrderByIdAsc(long id, Pageable pageable);
+
+    @Query("select i.id " +
+            "from Item i " +
+            "where i.id > :afterId " +
+            "order by i.id asc")
+    List<Long> findIdsAfter(Long afterId, Pageable pageable);
+
     @Query(" select i " +
             "from Item i " +
-            "where upper(i.name) like upper(concat('%', ?1, '%')) " +
-            "or upper(i.description) like upper(concat('%', ?1, '%')) " +
-            "and i.available = true")
-    Collection<Item> search(String text);
-}
\ No newline at end of file
+            "where i.available = true " +
+            "and (upper(i.name) like upper(concat('%', :text, '%')) " +
+            "or upper(i.description) like upper(concat('%', :text, '%'))) " +
+            "and not exists (select bkg.id from Booking bkg " +
+            "where bkg.item = i " +
+            "and bkg.status in :statuses " +
+            "and bkg.start < :end " +
+            "and bkg.end > :start) " +
+            "order by i.id asc")
+    Slice<Item> searchAvailableBetween(String text, Collection<BookingStatus> statuses, LocalDateTime start,
+                                       LocalDateTime end, Pageable pageable);
+
+    @Query("select i.id " +
+            "from Item i " +
+            "where i.id > :afterId " +
+            "and not exists (select summary.itemId from ItemBookingSummary summary where summary.itemId = i.id) " +
+            "order by i.id asc")
+    List<Long> findIdsWithoutSummaryAfter(Long afterId, Pageable pageable);
+
+    @Lock(LockModeType.OPTIMISTIC_FORCE_INCREMENT)
+    @Query("select i " +
+            "from Item i " +
+            "where i.id = :itemId")
+    Optional<Item> findByIdForVersionIncrement(long itemId);
+}
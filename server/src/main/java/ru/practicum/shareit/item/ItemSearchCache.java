@@ -0,0 +1,206 @@
+package ru.practicum.shareit.item;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.util.TransactionCallbacks;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Component
+public class ItemSearchCache {
+    private final ItemSearchEngine itemSearchEngine;
+    private final int window;
+    private final Map<String, Entry> entriesByQuery;
+    private final Map<Long, Set<String>> queriesByItemId = new HashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+    private final Counter hitCounter;
+    private final Counter missCounter;
+    private final Counter invalidatedCounter;
+
+    public ItemSearchCache(ItemSearchEngine itemSearchEngine,
+                           MeterRegistry meterRegistry,
+                           @Value("${shareit.item-search.cache.size:1000}") int cacheSize,
+                           @Value("${shareit.item-search.cache.window:200}") int window) {
+        this.itemSearchEngine = itemSearchEngine;
+        this.window = window;
+        this.entriesByQuery = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() > cacheSize) {
+                    unlink(eldest.getValue());
+                    return true;
+                }
+
+                return false;
+            }
+        };
+        this.hitCounter = Counter.builder("shareit.item.search.cache.hits")
+                .description("Поисковые запросы, обслуженные из кэша")
+                .register(meterRegistry);
+        this.missCounter = Counter.builder("shareit.item.search.cache.misses")
+                .description("Поисковые запросы, выполненные поисковым движком")
+                .register(meterRegistry);
+        this.invalidatedCounter = Counter.builder("shareit.item.search.cache.invalidated")
+                .description("Записи кэша поиска, сброшенные после изменения вещей")
+                .register(meterRegistry);
+        Gauge.builder("shareit.item.search.cache.hit-ratio", this, ItemSearchCache::getHitRatio)
+                .description("Доля поисковых запросов, обслуженных из кэша")
+                .register(meterRegistry);
+        Gauge.builder("shareit.item.search.cache.size", this, ItemSearchCache::size)
+                .description("Количество поисковых запросов в кэше")
+                .register(meterRegistry);
+    }
+
+    public List<Long> search(String text, int from, int size) {
+        final String query = normalize(text);
+        Entry entry;
+        synchronized (entriesByQuery) {
+            entry = entriesByQuery.get(query);
+        }
+
+        if (entry != null && (entry.complete || (long) from + size <= window)) {
+            hitCounter.increment();
+            return entry.page(from, size);
+        }
+
+        if ((long) from + size > window) {
+            return itemSearchEngine.search(query, from, size);
+        }
+
+        missCounter.increment();
+        final long startGeneration = generation.get();
+        final List<Long> itemIds = itemSearchEngine.search(query, 0, window);
+        entry = new Entry(query, itemIds, itemIds.size() < window);
+        synchronized (entriesByQuery) {
+            if (generation.get() == startGeneration) {
+                link(entry);
+            }
+        }
+
+        return entry.page(from, size);
+    }
+
+    public void evictAfterCommit(Item item) {
+        final long itemId = item.getId();
+        final String name = normalize(item.getName());
+        final String description = normalize(item.getDescription());
+        final boolean available = Boolean.TRUE.equals(item.getAvailable());
+        TransactionCallbacks.runAfterCommit(() -> evict(itemId, name, description, available));
+    }
+
+    public void clear() {
+        synchronized (entriesByQuery) {
+            generation.incrementAndGet();
+            entriesByQuery.clear();
+            queriesByItemId.clear();
+        }
+    }
+
+    double getHitRatio() {
+        final double hits = hitCounter.count();
+        final double total = hits + missCounter.count();
+        return total == 0 ? 0 : hits / total;
+    }
+
+    int size() {
+        synchronized (entriesByQuery) {
+            return entriesByQuery.size();
+        }
+    }
+
+    private void evict(long itemId, String name, String description, boolean available) {
+        final Set<String> terms = available ? new HashSet<>(ItemTextAnalyzer.analyze(name + " " + description))
+                : Collections.emptySet();
+        final Set<String> stale;
+        synchronized (entriesByQuery) {
+            generation.incrementAndGet();
+            stale = new HashSet<>(queriesByItemId.getOrDefault(itemId, Collections.emptySet()));
+            if (available) {
+                for (Entry entry : entriesByQuery.values()) {
+                    if (entry.matches(name, description, terms)) {
+                        stale.add(entry.query);
+                    }
+                }
+            }
+
+            for (String query : stale) {
+                unlink(entriesByQuery.remove(query));
+            }
+
+            invalidatedCounter.increment(stale.size());
+        }
+
+        if (!stale.isEmpty()) {
+            log.debug("Сброшено запросов в кэше поиска после изменения вещи с id = {}: {}.", itemId, stale.size());
+        }
+    }
+
+    private void link(Entry entry) {
+        unlink(entriesByQuery.put(entry.query, entry));
+        for (long itemId : entry.itemIds) {
+            queriesByItemId.computeIfAbsent(itemId, id -> new HashSet<>()).add(entry.query);
+        }
+    }
+
+    private void unlink(Entry entry) {
+        if (entry == null) {
+            return;
+        }
+
+        for (long itemId : entry.itemIds) {
+            final Set<String> queries = queriesByItemId.get(itemId);
+            if (queries != null && queries.remove(entry.query) && queries.isEmpty()) {
+                queriesByItemId.remove(itemId);
+            }
+        }
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.toUpperCase(Locale.ROOT);
+    }
+
+    private static class Entry {
+        private final String query;
+        private final List<String> terms;
+        private final long[] itemIds;
+        private final boolean complete;
+
+        Entry(String query, List<Long> itemIds, boolean complete) {
+            this.query = query;
+            this.terms = ItemTextAnalyzer.analyze(query);
+            this.itemIds = itemIds.stream().mapToLong(Long::longValue).toArray();
+            this.complete = complete;
+        }
+
+        List<Long> page(int from, int size) {
+            if (from >= itemIds.length) {
+                return Collections.emptyList();
+            }
+
+            return Arrays.stream(itemIds, from, (int) Math.min((long) from + size, itemIds.length))
+                    .boxed()
+                    .collect(Collectors.toList());
+        }
+
+        boolean matches(String name, String description, Set<String> itemTerms) {
+            return name.contains(query) || description.contains(query)
+                    || !terms.isEmpty() && itemTerms.containsAll(terms);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package ru.practicum.shareit.item;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+@Slf4j
+@Component
+@Endpoint(id = "itemsearch")
+@RequiredArgsConstructor
+public class ItemSearchEndpoint {
+    private final ItemSearchEngine itemSearchEngine;
+    private final ItemSearchCache itemSearchCache;
+
+    @WriteOperation
+    public Map<String, Integer> reindex() {
+        log.info("Запущена полная переиндексация вещей.");
+        final int indexed = itemSearchEngine.reindex();
+        itemSearchCache.clear();
+        log.info("Переиндексация вещей завершена, проиндексировано: {}.", indexed);
+        return Map.of("indexed", indexed);
+    }
+}
@@ -0,0 +1,13 @@
+package ru.practicum.shareit.item;
+
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.List;
+
+public interface ItemSearchEngine {
+    List<Long> search(String text, int from, int size);
+
+    void indexAfterCommit(Item item);
+
+    int reindex();
+}
@@ -1,12 +1,16 @@
 package ru.practicum.shareit.item;
 
+import org.springframework.data.domain.Slice;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.CommentDtoForResponse;
+import ru.practicum.shareit.item.dto.FreeIntervalDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoForResponse;
 import ru.practicum.shareit.item.model.Item;
 
+import java.time.LocalDateTime;
 import java.util.Collection;
+import java.util.List;
 
 public interface ItemService {
     ItemDto add(Long userId, ItemDto itemDto);
@@ -17,9 +21,15 @@ public interface ItemService {
 
     Item getItem(long id);
 
+    void incrementItemVersion(long itemId);
+
     Collection<ItemDtoForResponse> getAll(long userId);
 
-    Collection<ItemDto> getByText(long userId, String text);
+    Slice<ItemDto> getByText(long userId, String text, int from, int size);
+
+    Slice<ItemDto> getByText(long userId, String text, LocalDateTime start, LocalDateTime end, int from, int size);
+
+    List<FreeIntervalDto> getAvailability(long userId, long itemId, LocalDateTime from, LocalDateTime to);
 
     void validateIsUsersItem(long userId, long itemId);
 
@@ -2,25 +2,39 @@ package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.BookingArchiveRepository;
+import ru.practicum.shareit.booking.BookingIntervalIndex;
 import ru.practicum.shareit.booking.BookingRepository;
-import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.dto.BookingDtoForResponse;
 import ru.practicum.shareit.exception.IncorrectCommentException;
+import ru.practicum.shareit.exception.IncorrectSearchPageException;
 import ru.practicum.shareit.exception.ItemNotFoundException;
 import ru.practicum.shareit.exception.UnauthorizedOperationException;
 import ru.practicum.shareit.item.dto.*;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemBookingSummary;
 import ru.practicum.shareit.request.ItemRequest;
 import ru.practicum.shareit.request.ItemRequestService;
 import ru.practicum.shareit.user.UserService;
 import ru.practicum.shareit.user.model.User;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Slf4j
 @Service
@@ -29,8 +43,19 @@ public class ItemServiceImpl implements ItemService {
     private final UserService userService;
     private final ItemRepository itemRepository;
     private final BookingRepository bookingRepository;
+    private final BookingArchiveRepository bookingArchiveRepository;
     private final CommentRepository commentRepository;
     private final ItemRequestService itemRequestService;
+    private final ItemBookingSummaryService itemBookingSummaryService;
+    private final ItemAvailabilityCalendar itemAvailabilityCalendar;
+    private final ItemSearchEngine itemSearchEngine;
+    private final ItemSearchCache itemSearchCache;
+
+    @Value("${shareit.item-search.max-page-size:100}")
+    private int maxSearchPageSize = 100;
+
+    @Value("${shareit.item-search.max-window:10000}")
+    private int maxSearchWindow = 10000;
 
     @Override
     @Transactional
@@ -43,6 +68,9 @@ public class ItemServiceImpl implements ItemService {
 
         final Item item = ItemMapper.toItem(itemDto, owner, itemRequest);
         final Item savedItem = itemRepository.save(item);
+        itemBookingSummaryService.createSummary(savedItem.getId());
+        itemSearchEngine.indexAfterCommit(savedItem);
+        itemSearchCache.evictAfterCommit(savedItem);
         return ItemMapper.toItemDto(savedItem);
     }
 
@@ -66,6 +94,8 @@ public class ItemServiceImpl implements ItemService {
         }
 
         final Item item = itemRepository.save(savedItem);
+        itemSearchEngine.indexAfterCommit(item);
+        itemSearchCache.evictAfterCommit(item);
         return ItemMapper.toItemDto(item);
     }
 
@@ -74,9 +104,8 @@ public class ItemServiceImpl implements ItemService {
         userService.validateUserExists(userId);
         final Item item = getItem(itemId);
         if (item.getOwner().getId() == userId) {
-            return ItemMapper.toItemDtoForResponse(item,
-                    bookingRepository.getCurrentOrPastBookingByItem(item),
-                    bookingRepository.getFutureBookingByItem(item));
+            final ItemBookingSummary summary = itemBookingSummaryService.getSummaries(List.of(itemId)).get(itemId);
+            return toItemDtoForResponse(item, summary);
         } else {
             return ItemMapper.toItemDtoForResponse(item, null, null);
         }
@@ -85,26 +114,63 @@ public class ItemServiceImpl implements ItemService {
     @Override
     public Collection<ItemDtoForResponse> getAll(long userId) {
         userService.validateUserExists(userId);
-        return itemRepository.findAllByOwnerIdOrderByIdAsc(userId)
-                .stream()
-                .map(item -> ItemMapper.toItemDtoForResponse(item,
-                        bookingRepository.getCurrentOrPastBookingByItem(item),
-                        bookingRepository.getFutureBookingByItem(item)))
+        final Collection<Item> items = itemRepository.findAllByOwnerIdOrderByIdAsc(userId);
+        if (items.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        final Collection<Long> itemIds = items.stream()
+                .map(Item::getId)
+                .collect(Collectors.toList());
+        final Map<Long, ItemBookingSummary> summaries = itemBookingSummaryService.getSummaries(itemIds);
+        return items.stream()
+                .map(item -> toItemDtoForResponse(item, summaries.get(item.getId())))
                 .collect(Collectors.toList());
     }
 
     @Override
-    public Collection<ItemDto> getByText(long userId, String text) {
+    public Slice<ItemDto> getByText(long userId, String text, int from, int size) {
         userService.validateUserExists(userId);
+        final Pageable pageable = toSearchPage(from, size);
         if (text.isEmpty()) {
             log.debug("Текст для поиска не содержит символов!");
-            return Collections.emptyList();
-        } else {
-            return itemRepository.search(text)
-                    .stream()
-                    .map(ItemMapper::toItemDto)
-                    .collect(Collectors.toList());
+            return new SliceImpl<>(Collections.emptyList(), pageable, false);
+        }
+
+        final int pageSize = pageable.getPageSize();
+        final List<ItemDto> items = new ArrayList<>(pageSize + 1);
+        int offset = from;
+        while (items.size() <= pageSize && offset < maxSearchWindow) {
+            final int limit = pageSize + 1 - items.size();
+            final List<Long> itemIds = itemSearchCache.search(text, offset, limit);
+            if (itemIds.isEmpty()) {
+                break;
+            }
+
+            items.addAll(findAvailable(itemIds));
+            offset += itemIds.size();
+            if (itemIds.size() < limit) {
+                break;
+            }
+        }
+
+        final boolean hasNext = items.size() > pageSize;
+        return new SliceImpl<>(hasNext ? items.subList(0, pageSize) : items, pageable, hasNext);
+    }
+
+    @Override
+    public Slice<ItemDto> getByText(long userId, String text, LocalDateTime start, LocalDateTime end,
+                                    int from, int size) {
+        userService.validateUserExists(userId);
+        final Pageable pageable = toSearchPage(from, size);
+        if (text.isEmpty()) {
+            log.debug("Текст для поиска не содержит символов!");
+            return new SliceImpl<>(Collections.emptyList(), pageable, false);
         }
+
+        return itemRepository.searchAvailableBetween(text, BookingIntervalIndex.BLOCKING_STATUSES, start, end,
+                        pageable)
+                .map(ItemMapper::toItemDto);
     }
 
     @Override
@@ -117,6 +183,19 @@ public class ItemServiceImpl implements ItemService {
         return CommentMapper.toCommentDtoForResponse(commentRepository.save(comment));
     }
 
+    @Override
+    public List<FreeIntervalDto> getAvailability(long userId, long itemId, LocalDateTime from, LocalDateTime to) {
+        userService.validateUserExists(userId);
+        final Item item = getItem(itemId);
+        if (!Boolean.TRUE.equals(item.getAvailable())) {
+            return Collections.emptyList();
+        }
+
+        return itemAvailabilityCalendar.getFreeIntervals(itemId, from, to).stream()
+                .map(ItemMapper::toFreeIntervalDto)
+                .collect(Collectors.toList());
+    }
+
     @Override
     public Item getItem(long id) {
         return itemRepository.findById(id).orElseThrow(() -> {
@@ -125,6 +204,14 @@ public class ItemServiceImpl implements ItemService {
         });
     }
 
+    @Override
+    public void incrementItemVersion(long itemId) {
+        itemRepository.findByIdForVersionIncrement(itemId).orElseThrow(() -> {
+            log.error("Вещь с id = {} не найдена!", itemId);
+            throw new ItemNotFoundException(itemId);
+        });
+    }
+
     @Override
     public void validateIsUsersItem(long userId, long itemId) {
         if (itemRepository.findAllByOwnerIdOrderByIdAsc(userId) == null
@@ -138,11 +225,42 @@ public class ItemServiceImpl implements ItemService {
         }
     }
 
+    private List<ItemDto> findAvailable(List<Long> itemIds) {
+        final Map<Long, Item> itemsById = itemRepository.findAllById(itemIds).stream()
+                .collect(Collectors.toMap(Item::getId, item -> item));
+        return itemIds.stream()
+                .map(itemsById::get)
+                .filter(item -> item != null && Boolean.TRUE.equals(item.getAvailable()))
+                .map(ItemMapper::toItemDto)
+                .collect(Collectors.toList());
+    }
+
+    private Pageable toSearchPage(int from, int size) {
+        final int pageSize = Math.min(size, maxSearchPageSize);
+        if ((long) from + pageSize > maxSearchWindow) {
+            log.error("Запрошена страница поиска за пределами первых {} результатов: from = {}, size = {}.",
+                    maxSearchWindow, from, size);
+            throw new IncorrectSearchPageException(maxSearchWindow);
+        }
+
+        return PageRequest.of(from / pageSize, pageSize);
+    }
+
+    private static ItemDtoForResponse toItemDtoForResponse(Item item, ItemBookingSummary summary) {
+        if (summary == null) {
+            return ItemMapper.toItemDtoForResponse(item, null, null);
+        }
+
+        return ItemMapper.toItemDtoForResponse(item, summary.getLastBooking(), summary.getNextBooking());
+    }
+
     private void validateItemWasBookedByUser(Item item, User user) {
-        if (bookingRepository.getAllPastByBookerOrderByStartDesc(user, PageRequest.of(0, 1))
-                .stream()
-                .map(Booking::getItem)
-                .noneMatch(item::equals)) {
+        if (Stream.concat(bookingRepository.getAllPastByBookerOrderByStartDesc(user, PageRequest.of(0, 1)).stream(),
+                        bookingArchiveRepository.getAllByBookerOrderByStartDesc(user, PageRequest.of(0, 1)).stream())
+                .max(Comparator.comparing(BookingDtoForResponse::getStart))
+                .map(booking -> booking.getItem().getId())
+                .filter(item.getId()::equals)
+                .isEmpty()) {
             log.error("Пользователь с id = {} не арендовал ранее вещь с id = {}.", user.getId(), item.getId());
             throw new IncorrectCommentException("Попытка добавить комментарий " +
                     "к незнакомой вещи пользователем с id = " + user.getId() + "!");
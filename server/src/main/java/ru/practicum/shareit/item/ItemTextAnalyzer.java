@@ -0,0 +1,132 @@
+package ru.practicum.shareit.item;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class ItemTextAnalyzer {
+    private static final int MIN_STEM_LENGTH = 2;
+    private static final String RUSSIAN_VOWELS = "аеиоуыэюя";
+    private static final String ENGLISH_VOWELS = "aeiouy";
+    private static final String[] RUSSIAN_REFLEXIVE_ENDINGS = {"ся", "сь"};
+    private static final String[] RUSSIAN_ENDINGS = {
+            "ившись", "ывшись", "вшись", "ивши", "ывши",
+            "иями", "ями", "ами", "иях", "ием", "иям", "ией", "ого", "его", "ому", "ему", "ыми", "ими",
+            "ешь", "ишь", "ете", "ите", "ают", "яют", "ует", "юет", "ить", "ыть", "ать", "ять", "еть", "уть",
+            "ах", "ях", "ам", "ям", "ом", "ем", "ой", "ей", "ий", "ый", "ая", "яя", "ое", "ее", "ые", "ие",
+            "ую", "юю", "ых", "их", "ов", "ев", "ью", "ия", "ии",
+            "а", "я", "о", "е", "и", "ы", "у", "ю", "ь", "й"
+    };
+
+    public static List<String> analyze(String text) {
+        final List<String> terms = new ArrayList<>();
+        if (text == null) {
+            return terms;
+        }
+
+        final String lowerCase = text.toLowerCase(Locale.ROOT).replace('ё', 'е');
+        int start = -1;
+        for (int i = 0; i <= lowerCase.length(); i++) {
+            final boolean partOfToken = i < lowerCase.length() && Character.isLetterOrDigit(lowerCase.charAt(i));
+            if (partOfToken && start < 0) {
+                start = i;
+            } else if (!partOfToken && start >= 0) {
+                terms.add(stem(lowerCase.substring(start, i)));
+                start = -1;
+            }
+        }
+
+        return terms;
+    }
+
+    static String stem(String token) {
+        if (isCyrillic(token)) {
+            return stemRussian(token);
+        }
+
+        return stemEnglish(token);
+    }
+
+    private static String stemRussian(String token) {
+        final String word = stripEnding(token, RUSSIAN_REFLEXIVE_ENDINGS, RUSSIAN_VOWELS);
+        return stripEnding(word, RUSSIAN_ENDINGS, RUSSIAN_VOWELS);
+    }
+
+    private static String stemEnglish(String token) {
+        if (token.endsWith("ies") && token.length() > 4) {
+            return token.substring(0, token.length() - 3) + "y";
+        }
+
+        if (token.endsWith("sses")) {
+            return token.substring(0, token.length() - 2);
+        }
+
+        if (token.endsWith("es") && (token.endsWith("shes") || token.endsWith("ches") || token.endsWith("xes"))) {
+            return token.substring(0, token.length() - 2);
+        }
+
+        if (token.endsWith("s") && !token.endsWith("ss") && !token.endsWith("us") && token.length() > 3) {
+            return token.substring(0, token.length() - 1);
+        }
+
+        if (token.endsWith("eed")) {
+            return token;
+        }
+
+        for (String ending : new String[]{"ing", "ed"}) {
+            if (token.endsWith(ending) && hasVowel(token.substring(0, token.length() - ending.length()),
+                    ENGLISH_VOWELS) && token.length() - ending.length() >= 3) {
+                return undouble(token.substring(0, token.length() - ending.length()));
+            }
+        }
+
+        return token;
+    }
+
+    private static String stripEnding(String word, String[] endings, String vowels) {
+        for (String ending : endings) {
+            if (word.endsWith(ending)) {
+                final String stem = word.substring(0, word.length() - ending.length());
+                if (stem.length() >= MIN_STEM_LENGTH && hasVowel(stem, vowels)) {
+                    return stem;
+                }
+            }
+        }
+
+        return word;
+    }
+
+    private static String undouble(String stem) {
+        final int length = stem.length();
+        if (length >= 2 && stem.charAt(length - 1) == stem.charAt(length - 2)
+                && "lsz".indexOf(stem.charAt(length - 1)) < 0) {
+            return stem.substring(0, length - 1);
+        }
+
+        return stem;
+    }
+
+    private static boolean hasVowel(String text, String vowels) {
+        for (int i = 0; i < text.length(); i++) {
+            if (vowels.indexOf(text.charAt(i)) >= 0) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private static boolean isCyrillic(String token) {
+        for (int i = 0; i < token.length(); i++) {
+            if (Character.UnicodeBlock.of(token.charAt(i)) == Character.UnicodeBlock.CYRILLIC) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+}
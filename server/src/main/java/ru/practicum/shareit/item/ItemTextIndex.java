@@ -0,0 +1,497 @@
+package ru.practicum.shareit.item;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.util.TransactionCallbacks;
+
+import javax.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shareit.item-search.engine", havingValue = "trigram", matchIfMissing = true)
+public class ItemTextIndex {
+    static final int LOAD_BATCH_SIZE = 1000;
+    private static final int GRAM = 3;
+    private static final int MIN_DELETED_FOR_COMPACTION = 1024;
+    private static final double NAME_WEIGHT = 2.0;
+    private static final double DESCRIPTION_WEIGHT = 1.0;
+    private static final Comparator<Hit> WORST_HIT_FIRST = Comparator.comparingDouble((Hit hit) -> hit.score)
+            .thenComparing((Hit hit) -> hit.itemId, Comparator.reverseOrder());
+
+    private final ItemRepository itemRepository;
+    private final int reindexThreads;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Segment segment = new Segment();
+    private List<Doc> updatesDuringReindex;
+
+    public ItemTextIndex(ItemRepository itemRepository,
+                         @Value("${shareit.item-search.reindex-threads:4}") int reindexThreads) {
+        this.itemRepository = itemRepository;
+        this.reindexThreads = reindexThreads;
+    }
+
+    @PostConstruct
+    public void load() {
+        reindex();
+    }
+
+    public synchronized int reindex() {
+        lock.writeLock().lock();
+        try {
+            updatesDuringReindex = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        final Segment loaded;
+        try {
+            loaded = loadSegment();
+        } catch (RuntimeException e) {
+            swap(null);
+            throw e;
+        }
+
+        swap(loaded);
+        log.debug("Загружено вещей в индекс поиска: {}, триграмм: {}.", loaded.liveCount(),
+                loaded.postingsByTrigram.size());
+        return loaded.liveCount();
+    }
+
+    public List<Long> search(String text, int from, int size) {
+        final String query = normalize(text);
+        final List<String> terms = ItemTextAnalyzer.analyze(text).stream()
+                .distinct()
+                .collect(Collectors.toList());
+        final int limit = (int) Math.min((long) from + size, Integer.MAX_VALUE);
+        final List<Long> ranked;
+        lock.readLock().lock();
+        try {
+            ranked = segment.search(query, terms, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        return from < ranked.size() ? ranked.subList(from, ranked.size()) : Collections.emptyList();
+    }
+
+    public void indexAfterCommit(Item item) {
+        final Doc doc = Doc.of(item);
+        TransactionCallbacks.runAfterCommit(() -> index(doc));
+    }
+
+    boolean isConsistent(Item item) {
+        lock.readLock().lock();
+        try {
+            return segment.contains(item.getId(), normalize(item.getName()), normalize(item.getDescription()),
+                    Boolean.TRUE.equals(item.getAvailable()));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    void index(Item item) {
+        index(Doc.of(item));
+    }
+
+    int size() {
+        lock.readLock().lock();
+        try {
+            return segment.liveCount();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void index(Doc doc) {
+        lock.writeLock().lock();
+        try {
+            segment.update(doc.itemId, doc.name, doc.description, doc.available);
+            if (updatesDuringReindex != null) {
+                updatesDuringReindex.add(doc);
+            }
+
+            if (segment.deletedCount >= MIN_DELETED_FOR_COMPACTION && segment.deletedCount > segment.liveCount()) {
+                segment = segment.compact();
+                log.debug("Индекс поиска вещей уплотнён, вещей: {}.", segment.liveCount());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void swap(Segment loaded) {
+        lock.writeLock().lock();
+        try {
+            if (loaded != null) {
+                for (Doc doc : updatesDuringReindex) {
+                    loaded.update(doc.itemId, doc.name, doc.description, doc.available);
+                }
+
+                segment = loaded;
+            }
+
+            updatesDuringReindex = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private Segment loadSegment() {
+        final Segment loaded = new Segment();
+        List<Long> itemIds = itemRepository.findIdsAfter(0L, PageRequest.of(0, LOAD_BATCH_SIZE));
+        if (itemIds.isEmpty()) {
+            return loaded;
+        }
+
+        final ExecutorService executor = Executors.newFixedThreadPool(reindexThreads, runnable -> {
+            final Thread thread = new Thread(runnable, "item-search-reindex");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            final List<Future<List<Doc>>> batches = new ArrayList<>();
+            while (!itemIds.isEmpty()) {
+                final List<Long> batchIds = itemIds;
+                batches.add(executor.submit(() -> itemRepository.findAllById(batchIds).stream()
+                        .map(Doc::of)
+                        .collect(Collectors.toList())));
+                itemIds = itemRepository.findIdsAfter(batchIds.get(batchIds.size() - 1),
+                        PageRequest.of(0, LOAD_BATCH_SIZE));
+            }
+
+            for (Future<List<Doc>> batch : batches) {
+                for (Doc doc : batch.get()) {
+                    loaded.add(doc.itemId, doc.name, doc.description, doc.available);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Переиндексация вещей прервана.", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Не удалось загрузить вещи в индекс поиска.", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        return loaded;
+    }
+
+    static String normalize(String text) {
+        return text == null ? "" : text.toUpperCase(Locale.ROOT);
+    }
+
+    private static long trigramAt(String text, int index) {
+        return ((long) text.charAt(index) << 32) | ((long) text.charAt(index + 1) << 16) | text.charAt(index + 2);
+    }
+
+    private static class Segment {
+        private final Map<Long, Postings> postingsByTrigram = new HashMap<>();
+        private final Map<String, Postings> postingsByNameTerm = new HashMap<>();
+        private final Map<String, Postings> postingsByDescriptionTerm = new HashMap<>();
+        private final Map<Long, Integer> docByItemId = new HashMap<>();
+        private final BitSet live = new BitSet();
+        private final BitSet available = new BitSet();
+        private long[] itemIds = new long[16];
+        private String[] names = new String[16];
+        private String[] descriptions = new String[16];
+        private int docCount;
+        private int deletedCount;
+
+        int liveCount() {
+            return docCount - deletedCount;
+        }
+
+        void add(long itemId, String name, String description, boolean isAvailable) {
+            if (docCount == itemIds.length) {
+                itemIds = Arrays.copyOf(itemIds, docCount * 2);
+                names = Arrays.copyOf(names, docCount * 2);
+                descriptions = Arrays.copyOf(descriptions, docCount * 2);
+            }
+
+            final int doc = docCount++;
+            itemIds[doc] = itemId;
+            names[doc] = name;
+            descriptions[doc] = description;
+            live.set(doc);
+            available.set(doc, isAvailable);
+            docByItemId.put(itemId, doc);
+            addTrigrams(doc, name);
+            addTrigrams(doc, description);
+            addTerms(doc, name, postingsByNameTerm);
+            addTerms(doc, description, postingsByDescriptionTerm);
+        }
+
+        void update(long itemId, String name, String description, boolean isAvailable) {
+            final Integer doc = docByItemId.get(itemId);
+            if (doc != null && names[doc].equals(name) && descriptions[doc].equals(description)) {
+                available.set(doc, isAvailable);
+                return;
+            }
+
+            if (doc != null) {
+                live.clear(doc);
+                deletedCount++;
+            }
+
+            add(itemId, name, description, isAvailable);
+        }
+
+        boolean contains(long itemId, String name, String description, boolean isAvailable) {
+            final Integer doc = docByItemId.get(itemId);
+            return doc != null && names[doc].equals(name) && descriptions[doc].equals(description)
+                    && available.get(doc) == isAvailable;
+        }
+
+        List<Long> search(String query, List<String> terms, int limit) {
+            final BitSet candidates = new BitSet();
+            collectSubstringMatches(query, candidates);
+            collectTermMatches(terms, candidates);
+            candidates.and(live);
+            candidates.and(available);
+
+            final double[] idfs = idfsOf(terms);
+            final PriorityQueue<Hit> top = new PriorityQueue<>(WORST_HIT_FIRST);
+            for (int doc = candidates.nextSetBit(0); doc >= 0; doc = candidates.nextSetBit(doc + 1)) {
+                top.add(new Hit(itemIds[doc], score(doc, query, terms, idfs)));
+                if (top.size() > limit) {
+                    top.poll();
+                }
+            }
+
+            final List<Long> ranked = new ArrayList<>(top.size());
+            while (!top.isEmpty()) {
+                ranked.add(top.poll().itemId);
+            }
+
+            Collections.reverse(ranked);
+            return ranked;
+        }
+
+        Segment compact() {
+            final Segment compacted = new Segment();
+            for (int doc = live.nextSetBit(0); doc >= 0; doc = live.nextSetBit(doc + 1)) {
+                compacted.add(itemIds[doc], names[doc], descriptions[doc], available.get(doc));
+            }
+
+            return compacted;
+        }
+
+        private void collectSubstringMatches(String query, BitSet candidates) {
+            if (query.length() < GRAM) {
+                for (int doc = available.nextSetBit(0); doc >= 0; doc = available.nextSetBit(doc + 1)) {
+                    if (containsText(doc, query)) {
+                        candidates.set(doc);
+                    }
+                }
+
+                return;
+            }
+
+            final Postings[] lists = postingsOf(query);
+            if (lists.length > 0) {
+                final Postings shortest = lists[0];
+                for (int i = 0; i < shortest.size; i++) {
+                    final int doc = shortest.docs[i];
+                    if (containsInAll(lists, doc) && containsText(doc, query)) {
+                        candidates.set(doc);
+                    }
+                }
+            }
+        }
+
+        private void collectTermMatches(List<String> terms, BitSet candidates) {
+            BitSet matched = null;
+            for (String term : terms) {
+                final BitSet docs = new BitSet();
+                addDocs(postingsByNameTerm.get(term), docs);
+                addDocs(postingsByDescriptionTerm.get(term), docs);
+                if (matched == null) {
+                    matched = docs;
+                } else {
+                    matched.and(docs);
+                }
+
+                if (matched.isEmpty()) {
+                    return;
+                }
+            }
+
+            if (matched != null) {
+                candidates.or(matched);
+            }
+        }
+
+        private double[] idfsOf(List<String> terms) {
+            final double[] idfs = new double[terms.size()];
+            for (int i = 0; i < terms.size(); i++) {
+                final int docFrequency = liveSizeOf(postingsByNameTerm.get(terms.get(i)))
+                        + liveSizeOf(postingsByDescriptionTerm.get(terms.get(i)));
+                idfs[i] = Math.log(1.0 + (double) liveCount() / (1 + docFrequency));
+            }
+
+            return idfs;
+        }
+
+        private double score(int doc, String query, List<String> terms, double[] idfs) {
+            double score = 0;
+            if (names[doc].contains(query)) {
+                score += NAME_WEIGHT;
+            }
+
+            if (descriptions[doc].contains(query)) {
+                score += DESCRIPTION_WEIGHT;
+            }
+
+            for (int i = 0; i < terms.size(); i++) {
+                final Postings inName = postingsByNameTerm.get(terms.get(i));
+                final Postings inDescription = postingsByDescriptionTerm.get(terms.get(i));
+                if (inName != null && inName.contains(doc)) {
+                    score += NAME_WEIGHT * idfs[i];
+                }
+
+                if (inDescription != null && inDescription.contains(doc)) {
+                    score += DESCRIPTION_WEIGHT * idfs[i];
+                }
+            }
+
+            return score;
+        }
+
+        private boolean containsText(int doc, String query) {
+            return names[doc].contains(query) || descriptions[doc].contains(query);
+        }
+
+        private Postings[] postingsOf(String query) {
+            final Map<Long, Postings> distinct = new HashMap<>();
+            for (int i = 0; i + GRAM <= query.length(); i++) {
+                final long trigram = trigramAt(query, i);
+                final Postings postings = postingsByTrigram.get(trigram);
+                if (postings == null) {
+                    return new Postings[0];
+                }
+
+                distinct.put(trigram, postings);
+            }
+
+            final Postings[] lists = distinct.values().toArray(new Postings[0]);
+            Arrays.sort(lists, Comparator.comparingInt(postings -> postings.size));
+            return lists;
+        }
+
+        private static boolean containsInAll(Postings[] lists, int doc) {
+            for (int i = 1; i < lists.length; i++) {
+                if (!lists[i].contains(doc)) {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+
+        private void addTrigrams(int doc, String text) {
+            for (int i = 0; i + GRAM <= text.length(); i++) {
+                postingsByTrigram.computeIfAbsent(trigramAt(text, i), trigram -> new Postings()).add(doc);
+            }
+        }
+
+        private static void addTerms(int doc, String text, Map<String, Postings> postingsByTerm) {
+            for (String term : ItemTextAnalyzer.analyze(text)) {
+                postingsByTerm.computeIfAbsent(term, key -> new Postings()).add(doc);
+            }
+        }
+
+        private static void addDocs(Postings postings, BitSet docs) {
+            if (postings != null) {
+                for (int i = 0; i < postings.size; i++) {
+                    docs.set(postings.docs[i]);
+                }
+            }
+        }
+
+        private int liveSizeOf(Postings postings) {
+            if (postings == null) {
+                return 0;
+            }
+
+            int size = 0;
+            for (int i = 0; i < postings.size; i++) {
+                if (live.get(postings.docs[i])) {
+                    size++;
+                }
+            }
+
+            return size;
+        }
+    }
+
+    private static class Doc {
+        private final long itemId;
+        private final String name;
+        private final String description;
+        private final boolean available;
+
+        Doc(long itemId, String name, String description, boolean available) {
+            this.itemId = itemId;
+            this.name = name;
+            this.description = description;
+            this.available = available;
+        }
+
+        static Doc of(Item item) {
+            return new Doc(item.getId(), normalize(item.getName()), normalize(item.getDescription()),
+                    Boolean.TRUE.equals(item.getAvailable()));
+        }
+    }
+
+    private static class Hit {
+        private final long itemId;
+        private final double score;
+
+        Hit(long itemId, double score) {
+            this.itemId = itemId;
+            this.score = score;
+        }
+    }
+
+    private static class Postings {
+        private int[] docs = new int[4];
+        private int size;
+
+        void add(int doc) {
+            if (size > 0 && docs[size - 1] == doc) {
+                return;
+            }
+
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+            }
+
+            docs[size++] = doc;
+        }
+
+        boolean contains(int doc) {
+            return Arrays.binarySearch(docs, 0, size, doc) >= 0;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package ru.practicum.shareit.item;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.List;
+
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shareit.item-search.engine", havingValue = "trigram", matchIfMissing = true)
+public class ItemTextIndexChecker {
+    private final ItemTextIndex itemTextIndex;
+    private final ItemRepository itemRepository;
+    private final Counter repairedCounter;
+
+    public ItemTextIndexChecker(ItemTextIndex itemTextIndex,
+                                ItemRepository itemRepository,
+                                MeterRegistry meterRegistry) {
+        this.itemTextIndex = itemTextIndex;
+        this.itemRepository = itemRepository;
+        this.repairedCounter = Counter.builder("shareit.item.search.index.repaired")
+                .description("Вещи, расхождение которых с индексом поиска исправлено проверкой")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(initialDelayString = "${shareit.item-search.check-delay:PT15M}",
+            fixedDelayString = "${shareit.item-search.check-delay:PT15M}")
+    public void check() {
+        int checked = 0;
+        int repaired = 0;
+        long afterId = 0;
+        List<Item> items;
+        do {
+            items = itemRepository.findAllByIdGreaterThanOrderByIdAsc(afterId,
+                    PageRequest.of(0, ItemTextIndex.LOAD_BATCH_SIZE));
+            for (Item item : items) {
+                if (!itemTextIndex.isConsistent(item) && repair(item.getId())) {
+                    repaired++;
+                }
+
+                afterId = item.getId();
+            }
+
+            checked += items.size();
+        } while (items.size() == ItemTextIndex.LOAD_BATCH_SIZE);
+
+        repairedCounter.increment(repaired);
+        log.debug("Проверено вещей в индексе поиска: {}, исправлено: {}.", checked, repaired);
+    }
+
+    private boolean repair(long itemId) {
+        return itemRepository.findById(itemId)
+                .filter(item -> !itemTextIndex.isConsistent(item))
+                .map(item -> {
+                    log.warn("Вещь с id = {} расходится с индексом поиска и будет переиндексирована.", itemId);
+                    itemTextIndex.index(item);
+                    return true;
+                })
+                .orElse(false);
+    }
+}
@@ -0,0 +1,331 @@
+package ru.practicum.shareit.item;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.LowerCaseFilter;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.Tokenizer;
+import org.apache.lucene.analysis.ngram.NGramTokenFilter;
+import org.apache.lucene.analysis.standard.StandardTokenizer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.LongPoint;
+import org.apache.lucene.document.NumericDocValuesField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.Sort;
+import org.apache.lucene.search.SortField;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.util.TransactionCallbacks;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shareit.item-search.engine", havingValue = "lucene")
+public class LuceneItemSearchEngine implements ItemSearchEngine {
+    private static final String ID = "id";
+    private static final String ID_SORT = "id_sort";
+    private static final String NAME = "name";
+    private static final String DESCRIPTION = "description";
+    private static final String AVAILABLE = "available";
+    private static final String GENERATION = "generation";
+    private static final int GRAM = 3;
+    private static final float NAME_BOOST = 2.0f;
+    private static final Sort RANKING = new Sort(SortField.FIELD_SCORE, new SortField(ID_SORT, SortField.Type.LONG));
+
+    private final ItemRepository itemRepository;
+    private final int reindexThreads;
+    private final Analyzer wordAnalyzer = new WordAnalyzer(false);
+    private final Directory directory;
+    private final IndexWriter writer;
+    private final SearcherManager searcherManager;
+    private volatile long generation;
+    private volatile Set<Long> updatedDuringReindex;
+
+    public LuceneItemSearchEngine(ItemRepository itemRepository,
+                                  @Value("${shareit.item-search.lucene.path:data/item-index}") String indexPath,
+                                  @Value("${shareit.item-search.reindex-threads:4}") int reindexThreads) {
+        this.itemRepository = itemRepository;
+        this.reindexThreads = reindexThreads;
+        try {
+            directory = FSDirectory.open(Path.of(indexPath));
+            writer = new IndexWriter(directory, new IndexWriterConfig(new WordAnalyzer(true))
+                    .setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND));
+            searcherManager = new SearcherManager(writer, null);
+        } catch (IOException e) {
+            throw new IllegalStateException("Не удалось открыть индекс поиска вещей в " + indexPath + ".", e);
+        }
+
+        generation = System.currentTimeMillis();
+        log.debug("Открыт индекс поиска вещей в {}, вещей: {}.", indexPath, writer.getDocStats().numDocs);
+    }
+
+    @Override
+    public List<Long> search(String text, int from, int size) {
+        final int limit = (int) Math.min((long) from + size, Integer.MAX_VALUE);
+        final Query query = toQuery(text);
+        if (query == null || limit <= from) {
+            return Collections.emptyList();
+        }
+
+        try {
+            final IndexSearcher searcher = searcherManager.acquire();
+            try {
+                final TopDocs top = searcher.search(query, limit, RANKING);
+                final List<Long> itemIds = new ArrayList<>();
+                for (int i = from; i < top.scoreDocs.length; i++) {
+                    final ScoreDoc hit = top.scoreDocs[i];
+                    itemIds.add(Long.valueOf(searcher.doc(hit.doc).get(ID)));
+                }
+
+                return itemIds;
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Не удалось выполнить поиск вещей в индексе.", e);
+        }
+    }
+
+    @Override
+    public void indexAfterCommit(Item item) {
+        final Document doc = toDocument(item, generation);
+        final long itemId = item.getId();
+        TransactionCallbacks.runAfterCommit(() -> {
+            index(itemId, doc);
+            refresh();
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${shareit.item-search.lucene.reindex-delay:PT15M}",
+            fixedDelayString = "${shareit.item-search.lucene.reindex-delay:PT15M}")
+    public void scheduledReindex() {
+        reindex();
+    }
+
+    @Override
+    public synchronized int reindex() {
+        updatedDuringReindex = ConcurrentHashMap.newKeySet();
+        final long reindexGeneration = Math.max(System.currentTimeMillis(), generation + 1);
+        generation = reindexGeneration;
+        try {
+            final int indexed = loadAll(reindexGeneration);
+            replayUpdatedDuringReindex(reindexGeneration);
+            writer.deleteDocuments(LongPoint.newRangeQuery(GENERATION, Long.MIN_VALUE, reindexGeneration - 1));
+            writer.commit();
+            refresh();
+            log.debug("Переиндексировано вещей в индексе поиска: {}.", indexed);
+            return indexed;
+        } catch (IOException e) {
+            throw new IllegalStateException("Не удалось переиндексировать вещи.", e);
+        } finally {
+            updatedDuringReindex = null;
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.item-search.lucene.commit-delay:PT1M}")
+    public void commit() {
+        if (!writer.hasUncommittedChanges()) {
+            return;
+        }
+
+        try {
+            writer.commit();
+        } catch (IOException e) {
+            log.warn("Не удалось сохранить индекс поиска вещей на диск: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        searcherManager.close();
+        writer.close();
+        directory.close();
+        wordAnalyzer.close();
+    }
+
+    private int loadAll(long reindexGeneration) {
+        List<Long> itemIds = itemRepository.findIdsAfter(0L, PageRequest.of(0, ItemTextIndex.LOAD_BATCH_SIZE));
+        if (itemIds.isEmpty()) {
+            return 0;
+        }
+
+        final ExecutorService executor = Executors.newFixedThreadPool(reindexThreads, runnable -> {
+            final Thread thread = new Thread(runnable, "item-search-reindex");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            final List<Future<Integer>> batches = new ArrayList<>();
+            while (!itemIds.isEmpty()) {
+                final List<Long> batchIds = itemIds;
+                batches.add(executor.submit(() -> indexAll(itemRepository.findAllById(batchIds), reindexGeneration)));
+                itemIds = itemRepository.findIdsAfter(batchIds.get(batchIds.size() - 1),
+                        PageRequest.of(0, ItemTextIndex.LOAD_BATCH_SIZE));
+            }
+
+            int indexed = 0;
+            for (Future<Integer> batch : batches) {
+                indexed += batch.get();
+            }
+
+            return indexed;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Переиндексация вещей прервана.", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Не удалось загрузить вещи в индекс поиска.", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void replayUpdatedDuringReindex(long reindexGeneration) {
+        while (!updatedDuringReindex.isEmpty()) {
+            final List<Long> itemIds = new ArrayList<>(updatedDuringReindex);
+            updatedDuringReindex.removeAll(itemIds);
+            indexAll(itemRepository.findAllById(itemIds), reindexGeneration);
+        }
+    }
+
+    private int indexAll(List<Item> items, long reindexGeneration) {
+        for (Item item : items) {
+            write(item.getId(), toDocument(item, reindexGeneration));
+        }
+
+        return items.size();
+    }
+
+    private void index(long itemId, Document doc) {
+        write(itemId, doc);
+        final Set<Long> updated = updatedDuringReindex;
+        if (updated != null) {
+            updated.add(itemId);
+        }
+    }
+
+    private void write(long itemId, Document doc) {
+        try {
+            writer.updateDocument(new Term(ID, String.valueOf(itemId)), doc);
+        } catch (IOException e) {
+            throw new IllegalStateException("Не удалось записать вещь с id = " + itemId + " в индекс поиска.", e);
+        }
+    }
+
+    private void refresh() {
+        try {
+            searcherManager.maybeRefresh();
+        } catch (IOException e) {
+            log.warn("Не удалось обновить читателя индекса поиска вещей: {}", e.getMessage());
+        }
+    }
+
+    private Query toQuery(String text) {
+        final Set<String> grams = new LinkedHashSet<>();
+        for (String word : words(text)) {
+            if (word.length() <= GRAM) {
+                grams.add(word);
+            } else {
+                for (int i = 0; i + GRAM <= word.length(); i++) {
+                    grams.add(word.substring(i, i + GRAM));
+                }
+            }
+        }
+
+        if (grams.isEmpty()) {
+            return null;
+        }
+
+        final BooleanQuery.Builder query = new BooleanQuery.Builder()
+                .add(new TermQuery(new Term(AVAILABLE, Boolean.TRUE.toString())), BooleanClause.Occur.FILTER);
+        for (String gram : grams) {
+            query.add(new BooleanQuery.Builder()
+                    .add(new BoostQuery(new TermQuery(new Term(NAME, gram)), NAME_BOOST), BooleanClause.Occur.SHOULD)
+                    .add(new TermQuery(new Term(DESCRIPTION, gram)), BooleanClause.Occur.SHOULD)
+                    .build(), BooleanClause.Occur.MUST);
+        }
+
+        return query.build();
+    }
+
+    private List<String> words(String text) {
+        final List<String> words = new ArrayList<>();
+        try (TokenStream stream = wordAnalyzer.tokenStream(NAME, text == null ? "" : text)) {
+            final CharTermAttribute term = stream.addAttribute(CharTermAttribute.class);
+            stream.reset();
+            while (stream.incrementToken()) {
+                words.add(term.toString());
+            }
+
+            stream.end();
+        } catch (IOException e) {
+            throw new IllegalStateException("Не удалось разобрать текст для поиска вещей.", e);
+        }
+
+        return words;
+    }
+
+    private static Document toDocument(Item item, long generation) {
+        final Document doc = new Document();
+        doc.add(new StringField(ID, String.valueOf(item.getId()), Field.Store.YES));
+        doc.add(new NumericDocValuesField(ID_SORT, item.getId()));
+        doc.add(new TextField(NAME, item.getName() == null ? "" : item.getName(), Field.Store.NO));
+        doc.add(new TextField(DESCRIPTION, item.getDescription() == null ? "" : item.getDescription(),
+                Field.Store.NO));
+        doc.add(new StringField(AVAILABLE, String.valueOf(Boolean.TRUE.equals(item.getAvailable())),
+                Field.Store.NO));
+        doc.add(new LongPoint(GENERATION, generation));
+        return doc;
+    }
+
+    private static class WordAnalyzer extends Analyzer {
+        private final boolean grams;
+
+        WordAnalyzer(boolean grams) {
+            this.grams = grams;
+        }
+
+        @Override
+        protected TokenStreamComponents createComponents(String fieldName) {
+            final Tokenizer tokenizer = new StandardTokenizer();
+            final TokenStream words = new LowerCaseFilter(tokenizer);
+            return new TokenStreamComponents(tokenizer, grams ? new NGramTokenFilter(words, 1, GRAM, false) : words);
+        }
+    }
+}
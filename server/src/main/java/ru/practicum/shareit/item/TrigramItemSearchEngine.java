@@ -0,0 +1,30 @@
+package ru.practicum.shareit.item;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.List;
+
+@Component
+@ConditionalOnProperty(name = "shareit.item-search.engine", havingValue = "trigram", matchIfMissing = true)
+@RequiredArgsConstructor
+public class TrigramItemSearchEngine implements ItemSearchEngine {
+    private final ItemTextIndex itemTextIndex;
+
+    @Override
+    public List<Long> search(String text, int from, int size) {
+        return itemTextIndex.search(text, from, size);
+    }
+
+    @Override
+    public void indexAfterCommit(Item item) {
+        itemTextIndex.indexAfterCommit(item);
+    }
+
+    @Override
+    public int reindex() {
+        return itemTextIndex.reindex();
+    }
+}
@@ -3,8 +3,9 @@ package ru.practicum.shareit.item.dto;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
 import org.springframework.stereotype.Component;
-import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.model.BookingSnapshot;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.TimeInterval;
 import ru.practicum.shareit.request.ItemRequest;
 import ru.practicum.shareit.user.model.User;
 
@@ -36,7 +37,8 @@ public class ItemMapper {
                 .build();
     }
 
-    public static ItemDtoForResponse toItemDtoForResponse(Item item, Booking lastBooking, Booking nextBooking) {
+    public static ItemDtoForResponse toItemDtoForResponse(Item item, BookingSnapshot lastBooking,
+                                                          BookingSnapshot nextBooking) {
         final Collection<CommentDtoForResponse> comments = item.getComments().stream()
                 .map(CommentMapper::toCommentDtoForResponse)
                 .collect(Collectors.toList());
@@ -53,12 +55,19 @@ public class ItemMapper {
                 .build();
     }
 
-    private static ItemDtoForResponse.BookingDtoForItem getBookingData(Booking booking) {
+    private static ItemDtoForResponse.BookingDtoForItem getBookingData(BookingSnapshot booking) {
         return ItemDtoForResponse.BookingDtoForItem.builder()
-                .id(booking.getId())
+                .id(booking.getBookingId())
                 .start(booking.getStart())
                 .end(booking.getEnd())
-                .bookerId(booking.getBooker().getId())
+                .bookerId(booking.getBookerId())
                 .build();
     }
-}
\ No newline at end of file
+
+    public static FreeIntervalDto toFreeIntervalDto(TimeInterval interval) {
+        return FreeIntervalDto.builder()
+                .start(interval.getStart())
+                .end(interval.getEnd())
+                .build();
+    }
+}
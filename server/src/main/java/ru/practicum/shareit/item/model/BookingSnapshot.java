@@ -0,0 +1,41 @@
+package ru.practicum.shareit.item.model;
+
+import lombok.*;
+import ru.practicum.shareit.booking.model.ArchivedBooking;
+import ru.practicum.shareit.booking.model.Booking;
+
+import javax.persistence.Column;
+import javax.persistence.Embeddable;
+import java.time.LocalDateTime;
+
+@Embeddable
+@Getter
+@Setter
+@Builder
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingSnapshot {
+
+    @Column(name = "booking_id")
+    private Long bookingId;
+
+    @Column(name = "start_date")
+    private LocalDateTime start;
+
+    @Column(name = "end_date")
+    private LocalDateTime end;
+
+    @Column(name = "booker_id")
+    private Long bookerId;
+
+    public static BookingSnapshot of(Booking booking) {
+        return new BookingSnapshot(booking.getId(), booking.getStart(), booking.getEnd(),
+                booking.getBooker().getId());
+    }
+
+    public static BookingSnapshot of(ArchivedBooking booking) {
+        return new BookingSnapshot(booking.getId(), booking.getStart(), booking.getEnd(),
+                booking.getBooker().getId());
+    }
+}
@@ -0,0 +1,38 @@
+package ru.practicum.shareit.item.model;
+
+import lombok.*;
+
+import javax.persistence.*;
+
+@Entity
+@Table(name = "item_booking_summary")
+@Getter
+@Setter
+@Builder
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItemBookingSummary {
+
+    @Id
+    @Column(name = "item_id")
+    private Long itemId;
+
+    @Embedded
+    @AttributeOverrides({
+            @AttributeOverride(name = "bookingId", column = @Column(name = "last_booking_id")),
+            @AttributeOverride(name = "start", column = @Column(name = "last_booking_start")),
+            @AttributeOverride(name = "end", column = @Column(name = "last_booking_end")),
+            @AttributeOverride(name = "bookerId", column = @Column(name = "last_booker_id"))
+    })
+    private BookingSnapshot lastBooking;
+
+    @Embedded
+    @AttributeOverrides({
+            @AttributeOverride(name = "bookingId", column = @Column(name = "next_booking_id")),
+            @AttributeOverride(name = "start", column = @Column(name = "next_booking_start")),
+            @AttributeOverride(name = "end", column = @Column(name = "next_booking_end")),
+            @AttributeOverride(name = "bookerId", column = @Column(name = "next_booker_id"))
+    })
+    private BookingSnapshot nextBooking;
+}
@@ -0,0 +1,15 @@
+package ru.practicum.shareit.item.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+
+@Getter
+@ToString
+@AllArgsConstructor
+public class TimeInterval {
+    private final LocalDateTime start;
+    private final LocalDateTime end;
+}
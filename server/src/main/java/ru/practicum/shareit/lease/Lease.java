@@ -0,0 +1,30 @@
+package ru.practicum.shareit.lease;
+
+import lombok.*;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "leases")
+@Getter
+@Setter
+@Builder
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+public class Lease {
+
+    @Id
+    @Column(name = "name")
+    private String name;
+
+    @Column(name = "holder", nullable = false)
+    private String holder;
+
+    @Column(name = "locked_until", nullable = false)
+    private LocalDateTime lockedUntil;
+}
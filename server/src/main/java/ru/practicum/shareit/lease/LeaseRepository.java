@@ -0,0 +1,17 @@
+package ru.practicum.shareit.lease;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDateTime;
+
+public interface LeaseRepository extends JpaRepository<Lease, String> {
+
+    @Modifying
+    @Query("update Lease lease " +
+            "set lease.holder = :holder, lease.lockedUntil = :lockedUntil " +
+            "where lease.name = :name " +
+            "AND (lease.lockedUntil < :now or lease.holder = :holder)")
+    int tryAcquire(String name, String holder, LocalDateTime now, LocalDateTime lockedUntil);
+}
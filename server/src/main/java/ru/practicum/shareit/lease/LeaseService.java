@@ -0,0 +1,7 @@
+package ru.practicum.shareit.lease;
+
+import java.time.Duration;
+
+public interface LeaseService {
+    boolean tryAcquire(String name, Duration duration);
+}
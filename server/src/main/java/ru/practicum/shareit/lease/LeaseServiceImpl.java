@@ -0,0 +1,31 @@
+package ru.practicum.shareit.lease;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class LeaseServiceImpl implements LeaseService {
+    private final String holder = UUID.randomUUID().toString();
+    private final LeaseRepository leaseRepository;
+
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public boolean tryAcquire(String name, Duration duration) {
+        final LocalDateTime now = LocalDateTime.now();
+        if (leaseRepository.tryAcquire(name, holder, now, now.plus(duration)) == 1) {
+            return true;
+        }
+
+        log.debug("Аренда \"{}\" удерживается другим экземпляром.", name);
+        return false;
+    }
+}
@@ -13,6 +13,7 @@ import java.util.Collection;
 
 @Entity
 @Table(name = "requests")
+@NamedEntityGraph(name = ItemRequest.REQUESTOR_GRAPH, attributeNodes = @NamedAttributeNode("requestor"))
 @Getter
 @Setter
 @Builder
@@ -20,6 +21,7 @@ import java.util.Collection;
 @NoArgsConstructor
 @AllArgsConstructor
 public class ItemRequest {
+    public static final String REQUESTOR_GRAPH = "ItemRequest.requestor";
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -32,8 +34,9 @@ public class ItemRequest {
     @DateTimeFormat(pattern = "YYYY-MM-DD'T'HH:mm:ss")
     private LocalDateTime created;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "requestor_id", nullable = false)
+    @ToString.Exclude
     private User requestor;
 
     @OneToMany(mappedBy = "itemRequest")
@@ -2,6 +2,8 @@ package ru.practicum.shareit.request;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestDtoForResponse;
@@ -13,6 +15,8 @@ import java.util.Collection;
 @RequestMapping(path = "/requests")
 @RequiredArgsConstructor
 public class ItemRequestController {
+    static final String HAS_MORE_HEADER = "X-Has-More";
+
     private final ItemRequestService itemRequestService;
 
     @PostMapping
@@ -29,13 +33,16 @@ public class ItemRequestController {
     }
 
     @GetMapping("/all")
-    public Collection<ItemRequestDtoForResponse> getItemRequestsOfOther(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                                                        @RequestParam(name = "from",
-                                                                                defaultValue = "0") Integer from,
-                                                                        @RequestParam(name = "size",
-                                                                                defaultValue = "10") Integer size) {
+    public ResponseEntity<Collection<ItemRequestDtoForResponse>> getItemRequestsOfOther(
+            @RequestHeader("X-Sharer-User-Id") Long userId,
+            @RequestParam(name = "from", defaultValue = "0") Integer from,
+            @RequestParam(name = "size", defaultValue = "10") Integer size) {
         log.debug("Получение всех запросов пользователей, кроме id = {}", userId);
-        return itemRequestService.getAllRequestsOfOther(userId, from, size);
+        final Slice<ItemRequestDtoForResponse> itemRequests =
+                itemRequestService.getAllRequestsOfOther(userId, from, size);
+        return ResponseEntity.ok()
+                .header(HAS_MORE_HEADER, String.valueOf(itemRequests.hasNext()))
+                .body(itemRequests.getContent());
     }
 
     @GetMapping("/{requestId}")
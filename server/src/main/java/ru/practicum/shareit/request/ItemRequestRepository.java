@@ -1,14 +1,22 @@
 package ru.practicum.shareit.request;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import ru.practicum.shareit.user.model.User;
 
 import java.util.Collection;
+import java.util.Optional;
 
 public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long> {
+    @Override
+    @EntityGraph(ItemRequest.REQUESTOR_GRAPH)
+    Optional<ItemRequest> findById(Long id);
+
+    @EntityGraph(ItemRequest.REQUESTOR_GRAPH)
     Collection<ItemRequest> findAllByRequestorOrderByCreatedDesc(User requestor);
 
-    Page<ItemRequest> findByRequestorIdNot(Long id, Pageable pageable);
+    @EntityGraph(ItemRequest.REQUESTOR_GRAPH)
+    Slice<ItemRequest> findByRequestorIdNot(Long id, Pageable pageable);
 }
\ No newline at end of file
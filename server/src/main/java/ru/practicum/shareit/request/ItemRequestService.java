@@ -1,5 +1,6 @@
 package ru.practicum.shareit.request;
 
+import org.springframework.data.domain.Slice;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestDtoForResponse;
 
@@ -11,7 +12,7 @@ public interface ItemRequestService {
 
     Collection<ItemRequestDtoForResponse> getAllRequestsOfUser(Long userId);
 
-    Collection<ItemRequestDtoForResponse> getAllRequestsOfOther(Long userId, int from, int size);
+    Slice<ItemRequestDtoForResponse> getAllRequestsOfOther(Long userId, int from, int size);
 
     ItemRequestDtoForResponse getItemRequest(Long userId, Long requestId);
 
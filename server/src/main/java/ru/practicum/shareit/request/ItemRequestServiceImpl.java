@@ -2,9 +2,9 @@ package ru.practicum.shareit.request;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exception.ItemRequestNotFoundException;
@@ -43,13 +43,11 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     }
 
     @Override
-    public Collection<ItemRequestDtoForResponse> getAllRequestsOfOther(Long userId, int from, int size) {
+    public Slice<ItemRequestDtoForResponse> getAllRequestsOfOther(Long userId, int from, int size) {
         final User requestor = userService.getUser(userId);
         final Pageable pageable = PageRequest.of(from / size, size);
-        final Page<ItemRequest> itemRequests = itemRequestRepository.findByRequestorIdNot(requestor.getId(), pageable);
-        return itemRequests.getContent().stream()
-                .map(ItemRequestMapper::toItemRequestDtoForResponse)
-                .collect(Collectors.toList());
+        final Slice<ItemRequest> itemRequests = itemRequestRepository.findByRequestorIdNot(requestor.getId(), pageable);
+        return itemRequests.map(ItemRequestMapper::toItemRequestDtoForResponse);
     }
 
     @Override
@@ -4,6 +4,7 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.BookingStateCountersService;
 import ru.practicum.shareit.exception.UserNotFoundException;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.dto.UserMapper;
@@ -17,6 +18,7 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class UserServiceImpl implements UserService {
     private final UserRepository userRepository;
+    private final BookingStateCountersService bookingStateCountersService;
 
     @Override
     public Collection<UserDto> findAll() {
@@ -37,6 +39,7 @@ public class UserServiceImpl implements UserService {
     @Transactional
     public UserDto create(UserDto userDto) {
         final User user = userRepository.save(UserMapper.toUser(userDto));
+        bookingStateCountersService.createCounters(user.getId());
         return UserMapper.toUserDto(user);
     }
 
@@ -58,7 +61,9 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @Transactional
     public void deleteById(Long userId) {
+        bookingStateCountersService.deleteCounters(userId);
         userRepository.deleteById(userId);
     }
 
@@ -53,4 +53,122 @@ CREATE TABLE IF NOT EXISTS comments
     CONSTRAINT pk_comment PRIMARY KEY (id),
     CONSTRAINT fk_comments_to_items FOREIGN KEY (item_id) REFERENCES items (id),
     CONSTRAINT fk_comments_to_users FOREIGN KEY (author_id) REFERENCES users (id)
-);
\ No newline at end of file
+);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_start ON bookings (booker_id, start_date DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_item_start ON bookings (item_id, start_date DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_items_owner ON items (owner_id);
+
+CREATE TABLE IF NOT EXISTS item_booking_summary
+(
+    item_id            BIGINT                      NOT NULL,
+    last_booking_id    BIGINT,
+    last_booking_start TIMESTAMP WITHOUT TIME ZONE,
+    last_booking_end   TIMESTAMP WITHOUT TIME ZONE,
+    last_booker_id     BIGINT,
+    next_booking_id    BIGINT,
+    next_booking_start TIMESTAMP WITHOUT TIME ZONE,
+    next_booking_end   TIMESTAMP WITHOUT TIME ZONE,
+    next_booker_id     BIGINT,
+    CONSTRAINT pk_item_booking_summary PRIMARY KEY (item_id),
+    CONSTRAINT fk_item_booking_summary_to_items FOREIGN KEY (item_id) REFERENCES items (id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_item_booking_summary_next_start ON item_booking_summary (next_booking_start);
+
+CREATE TABLE IF NOT EXISTS leases
+(
+    name         VARCHAR(100)                NOT NULL,
+    holder       VARCHAR(100)                NOT NULL,
+    locked_until TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    CONSTRAINT pk_leases PRIMARY KEY (name)
+);
+
+INSERT INTO leases (name, holder, locked_until)
+SELECT 'booking-sweeper', '', TIMESTAMP '1970-01-01 00:00:00'
+WHERE NOT EXISTS (SELECT 1 FROM leases WHERE name = 'booking-sweeper');
+
+CREATE INDEX IF NOT EXISTS idx_bookings_status_start ON bookings (status, start_date);
+
+ALTER TABLE bookings ADD COLUMN IF NOT EXISTS version BIGINT DEFAULT 0 NOT NULL;
+
+ALTER TABLE items ADD COLUMN IF NOT EXISTS version BIGINT DEFAULT 0 NOT NULL;
+
+CREATE TABLE IF NOT EXISTS booking_state_counters
+(
+    user_id                BIGINT                      NOT NULL,
+    booker_all             BIGINT                      NOT NULL,
+    booker_current         BIGINT                      NOT NULL,
+    booker_past            BIGINT                      NOT NULL,
+    booker_future          BIGINT                      NOT NULL,
+    booker_waiting         BIGINT                      NOT NULL,
+    booker_rejected        BIGINT                      NOT NULL,
+    booker_next_transition TIMESTAMP WITHOUT TIME ZONE,
+    owner_all              BIGINT                      NOT NULL,
+    owner_current          BIGINT                      NOT NULL,
+    owner_past             BIGINT                      NOT NULL,
+    owner_future           BIGINT                      NOT NULL,
+    owner_waiting          BIGINT                      NOT NULL,
+    owner_rejected         BIGINT                      NOT NULL,
+    owner_next_transition  TIMESTAMP WITHOUT TIME ZONE,
+    CONSTRAINT pk_booking_state_counters PRIMARY KEY (user_id)
+);
+
+INSERT INTO booking_state_counters (user_id, booker_all, booker_current, booker_past, booker_future, booker_waiting,
+                                    booker_rejected, booker_next_transition, owner_all, owner_current, owner_past,
+                                    owner_future, owner_waiting, owner_rejected, owner_next_transition)
+SELECT u.id, 0, 0, 0, 0, 0, 0, TIMESTAMP '1970-01-01 00:00:00', 0, 0, 0, 0, 0, 0, TIMESTAMP '1970-01-01 00:00:00'
+FROM users u
+WHERE NOT EXISTS (SELECT 1 FROM booking_state_counters c WHERE c.user_id = u.id);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_end ON bookings (end_date);
+
+CREATE TABLE IF NOT EXISTS bookings_archive
+(
+    id         BIGINT                      NOT NULL,
+    start_date TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    end_date   TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    item_id    BIGINT                      NOT NULL,
+    booker_id  BIGINT                      NOT NULL,
+    status     VARCHAR(50)                 NOT NULL,
+    CONSTRAINT pk_bookings_archive PRIMARY KEY (id),
+    CONSTRAINT fk_bookings_archive_to_items FOREIGN KEY (item_id) REFERENCES items (id),
+    CONSTRAINT fk_bookings_archive_to_users FOREIGN KEY (booker_id) REFERENCES users (id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_archive_booker_start ON bookings_archive (booker_id, start_date DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_archive_item_start ON bookings_archive (item_id, start_date DESC, id DESC);
+
+INSERT INTO leases (name, holder, locked_until)
+SELECT 'booking-archiver', '', TIMESTAMP '1970-01-01 00:00:00'
+WHERE NOT EXISTS (SELECT 1 FROM leases WHERE name = 'booking-archiver');
+
+INSERT INTO leases (name, holder, locked_until)
+SELECT 'booking-waitlist', '', TIMESTAMP '1970-01-01 00:00:00'
+WHERE NOT EXISTS (SELECT 1 FROM leases WHERE name = 'booking-waitlist');
+
+INSERT INTO leases (name, holder, locked_until)
+SELECT 'item-summary-roll', '', TIMESTAMP '1970-01-01 00:00:00'
+WHERE NOT EXISTS (SELECT 1 FROM leases WHERE name = 'item-summary-roll');
+
+INSERT INTO leases (name, holder, locked_until)
+SELECT 'item-summary-rebuild', '', TIMESTAMP '1970-01-01 00:00:00'
+WHERE NOT EXISTS (SELECT 1 FROM leases WHERE name = 'item-summary-rebuild');
+
+CREATE TABLE IF NOT EXISTS booking_intents
+(
+    id         BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    start_date TIMESTAMP WITHOUT TIME ZONE             NOT NULL,
+    end_date   TIMESTAMP WITHOUT TIME ZONE             NOT NULL,
+    item_id    BIGINT                                  NOT NULL,
+    booker_id  BIGINT                                  NOT NULL,
+    created_at TIMESTAMP WITHOUT TIME ZONE             NOT NULL,
+    CONSTRAINT pk_booking_intent PRIMARY KEY (id),
+    CONSTRAINT fk_booking_intents_to_items FOREIGN KEY (item_id) REFERENCES items (id),
+    CONSTRAINT fk_booking_intents_to_users FOREIGN KEY (booker_id) REFERENCES users (id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_booking_intents_item_created ON booking_intents (item_id, created_at, id);
@@ -0,0 +1,138 @@
+package ru.practicum.shareit.booking;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingStateCountsDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.exception.BookingConflictException;
+import ru.practicum.shareit.exception.BookingStatusException;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.user.UserService;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@Slf4j
+@SpringBootTest
+class BookingApprovalContentionTest {
+    private static final int HOT_ITEMS = 3;
+    private static final int BOOKINGS_PER_ITEM = 20;
+    private static final int THREADS = 16;
+    private static final int OPERATIONS_PER_THREAD = 50;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Test
+    void testConcurrentApprovalsOfOverlappingBookingsLeaveOneApprovedPerItem() throws Exception {
+        final long ownerId = createUser("Owner");
+        final long bookerId = createUser("Booker");
+        final LocalDateTime start = LocalDateTime.now().plusYears(1);
+        final Map<Long, List<Long>> bookingIdsByItem = new HashMap<>();
+        for (int i = 0; i < HOT_ITEMS; i++) {
+            final long itemId = itemService.add(ownerId, ItemDto.builder()
+                    .name("Hot item " + i)
+                    .description("Hot item description")
+                    .available(true).build()).getId();
+            final List<Long> bookingIds = new ArrayList<>();
+            for (int j = 0; j < BOOKINGS_PER_ITEM; j++) {
+                final long bookingId = bookingService.addBooking(bookerId, BookingDto.builder()
+                        .itemId(itemId)
+                        .start(start)
+                        .end(start.plusDays(1)).build()).getId();
+                bookingService.approveBooking(ownerId, bookingId, false);
+                bookingIds.add(bookingId);
+            }
+
+            bookingIdsByItem.put(itemId, bookingIds);
+        }
+
+        final List<Long> itemIds = new ArrayList<>(bookingIdsByItem.keySet());
+        final AtomicInteger approvals = new AtomicInteger();
+        final AtomicInteger refusals = new AtomicInteger();
+        final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        final CountDownLatch startSignal = new CountDownLatch(1);
+        final List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            final Random random = new Random(t);
+            futures.add(executor.submit(() -> {
+                startSignal.await();
+                for (int i = 0; i < OPERATIONS_PER_THREAD; i++) {
+                    final List<Long> bookingIds = bookingIdsByItem.get(itemIds.get(random.nextInt(HOT_ITEMS)));
+                    try {
+                        bookingService.approveBooking(ownerId, bookingIds.get(random.nextInt(BOOKINGS_PER_ITEM)),
+                                true);
+                        approvals.incrementAndGet();
+                    } catch (BookingConflictException | BookingStatusException e) {
+                        refusals.incrementAndGet();
+                    }
+                }
+
+                return null;
+            }));
+        }
+
+        final long startedAt = System.nanoTime();
+        startSignal.countDown();
+        for (Future<?> future : futures) {
+            future.get(1, TimeUnit.MINUTES);
+        }
+
+        final long elapsed = System.nanoTime() - startedAt;
+        executor.shutdown();
+        final int operations = THREADS * OPERATIONS_PER_THREAD;
+        log.info("Потоков: {}, горячих вещей: {}, операций: {}, подтверждено: {}, отказано: {}, " +
+                        "пропускная способность: {} оп/с.", THREADS, HOT_ITEMS, operations, approvals.get(),
+                refusals.get(), Math.round(operations / (elapsed / 1_000_000_000.0)));
+
+        assertEquals(HOT_ITEMS, approvals.get());
+        assertEquals(operations - HOT_ITEMS, refusals.get());
+        for (List<Long> bookingIds : bookingIdsByItem.values()) {
+            final long approved = bookingRepository.findAllByIdIn(bookingIds).stream()
+                    .map(Booking::getStatus)
+                    .filter(BookingStatus.APPROVED::equals)
+                    .count();
+            assertEquals(1, approved);
+        }
+
+        final BookingStateCountsDto counts = bookingService.getBookingCountsOfOwner(ownerId);
+        assertEquals(HOT_ITEMS * BOOKINGS_PER_ITEM, counts.getAll());
+        assertEquals(HOT_ITEMS * (BOOKINGS_PER_ITEM - 1), counts.getRejected());
+        assertEquals(0, counts.getWaiting());
+        assertEquals(HOT_ITEMS * BOOKINGS_PER_ITEM, counts.getFuture());
+    }
+
+    private long createUser(String name) {
+        return userService.create(UserDto.builder()
+                .name(name)
+                .email(UUID.randomUUID() + "@contention.test").build()).getId();
+    }
+}
@@ -0,0 +1,96 @@
+package ru.practicum.shareit.booking;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.lease.LeaseService;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BookingArchiverTest {
+
+    private static final Duration LEASE = Duration.ofMinutes(30);
+
+    @Mock
+    private BookingService bookingService;
+
+    @Mock
+    private LeaseService leaseService;
+
+    private MeterRegistry meterRegistry;
+    private BookingArchiver bookingArchiver;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        bookingArchiver = new BookingArchiver(bookingService, leaseService, meterRegistry, 6, 2, 3, LEASE);
+    }
+
+    @Test
+    void archiveSkipsWithoutLease() {
+        when(leaseService.tryAcquire(BookingArchiver.LEASE_NAME, LEASE))
+                .thenReturn(false);
+
+        bookingArchiver.archive();
+
+        verifyNoInteractions(bookingService);
+    }
+
+    @Test
+    void archiveDrainsFullBatchesWithSameCutoff() {
+        when(leaseService.tryAcquire(BookingArchiver.LEASE_NAME, LEASE))
+                .thenReturn(true);
+        when(bookingService.archiveBookings(any(LocalDateTime.class), eq(2)))
+                .thenReturn(2, 2, 1);
+
+        final LocalDateTime before = LocalDateTime.now().minusMonths(6);
+        bookingArchiver.archive();
+
+        final ArgumentCaptor<LocalDateTime> captor = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(bookingService, times(3)).archiveBookings(captor.capture(), eq(2));
+        assertEquals(1, captor.getAllValues().stream().distinct().count());
+        assertTrue(!captor.getValue().isBefore(before)
+                && captor.getValue().isBefore(LocalDateTime.now().minusMonths(6).plusSeconds(1)));
+        assertEquals(5, meterRegistry.get("shareit.booking.archiver.archived").counter().count());
+    }
+
+    @Test
+    void archiveStopsWhenLeaseIsLost() {
+        when(leaseService.tryAcquire(BookingArchiver.LEASE_NAME, LEASE))
+                .thenReturn(true, false);
+        when(bookingService.archiveBookings(any(LocalDateTime.class), eq(2)))
+                .thenReturn(2);
+
+        bookingArchiver.archive();
+
+        verify(bookingService, times(1)).archiveBookings(any(LocalDateTime.class), anyInt());
+        verify(leaseService, times(2)).tryAcquire(BookingArchiver.LEASE_NAME, LEASE);
+    }
+
+    @Test
+    void archiveLeavesBacklogBeyondMaxBatchesForNextRun() {
+        when(leaseService.tryAcquire(BookingArchiver.LEASE_NAME, LEASE))
+                .thenReturn(true);
+        when(bookingService.archiveBookings(any(LocalDateTime.class), eq(2)))
+                .thenReturn(2);
+
+        bookingArchiver.archive();
+
+        verify(bookingService, times(3)).archiveBookings(any(LocalDateTime.class), anyInt());
+        assertEquals(6, meterRegistry.get("shareit.booking.archiver.archived").counter().count());
+    }
+}
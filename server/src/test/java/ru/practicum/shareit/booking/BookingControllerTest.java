@@ -7,11 +7,24 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingDtoForResponse;
+import ru.practicum.shareit.booking.dto.BookingHoldDto;
+import ru.practicum.shareit.booking.dto.BookingIntentDto;
+import ru.practicum.shareit.booking.dto.BookingStateCountsDto;
+import ru.practicum.shareit.booking.model.BookingDecisionOutcome;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.exception.BookingHoldNotFoundException;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
 
@@ -22,9 +35,13 @@ import java.util.List;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(BookingController.class)
@@ -83,8 +100,8 @@ class BookingControllerTest {
 
         bookingDtoForResponse = BookingDtoForResponse.builder()
                 .id(1L)
-                .item(item1)
-                .booker(user2)
+                .item(new BookingDtoForResponse.ItemDtoForBooking(item1.getId(), item1.getName()))
+                .booker(new BookingDtoForResponse.BookerDtoForBooking(user2.getId()))
                 .start(LocalDateTime.now().plusDays(1))
                 .end(LocalDateTime.now().plusDays(3))
                 .status(BookingStatus.APPROVED).build();
@@ -108,6 +125,65 @@ class BookingControllerTest {
                 .addBooking(anyLong(), any(BookingDto.class));
     }
 
+    @Test
+    void holdBookingAndConfirm() throws Exception {
+        final BookingHoldDto hold = BookingHoldDto.builder()
+                .id("hold-1")
+                .itemId(item1.getId())
+                .start(bookingDto.getStart())
+                .end(bookingDto.getEnd())
+                .expiresAt(LocalDateTime.now().plusSeconds(5)).build();
+        when(bookingService.holdBooking(anyLong(), any(BookingDto.class)))
+                .thenReturn(hold);
+        when(bookingService.confirmHold(2L, "hold-1"))
+                .thenReturn(bookingDtoForResponse);
+
+        mockMvc.perform(post("/bookings/holds")
+                        .header("X-Sharer-User-Id", 2L)
+                        .content(mapper.writeValueAsString(bookingDto))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id", is("hold-1")))
+                .andExpect(jsonPath("$.itemId", is(item1.getId()), Long.class));
+
+        mockMvc.perform(post("/bookings/holds/hold-1/confirm")
+                        .header("X-Sharer-User-Id", 2L))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id", is(bookingDtoForResponse.getId()), Long.class));
+    }
+
+    @Test
+    void joinWaitlist() throws Exception {
+        final BookingIntentDto intent = BookingIntentDto.builder()
+                .id(1L)
+                .itemId(item1.getId())
+                .start(bookingDto.getStart())
+                .end(bookingDto.getEnd())
+                .created(LocalDateTime.now()).build();
+        when(bookingService.joinWaitlist(anyLong(), any(BookingDto.class)))
+                .thenReturn(intent);
+
+        mockMvc.perform(post("/bookings/waitlist")
+                        .header("X-Sharer-User-Id", 2L)
+                        .content(mapper.writeValueAsString(bookingDto))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id", is(intent.getId()), Long.class))
+                .andExpect(jsonPath("$.itemId", is(item1.getId()), Long.class));
+    }
+
+    @Test
+    void confirmExpiredHold() throws Exception {
+        when(bookingService.confirmHold(2L, "hold-1"))
+                .thenThrow(new BookingHoldNotFoundException("hold-1"));
+
+        mockMvc.perform(post("/bookings/holds/hold-1/confirm")
+                        .header("X-Sharer-User-Id", 2L))
+                .andExpect(status().isNotFound());
+    }
+
     @Test
     void approveBooking() throws Exception {
         when(bookingService.approveBooking(anyLong(), anyLong(), anyBoolean()))
@@ -120,13 +196,61 @@ class BookingControllerTest {
                         .characterEncoding(StandardCharsets.UTF_8)
                         .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.booker", is(user2), User.class))
+                .andExpect(jsonPath("$.booker.id", is(user2.getId()), Long.class))
                 .andExpect(jsonPath("$.status", is(BookingStatus.APPROVED.name()), BookingStatus.class));
 
         verify(bookingService, times(1))
                 .approveBooking(anyLong(), anyLong(), anyBoolean());
     }
 
+    @Test
+    void approveBookings() throws Exception {
+        final List<BookingDecisionDto> decisions = List.of(new BookingDecisionDto(1L, true),
+                new BookingDecisionDto(2L, false));
+        when(bookingService.approveBookings(eq(1L), any()))
+                .thenReturn(List.of(
+                        new BookingDecisionResultDto(1L, BookingDecisionOutcome.UPDATED, BookingStatus.APPROVED),
+                        new BookingDecisionResultDto(2L, BookingDecisionOutcome.NOT_FOUND, null)));
+
+        mockMvc.perform(patch("/bookings/batch")
+                        .header("X-Sharer-User-Id", 1L)
+                        .content(mapper.writeValueAsString(decisions))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].outcome", is(BookingDecisionOutcome.UPDATED.name())))
+                .andExpect(jsonPath("$[0].status", is(BookingStatus.APPROVED.name())))
+                .andExpect(jsonPath("$[1].bookingId", is(2L), Long.class))
+                .andExpect(jsonPath("$[1].outcome", is(BookingDecisionOutcome.NOT_FOUND.name())));
+
+        verify(bookingService, never()).approveBooking(anyLong(), anyLong(), anyBoolean());
+    }
+
+    @Test
+    void getBookingCounts() throws Exception {
+        final BookingStateCountsDto counts = BookingStateCountsDto.builder()
+                .all(5)
+                .future(2)
+                .waiting(1).build();
+        when(bookingService.getBookingCounts(2L))
+                .thenReturn(counts);
+        when(bookingService.getBookingCountsOfOwner(1L))
+                .thenReturn(counts);
+
+        mockMvc.perform(get("/bookings/counts")
+                        .header("X-Sharer-User-Id", 2L))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.all", is(5)))
+                .andExpect(jsonPath("$.future", is(2)))
+                .andExpect(jsonPath("$.waiting", is(1)));
+        mockMvc.perform(get("/bookings/owner/counts")
+                        .header("X-Sharer-User-Id", 1L))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.all", is(5)));
+
+        verify(bookingService, never()).getBookingInfo(anyLong(), anyLong());
+    }
+
     @Test
     void getBookingInfo() throws Exception {
         when(bookingService.getBookingInfo(anyLong(), anyLong()))
@@ -136,7 +260,7 @@ class BookingControllerTest {
                         .header("X-Sharer-User-Id", 1L)
                         .characterEncoding(StandardCharsets.UTF_8))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.booker", is(user2), User.class))
+                .andExpect(jsonPath("$.booker.id", is(user2.getId()), Long.class))
                 .andExpect(jsonPath("$.status", is(BookingStatus.APPROVED.name()), BookingStatus.class));
 
         verify(bookingService, times(1))
@@ -146,7 +270,7 @@ class BookingControllerTest {
     @Test
     void getBookings() throws Exception {
         when(bookingService.getBookings(anyLong(), anyString(), anyInt(), anyInt()))
-                .thenReturn(List.of(bookingDtoForResponse));
+                .thenReturn(new SliceImpl<>(List.of(bookingDtoForResponse)));
 
         mockMvc.perform(get("/bookings")
                         .header("X-Sharer-User-Id", 1L)
@@ -155,7 +279,9 @@ class BookingControllerTest {
                         .param("size", "1")
                         .characterEncoding(StandardCharsets.UTF_8))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$[0].booker", is(user2), User.class))
+                .andExpect(header().string(BookingController.HAS_MORE_HEADER, "false"))
+                .andExpect(header().doesNotExist(BookingController.NEXT_CURSOR_HEADER))
+                .andExpect(jsonPath("$[0].booker.id", is(user2.getId()), Long.class))
                 .andExpect(jsonPath("$[0].status", is(BookingStatus.APPROVED.name()), BookingStatus.class));
 
         verify(bookingService, times(1))
@@ -165,7 +291,7 @@ class BookingControllerTest {
     @Test
     void getBookingsOfOwner() throws Exception {
         when(bookingService.getBookingsOfOwner(anyLong(), anyString(), anyInt(), anyInt()))
-                .thenReturn(List.of(bookingDtoForResponse));
+                .thenReturn(new SliceImpl<>(List.of(bookingDtoForResponse)));
 
         mockMvc.perform(get("/bookings/owner")
                         .header("X-Sharer-User-Id", 1L)
@@ -174,10 +300,81 @@ class BookingControllerTest {
                         .param("size", "1")
                         .characterEncoding(StandardCharsets.UTF_8))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$[0].booker", is(user2), User.class))
+                .andExpect(jsonPath("$[0].booker.id", is(user2.getId()), Long.class))
                 .andExpect(jsonPath("$[0].status", is(BookingStatus.APPROVED.name()), BookingStatus.class));
 
         verify(bookingService, times(1))
                 .getBookingsOfOwner(anyLong(), anyString(), anyInt(), anyInt());
     }
-}
\ No newline at end of file
+
+    @Test
+    void getBookingsWithCursor() throws Exception {
+        final String cursor = new BookingCursor(bookingDtoForResponse.getStart(), 5L).encode();
+        when(bookingService.getBookings(anyLong(), anyString(), eq(cursor), anyInt()))
+                .thenReturn(new SliceImpl<>(List.of(bookingDtoForResponse), PageRequest.of(0, 1), true));
+
+        mockMvc.perform(get("/bookings")
+                        .header("X-Sharer-User-Id", 1L)
+                        .param("state", "ALL")
+                        .param("cursor", cursor)
+                        .param("size", "1")
+                        .characterEncoding(StandardCharsets.UTF_8))
+                .andExpect(status().isOk())
+                .andExpect(header().string(BookingController.HAS_MORE_HEADER, "true"))
+                .andExpect(header().string(BookingController.NEXT_CURSOR_HEADER,
+                        new BookingCursor(bookingDtoForResponse.getStart(), bookingDtoForResponse.getId()).encode()))
+                .andExpect(jsonPath("$[0].status", is(BookingStatus.APPROVED.name()), BookingStatus.class));
+
+        verify(bookingService, never())
+                .getBookings(anyLong(), anyString(), anyInt(), anyInt());
+    }
+
+    @Test
+    void getBookingsOfOwnerWithIncorrectCursor() throws Exception {
+        when(bookingService.getBookingsOfOwner(anyLong(), anyString(), anyString(), anyInt()))
+                .thenAnswer(invocation -> {
+                    BookingCursor.decode(invocation.getArgument(2));
+                    return new SliceImpl<>(List.of());
+                });
+
+        mockMvc.perform(get("/bookings/owner")
+                        .header("X-Sharer-User-Id", 1L)
+                        .param("cursor", "not-a-cursor")
+                        .characterEncoding(StandardCharsets.UTF_8))
+                .andExpect(status().isBadRequest())
+                .andExpect(header().doesNotExist(BookingController.NEXT_CURSOR_HEADER));
+    }
+
+    @Test
+    void subscribeToEventsOfOwner() throws Exception {
+        when(bookingService.subscribeToEventsOfOwner(anyLong()))
+                .thenReturn(new SseEmitter());
+
+        mockMvc.perform(get("/bookings/owner/events")
+                        .header("X-Sharer-User-Id", 1L)
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(status().isOk())
+                .andExpect(request().asyncStarted());
+
+        verify(bookingService, times(1)).subscribeToEventsOfOwner(1L);
+    }
+
+    @Test
+    void exportBookingsOfOwner() throws Exception {
+        when(bookingService.exportBookingsOfOwner(anyLong()))
+                .thenReturn(out -> out.write("{\"id\":1}\n{\"id\":2}\n".getBytes(StandardCharsets.UTF_8)));
+
+        final MvcResult result = mockMvc.perform(get("/bookings/owner/export")
+                        .header("X-Sharer-User-Id", 1L)
+                        .accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_NDJSON_VALUE))
+                .andExpect(content().string("{\"id\":1}\n{\"id\":2}\n"));
+
+        verify(bookingService, times(1)).exportBookingsOfOwner(1L);
+    }
+}
@@ -0,0 +1,169 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingDtoForResponse;
+import ru.practicum.shareit.booking.dto.BookingEvent;
+import ru.practicum.shareit.booking.model.BookingEventType;
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BookingCurrentCacheTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2030, 1, 1, 12, 0);
+    private static final int WINDOW = 2;
+    private static final Duration MAX_TTL = Duration.ofDays(1);
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    private MutableClock clock;
+    private BookingCurrentCache cache;
+    private BookingDtoForResponse current;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(START.toInstant(ZoneOffset.UTC));
+        cache = new BookingCurrentCache(bookingRepository, clock, 100, WINDOW, MAX_TTL);
+        current = new BookingDtoForResponse(1L, BookingStatus.APPROVED, START.minusHours(1), START.plusHours(2),
+                2L, 1L, "Test item name");
+    }
+
+    @Test
+    void currentOfBookerIsServedFromCacheUntilEarliestBoundary() {
+        when(bookingRepository.findAllCurrentByBookerId(eq(2L), any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of(current)));
+        when(bookingRepository.findEarliestStartByBookerIdAndStartNotBefore(eq(2L), any(LocalDateTime.class)))
+                .thenReturn(Optional.of(START.plusHours(1)));
+
+        assertEquals(List.of(current), cache.getCurrentOfBooker(2L, PageRequest.of(0, 10)).getContent());
+        clock.advance(Duration.ofMinutes(59));
+        assertEquals(List.of(current), cache.getCurrentOfBooker(2L, PageRequest.of(0, 10)).getContent());
+        verify(bookingRepository, times(1)).findAllCurrentByBookerId(2L, START, PageRequest.of(0, WINDOW));
+
+        clock.advance(Duration.ofMinutes(1));
+        cache.getCurrentOfBooker(2L, PageRequest.of(0, 10));
+        verify(bookingRepository).findAllCurrentByBookerId(2L, START.plusHours(1), PageRequest.of(0, WINDOW));
+    }
+
+    @Test
+    void currentOfOwnerExpiresAtEndOfCurrentBooking() {
+        when(bookingRepository.findAllCurrentByItemOwnerId(eq(1L), any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of(current)), new SliceImpl<>(List.of()));
+        when(bookingRepository.findEarliestStartByItemOwnerIdAndStartNotBefore(eq(1L), any(LocalDateTime.class)))
+                .thenReturn(Optional.empty());
+
+        assertEquals(1, cache.getCurrentOfOwner(1L, PageRequest.of(0, 10)).getNumberOfElements());
+        clock.advance(Duration.ofHours(2).minusSeconds(1));
+        assertEquals(1, cache.getCurrentOfOwner(1L, PageRequest.of(0, 10)).getNumberOfElements());
+        clock.advance(Duration.ofSeconds(1));
+        assertTrue(cache.getCurrentOfOwner(1L, PageRequest.of(0, 10)).isEmpty());
+
+        clock.advance(MAX_TTL.minusSeconds(1));
+        assertTrue(cache.getCurrentOfOwner(1L, PageRequest.of(0, 10)).isEmpty());
+        verify(bookingRepository, times(2)).findAllCurrentByItemOwnerId(eq(1L), any(LocalDateTime.class),
+                any(Pageable.class));
+    }
+
+    @Test
+    void currentWithoutBoundaryExpiresAfterMaxTtl() {
+        when(bookingRepository.findAllCurrentByItemOwnerId(eq(1L), any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of()));
+        when(bookingRepository.findEarliestStartByItemOwnerIdAndStartNotBefore(eq(1L), any(LocalDateTime.class)))
+                .thenReturn(Optional.empty());
+
+        cache.getCurrentOfOwner(1L, PageRequest.of(0, 10));
+        clock.advance(MAX_TTL.minusSeconds(1));
+        cache.getCurrentOfOwner(1L, PageRequest.of(0, 10));
+        verify(bookingRepository, times(1)).findAllCurrentByItemOwnerId(eq(1L), any(LocalDateTime.class),
+                any(Pageable.class));
+
+        clock.advance(Duration.ofSeconds(1));
+        cache.getCurrentOfOwner(1L, PageRequest.of(0, 10));
+        verify(bookingRepository, times(2)).findAllCurrentByItemOwnerId(eq(1L), any(LocalDateTime.class),
+                any(Pageable.class));
+    }
+
+    @Test
+    void bookingEventEvictsBookerAndOwner() {
+        when(bookingRepository.findAllCurrentByBookerId(eq(2L), any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of(current)));
+        when(bookingRepository.findAllCurrentByItemOwnerId(eq(1L), any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of(current)));
+
+        cache.getCurrentOfBooker(2L, PageRequest.of(0, 10));
+        cache.getCurrentOfOwner(1L, PageRequest.of(0, 10));
+        cache.onBookingEvent(new BookingEvent(BookingEventType.BOOKING_STATUS_CHANGED, 1L, current));
+        cache.getCurrentOfBooker(2L, PageRequest.of(0, 10));
+        cache.getCurrentOfOwner(1L, PageRequest.of(0, 10));
+
+        verify(bookingRepository, times(2)).findAllCurrentByBookerId(eq(2L), any(LocalDateTime.class),
+                any(Pageable.class));
+        verify(bookingRepository, times(2)).findAllCurrentByItemOwnerId(eq(1L), any(LocalDateTime.class),
+                any(Pageable.class));
+    }
+
+    @Test
+    void currentPagesByOffsetAndCursor() {
+        final BookingDtoForResponse earlier = new BookingDtoForResponse(2L, BookingStatus.WAITING,
+                START.minusHours(3), START.plusHours(3), 2L, 2L, "Other item name");
+        when(bookingRepository.findAllCurrentByBookerId(eq(2L), any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of(current, earlier)));
+
+        final Slice<BookingDtoForResponse> first = cache.getCurrentOfBooker(2L, PageRequest.of(0, 1));
+        assertEquals(List.of(current), first.getContent());
+        assertTrue(first.hasNext());
+
+        final Slice<BookingDtoForResponse> second = cache.getCurrentOfBooker(2L,
+                new BookingCursor(current.getStart(), current.getId()), PageRequest.of(0, 1));
+        assertEquals(List.of(earlier), second.getContent());
+        assertFalse(second.hasNext());
+
+        assertTrue(cache.getCurrentOfBooker(2L, PageRequest.of(5, 1)).isEmpty());
+    }
+
+    @Test
+    void currentBeyondWindowIsReadFromRepository() {
+        final BookingDtoForResponse earlier = new BookingDtoForResponse(2L, BookingStatus.WAITING,
+                START.minusHours(3), START.plusHours(3), 2L, 2L, "Other item name");
+        final BookingDtoForResponse earliest = new BookingDtoForResponse(3L, BookingStatus.APPROVED,
+                START.minusHours(5), START.plusHours(4), 2L, 3L, "Third item name");
+        when(bookingRepository.findAllCurrentByBookerId(2L, START, PageRequest.of(0, WINDOW)))
+                .thenReturn(new SliceImpl<>(List.of(current, earlier), PageRequest.of(0, WINDOW), true));
+        final Slice<BookingDtoForResponse> tail = new SliceImpl<>(List.of(earliest));
+        when(bookingRepository.findAllCurrentByBookerId(2L, START, PageRequest.of(1, 1)))
+                .thenReturn(tail);
+        when(bookingRepository.findAllCurrentByBookerIdBeforeCursor(2L, START, earlier.getStart(), earlier.getId(),
+                PageRequest.of(0, 1)))
+                .thenReturn(tail);
+
+        final Slice<BookingDtoForResponse> first = cache.getCurrentOfBooker(2L, PageRequest.of(0, 1));
+        assertEquals(List.of(current), first.getContent());
+        assertTrue(first.hasNext());
+        assertSame(tail, cache.getCurrentOfBooker(2L, PageRequest.of(1, 1)));
+        assertSame(tail, cache.getCurrentOfBooker(2L, new BookingCursor(earlier.getStart(), earlier.getId()),
+                PageRequest.of(0, 1)));
+    }
+}
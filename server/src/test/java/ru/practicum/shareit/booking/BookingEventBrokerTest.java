@@ -0,0 +1,127 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.booking.dto.BookingDtoForResponse;
+import ru.practicum.shareit.booking.dto.BookingEvent;
+import ru.practicum.shareit.booking.model.BookingEventType;
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BookingEventBrokerTest {
+
+    private static final int BUFFER_CAPACITY = 4;
+
+    List<Runnable> pendingDispatches;
+    List<RecordingEmitter> emitters;
+
+    @BeforeEach
+    void setUp() {
+        pendingDispatches = new ArrayList<>();
+        emitters = new ArrayList<>();
+    }
+
+    @Test
+    void publishDeliversEventsOnlyToOwnerSubscribers() {
+        final BookingEventBroker broker = createBroker(Runnable::run);
+        broker.subscribe(1L);
+        broker.subscribe(2L);
+
+        broker.publish(createEvent(1L, 10L));
+        broker.publish(createEvent(1L, 11L));
+
+        assertEquals(2, emitters.get(0).sent);
+        assertEquals(0, emitters.get(1).sent);
+    }
+
+    @Test
+    void slowSubscriberIsDisconnectedWhenBufferOverflows() {
+        final BookingEventBroker broker = createBroker(pendingDispatches::add);
+        broker.subscribe(1L);
+
+        for (int i = 0; i <= BUFFER_CAPACITY; i++) {
+            broker.publish(createEvent(1L, i));
+        }
+
+        assertEquals(1, pendingDispatches.size());
+        assertEquals(0, broker.getSubscriberCount(1L));
+        assertTrue(emitters.get(0).completed);
+    }
+
+    @Test
+    void publishDoesNotWaitForDispatch() {
+        final BookingEventBroker broker = createBroker(pendingDispatches::add);
+        broker.subscribe(1L);
+
+        for (int i = 0; i < BUFFER_CAPACITY; i++) {
+            broker.publish(createEvent(1L, i));
+        }
+
+        assertEquals(0, emitters.get(0).sent);
+        assertEquals(1, broker.getSubscriberCount(1L));
+        pendingDispatches.get(0).run();
+        assertEquals(BUFFER_CAPACITY, emitters.get(0).sent);
+    }
+
+    @Test
+    void failedSendRemovesSubscriber() {
+        final BookingEventBroker broker = createBroker(Runnable::run);
+        broker.subscribe(1L);
+        emitters.get(0).failing = true;
+
+        broker.publish(createEvent(1L, 10L));
+
+        assertEquals(0, broker.getSubscriberCount(1L));
+    }
+
+    private BookingEventBroker createBroker(Executor executor) {
+        return new BookingEventBroker(BUFFER_CAPACITY, Duration.ofMinutes(1), executor) {
+            @Override
+            SseEmitter createEmitter(long timeoutMillis) {
+                final RecordingEmitter emitter = new RecordingEmitter(timeoutMillis);
+                emitters.add(emitter);
+                return emitter;
+            }
+        };
+    }
+
+    private static BookingEvent createEvent(long ownerId, long bookingId) {
+        return new BookingEvent(BookingEventType.BOOKING_CREATED, ownerId,
+                new BookingDtoForResponse(bookingId, BookingStatus.WAITING, LocalDateTime.now().plusDays(1),
+                        LocalDateTime.now().plusDays(2), 2L, 3L, "Test item name"));
+    }
+
+    private static class RecordingEmitter extends SseEmitter {
+        private int sent;
+        private boolean completed;
+        private boolean failing;
+
+        RecordingEmitter(long timeout) {
+            super(timeout);
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (failing) {
+                throw new IOException("Broken pipe");
+            }
+
+            sent++;
+        }
+
+        @Override
+        public synchronized void complete() {
+            completed = true;
+            super.complete();
+        }
+    }
+}
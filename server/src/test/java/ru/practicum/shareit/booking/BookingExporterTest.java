@@ -0,0 +1,98 @@
+package ru.practicum.shareit.booking;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import ru.practicum.shareit.booking.dto.BookingDtoForResponse;
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BookingExporterTest {
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @Mock
+    private BookingArchiveRepository bookingArchiveRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ObjectMapper objectMapper;
+    private BookingExporter bookingExporter;
+
+    @BeforeEach
+    void setUp() {
+        objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        bookingExporter = new BookingExporter(bookingRepository, bookingArchiveRepository, objectMapper,
+                transactionManager);
+    }
+
+    @Test
+    void exportOfOwnerWritesMergedNdjsonInReadOnlyTransaction() throws Exception {
+        final LocalDateTime now = LocalDateTime.now();
+        when(bookingRepository.streamAllByItemOwnerId(1L))
+                .thenReturn(Stream.of(booking(4L, now.plusDays(1)), booking(3L, now.minusDays(200))));
+        when(bookingArchiveRepository.streamAllByItemOwnerId(1L))
+                .thenReturn(Stream.of(booking(2L, now.minusDays(190)), booking(1L, now.minusDays(400))));
+
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        bookingExporter.exportOfOwner(1L).writeTo(out);
+
+        final String ndjson = out.toString(StandardCharsets.UTF_8);
+        assertTrue(ndjson.endsWith("\n"));
+        final List<Long> ids = ndjson.lines()
+                .map(this::readId)
+                .collect(Collectors.toList());
+        assertEquals(List.of(4L, 2L, 3L, 1L), ids);
+        verify(transactionManager).getTransaction(argThat(TransactionDefinition::isReadOnly));
+    }
+
+    @Test
+    void exportOfOwnerWithoutBookingsWritesNothing() throws Exception {
+        when(bookingRepository.streamAllByItemOwnerId(1L))
+                .thenReturn(Stream.empty());
+        when(bookingArchiveRepository.streamAllByItemOwnerId(1L))
+                .thenReturn(Stream.empty());
+
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        bookingExporter.exportOfOwner(1L).writeTo(out);
+
+        assertEquals(0, out.size());
+    }
+
+    private Long readId(String line) {
+        try {
+            return objectMapper.readValue(line, BookingDtoForResponse.class).getId();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static BookingDtoForResponse booking(long id, LocalDateTime start) {
+        return new BookingDtoForResponse(id, BookingStatus.APPROVED, start, start.plusHours(1), 2L, 1L,
+                "Test item name");
+    }
+}
@@ -0,0 +1,142 @@
+package ru.practicum.shareit.booking;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingHoldDto;
+import ru.practicum.shareit.exception.BookingConflictException;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.user.UserService;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@Slf4j
+@SpringBootTest
+class BookingHoldContentionTest {
+    private static final int THREADS = 16;
+    private static final int SLOTS = 50;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Test
+    void testFlashDemandBooksEachSlotOnceWithAndWithoutHolds() throws Exception {
+        final List<Long> bookerIds = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            bookerIds.add(createUser("Booker " + i));
+        }
+
+        final long directOwnerId = createUser("Direct owner");
+        final long directItemId = createItem(directOwnerId);
+        final Result direct = run(bookerIds, directItemId, (bookerId, bookingDto) ->
+                bookingService.addBooking(bookerId, bookingDto));
+
+        final long heldOwnerId = createUser("Held owner");
+        final long heldItemId = createItem(heldOwnerId);
+        final Result held = run(bookerIds, heldItemId, (bookerId, bookingDto) -> {
+            final BookingHoldDto hold = bookingService.holdBooking(bookerId, bookingDto);
+            bookingService.confirmHold(bookerId, hold.getId());
+        });
+
+        log.info("Потоков: {}, слотов: {}, попыток: {}.", THREADS, SLOTS, THREADS * SLOTS);
+        log.info("Без удержаний: забронировано {}, отказано {}, {} мс.", direct.booked, direct.refused,
+                direct.elapsed / 1_000_000);
+        log.info("С удержаниями: забронировано {}, отказано {}, {} мс.", held.booked, held.refused,
+                held.elapsed / 1_000_000);
+
+        assertEquals(SLOTS, direct.booked);
+        assertEquals(SLOTS, held.booked);
+        assertEquals(THREADS * SLOTS - SLOTS, direct.refused);
+        assertEquals(THREADS * SLOTS - SLOTS, held.refused);
+        assertEquals(SLOTS, bookingService.getBookingCountsOfOwner(directOwnerId).getAll());
+        assertEquals(SLOTS, bookingService.getBookingCountsOfOwner(heldOwnerId).getAll());
+    }
+
+    private Result run(List<Long> bookerIds, long itemId, Attempt attempt) throws Exception {
+        final LocalDateTime origin = LocalDateTime.now().plusYears(1).withNano(0);
+        final AtomicInteger booked = new AtomicInteger();
+        final AtomicInteger refused = new AtomicInteger();
+        final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        final CountDownLatch startSignal = new CountDownLatch(1);
+        final List<Future<?>> futures = new ArrayList<>();
+        for (long bookerId : bookerIds) {
+            futures.add(executor.submit(() -> {
+                startSignal.await();
+                for (int slot = 0; slot < SLOTS; slot++) {
+                    final LocalDateTime start = origin.plusDays(slot);
+                    try {
+                        attempt.book(bookerId, BookingDto.builder()
+                                .itemId(itemId)
+                                .start(start)
+                                .end(start.plusHours(12)).build());
+                        booked.incrementAndGet();
+                    } catch (BookingConflictException e) {
+                        refused.incrementAndGet();
+                    }
+                }
+
+                return null;
+            }));
+        }
+
+        final long startedAt = System.nanoTime();
+        startSignal.countDown();
+        for (Future<?> future : futures) {
+            future.get(1, TimeUnit.MINUTES);
+        }
+
+        final long elapsed = System.nanoTime() - startedAt;
+        executor.shutdown();
+        return new Result(booked.get(), refused.get(), elapsed);
+    }
+
+    private long createUser(String name) {
+        return userService.create(UserDto.builder()
+                .name(name)
+                .email(UUID.randomUUID() + "@holds.test").build()).getId();
+    }
+
+    private long createItem(long ownerId) {
+        return itemService.add(ownerId, ItemDto.builder()
+                .name("Flash item")
+                .description("Flash item description")
+                .available(true).build()).getId();
+    }
+
+    private interface Attempt {
+        void book(long bookerId, BookingDto bookingDto);
+    }
+
+    private static class Result {
+        private final int booked;
+        private final int refused;
+        private final long elapsed;
+
+        Result(int booked, int refused, long elapsed) {
+            this.booked = booked;
+            this.refused = refused;
+            this.elapsed = elapsed;
+        }
+    }
+}
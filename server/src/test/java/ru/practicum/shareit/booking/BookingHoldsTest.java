@@ -0,0 +1,139 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.booking.model.BookingInterval;
+import ru.practicum.shareit.exception.BookingConflictException;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BookingHoldsTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2030, 1, 1, 12, 0);
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    private BookingIntervalIndex index;
+    private MutableClock clock;
+    private BookingHolds holds;
+
+    @BeforeEach
+    void setUp() {
+        index = new BookingIntervalIndex(bookingRepository);
+        clock = new MutableClock(NOW.toInstant(ZoneOffset.UTC));
+        holds = new BookingHolds(index, clock, Duration.ofSeconds(5), Duration.ofSeconds(1));
+    }
+
+    @Test
+    void holdRejectsOverlappingHoldOfAnotherBooker() {
+        final BookingHolds.Hold hold = holds.hold(1L, 2L, NOW.plusDays(1), NOW.plusDays(3));
+        assertEquals(NOW.plusSeconds(5), hold.getExpiresAt());
+
+        assertThrows(BookingConflictException.class, () -> holds.hold(1L, 3L, NOW.plusDays(2), NOW.plusDays(4)));
+        assertTrue(holds.isHeld(1L, NOW.plusDays(2), NOW.plusDays(4)));
+        assertTrue(holds.isHeldByOthers(1L, 3L, NOW.plusDays(2), NOW.plusDays(4)));
+        assertFalse(holds.isHeldByOthers(1L, 2L, NOW.plusDays(2), NOW.plusDays(4)));
+        assertNotNull(holds.hold(1L, 3L, NOW.plusDays(3), NOW.plusDays(4)));
+        assertNotNull(holds.hold(2L, 3L, NOW.plusDays(1), NOW.plusDays(3)));
+    }
+
+    @Test
+    void holdRejectsPeriodReservedInIndex() {
+        index.reserve(1L, NOW.plusDays(1), NOW.plusDays(3)).bind(1L);
+        when(bookingRepository.findIntervalsByItemIdAndStatusIn(1L, BookingIntervalIndex.BLOCKING_STATUSES))
+                .thenReturn(List.of(new BookingInterval(1L, 1L, NOW.plusDays(1), NOW.plusDays(3))));
+
+        assertTrue(holds.isHeld(1L, NOW.plusDays(2), NOW.plusDays(4)));
+        assertThrows(BookingConflictException.class, () -> holds.hold(1L, 2L, NOW.plusDays(2), NOW.plusDays(4)));
+    }
+
+    @Test
+    void getReturnsOnlyOwnHoldBeforeExpiry() {
+        final BookingHolds.Hold hold = holds.hold(1L, 2L, NOW.plusDays(1), NOW.plusDays(3));
+
+        assertTrue(holds.get(hold.getId(), 2L).isPresent());
+        assertTrue(holds.get(hold.getId(), 3L).isEmpty());
+        clock.advance(Duration.ofSeconds(5));
+        assertTrue(holds.get(hold.getId(), 2L).isEmpty());
+        assertFalse(holds.isHeld(1L, NOW.plusDays(1), NOW.plusDays(3)));
+    }
+
+    @Test
+    void releaseFreesPeriod() {
+        final BookingHolds.Hold hold = holds.hold(1L, 2L, NOW.plusDays(1), NOW.plusDays(3));
+        holds.release(hold);
+
+        assertEquals(0, holds.size());
+        assertNotNull(holds.hold(1L, 3L, NOW.plusDays(1), NOW.plusDays(3)));
+    }
+
+    @Test
+    void tickReleasesExpiredHolds() {
+        holds.hold(1L, 2L, NOW.plusDays(1), NOW.plusDays(3));
+        tick(2);
+        holds.hold(2L, 2L, NOW.plusDays(1), NOW.plusDays(3));
+
+        tick(3);
+        assertEquals(1, holds.size());
+        tick(2);
+        assertEquals(0, holds.size());
+    }
+
+    @Test
+    void startReleasesExpiredHoldsOnOwnThread() throws InterruptedException {
+        final CountDownLatch ticks = new CountDownLatch(6);
+        final Clock tickCountingClock = new Clock() {
+            @Override
+            public ZoneId getZone() {
+                return clock.getZone();
+            }
+
+            @Override
+            public Clock withZone(ZoneId zone) {
+                return clock.withZone(zone);
+            }
+
+            @Override
+            public Instant instant() {
+                if ("booking-holds".equals(Thread.currentThread().getName())) {
+                    ticks.countDown();
+                }
+
+                return clock.instant();
+            }
+        };
+        holds = new BookingHolds(index, tickCountingClock, Duration.ofMillis(50), Duration.ofMillis(10));
+        holds.hold(1L, 2L, NOW.plusDays(1), NOW.plusDays(3));
+        clock.advance(Duration.ofMillis(50));
+        holds.start();
+        try {
+            assertTrue(ticks.await(5, TimeUnit.SECONDS));
+            assertEquals(0, holds.size());
+        } finally {
+            holds.stop();
+        }
+    }
+
+    private void tick(int seconds) {
+        for (int i = 0; i < seconds; i++) {
+            clock.advance(Duration.ofSeconds(1));
+            holds.tick();
+        }
+    }
+}
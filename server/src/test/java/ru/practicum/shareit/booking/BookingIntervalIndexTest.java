@@ -0,0 +1,187 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.model.BookingInterval;
+import ru.practicum.shareit.exception.BookingConflictException;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BookingIntervalIndexTest {
+    private static final int THREADS = 32;
+    private static final int ATTEMPTS = 5000;
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    private BookingIntervalIndex index;
+    private LocalDateTime base;
+
+    @BeforeEach
+    void setUp() {
+        index = new BookingIntervalIndex(bookingRepository);
+        base = LocalDateTime.of(2030, 1, 1, 12, 0);
+    }
+
+    @Test
+    void loadFromRepository() {
+        final List<BookingInterval> committed = List.of(new BookingInterval(1L, 1L, base, base.plusDays(2)));
+        when(bookingRepository.findAllIntervalsByStatusIn(anyCollection()))
+                .thenReturn(committed);
+        when(bookingRepository.findIntervalsByItemIdAndStatusIn(eq(1L), anyCollection()))
+                .thenReturn(committed);
+        index.load();
+
+        assertTrue(index.hasConflict(1L, base.plusDays(1), base.plusDays(3)));
+        assertFalse(index.hasConflict(2L, base.plusDays(1), base.plusDays(3)));
+        assertThrows(BookingConflictException.class, () -> index.reserve(1L, base.minusDays(1), base.plusHours(1)));
+    }
+
+    @Test
+    void loadKeepsOverlappingBookingsFromRepository() {
+        final List<BookingInterval> committed = new ArrayList<>(List.of(
+                new BookingInterval(1L, 1L, base, base.plusDays(10)),
+                new BookingInterval(2L, 1L, base.plusDays(1), base.plusDays(2)),
+                new BookingInterval(3L, 1L, base.plusDays(3), base.plusDays(4))));
+        when(bookingRepository.findAllIntervalsByStatusIn(anyCollection()))
+                .thenReturn(List.copyOf(committed));
+        when(bookingRepository.findIntervalsByItemIdAndStatusIn(eq(1L), anyCollection()))
+                .thenAnswer(invocation -> List.copyOf(committed));
+        index.load();
+
+        assertTrue(index.hasConflict(1L, base.plusDays(5), base.plusDays(6)));
+        assertThrows(BookingConflictException.class, () -> index.reserve(1L, base.plusDays(8), base.plusDays(9)));
+
+        committed.remove(0);
+        index.release(1L, 1L);
+
+        assertTrue(index.hasConflict(1L, base.plusDays(1).plusHours(12), base.plusDays(3).plusHours(12)));
+        assertFalse(index.hasConflict(1L, base.plusDays(5), base.plusDays(6)));
+        index.reserve(1L, base.plusDays(5), base.plusDays(6));
+    }
+
+    @Test
+    void conflictWithBookingReleasedOnAnotherInstanceIsRecheckedInRepository() {
+        final List<BookingInterval> committed = new ArrayList<>(List.of(
+                new BookingInterval(1L, 1L, base, base.plusDays(2))));
+        when(bookingRepository.findAllIntervalsByStatusIn(anyCollection()))
+                .thenAnswer(invocation -> List.copyOf(committed));
+        when(bookingRepository.findIntervalsByItemIdAndStatusIn(eq(1L), anyCollection()))
+                .thenAnswer(invocation -> List.copyOf(committed));
+        final BookingIntervalIndex other = new BookingIntervalIndex(bookingRepository);
+        index.load();
+        other.load();
+
+        committed.clear();
+        index.release(1L, 1L);
+
+        assertFalse(index.hasConflict(1L, base, base.plusDays(2)));
+        assertFalse(other.hasConflict(1L, base, base.plusDays(2)));
+        other.reserve(1L, base, base.plusDays(1)).bind(2L);
+        committed.add(new BookingInterval(2L, 1L, base, base.plusDays(1)));
+        assertTrue(other.hasConflict(1L, base, base.plusDays(2)));
+    }
+
+    @Test
+    void conflictWithUncommittedReservationIsNotRechecked() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            index.reserve(1L, base, base.plusDays(2)).bind(1L);
+
+            assertTrue(index.hasConflict(1L, base.plusDays(1), base.plusDays(3)));
+            assertThrows(BookingConflictException.class, () -> index.reserve(1L, base.plusDays(1), base.plusDays(3)));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        verify(bookingRepository, never()).findIntervalsByItemIdAndStatusIn(anyLong(), anyCollection());
+    }
+
+    @Test
+    void adjacentPeriodsDoNotConflict() {
+        index.reserve(1L, base, base.plusDays(1));
+        index.reserve(1L, base.plusDays(1), base.plusDays(2));
+        index.reserve(1L, base.minusDays(1), base);
+
+        assertTrue(index.hasConflict(1L, base.plusHours(23), base.plusDays(1).plusHours(1)));
+        assertFalse(index.hasConflict(1L, base.plusDays(2), base.plusDays(3)));
+    }
+
+    @Test
+    void releaseFreesPeriod() {
+        index.reserve(1L, base, base.plusDays(1)).bind(10L);
+        index.release(1L, 10L);
+
+        assertFalse(index.hasConflict(1L, base, base.plusDays(1)));
+    }
+
+    @Test
+    void parallelOverlappingReservationsAdmitSingleBooking() throws Exception {
+        final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        final CountDownLatch startSignal = new CountDownLatch(1);
+        final AtomicInteger accepted = new AtomicInteger();
+        final AtomicInteger rejected = new AtomicInteger();
+        final List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < ATTEMPTS; i++) {
+            final LocalDateTime start = base.plusMinutes(i % 60);
+            futures.add(executor.submit(() -> {
+                startSignal.await();
+                try {
+                    index.reserve(1L, start, start.plusHours(2));
+                    accepted.incrementAndGet();
+                } catch (BookingConflictException e) {
+                    rejected.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+
+        startSignal.countDown();
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        assertEquals(1, accepted.get());
+        assertEquals(ATTEMPTS - 1, rejected.get());
+    }
+
+    @Test
+    void parallelDisjointReservationsAreAllAccepted() throws Exception {
+        final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        final List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < ATTEMPTS; i++) {
+            final LocalDateTime start = base.plusHours(i);
+            futures.add(executor.submit(() -> index.reserve(1L, start, start.plusHours(1))));
+        }
+
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        assertTrue(index.hasConflict(1L, base, base.plusHours(ATTEMPTS)));
+        assertFalse(index.hasConflict(1L, base.plusHours(ATTEMPTS), base.plusHours(ATTEMPTS + 1)));
+    }
+}
@@ -0,0 +1,94 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.exception.BookingConflictException;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.user.UserService;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+class BookingOverlapContentionTest {
+    private static final int THREADS = 16;
+    private static final int ATTEMPTS_PER_THREAD = 10;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Test
+    void testParallelOverlappingAddBookingAdmitsSingleBooking() throws Exception {
+        final long ownerId = createUser("Owner");
+        final long itemId = itemService.add(ownerId, ItemDto.builder()
+                .name("Contended item")
+                .description("Contended item description")
+                .available(true).build()).getId();
+        final List<Long> bookerIds = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            bookerIds.add(createUser("Booker " + i));
+        }
+
+        final LocalDateTime origin = LocalDateTime.now().plusYears(1).withNano(0);
+        final AtomicInteger booked = new AtomicInteger();
+        final AtomicInteger refused = new AtomicInteger();
+        final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        final CountDownLatch startSignal = new CountDownLatch(1);
+        final List<Future<?>> futures = new ArrayList<>();
+        for (long bookerId : bookerIds) {
+            futures.add(executor.submit(() -> {
+                startSignal.await();
+                for (int attempt = 0; attempt < ATTEMPTS_PER_THREAD; attempt++) {
+                    final LocalDateTime start = origin.plusMinutes(attempt * 7L + bookerId % 30);
+                    try {
+                        bookingService.addBooking(bookerId, BookingDto.builder()
+                                .itemId(itemId)
+                                .start(start)
+                                .end(start.plusHours(3)).build());
+                        booked.incrementAndGet();
+                    } catch (BookingConflictException e) {
+                        refused.incrementAndGet();
+                    }
+                }
+
+                return null;
+            }));
+        }
+
+        startSignal.countDown();
+        for (Future<?> future : futures) {
+            future.get(1, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+
+        assertEquals(1, booked.get());
+        assertEquals(THREADS * ATTEMPTS_PER_THREAD - 1, refused.get());
+        assertEquals(1, bookingService.getBookingCountsOfOwner(ownerId).getAll());
+    }
+
+    private long createUser(String name) {
+        return userService.create(UserDto.builder()
+                .name(name)
+                .email(UUID.randomUUID() + "@overlap.test").build()).getId();
+    }
+}
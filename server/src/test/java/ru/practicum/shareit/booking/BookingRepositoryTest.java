@@ -0,0 +1,504 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import ru.practicum.shareit.booking.dto.BookingDtoForResponse;
+import ru.practicum.shareit.booking.model.ArchivedBooking;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingIntent;
+import ru.practicum.shareit.booking.model.BookingInterval;
+import ru.practicum.shareit.booking.model.BookingStateTotals;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class BookingRepositoryTest {
+
+    private static final LocalDateTime FAR_FUTURE = LocalDateTime.of(9999, 12, 31, 23, 59);
+
+    @Autowired
+    private TestEntityManager testEntityManager;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private BookingArchiveRepository bookingArchiveRepository;
+
+    @Autowired
+    private BookingIntentRepository bookingIntentRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    User owner;
+    User booker;
+    Item item;
+    List<Booking> bookings;
+
+    @BeforeEach
+    void setUp() {
+        owner = User.builder()
+                .name("Sergej Nishpal")
+                .email("sergej.nishpal@yandex.ru")
+                .build();
+        testEntityManager.persist(owner);
+
+        booker = User.builder()
+                .name("John Doe")
+                .email("john.doe@mail.com")
+                .build();
+        testEntityManager.persist(booker);
+
+        item = Item.builder()
+                .owner(owner)
+                .name("Test item name")
+                .description("Test item description")
+                .available(true).build();
+        testEntityManager.persist(item);
+
+        final LocalDateTime start = LocalDateTime.of(2030, 1, 1, 12, 0);
+        bookings = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            final Booking booking = Booking.builder()
+                    .item(item)
+                    .booker(booker)
+                    .start(i < 2 ? start : start.plusDays(i))
+                    .end(start.plusDays(i + 1))
+                    .status(i % 2 == 0 ? BookingStatus.WAITING : BookingStatus.APPROVED)
+                    .build();
+            testEntityManager.persist(booking);
+            bookings.add(booking);
+        }
+    }
+
+    @Test
+    void testGetAllByBookerBeforeCursor() {
+        final Booking last = bookings.get(2);
+        final Slice<BookingDtoForResponse> page = bookingRepository.getAllByBookerBeforeCursor(booker, last.getStart(),
+                last.getId(), PageRequest.of(0, 10));
+
+        assertThat(responseIds(page.getContent())).containsExactly(bookings.get(1).getId(), bookings.get(0).getId());
+    }
+
+    @Test
+    void testSeekingWalksAllBookingsOnce() {
+        final List<Long> seen = new ArrayList<>();
+        LocalDateTime start = FAR_FUTURE;
+        Long id = Long.MAX_VALUE;
+        Slice<BookingDtoForResponse> page;
+        do {
+            page = bookingRepository.getAllByItemOwnerBeforeCursor(owner, start, id, PageRequest.of(0, 2));
+            seen.addAll(responseIds(page.getContent()));
+            if (page.hasContent()) {
+                final BookingDtoForResponse last = page.getContent().get(page.getNumberOfElements() - 1);
+                start = last.getStart();
+                id = last.getId();
+            }
+        } while (page.hasNext());
+
+        assertThat(seen).containsExactly(bookings.get(4).getId(), bookings.get(3).getId(), bookings.get(2).getId(),
+                bookings.get(1).getId(), bookings.get(0).getId());
+    }
+
+    @Test
+    void testOffsetPagesBreakStartTiesById() {
+        final List<Long> seen = new ArrayList<>();
+        for (int page = 0; page < bookings.size(); page++) {
+            seen.addAll(responseIds(bookingRepository.getAllByBookerOrderByStartDesc(booker, PageRequest.of(page, 1))
+                    .getContent()));
+        }
+
+        assertThat(seen).containsExactly(bookings.get(4).getId(), bookings.get(3).getId(), bookings.get(2).getId(),
+                bookings.get(1).getId(), bookings.get(0).getId());
+    }
+
+    @Test
+    void testGetAllByItemOwnerAndStatusBeforeCursor() {
+        final Slice<BookingDtoForResponse> page = bookingRepository.getAllByItemOwnerAndStatusBeforeCursor(owner,
+                BookingStatus.WAITING, FAR_FUTURE, Long.MAX_VALUE, PageRequest.of(0, 10));
+
+        assertThat(responseIds(page.getContent())).containsExactly(bookings.get(4).getId(), bookings.get(2).getId(),
+                bookings.get(0).getId());
+    }
+
+    @Test
+    void testStateQueriesRunSingleStatement() {
+        final Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        final Pageable pageable = PageRequest.of(0, 2);
+        final LocalDateTime now = LocalDateTime.now();
+        final List<Supplier<Slice<BookingDtoForResponse>>> queries = List.of(
+                () -> bookingRepository.getAllByBookerOrderByStartDesc(booker, pageable),
+                () -> bookingRepository.findAllCurrentByBookerId(booker.getId(), now, pageable),
+                () -> bookingRepository.getAllPastByBookerOrderByStartDesc(booker, pageable),
+                () -> bookingRepository.getAllFutureByBookerOrderByStartDesc(booker, pageable),
+                () -> bookingRepository.getAllByBookerAndStatusOrderByStartDesc(booker, BookingStatus.WAITING,
+                        pageable),
+                () -> bookingRepository.getAllByItemOwnerOrderByStartDesc(owner, pageable),
+                () -> bookingRepository.findAllCurrentByItemOwnerId(owner.getId(), now, pageable),
+                () -> bookingRepository.getAllPastByItemOwnerOrderByStartDesc(owner, pageable),
+                () -> bookingRepository.getAllFutureByItemOwnerOrderByStartDesc(owner, pageable),
+                () -> bookingRepository.getAllByItemOwnerAndStatusOrderByStartDesc(owner, BookingStatus.WAITING,
+                        pageable));
+
+        testEntityManager.flush();
+        for (Supplier<Slice<BookingDtoForResponse>> query : queries) {
+            testEntityManager.clear();
+            statistics.clear();
+            query.get().forEach(booking -> {
+                assertNotNull(booking.getItem().getName());
+                assertNotNull(booking.getBooker().getId());
+            });
+            assertEquals(1, statistics.getPrepareStatementCount());
+            assertEquals(0, statistics.getEntityLoadCount());
+        }
+
+        testEntityManager.clear();
+        statistics.clear();
+        final Slice<BookingDtoForResponse> slice =
+                bookingRepository.getAllFutureByItemOwnerOrderByStartDesc(owner, pageable);
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertTrue(slice.hasNext());
+        assertEquals(2, slice.getNumberOfElements());
+    }
+
+    @Test
+    void testOwnerPageOfFiftyRunsSingleStatement() {
+        final LocalDateTime start = LocalDateTime.of(2031, 1, 1, 12, 0);
+        for (int i = 0; i < 50; i++) {
+            persistBooking(item, start.plusDays(i), start.plusDays(i).plusHours(1));
+        }
+        testEntityManager.flush();
+        testEntityManager.clear();
+        final Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        final Slice<BookingDtoForResponse> slice = bookingRepository.getAllByItemOwnerOrderByStartDesc(owner,
+                PageRequest.of(0, 50));
+
+        assertEquals(50, slice.getNumberOfElements());
+        assertEquals(item.getName(), slice.getContent().get(0).getItem().getName());
+        assertEquals(booker.getId(), slice.getContent().get(0).getBooker().getId());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void testFindByIdFetchesItemAndBookerInSingleStatement() {
+        final Long bookingId = bookings.get(0).getId();
+        testEntityManager.flush();
+        testEntityManager.clear();
+        final Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        final Booking booking = bookingRepository.findById(bookingId).orElseThrow();
+
+        assertEquals(item.getName(), booking.getItem().getName());
+        assertEquals(booker.getName(), booking.getBooker().getName());
+        assertEquals(owner.getId(), booking.getItem().getOwner().getId());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void testStatusChangesAreFlushedAsJdbcBatch() {
+        final List<Long> bookingIds = ids(bookings);
+        testEntityManager.flush();
+        testEntityManager.clear();
+        final Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        final List<Booking> loaded = bookingRepository.findAllByIdIn(bookingIds);
+        loaded.forEach(booking -> booking.setStatus(BookingStatus.REJECTED));
+        testEntityManager.flush();
+
+        assertEquals(bookings.size(), loaded.size());
+        assertEquals(bookings.size(), statistics.getEntityUpdateCount());
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void testFindIntervalsByItemIdAndEndAfter() {
+        bookings.get(3).setStatus(BookingStatus.REJECTED);
+        testEntityManager.flush();
+
+        final List<BookingInterval> intervals = bookingRepository.findIntervalsByItemIdAndEndAfter(item.getId(),
+                BookingIntervalIndex.BLOCKING_STATUSES, bookings.get(0).getEnd());
+
+        assertThat(intervals).extracting(BookingInterval::getBookingId)
+                .containsExactly(bookings.get(1).getId(), bookings.get(2).getId(), bookings.get(4).getId());
+    }
+
+    @Test
+    void testFindByIdForBookerOrOwner() {
+        final User stranger = User.builder()
+                .name("Jane Roe")
+                .email("jane.roe@mail.com")
+                .build();
+        testEntityManager.persist(stranger);
+        final Long bookingId = bookings.get(0).getId();
+        testEntityManager.flush();
+        testEntityManager.clear();
+        final Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        final Booking booking = bookingRepository.findByIdForBookerOrOwner(bookingId, booker.getId())
+                .orElseThrow();
+
+        assertEquals(item.getName(), booking.getItem().getName());
+        assertEquals(booker.getName(), booking.getBooker().getName());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertTrue(bookingRepository.findByIdForBookerOrOwner(bookingId, owner.getId()).isPresent());
+        assertTrue(bookingRepository.findByIdForBookerOrOwner(bookingId, stranger.getId()).isEmpty());
+        assertTrue(bookingRepository.findByIdForBookerOrOwner(Long.MAX_VALUE, booker.getId()).isEmpty());
+    }
+
+    @Test
+    void testFindLastAndNextBookingsFetchItemAndBooker() {
+        final LocalDateTime now = LocalDateTime.now();
+        persistBooking(item, now.minusDays(2), now.minusDays(1));
+        testEntityManager.flush();
+        testEntityManager.clear();
+        final Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        final List<BookingStatus> statuses = List.of(BookingStatus.WAITING, BookingStatus.APPROVED);
+        statistics.clear();
+
+        final List<Booking> lastBookings = bookingRepository.findLastBookingsByItemIds(List.of(item.getId()),
+                statuses);
+        final List<Booking> nextBookings = bookingRepository.findNextBookingsByItemIds(List.of(item.getId()),
+                statuses);
+
+        assertEquals(1, lastBookings.size());
+        assertEquals(booker.getName(), lastBookings.get(0).getBooker().getName());
+        assertEquals(item.getName(), nextBookings.get(0).getItem().getName());
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void testFindLastAndNextBookingsByItemIds() {
+        final Item otherItem = Item.builder()
+                .owner(owner)
+                .name("Other item name")
+                .description("Other item description")
+                .available(true).build();
+        testEntityManager.persist(otherItem);
+        final Item idleItem = Item.builder()
+                .owner(owner)
+                .name("Idle item name")
+                .description("Idle item description")
+                .available(true).build();
+        testEntityManager.persist(idleItem);
+
+        final LocalDateTime now = LocalDateTime.now();
+        final Booking older = persistBooking(otherItem, now.minusDays(5), now.minusDays(4));
+        final Booking last = persistBooking(otherItem, now.minusDays(2), now.minusDays(1));
+        final Booking next = persistBooking(otherItem, now.plusDays(1), now.plusDays(2));
+        persistBooking(otherItem, now.plusDays(3), now.plusDays(4));
+        final Booking rejected = persistBooking(otherItem, now.minusHours(12), now.minusHours(6));
+        rejected.setStatus(BookingStatus.REJECTED);
+
+        final List<Long> itemIds = List.of(item.getId(), otherItem.getId(), idleItem.getId());
+        final List<BookingStatus> statuses = List.of(BookingStatus.WAITING, BookingStatus.APPROVED);
+        final List<Booking> lastBookings = bookingRepository.findLastBookingsByItemIds(itemIds, statuses);
+        final List<Booking> nextBookings = bookingRepository.findNextBookingsByItemIds(itemIds, statuses);
+
+        assertThat(ids(lastBookings)).containsExactly(last.getId()).doesNotContain(older.getId(), rejected.getId());
+        assertThat(ids(nextBookings)).containsExactlyInAnyOrder(next.getId(), bookings.get(0).getId(),
+                bookings.get(1).getId());
+    }
+
+    private Booking persistBooking(Item item, LocalDateTime start, LocalDateTime end) {
+        final Booking booking = Booking.builder()
+                .item(item)
+                .booker(booker)
+                .start(start)
+                .end(end)
+                .status(BookingStatus.APPROVED)
+                .build();
+        return testEntityManager.persist(booking);
+    }
+
+    @Test
+    void testExpireWaitingBookingsWithGuardedUpdate() {
+        final LocalDateTime before = bookings.get(0).getStart().plusDays(3);
+        final List<Booking> stale = bookingRepository.findAllByStatusAndStartBeforeForUpdate(BookingStatus.WAITING,
+                before, PageRequest.of(0, 10));
+        assertThat(ids(stale)).containsExactly(bookings.get(0).getId(), bookings.get(2).getId());
+        assertEquals(bookings.get(0).getStart(),
+                bookingRepository.findEarliestStartByStatusAndStartBefore(BookingStatus.WAITING, before).orElseThrow());
+
+        final List<Long> candidates = List.of(bookings.get(0).getId(), bookings.get(1).getId(),
+                bookings.get(2).getId());
+        assertEquals(2, bookingRepository.updateStatus(candidates, BookingStatus.WAITING, BookingStatus.EXPIRED));
+        assertThat(bookingRepository.findAllByIdIn(candidates)).extracting(Booking::getStatus)
+                .containsExactlyInAnyOrder(BookingStatus.EXPIRED, BookingStatus.APPROVED, BookingStatus.EXPIRED);
+        assertEquals(BookingStatus.APPROVED, bookingRepository.findById(bookings.get(1).getId())
+                .orElseThrow().getStatus());
+        assertTrue(bookingRepository.findEarliestStartByStatusAndStartBefore(BookingStatus.WAITING, before)
+                .isEmpty());
+    }
+
+    @Test
+    void testCountStatesByBookerAndOwner() {
+        final LocalDateTime now = bookings.get(0).getStart().plusDays(2).plusHours(12);
+        final List<BookingStateTotals> bookerTotals = bookingRepository.countStatesByBookerIds(
+                List.of(booker.getId(), owner.getId()), now, BookingStatus.WAITING, BookingStatus.REJECTED);
+        final List<BookingStateTotals> ownerTotals = bookingRepository.countStatesByOwnerIds(
+                List.of(booker.getId(), owner.getId()), now, BookingStatus.WAITING, BookingStatus.REJECTED);
+
+        assertEquals(1, bookerTotals.size());
+        assertEquals(1, ownerTotals.size());
+        assertEquals(booker.getId(), bookerTotals.get(0).getUserId());
+        assertEquals(owner.getId(), ownerTotals.get(0).getUserId());
+        for (BookingStateTotals totals : List.of(bookerTotals.get(0), ownerTotals.get(0))) {
+            assertEquals(5, totals.getAll());
+            assertEquals(3, totals.getWaiting());
+            assertEquals(0, totals.getRejected());
+            assertEquals(2, totals.getPast());
+            assertEquals(1, totals.getCurrent());
+            assertEquals(2, totals.getFuture());
+            assertEquals(bookings.get(3).getStart(), totals.getNextStart());
+            assertEquals(bookings.get(2).getEnd(), totals.getNextEnd());
+        }
+    }
+
+    @Test
+    void testMoveEndedBookingsToArchive() {
+        final LocalDateTime endedBefore = bookings.get(0).getStart().plusDays(5);
+        final List<BookingInterval> intervals = bookingRepository.findIntervalsByEndBeforeAndStatusNot(endedBefore,
+                BookingStatus.WAITING, PageRequest.of(0, 10));
+        final List<Long> ids = intervals.stream()
+                .map(BookingInterval::getBookingId)
+                .collect(Collectors.toList());
+        assertThat(ids).containsExactly(bookings.get(1).getId(), bookings.get(3).getId());
+
+        testEntityManager.flush();
+        assertEquals(2, bookingArchiveRepository.copyFromBookings(ids));
+        assertEquals(2, bookingRepository.deleteAllByIdIn(ids));
+
+        assertThat(bookingRepository.findAllById(ids)).isEmpty();
+        final ArchivedBooking archived = bookingArchiveRepository.findById(bookings.get(3).getId()).orElseThrow();
+        assertEquals(bookings.get(3).getStart(), archived.getStart());
+        assertEquals(bookings.get(3).getEnd(), archived.getEnd());
+        assertEquals(BookingStatus.APPROVED, archived.getStatus());
+        assertThat(responseIds(bookingArchiveRepository.getAllByBookerOrderByStartDesc(booker, PageRequest.of(0, 10))
+                .getContent()))
+                .containsExactly(bookings.get(3).getId(), bookings.get(1).getId());
+        assertThat(responseIds(bookingArchiveRepository.getAllByItemOwnerAndStatusOrderByStartDesc(owner,
+                BookingStatus.APPROVED, PageRequest.of(0, 10)).getContent()))
+                .containsExactly(bookings.get(3).getId(), bookings.get(1).getId());
+        assertThat(bookingArchiveRepository.findByIdForBookerOrOwner(bookings.get(1).getId(), owner.getId()))
+                .isPresent();
+        assertTrue(bookingArchiveRepository.existsByItemOwnerAndStatus(owner, BookingStatus.APPROVED));
+        assertFalse(bookingArchiveRepository.existsByBookerAndStatus(booker, BookingStatus.REJECTED));
+        assertThat(bookingArchiveRepository.findLastBookingsByItemIds(List.of(item.getId()),
+                List.of(BookingStatus.APPROVED)))
+                .extracting(ArchivedBooking::getId)
+                .containsExactly(bookings.get(3).getId());
+        assertEquals(2, bookingArchiveRepository.countStatesByOwnerIds(List.of(owner.getId()), endedBefore,
+                BookingStatus.WAITING, BookingStatus.REJECTED).get(0).getPast());
+    }
+
+    @Test
+    void testFindWaitlistedItemIdsAfter() {
+        final Item other = Item.builder()
+                .owner(owner)
+                .name("Other item name")
+                .description("Other item description")
+                .available(true).build();
+        testEntityManager.persist(other);
+        for (Item waitlisted : List.of(item, item, other)) {
+            testEntityManager.persist(BookingIntent.builder()
+                    .item(waitlisted)
+                    .booker(booker)
+                    .start(FAR_FUTURE.minusDays(2))
+                    .end(FAR_FUTURE.minusDays(1))
+                    .created(LocalDateTime.now()).build());
+        }
+
+        assertThat(bookingIntentRepository.findItemIdsAfter(0L, PageRequest.of(0, 10)))
+                .containsExactly(item.getId(), other.getId());
+        assertThat(bookingIntentRepository.findItemIdsAfter(item.getId(), PageRequest.of(0, 10)))
+                .containsExactly(other.getId());
+    }
+
+    @Test
+    void testExistsOverlappingByStatusExcludesItselfAndAdjacentPeriods() {
+        final Booking waiting = bookings.get(0);
+        final Booking approved = bookings.get(1);
+        final Booking adjacent = bookings.get(4);
+
+        assertTrue(bookingRepository.existsOverlappingByStatus(item.getId(), waiting.getId(), BookingStatus.APPROVED,
+                waiting.getStart(), waiting.getEnd()));
+        assertFalse(bookingRepository.existsOverlappingByStatus(item.getId(), approved.getId(),
+                BookingStatus.APPROVED, approved.getStart(), approved.getEnd()));
+        assertFalse(bookingRepository.existsOverlappingByStatus(item.getId(), adjacent.getId(),
+                BookingStatus.APPROVED, adjacent.getStart(), adjacent.getEnd()));
+    }
+
+    @Test
+    void testFindCurrentAndEarliestStartAt() {
+        final LocalDateTime now = bookings.get(0).getStart().plusDays(2).plusHours(12);
+        assertThat(responseIds(bookingRepository.findAllCurrentByBookerId(booker.getId(), now, PageRequest.of(0, 10))
+                .getContent()))
+                .containsExactly(bookings.get(2).getId());
+        assertThat(responseIds(bookingRepository.findAllCurrentByItemOwnerId(owner.getId(), now,
+                PageRequest.of(0, 10)).getContent()))
+                .containsExactly(bookings.get(2).getId());
+        assertThat(responseIds(bookingRepository.findAllCurrentByBookerIdBeforeCursor(booker.getId(), now,
+                bookings.get(3).getStart(), 0L, PageRequest.of(0, 10)).getContent()))
+                .containsExactly(bookings.get(2).getId());
+        assertTrue(bookingRepository.findAllCurrentByItemOwnerIdBeforeCursor(owner.getId(), now,
+                bookings.get(2).getStart(), bookings.get(2).getId(), PageRequest.of(0, 10)).isEmpty());
+        assertEquals(bookings.get(3).getStart(),
+                bookingRepository.findEarliestStartByBookerIdAndStartNotBefore(booker.getId(), now).orElseThrow());
+        assertEquals(bookings.get(3).getStart(), bookingRepository
+                .findEarliestStartByItemOwnerIdAndStartNotBefore(owner.getId(), bookings.get(3).getStart())
+                .orElseThrow());
+        assertTrue(bookingRepository.findEarliestStartByBookerIdAndStartNotBefore(booker.getId(), FAR_FUTURE)
+                .isEmpty());
+    }
+
+    @Test
+    void testStreamAllByItemOwnerId() {
+        try (Stream<BookingDtoForResponse> stream = bookingRepository.streamAllByItemOwnerId(owner.getId())) {
+            assertThat(responseIds(stream.collect(Collectors.toList())))
+                    .containsExactly(bookings.get(4).getId(), bookings.get(3).getId(), bookings.get(2).getId(),
+                            bookings.get(1).getId(), bookings.get(0).getId());
+        }
+
+        try (Stream<BookingDtoForResponse> stream = bookingRepository.streamAllByItemOwnerId(booker.getId())) {
+            assertThat(stream).isEmpty();
+        }
+    }
+
+    private static List<Long> ids(List<Booking> bookings) {
+        return bookings.stream().map(Booking::getId).collect(Collectors.toList());
+    }
+
+    private static List<Long> responseIds(List<BookingDtoForResponse> bookings) {
+        return bookings.stream().map(BookingDtoForResponse::getId).collect(Collectors.toList());
+    }
+}
@@ -3,35 +3,66 @@ package ru.practicum.shareit.booking;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingDtoForResponse;
+import ru.practicum.shareit.booking.dto.BookingEvent;
+import ru.practicum.shareit.booking.dto.BookingHoldDto;
+import ru.practicum.shareit.booking.dto.BookingIntentDto;
+import ru.practicum.shareit.booking.dto.BookingMapper;
+import ru.practicum.shareit.booking.dto.BookingStateCountsDto;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingDecisionOutcome;
+import ru.practicum.shareit.booking.model.BookingEventType;
+import ru.practicum.shareit.booking.model.BookingIntent;
+import ru.practicum.shareit.booking.model.BookingInterval;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.model.BookingStatusChange;
 import ru.practicum.shareit.exception.*;
+import ru.practicum.shareit.item.ItemBookingSummaryService;
+import ru.practicum.shareit.item.ItemLocks;
 import ru.practicum.shareit.item.ItemService;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.UserService;
 import ru.practicum.shareit.user.model.User;
 
+import java.time.Clock;
+import java.time.Duration;
 import java.time.LocalDateTime;
-import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class BookingServiceImplTest {
 
     private BookingService bookingService;
+    private BookingHolds bookingHolds;
 
     @Mock
     private UserService userService;
@@ -42,6 +73,33 @@ class BookingServiceImplTest {
     @Mock
     private BookingRepository bookingRepository;
 
+    @Mock
+    private BookingArchiveRepository bookingArchiveRepository;
+
+    @Mock
+    private BookingIntentRepository bookingIntentRepository;
+
+    @Mock
+    private ItemBookingSummaryService itemBookingSummaryService;
+
+    @Mock
+    private BookingStateCountersService bookingStateCountersService;
+
+    @Mock
+    private BookingEventBroker bookingEventBroker;
+
+    @Mock
+    private BookingExporter bookingExporter;
+
+    @Mock
+    private BookingCurrentCache bookingCurrentCache;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
     User owner;
     Item item;
     User booker;
@@ -50,7 +108,12 @@ class BookingServiceImplTest {
 
     @BeforeEach
     void setUp() {
-        bookingService = new BookingServiceImpl(userService, itemService, bookingRepository);
+        final BookingIntervalIndex index = new BookingIntervalIndex(bookingRepository);
+        bookingHolds = holdsOver(index);
+        bookingService = new BookingServiceImpl(userService, itemService, bookingRepository,
+                bookingArchiveRepository, bookingIntentRepository, index, bookingCurrentCache, bookingHolds,
+                itemBookingSummaryService, bookingStateCountersService, bookingEventBroker, bookingExporter,
+                eventPublisher, new ItemLocks(4), new TransactionTemplate(transactionManager));
 
         owner = User.builder()
                 .id(1L)
@@ -93,6 +156,142 @@ class BookingServiceImplTest {
         BookingDtoForResponse savedBookingDto = bookingService.addBooking(booker.getId(), bookingDto);
         assertNotNull(savedBookingDto);
         assertEquals(savedBookingDto.getItem().getId(), bookingDto.getItemId());
+
+        final ArgumentCaptor<BookingEvent> captor = ArgumentCaptor.forClass(BookingEvent.class);
+        verify(eventPublisher).publishEvent(captor.capture());
+        assertEquals(BookingEventType.BOOKING_CREATED, captor.getValue().getType());
+        assertEquals(owner.getId(), captor.getValue().getOwnerId());
+    }
+
+    @Test
+    void addBookingOverlapsExisting() {
+        when(userService.getUser(anyLong()))
+                .thenReturn(booker);
+        when(itemService.getItem(anyLong()))
+                .thenReturn(item);
+        bookingService.addBooking(booker.getId(), bookingDto);
+
+        final Long bookerId = booker.getId();
+        final BookingDto overlappingDto = BookingDto.builder()
+                .itemId(item.getId())
+                .start(bookingDto.getStart().plusDays(1))
+                .end(bookingDto.getEnd().plusDays(1)).build();
+        final BookingConflictException exception = assertThrows(BookingConflictException.class,
+                () -> bookingService.addBooking(bookerId, overlappingDto));
+        assertTrue(exception.getMessage().contains(item.getId().toString()));
+        verify(bookingRepository, times(1)).save(any(Booking.class));
+    }
+
+    @Test
+    void addBookingAfterRejectedOverlap() {
+        when(userService.getUser(anyLong()))
+                .thenReturn(booker, owner, booker);
+        when(itemService.getItem(anyLong()))
+                .thenReturn(item);
+        when(bookingRepository.save(any(Booking.class)))
+                .thenAnswer(invocation -> {
+                    Booking saved = invocation.getArgument(0);
+                    saved.setId(booking.getId());
+                    return saved;
+                });
+        when(bookingRepository.findById(anyLong()))
+                .thenReturn(Optional.ofNullable(booking));
+        bookingService.addBooking(booker.getId(), bookingDto);
+        bookingService.approveBooking(owner.getId(), booking.getId(), false);
+
+        BookingDtoForResponse savedBookingDto = bookingService.addBooking(booker.getId(), bookingDto);
+        assertNotNull(savedBookingDto);
+    }
+
+    @Test
+    void addBookingHeldByOtherUser() {
+        when(userService.getUser(anyLong()))
+                .thenReturn(booker);
+        when(itemService.getItem(anyLong()))
+                .thenReturn(item);
+        bookingHolds.hold(item.getId(), 3L, bookingDto.getStart(), bookingDto.getEnd());
+
+        final Long bookerId = booker.getId();
+        assertThrows(BookingConflictException.class, () -> bookingService.addBooking(bookerId, bookingDto));
+        verify(bookingRepository, never()).save(any(Booking.class));
+    }
+
+    @Test
+    void holdBookingAndConfirm() {
+        when(userService.getUser(anyLong()))
+                .thenReturn(booker);
+        when(itemService.getItem(anyLong()))
+                .thenReturn(item);
+        when(bookingRepository.save(any(Booking.class)))
+                .thenReturn(booking);
+
+        final BookingHoldDto hold = bookingService.holdBooking(booker.getId(), bookingDto);
+        assertEquals(item.getId(), hold.getItemId());
+        assertTrue(hold.getExpiresAt().isAfter(LocalDateTime.now()));
+        verify(bookingRepository, never()).save(any(Booking.class));
+
+        final BookingDtoForResponse savedBookingDto = bookingService.confirmHold(booker.getId(), hold.getId());
+        assertEquals(item.getId(), savedBookingDto.getItem().getId());
+        verify(bookingRepository).save(any(Booking.class));
+        assertEquals(0, bookingHolds.size());
+    }
+
+    @Test
+    void confirmHoldReleasesHoldAfterCommit() {
+        when(userService.getUser(anyLong()))
+                .thenReturn(booker);
+        when(itemService.getItem(anyLong()))
+                .thenReturn(item);
+        when(bookingRepository.save(any(Booking.class)))
+                .thenReturn(booking);
+        final BookingHoldDto hold = bookingService.holdBooking(booker.getId(), bookingDto);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            bookingService.confirmHold(booker.getId(), hold.getId());
+            assertEquals(1, bookingHolds.size());
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(0, bookingHolds.size());
+    }
+
+    @Test
+    void holdBookingConflictsWithoutReadingDatabase() {
+        bookingHolds.hold(item.getId(), 3L, bookingDto.getStart(), bookingDto.getEnd());
+
+        final Long bookerId = booker.getId();
+        assertThrows(BookingConflictException.class, () -> bookingService.holdBooking(bookerId, bookingDto));
+        verifyNoInteractions(userService, itemService, bookingRepository);
+    }
+
+    @Test
+    void holdBookingItemUnavailable() {
+        item.setAvailable(false);
+        when(userService.getUser(anyLong()))
+                .thenReturn(booker);
+        when(itemService.getItem(anyLong()))
+                .thenReturn(item);
+
+        final Long bookerId = booker.getId();
+        assertThrows(ItemUnavailableException.class, () -> bookingService.holdBooking(bookerId, bookingDto));
+        assertEquals(0, bookingHolds.size());
+    }
+
+    @Test
+    void confirmHoldOfOtherUser() {
+        when(userService.getUser(anyLong()))
+                .thenReturn(booker);
+        when(itemService.getItem(anyLong()))
+                .thenReturn(item);
+        final BookingHoldDto hold = bookingService.holdBooking(booker.getId(), bookingDto);
+
+        final BookingHoldNotFoundException exception = assertThrows(BookingHoldNotFoundException.class,
+                () -> bookingService.confirmHold(3L, hold.getId()));
+        assertTrue(exception.getMessage().contains(hold.getId()));
+        verify(bookingRepository, never()).save(any(Booking.class));
     }
 
     @Test
@@ -156,6 +355,15 @@ class BookingServiceImplTest {
 
         assertEquals(BookingStatus.REJECTED, bookingDtoForResponse.getStatus());
         verify(bookingRepository, times(1)).findById(anyLong());
+
+        @SuppressWarnings("unchecked")
+        final ArgumentCaptor<List<BookingStatusChange>> captor = ArgumentCaptor.forClass(List.class);
+        verify(bookingStateCountersService).onStatusChanged(captor.capture());
+        final BookingStatusChange change = captor.getValue().get(0);
+        assertEquals(BookingStatus.WAITING, change.getFrom());
+        assertEquals(BookingStatus.REJECTED, change.getTo());
+        assertEquals(booker.getId(), change.getBookerId());
+        assertEquals(owner.getId(), change.getOwnerId());
     }
 
     @Test
@@ -190,43 +398,154 @@ class BookingServiceImplTest {
 
     @Test
     void getBookingInfo() {
-        when(userService.getUser(anyLong()))
-                .thenReturn(owner);
-        when(itemService.getItem(anyLong()))
-                .thenReturn(item);
-        when(bookingRepository.findById(anyLong()))
+        when(bookingRepository.findByIdForBookerOrOwner(anyLong(), anyLong()))
                 .thenReturn(Optional.ofNullable(booking));
 
         BookingDtoForResponse bookingDtoForResponse =
                 bookingService.getBookingInfo(1L, 1L);
 
         assertNotNull(bookingDtoForResponse);
-        assertEquals(booker, bookingDtoForResponse.getBooker());
-        verify(bookingRepository, times(1)).findById(anyLong());
+        assertEquals(booker.getId(), bookingDtoForResponse.getBooker().getId());
+        verify(bookingRepository, times(1)).findByIdForBookerOrOwner(1L, 1L);
+        verifyNoInteractions(userService, itemService);
+        verify(bookingRepository, never()).existsById(anyLong());
     }
 
     @Test
     void getBookingInfoNotFound() {
-        when(userService.getUser(anyLong()))
-                .thenReturn(owner);
-        when(bookingRepository.findById(anyLong()))
+        when(bookingRepository.findByIdForBookerOrOwner(anyLong(), anyLong()))
                 .thenReturn(Optional.empty());
+        when(bookingRepository.existsById(anyLong()))
+                .thenReturn(false);
 
         final BookingNotFoundException exception = assertThrows(BookingNotFoundException.class,
                 () -> bookingService.getBookingInfo(1L, 1L));
         String expectedMessage = String.valueOf(1L);
         String actualMessage = exception.getMessage();
         assertTrue(actualMessage.contains(expectedMessage));
+        verify(userService).validateUserExists(1L);
+    }
+
+    @Test
+    void getBookingInfoByStranger() {
+        when(bookingRepository.findByIdForBookerOrOwner(anyLong(), anyLong()))
+                .thenReturn(Optional.empty());
+        when(bookingRepository.existsById(anyLong()))
+                .thenReturn(true);
+
+        assertThrows(BookingNotFoundException.class, () -> bookingService.getBookingInfo(3L, 1L));
+        verify(bookingRepository).existsById(1L);
+    }
+
+    @Test
+    void getBookingInfoFromArchive() {
+        final BookingDtoForResponse archived = BookingMapper.toBookingDtoForResponse(booking);
+        when(bookingRepository.findByIdForBookerOrOwner(1L, 2L))
+                .thenReturn(Optional.empty());
+        when(bookingArchiveRepository.findByIdForBookerOrOwner(1L, 2L))
+                .thenReturn(Optional.of(archived));
+
+        assertSame(archived, bookingService.getBookingInfo(2L, 1L));
+        verifyNoInteractions(userService);
+    }
+
+    @Test
+    void getPastBookingsMergesHotAndArchivedRows() {
+        final LocalDateTime now = LocalDateTime.now();
+        final BookingDtoForResponse hotOld = new BookingDtoForResponse(3L, BookingStatus.APPROVED,
+                now.minusDays(300), now.minusDays(1), booker.getId(), item.getId(), item.getName());
+        final BookingDtoForResponse hotRecent = new BookingDtoForResponse(4L, BookingStatus.APPROVED,
+                now.minusDays(3), now.minusDays(2), booker.getId(), item.getId(), item.getName());
+        final BookingDtoForResponse archivedOld = new BookingDtoForResponse(1L, BookingStatus.APPROVED,
+                now.minusDays(400), now.minusDays(390), booker.getId(), item.getId(), item.getName());
+        final BookingDtoForResponse archivedRecent = new BookingDtoForResponse(2L, BookingStatus.REJECTED,
+                now.minusDays(250), now.minusDays(240), booker.getId(), item.getId(), item.getName());
+        when(userService.getUser(booker.getId()))
+                .thenReturn(booker);
+        when(bookingRepository.getAllPastByBookerOrderByStartDesc(booker, PageRequest.of(0, 2)))
+                .thenReturn(new SliceImpl<>(List.of(hotRecent, hotOld), PageRequest.of(0, 2), true));
+        when(bookingArchiveRepository.getAllByBookerOrderByStartDesc(booker, PageRequest.of(0, 2)))
+                .thenReturn(new SliceImpl<>(List.of(archivedRecent, archivedOld), PageRequest.of(0, 2), false));
+
+        final Slice<BookingDtoForResponse> bookings = bookingService.getBookings(booker.getId(), "PAST", 0, 2);
+
+        assertEquals(List.of(hotRecent, archivedRecent), bookings.getContent());
+        assertTrue(bookings.hasNext());
+    }
+
+    @Test
+    void getPastBookingsAtOffsetSkipsMergeWithoutArchivedRows() {
+        final Slice<BookingDtoForResponse> hot = new SliceImpl<>(
+                List.of(BookingMapper.toBookingDtoForResponse(booking)), PageRequest.of(2, 2), false);
+        when(userService.getUser(booker.getId()))
+                .thenReturn(booker);
+        when(bookingArchiveRepository.existsByBooker(booker))
+                .thenReturn(false);
+        when(bookingRepository.getAllPastByBookerOrderByStartDesc(booker, PageRequest.of(2, 2)))
+                .thenReturn(hot);
+
+        assertSame(hot, bookingService.getBookings(booker.getId(), "PAST", 4, 2));
+        verify(bookingArchiveRepository, never()).getAllByBookerOrderByStartDesc(any(User.class),
+                any(Pageable.class));
+    }
+
+    @Test
+    void getRejectedBookingsOfOwnerAtOffsetMergesArchivedRows() {
+        final LocalDateTime now = LocalDateTime.now();
+        final BookingDtoForResponse hotRecent = new BookingDtoForResponse(4L, BookingStatus.REJECTED,
+                now.minusDays(3), now.minusDays(2), booker.getId(), item.getId(), item.getName());
+        final BookingDtoForResponse archivedOld = new BookingDtoForResponse(1L, BookingStatus.REJECTED,
+                now.minusDays(400), now.minusDays(390), booker.getId(), item.getId(), item.getName());
+        when(userService.getUser(owner.getId()))
+                .thenReturn(owner);
+        when(bookingArchiveRepository.existsByItemOwnerAndStatus(owner, BookingStatus.REJECTED))
+                .thenReturn(true);
+        when(bookingRepository.getAllByItemOwnerAndStatusOrderByStartDesc(owner, BookingStatus.REJECTED,
+                PageRequest.of(0, 2)))
+                .thenReturn(new SliceImpl<>(List.of(hotRecent), PageRequest.of(0, 2), false));
+        when(bookingArchiveRepository.getAllByItemOwnerAndStatusOrderByStartDesc(owner, BookingStatus.REJECTED,
+                PageRequest.of(0, 2)))
+                .thenReturn(new SliceImpl<>(List.of(archivedOld), PageRequest.of(0, 2), false));
+
+        final Slice<BookingDtoForResponse> bookings = bookingService.getBookingsOfOwner(owner.getId(), "REJECTED",
+                1, 1);
+
+        assertEquals(List.of(archivedOld), bookings.getContent());
+        assertFalse(bookings.hasNext());
+    }
+
+    @Test
+    void getWaitingBookingsSkipsArchive() {
+        when(userService.getUser(booker.getId()))
+                .thenReturn(booker);
+        when(bookingRepository.getAllByBookerAndStatusOrderByStartDesc(eq(booker), eq(BookingStatus.WAITING),
+                any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of(BookingMapper.toBookingDtoForResponse(booking))));
+
+        assertEquals(1, bookingService.getBookings(booker.getId(), "WAITING", 0, 10).getNumberOfElements());
+        verifyNoInteractions(bookingArchiveRepository);
+    }
+
+    @Test
+    void getBookingInfoByUnknownUser() {
+        when(bookingRepository.findByIdForBookerOrOwner(anyLong(), anyLong()))
+                .thenReturn(Optional.empty());
+        doThrow(new UserNotFoundException(99L))
+                .when(userService).validateUserExists(99L);
+
+        assertThrows(UserNotFoundException.class, () -> bookingService.getBookingInfo(99L, 1L));
+        verify(bookingRepository, never()).existsById(anyLong());
     }
 
     @Test
     void getBookings() {
-        Page<Booking> daoBookings = new PageImpl<>(List.of(booking));
+        Slice<BookingDtoForResponse> daoBookings =
+                new SliceImpl<>(List.of(BookingMapper.toBookingDtoForResponse(booking)));
         when(userService.getUser(anyLong()))
                 .thenReturn(booker);
         when(bookingRepository.getAllByBookerOrderByStartDesc(any(User.class), any(Pageable.class)))
                 .thenReturn(daoBookings);
-        when(bookingRepository.getAllCurrentByBookerOrderByStartDesc(any(User.class), any(Pageable.class)))
+        when(bookingCurrentCache.getCurrentOfBooker(anyLong(), any(Pageable.class)))
                 .thenReturn(daoBookings);
         when(bookingRepository.getAllPastByBookerOrderByStartDesc(any(User.class), any(Pageable.class)))
                 .thenReturn(daoBookings);
@@ -236,25 +555,31 @@ class BookingServiceImplTest {
                 .getAllByBookerAndStatusOrderByStartDesc(any(User.class),
                         any(BookingStatus.class), any(Pageable.class)))
                 .thenReturn(daoBookings);
+        when(bookingArchiveRepository.getAllByBookerOrderByStartDesc(any(User.class), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of()));
+        when(bookingArchiveRepository.getAllByBookerAndStatusOrderByStartDesc(any(User.class),
+                any(BookingStatus.class), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of()));
 
         String[] statuses = {"ALL", "CURRENT", "PAST", "FUTURE", "WAITING", "REJECTED"};
 
         for (String status : statuses) {
-            Collection<BookingDtoForResponse> bookings =
+            Slice<BookingDtoForResponse> bookings =
                     bookingService.getBookings(booker.getId(), status, 0, 1);
             assertNotNull(bookings);
-            assertEquals(1, bookings.size());
+            assertEquals(1, bookings.getNumberOfElements());
         }
     }
 
     @Test
     void getBookingsOfOwner() {
-        Page<Booking> daoBookings = new PageImpl<>(List.of(booking));
+        Slice<BookingDtoForResponse> daoBookings =
+                new SliceImpl<>(List.of(BookingMapper.toBookingDtoForResponse(booking)));
         when(userService.getUser(anyLong()))
                 .thenReturn(owner);
         when(bookingRepository.getAllByItemOwnerOrderByStartDesc(any(User.class), any(Pageable.class)))
                 .thenReturn(daoBookings);
-        when(bookingRepository.getAllCurrentByItemOwnerOrderByStartDesc(any(User.class), any(Pageable.class)))
+        when(bookingCurrentCache.getCurrentOfOwner(anyLong(), any(Pageable.class)))
                 .thenReturn(daoBookings);
         when(bookingRepository.getAllPastByItemOwnerOrderByStartDesc(any(User.class), any(Pageable.class)))
                 .thenReturn(daoBookings);
@@ -264,14 +589,514 @@ class BookingServiceImplTest {
                 .getAllByItemOwnerAndStatusOrderByStartDesc(any(User.class),
                         any(BookingStatus.class), any(Pageable.class)))
                 .thenReturn(daoBookings);
+        when(bookingArchiveRepository.getAllByItemOwnerOrderByStartDesc(any(User.class), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of()));
+        when(bookingArchiveRepository.getAllByItemOwnerAndStatusOrderByStartDesc(any(User.class),
+                any(BookingStatus.class), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of()));
 
         String[] statuses = {"ALL", "CURRENT", "PAST", "FUTURE", "WAITING", "REJECTED"};
 
         for (String status : statuses) {
-            Collection<BookingDtoForResponse> bookings =
+            Slice<BookingDtoForResponse> bookings =
                     bookingService.getBookingsOfOwner(owner.getId(), status, 0, 1);
             assertNotNull(bookings);
-            assertEquals(1, bookings.size());
+            assertEquals(1, bookings.getNumberOfElements());
+        }
+    }
+
+    @Test
+    void getBookingsWithCursor() {
+        final String cursor = BookingCursor.of(booking).encode();
+        when(userService.getUser(anyLong()))
+                .thenReturn(booker);
+        when(bookingRepository.getAllByBookerBeforeCursor(any(User.class), eq(booking.getStart()),
+                eq(booking.getId()), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of(BookingMapper.toBookingDtoForResponse(booking))));
+        when(bookingCurrentCache.getCurrentOfBooker(anyLong(), any(BookingCursor.class), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of(BookingMapper.toBookingDtoForResponse(booking))));
+        when(bookingRepository.getAllPastByBookerBeforeCursor(any(User.class), any(LocalDateTime.class),
+                anyLong(), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of(BookingMapper.toBookingDtoForResponse(booking))));
+        when(bookingRepository.getAllFutureByBookerBeforeCursor(any(User.class), any(LocalDateTime.class),
+                anyLong(), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of(BookingMapper.toBookingDtoForResponse(booking))));
+        when(bookingRepository.getAllByBookerAndStatusBeforeCursor(any(User.class), any(BookingStatus.class),
+                any(LocalDateTime.class), anyLong(), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of(BookingMapper.toBookingDtoForResponse(booking))));
+        when(bookingArchiveRepository.getAllByBookerBeforeCursor(any(User.class), any(LocalDateTime.class),
+                anyLong(), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of()));
+        when(bookingArchiveRepository.getAllByBookerAndStatusBeforeCursor(any(User.class), any(BookingStatus.class),
+                any(LocalDateTime.class), anyLong(), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of()));
+
+        String[] statuses = {"ALL", "CURRENT", "PAST", "FUTURE", "WAITING", "REJECTED"};
+
+        for (String status : statuses) {
+            Slice<BookingDtoForResponse> bookings =
+                    bookingService.getBookings(booker.getId(), status, cursor, 1);
+            assertEquals(1, bookings.getNumberOfElements());
+        }
+        assertTrue(bookingService.getBookings(booker.getId(), "UNKNOWN", cursor, 1).isEmpty());
+    }
+
+    @Test
+    void getBookingsOfOwnerWithCursor() {
+        final String cursor = BookingCursor.of(booking).encode();
+        when(userService.getUser(anyLong()))
+                .thenReturn(owner);
+        when(bookingRepository.getAllByItemOwnerBeforeCursor(any(User.class), any(LocalDateTime.class),
+                anyLong(), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of(BookingMapper.toBookingDtoForResponse(booking))));
+        when(bookingCurrentCache.getCurrentOfOwner(anyLong(), any(BookingCursor.class), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of(BookingMapper.toBookingDtoForResponse(booking))));
+        when(bookingRepository.getAllPastByItemOwnerBeforeCursor(any(User.class), any(LocalDateTime.class),
+                anyLong(), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of(BookingMapper.toBookingDtoForResponse(booking))));
+        when(bookingRepository.getAllFutureByItemOwnerBeforeCursor(any(User.class), any(LocalDateTime.class),
+                anyLong(), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of(BookingMapper.toBookingDtoForResponse(booking))));
+        when(bookingRepository.getAllByItemOwnerAndStatusBeforeCursor(any(User.class), any(BookingStatus.class),
+                any(LocalDateTime.class), anyLong(), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of(BookingMapper.toBookingDtoForResponse(booking))));
+        when(bookingArchiveRepository.getAllByItemOwnerBeforeCursor(any(User.class), any(LocalDateTime.class),
+                anyLong(), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of()));
+        when(bookingArchiveRepository.getAllByItemOwnerAndStatusBeforeCursor(any(User.class),
+                any(BookingStatus.class), any(LocalDateTime.class), anyLong(), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of()));
+
+        String[] statuses = {"ALL", "CURRENT", "PAST", "FUTURE", "WAITING", "REJECTED"};
+
+        for (String status : statuses) {
+            Slice<BookingDtoForResponse> bookings =
+                    bookingService.getBookingsOfOwner(owner.getId(), status, cursor, 1);
+            assertEquals(1, bookings.getNumberOfElements());
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    void getBookingsWithIncorrectCursor() {
+        when(userService.getUser(anyLong()))
+                .thenReturn(booker);
+
+        final Long bookerId = booker.getId();
+        assertThrows(IncorrectCursorException.class,
+                () -> bookingService.getBookings(bookerId, "ALL", "broken", 1));
+    }
+
+    @Test
+    void exportBookingsOfOwner() {
+        final StreamingResponseBody body = out -> { };
+        when(bookingExporter.exportOfOwner(owner.getId()))
+                .thenReturn(body);
+
+        assertSame(body, bookingService.exportBookingsOfOwner(owner.getId()));
+        verify(userService).validateUserExists(owner.getId());
+    }
+
+    @Test
+    void exportBookingsOfUnknownOwner() {
+        doThrow(new UserNotFoundException(99L))
+                .when(userService).validateUserExists(99L);
+
+        assertThrows(UserNotFoundException.class, () -> bookingService.exportBookingsOfOwner(99L));
+        verifyNoInteractions(bookingExporter);
+    }
+
+    @Test
+    void subscribeToEventsOfOwner() {
+        final SseEmitter emitter = new SseEmitter();
+        when(bookingEventBroker.subscribe(owner.getId()))
+                .thenReturn(emitter);
+
+        assertSame(emitter, bookingService.subscribeToEventsOfOwner(owner.getId()));
+        verify(userService).validateUserExists(owner.getId());
+    }
+
+    @Test
+    void archiveBookingsMovesBatchAndReleasesIntervals() {
+        final BookingIntervalIndex index = new BookingIntervalIndex(bookingRepository);
+        index.reserve(item.getId(), booking.getStart(), booking.getEnd()).bind(booking.getId());
+        bookingService = new BookingServiceImpl(userService, itemService, bookingRepository, bookingArchiveRepository,
+                bookingIntentRepository, index, bookingCurrentCache, holdsOver(index), itemBookingSummaryService,
+                bookingStateCountersService, bookingEventBroker, bookingExporter, eventPublisher, new ItemLocks(4),
+                new TransactionTemplate(transactionManager));
+        final LocalDateTime endedBefore = LocalDateTime.now().minusMonths(6);
+        when(bookingRepository.findIntervalsByEndBeforeAndStatusNot(endedBefore, BookingStatus.WAITING,
+                PageRequest.of(0, 10)))
+                .thenReturn(List.of(new BookingInterval(booking.getId(), item.getId(), booking.getStart(),
+                        booking.getEnd())));
+
+        assertEquals(1, bookingService.archiveBookings(endedBefore, 10));
+
+        verify(bookingArchiveRepository).copyFromBookings(List.of(booking.getId()));
+        verify(bookingRepository).deleteAllByIdIn(List.of(booking.getId()));
+        assertFalse(index.hasConflict(item.getId(), booking.getStart(), booking.getEnd()));
+    }
+
+    @Test
+    void archiveBookingsWithNothingToMove() {
+        when(bookingRepository.findIntervalsByEndBeforeAndStatusNot(any(LocalDateTime.class),
+                eq(BookingStatus.WAITING), any(Pageable.class)))
+                .thenReturn(List.of());
+
+        assertEquals(0, bookingService.archiveBookings(LocalDateTime.now(), 10));
+        verifyNoInteractions(bookingArchiveRepository);
+    }
+
+    @Test
+    void joinWaitlist() {
+        when(userService.getUser(anyLong()))
+                .thenReturn(booker);
+        when(itemService.getItem(anyLong()))
+                .thenReturn(item);
+        when(bookingIntentRepository.save(any(BookingIntent.class)))
+                .thenAnswer(invocation -> {
+                    final BookingIntent saved = invocation.getArgument(0);
+                    saved.setId(1L);
+                    return saved;
+                });
+
+        final BookingIntentDto intent = bookingService.joinWaitlist(booker.getId(), bookingDto);
+
+        assertEquals(1L, intent.getId());
+        assertEquals(item.getId(), intent.getItemId());
+        assertNotNull(intent.getCreated());
+        verify(bookingRepository, never()).save(any(Booking.class));
+    }
+
+    @Test
+    void joinWaitlistOfOwnItem() {
+        when(userService.getUser(anyLong()))
+                .thenReturn(owner);
+        when(itemService.getItem(anyLong()))
+                .thenReturn(item);
+
+        final Long ownerId = owner.getId();
+        assertThrows(InvalidBookingException.class, () -> bookingService.joinWaitlist(ownerId, bookingDto));
+        verifyNoInteractions(bookingIntentRepository);
+    }
+
+    @Test
+    void promoteWaitlistCreatesWaitingBookingsInOrderAndDropsStaleIntents() {
+        final LocalDateTime now = LocalDateTime.now();
+        final BookingIntent first = intent(1L, now.plusDays(1), now.plusDays(3));
+        final BookingIntent overlapping = intent(2L, now.plusDays(2), now.plusDays(4));
+        final BookingIntent stale = intent(3L, now.minusDays(1), now.plusDays(1));
+        when(bookingIntentRepository.findAllByItemIdInOrderByCreatedAscIdAsc(List.of(item.getId())))
+                .thenReturn(List.of(first, overlapping, stale));
+
+        assertEquals(1, bookingService.promoteWaitlist(List.of(item.getId()), now));
+
+        final ArgumentCaptor<Booking> bookingCaptor = ArgumentCaptor.forClass(Booking.class);
+        verify(bookingRepository).save(bookingCaptor.capture());
+        assertEquals(BookingStatus.WAITING, bookingCaptor.getValue().getStatus());
+        assertEquals(first.getStart(), bookingCaptor.getValue().getStart());
+        verify(bookingIntentRepository).deleteAllInBatch(List.of(first, stale));
+        verify(bookingStateCountersService).onBookingCreated(bookingCaptor.getValue());
+        final ArgumentCaptor<BookingEvent> eventCaptor = ArgumentCaptor.forClass(BookingEvent.class);
+        verify(eventPublisher).publishEvent(eventCaptor.capture());
+        assertEquals(BookingEventType.BOOKING_CREATED, eventCaptor.getValue().getType());
+    }
+
+    @Test
+    void promoteWaitlistSkipsIntentsOfBookedOrHeldPeriods() {
+        final LocalDateTime now = LocalDateTime.now();
+        final BookingIntent booked = intent(1L, booking.getStart(), booking.getEnd());
+        final BookingIntent held = intent(2L, booking.getEnd().plusDays(1), booking.getEnd().plusDays(2));
+        when(userService.getUser(anyLong()))
+                .thenReturn(booker);
+        when(itemService.getItem(anyLong()))
+                .thenReturn(item);
+        bookingService.addBooking(booker.getId(), bookingDto);
+        bookingHolds.hold(item.getId(), 3L, held.getStart(), held.getEnd());
+        when(bookingIntentRepository.findAllByItemIdInOrderByCreatedAscIdAsc(List.of(item.getId())))
+                .thenReturn(List.of(booked, held));
+
+        assertEquals(0, bookingService.promoteWaitlist(List.of(item.getId()), now));
+
+        verify(bookingRepository, times(1)).save(any(Booking.class));
+        verify(bookingIntentRepository).deleteAllInBatch(List.of());
+    }
+
+    @Test
+    void expireWaitingBookingsReleasesAndPublishesLockedBookings() {
+        final LocalDateTime now = LocalDateTime.now().plusDays(2);
+        when(bookingRepository.findAllByStatusAndStartBeforeForUpdate(eq(BookingStatus.WAITING), eq(now),
+                any(Pageable.class)))
+                .thenReturn(List.of(booking));
+        when(bookingRepository.updateStatus(List.of(1L), BookingStatus.WAITING, BookingStatus.EXPIRED))
+                .thenReturn(1);
+        booking.setStatus(BookingStatus.EXPIRED);
+        when(bookingRepository.findAllByIdIn(List.of(1L)))
+                .thenReturn(List.of(booking));
+
+        assertEquals(1, bookingService.expireWaitingBookings(now, 10));
+
+        final ArgumentCaptor<BookingEvent> captor = ArgumentCaptor.forClass(BookingEvent.class);
+        verify(eventPublisher).publishEvent(captor.capture());
+        assertEquals(BookingEventType.BOOKING_STATUS_CHANGED, captor.getValue().getType());
+        assertEquals(BookingStatus.EXPIRED, captor.getValue().getBooking().getStatus());
+        assertEquals(1L, captor.getValue().getBooking().getId());
+        verify(itemBookingSummaryService).refresh(Set.of(item.getId()));
+    }
+
+    @Test
+    void expireWaitingBookingsRollsBackWhenLockedRowChanged() {
+        final LocalDateTime now = LocalDateTime.now().plusDays(2);
+        when(bookingRepository.findAllByStatusAndStartBeforeForUpdate(eq(BookingStatus.WAITING), eq(now),
+                any(Pageable.class)))
+                .thenReturn(List.of(booking));
+        when(bookingRepository.updateStatus(List.of(1L), BookingStatus.WAITING, BookingStatus.EXPIRED))
+                .thenReturn(0);
+
+        assertThrows(IllegalStateException.class, () -> bookingService.expireWaitingBookings(now, 10));
+        verifyNoInteractions(eventPublisher, itemBookingSummaryService);
+    }
+
+    @Test
+    void expireWaitingBookingsWithNothingToExpire() {
+        when(bookingRepository.findAllByStatusAndStartBeforeForUpdate(any(), any(), any()))
+                .thenReturn(List.of());
+
+        assertEquals(0, bookingService.expireWaitingBookings(LocalDateTime.now(), 10));
+        verify(bookingRepository, never()).updateStatus(any(), any(), any());
+        verifyNoInteractions(eventPublisher, itemBookingSummaryService);
+    }
+
+    @Test
+    void approveExpiredBooking() {
+        booking.setStatus(BookingStatus.EXPIRED);
+        when(userService.getUser(anyLong()))
+                .thenReturn(owner);
+        when(bookingRepository.findById(anyLong()))
+                .thenReturn(Optional.of(booking));
+
+        final Long ownerId = owner.getId();
+        final Long bookingId = booking.getId();
+        assertThrows(BookingStatusException.class, () -> bookingService.approveBooking(ownerId, bookingId, true));
+    }
+
+    @Test
+    void approveBookingsReportsOutcomePerId() {
+        final Item foreignItem = Item.builder()
+                .id(2L)
+                .name("Foreign item")
+                .owner(booker)
+                .available(true).build();
+        final Booking foreign = Booking.builder()
+                .id(2L)
+                .item(foreignItem)
+                .booker(owner)
+                .start(booking.getStart())
+                .end(booking.getEnd())
+                .status(BookingStatus.WAITING).build();
+        final Booking rejected = Booking.builder()
+                .id(3L)
+                .item(item)
+                .booker(booker)
+                .start(booking.getStart())
+                .end(booking.getEnd())
+                .status(BookingStatus.REJECTED).build();
+        when(bookingRepository.findAllByIdIn(Set.of(1L, 2L, 3L, 4L)))
+                .thenReturn(List.of(booking, foreign, rejected));
+
+        final List<BookingDecisionResultDto> results = bookingService.approveBookings(owner.getId(), List.of(
+                new BookingDecisionDto(1L, true),
+                new BookingDecisionDto(2L, true),
+                new BookingDecisionDto(3L, false),
+                new BookingDecisionDto(4L, false)));
+
+        assertEquals(List.of(BookingDecisionOutcome.UPDATED, BookingDecisionOutcome.NOT_FOUND,
+                        BookingDecisionOutcome.INVALID_STATUS, BookingDecisionOutcome.NOT_FOUND),
+                results.stream().map(BookingDecisionResultDto::getOutcome).collect(Collectors.toList()));
+        assertEquals(BookingStatus.APPROVED, results.get(0).getStatus());
+        assertEquals(BookingStatus.WAITING, foreign.getStatus());
+        verify(userService).validateUserExists(owner.getId());
+        verify(bookingRepository, never()).findById(anyLong());
+        verify(itemBookingSummaryService).refresh(Set.of(item.getId()));
+        verify(eventPublisher, times(1)).publishEvent(any(BookingEvent.class));
+    }
+
+    @Test
+    void approveBookingsReportsConflict() {
+        final Booking overlapping = Booking.builder()
+                .id(2L)
+                .item(item)
+                .booker(booker)
+                .start(booking.getStart())
+                .end(booking.getEnd())
+                .status(BookingStatus.REJECTED).build();
+        when(bookingRepository.findAllByIdIn(Set.of(1L, 2L)))
+                .thenReturn(List.of(booking, overlapping));
+        final BookingIntervalIndex index = new BookingIntervalIndex(bookingRepository);
+        index.reserve(item.getId(), booking.getStart(), booking.getEnd()).bind(booking.getId());
+        bookingService = new BookingServiceImpl(userService, itemService, bookingRepository, bookingArchiveRepository,
+                bookingIntentRepository, index, bookingCurrentCache, holdsOver(index), itemBookingSummaryService,
+                bookingStateCountersService, bookingEventBroker, bookingExporter, eventPublisher, new ItemLocks(4),
+                new TransactionTemplate(transactionManager));
+
+        when(bookingRepository.findIntervalsByItemIdAndStatusIn(item.getId(), BookingIntervalIndex.BLOCKING_STATUSES))
+                .thenReturn(List.of(new BookingInterval(booking.getId(), item.getId(), booking.getStart(),
+                        booking.getEnd())));
+
+        final List<BookingDecisionResultDto> results = bookingService.approveBookings(owner.getId(), List.of(
+                new BookingDecisionDto(1L, true),
+                new BookingDecisionDto(2L, true)));
+
+        assertEquals(BookingDecisionOutcome.UPDATED, results.get(0).getOutcome());
+        assertEquals(BookingDecisionOutcome.CONFLICT, results.get(1).getOutcome());
+        assertEquals(BookingStatus.REJECTED, results.get(1).getStatus());
+    }
+
+    @Test
+    void approveBookingRetriesOnOptimisticLockFailure() {
+        final Booking reloaded = Booking.builder()
+                .id(booking.getId())
+                .item(item)
+                .booker(booker)
+                .start(booking.getStart())
+                .end(booking.getEnd())
+                .status(BookingStatus.WAITING).build();
+        when(userService.getUser(anyLong()))
+                .thenReturn(owner);
+        when(bookingRepository.findItemIdById(booking.getId()))
+                .thenReturn(Optional.of(item.getId()));
+        when(bookingRepository.findById(booking.getId()))
+                .thenReturn(Optional.of(booking), Optional.of(reloaded));
+        doThrow(new ObjectOptimisticLockingFailureException(Booking.class, booking.getId()))
+                .doNothing()
+                .when(transactionManager).commit(any());
+
+        final BookingDtoForResponse result = bookingService.approveBooking(owner.getId(), booking.getId(), true);
+
+        assertEquals(BookingStatus.APPROVED, result.getStatus());
+        verify(bookingRepository, times(2)).findById(booking.getId());
+        verify(transactionManager, times(2)).commit(any());
+    }
+
+    @Test
+    void approveBookingGivesUpAfterBoundedRetries() {
+        when(userService.getUser(anyLong()))
+                .thenReturn(owner);
+        when(bookingRepository.findById(booking.getId()))
+                .thenAnswer(invocation -> Optional.of(Booking.builder()
+                        .id(booking.getId())
+                        .item(item)
+                        .booker(booker)
+                        .start(booking.getStart())
+                        .end(booking.getEnd())
+                        .status(BookingStatus.WAITING).build()));
+        doThrow(new ObjectOptimisticLockingFailureException(Booking.class, booking.getId()))
+                .when(transactionManager).commit(any());
+
+        final Long ownerId = owner.getId();
+        final Long bookingId = booking.getId();
+        assertThrows(OptimisticLockingFailureException.class,
+                () -> bookingService.approveBooking(ownerId, bookingId, true));
+        verify(transactionManager, times(3)).commit(any());
+    }
+
+    @Test
+    void approveRejectedBookingIncrementsItemVersion() {
+        booking.setStatus(BookingStatus.REJECTED);
+        when(userService.getUser(anyLong()))
+                .thenReturn(owner);
+        when(bookingRepository.findById(booking.getId()))
+                .thenReturn(Optional.of(booking));
+
+        bookingService.approveBooking(owner.getId(), booking.getId(), true);
+
+        verify(itemService).incrementItemVersion(item.getId());
+    }
+
+    @Test
+    void approveWaitingBookingIncrementsItemVersion() {
+        when(userService.getUser(anyLong()))
+                .thenReturn(owner);
+        when(bookingRepository.findById(booking.getId()))
+                .thenReturn(Optional.of(booking));
+
+        bookingService.approveBooking(owner.getId(), booking.getId(), true);
+
+        verify(bookingRepository).existsOverlappingByStatus(item.getId(), booking.getId(), BookingStatus.APPROVED,
+                booking.getStart(), booking.getEnd());
+        verify(itemService).incrementItemVersion(item.getId());
+        assertEquals(BookingStatus.APPROVED, booking.getStatus());
+    }
+
+    @Test
+    void approveWaitingBookingOverlappingApprovedOneConflicts() {
+        when(userService.getUser(anyLong()))
+                .thenReturn(owner);
+        when(bookingRepository.findById(booking.getId()))
+                .thenReturn(Optional.of(booking));
+        when(bookingRepository.existsOverlappingByStatus(item.getId(), booking.getId(), BookingStatus.APPROVED,
+                booking.getStart(), booking.getEnd()))
+                .thenReturn(true);
+
+        final Long ownerId = owner.getId();
+        final Long bookingId = booking.getId();
+        assertThrows(BookingConflictException.class,
+                () -> bookingService.approveBooking(ownerId, bookingId, true));
+        verify(itemService, never()).incrementItemVersion(anyLong());
+        assertEquals(BookingStatus.WAITING, booking.getStatus());
+    }
+
+    @Test
+    void approveRejectedBookingInConflictKeepsItemVersion() {
+        final BookingIntervalIndex index = new BookingIntervalIndex(bookingRepository);
+        index.reserve(item.getId(), booking.getStart(), booking.getEnd()).bind(booking.getId() + 1);
+        bookingService = new BookingServiceImpl(userService, itemService, bookingRepository, bookingArchiveRepository,
+                bookingIntentRepository, index, bookingCurrentCache, holdsOver(index), itemBookingSummaryService,
+                bookingStateCountersService, bookingEventBroker, bookingExporter, eventPublisher, new ItemLocks(4),
+                new TransactionTemplate(transactionManager));
+        booking.setStatus(BookingStatus.REJECTED);
+        when(userService.getUser(anyLong()))
+                .thenReturn(owner);
+        when(bookingRepository.findById(booking.getId()))
+                .thenReturn(Optional.of(booking));
+        when(bookingRepository.findIntervalsByItemIdAndStatusIn(item.getId(), BookingIntervalIndex.BLOCKING_STATUSES))
+                .thenReturn(List.of(new BookingInterval(booking.getId() + 1, item.getId(), booking.getStart(),
+                        booking.getEnd())));
+
+        final Long ownerId = owner.getId();
+        final Long bookingId = booking.getId();
+        assertThrows(BookingConflictException.class,
+                () -> bookingService.approveBooking(ownerId, bookingId, true));
+        verify(itemService, never()).incrementItemVersion(anyLong());
+        assertEquals(BookingStatus.REJECTED, booking.getStatus());
+    }
+
+    @Test
+    void getBookingCounts() {
+        final BookingStateCountsDto counts = BookingStateCountsDto.builder()
+                .all(3)
+                .waiting(1).build();
+        when(bookingStateCountersService.getCountsOfBooker(booker.getId()))
+                .thenReturn(counts);
+        when(bookingStateCountersService.getCountsOfOwner(owner.getId()))
+                .thenReturn(counts);
+
+        assertSame(counts, bookingService.getBookingCounts(booker.getId()));
+        assertSame(counts, bookingService.getBookingCountsOfOwner(owner.getId()));
+        verify(userService).validateUserExists(booker.getId());
+        verify(userService).validateUserExists(owner.getId());
+    }
+
+    private BookingIntent intent(long id, LocalDateTime start, LocalDateTime end) {
+        return BookingIntent.builder()
+                .id(id)
+                .item(item)
+                .booker(booker)
+                .start(start)
+                .end(end)
+                .created(LocalDateTime.now()).build();
+    }
+
+    private static BookingHolds holdsOver(BookingIntervalIndex index) {
+        return new BookingHolds(index, Clock.systemDefaultZone(), Duration.ofSeconds(5), Duration.ofMillis(100));
+    }
+}
@@ -0,0 +1,209 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.dto.BookingStateCountsDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStateCounters;
+import ru.practicum.shareit.booking.model.BookingStateCounts;
+import ru.practicum.shareit.booking.model.BookingStateTotals;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.model.BookingStatusChange;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BookingStateCountersServiceImplTest {
+
+    private BookingStateCountersService countersService;
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @Mock
+    private BookingArchiveRepository bookingArchiveRepository;
+
+    @Mock
+    private BookingStateCountersRepository countersRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    User owner;
+    User booker;
+    Item item;
+    LocalDateTime now;
+    BookingStateCounters ownerCounters;
+    BookingStateCounters bookerCounters;
+
+    @BeforeEach
+    void setUp() {
+        countersService = new BookingStateCountersServiceImpl(bookingRepository, bookingArchiveRepository,
+                countersRepository,
+                new TransactionTemplate(transactionManager));
+
+        owner = User.builder()
+                .id(1L)
+                .name("Sergej").build();
+
+        booker = User.builder()
+                .id(2L)
+                .name("Ivan").build();
+
+        item = Item.builder()
+                .id(1L)
+                .name("Test item name")
+                .owner(owner).build();
+
+        now = LocalDateTime.now();
+        ownerCounters = emptyCounters(owner.getId());
+        bookerCounters = emptyCounters(booker.getId());
+    }
+
+    @Test
+    void onBookingCreatedCountsFutureBookingForBookerAndOwner() {
+        final Booking booking = createBooking(now.plusDays(1), now.plusDays(2), BookingStatus.WAITING);
+
+        countersService.onBookingCreated(booking);
+
+        final InOrder inOrder = inOrder(countersRepository);
+        inOrder.verify(countersRepository).addToOwner(owner.getId(), 1, 0, 0, 1, 1, 0);
+        inOrder.verify(countersRepository).moveOwnerTransition(owner.getId(), booking.getStart());
+        inOrder.verify(countersRepository).addToBooker(booker.getId(), 1, 0, 0, 1, 1, 0);
+        inOrder.verify(countersRepository).moveBookerTransition(booker.getId(), booking.getStart());
+        verify(countersRepository, never()).findAllByIdForUpdate(anyCollection());
+    }
+
+    @Test
+    void onBookingCreatedKeepsTransitionOfPastBooking() {
+        final Booking booking = createBooking(now.minusDays(2), now.minusDays(1), BookingStatus.APPROVED);
+
+        countersService.onBookingCreated(booking);
+
+        verify(countersRepository).addToBooker(booker.getId(), 1, 0, 1, 0, 0, 0);
+        verify(countersRepository).addToOwner(owner.getId(), 1, 0, 1, 0, 0, 0);
+        verify(countersRepository, never()).moveBookerTransition(anyLong(), any());
+        verify(countersRepository, never()).moveOwnerTransition(anyLong(), any());
+    }
+
+    @Test
+    void onStatusChangedMovesWaitingToRejected() {
+        countersService.onStatusChanged(List.of(
+                new BookingStatusChange(booker.getId(), owner.getId(), BookingStatus.WAITING, BookingStatus.REJECTED),
+                new BookingStatusChange(booker.getId(), owner.getId(), BookingStatus.WAITING, BookingStatus.APPROVED)));
+
+        verify(countersRepository).addToBooker(booker.getId(), 0, 0, 0, 0, -2, 1);
+        verify(countersRepository).addToOwner(owner.getId(), 0, 0, 0, 0, -2, 1);
+        verify(countersRepository, never()).findAllByIdForUpdate(anyCollection());
+    }
+
+    @Test
+    void getCountsServesFreshCountersWithoutQueryingBookings() {
+        bookerCounters.getBooker().setAll(4);
+        bookerCounters.getBooker().setNextTransition(now.plusHours(1));
+        when(countersRepository.findById(booker.getId()))
+                .thenReturn(Optional.of(bookerCounters));
+
+        final BookingStateCountsDto counts = countersService.getCountsOfBooker(booker.getId());
+
+        assertEquals(4, counts.getAll());
+        verifyNoInteractions(bookingRepository);
+    }
+
+    @Test
+    void getCountsRecomputesAfterTransitionBoundary() {
+        bookerCounters.getBooker().setFuture(1);
+        bookerCounters.getBooker().setNextTransition(now.minusMinutes(1));
+        final LocalDateTime nextEnd = now.plusDays(1);
+        when(countersRepository.findById(booker.getId()))
+                .thenReturn(Optional.of(bookerCounters));
+        when(countersRepository.findAllByIdForUpdate(List.of(booker.getId())))
+                .thenReturn(List.of(bookerCounters));
+        when(bookingRepository.countStatesByBookerIds(eq(List.of(booker.getId())), any(), eq(BookingStatus.WAITING),
+                eq(BookingStatus.REJECTED)))
+                .thenReturn(List.of(new BookingStateTotals(booker.getId(), 1L, 0L, 0L, 1L, 0L, 0L, null, nextEnd)));
+
+        final BookingStateCountsDto counts = countersService.getCountsOfBooker(booker.getId());
+
+        assertEquals(1, counts.getAll());
+        assertEquals(1, counts.getCurrent());
+        assertEquals(0, counts.getFuture());
+        assertEquals(nextEnd, bookerCounters.getBooker().getNextTransition());
+        assertEquals(0, bookerCounters.getOwner().getAll());
+        verify(countersRepository).saveAll(anyCollection());
+    }
+
+    @Test
+    void getCountsOfCountersLockedElsewhereRecomputesWithoutSaving() {
+        bookerCounters.getBooker().setNextTransition(now.minusMinutes(1));
+        when(countersRepository.findById(booker.getId()))
+                .thenReturn(Optional.of(bookerCounters));
+        when(countersRepository.findAllByIdForUpdate(List.of(booker.getId())))
+                .thenReturn(List.of());
+        when(bookingRepository.countStatesByBookerIds(eq(List.of(booker.getId())), any(), eq(BookingStatus.WAITING),
+                eq(BookingStatus.REJECTED)))
+                .thenReturn(List.of(new BookingStateTotals(booker.getId(), 3L, 1L, 0L, 0L, 3L, 0L, null, null)));
+
+        final BookingStateCountsDto counts = countersService.getCountsOfBooker(booker.getId());
+
+        assertEquals(3, counts.getAll());
+        assertEquals(3, counts.getPast());
+        verify(countersRepository, never()).saveAll(anyCollection());
+    }
+
+    @Test
+    void reconcileRecomputesAllCountersInChunks() {
+        when(countersRepository.findUserIdsAfter(eq(0L), any(Pageable.class)))
+                .thenReturn(List.of(owner.getId(), booker.getId()));
+        when(countersRepository.findUserIdsAfter(eq(booker.getId()), any(Pageable.class)))
+                .thenReturn(List.of());
+        ownerCounters.getOwner().setAll(7);
+        when(countersRepository.findAllByIdForUpdate(List.of(owner.getId(), booker.getId())))
+                .thenReturn(List.of(ownerCounters, bookerCounters));
+        when(bookingRepository.countStatesByOwnerIds(anyCollection(), any(), any(), any()))
+                .thenReturn(List.of(new BookingStateTotals(owner.getId(), 2L, 1L, 1L, 0L, 2L, 0L, null, null)));
+
+        countersService.reconcile();
+
+        assertEquals(2, ownerCounters.getOwner().getAll());
+        assertEquals(2, ownerCounters.getOwner().getPast());
+        assertNull(ownerCounters.getOwner().getNextTransition());
+        verify(transactionManager).commit(any());
+    }
+
+    private Booking createBooking(LocalDateTime start, LocalDateTime end, BookingStatus status) {
+        return Booking.builder()
+                .id(1L)
+                .item(item)
+                .booker(booker)
+                .start(start)
+                .end(end)
+                .status(status).build();
+    }
+
+    private static BookingStateCounters emptyCounters(long userId) {
+        return BookingStateCounters.builder()
+                .userId(userId)
+                .booker(new BookingStateCounts())
+                .owner(new BookingStateCounts())
+                .build();
+    }
+}
@@ -0,0 +1,115 @@
+package ru.practicum.shareit.booking;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.lease.LeaseService;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BookingSweeperTest {
+
+    private static final Duration LEASE = Duration.ofMinutes(5);
+
+    @Mock
+    private BookingService bookingService;
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @Mock
+    private LeaseService leaseService;
+
+    private MeterRegistry meterRegistry;
+    private BookingSweeper bookingSweeper;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        bookingSweeper = new BookingSweeper(bookingService, bookingRepository, leaseService, meterRegistry, 2, 3,
+                LEASE);
+    }
+
+    @Test
+    void sweepSkipsWithoutLease() {
+        when(leaseService.tryAcquire(BookingSweeper.LEASE_NAME, LEASE))
+                .thenReturn(false);
+
+        bookingSweeper.sweep();
+
+        verifyNoInteractions(bookingService, bookingRepository);
+    }
+
+    @Test
+    void sweepDrainsFullBatchesAndRecordsMetrics() {
+        when(leaseService.tryAcquire(BookingSweeper.LEASE_NAME, LEASE))
+                .thenReturn(true);
+        when(bookingService.expireWaitingBookings(any(LocalDateTime.class), eq(2)))
+                .thenReturn(2, 2, 1);
+        when(bookingRepository.findEarliestStartByStatusAndStartBefore(eq(BookingStatus.WAITING),
+                any(LocalDateTime.class)))
+                .thenReturn(Optional.of(LocalDateTime.now().minusMinutes(10)));
+
+        bookingSweeper.sweep();
+
+        verify(bookingService, times(3)).expireWaitingBookings(any(LocalDateTime.class), anyInt());
+        assertEquals(5, meterRegistry.get("shareit.booking.sweeper.swept").counter().count());
+        assertTrue(meterRegistry.get("shareit.booking.sweeper.lag").gauge().value() >= 600);
+    }
+
+    @Test
+    void sweepStopsWhenLeaseIsLost() {
+        when(leaseService.tryAcquire(BookingSweeper.LEASE_NAME, LEASE))
+                .thenReturn(true, false);
+        when(bookingService.expireWaitingBookings(any(LocalDateTime.class), eq(2)))
+                .thenReturn(2);
+
+        bookingSweeper.sweep();
+
+        verify(bookingService, times(1)).expireWaitingBookings(any(LocalDateTime.class), anyInt());
+        verify(leaseService, times(2)).tryAcquire(BookingSweeper.LEASE_NAME, LEASE);
+    }
+
+    @Test
+    void sweepLeavesBacklogBeyondMaxBatchesForNextRun() {
+        when(leaseService.tryAcquire(BookingSweeper.LEASE_NAME, LEASE))
+                .thenReturn(true);
+        when(bookingService.expireWaitingBookings(any(LocalDateTime.class), eq(2)))
+                .thenReturn(2);
+
+        bookingSweeper.sweep();
+
+        verify(bookingService, times(3)).expireWaitingBookings(any(LocalDateTime.class), anyInt());
+        assertEquals(6, meterRegistry.get("shareit.booking.sweeper.swept").counter().count());
+    }
+
+    @Test
+    void sweepResetsLagWhenNothingIsStale() {
+        when(leaseService.tryAcquire(BookingSweeper.LEASE_NAME, LEASE))
+                .thenReturn(true);
+        when(bookingService.expireWaitingBookings(any(LocalDateTime.class), eq(2)))
+                .thenReturn(0);
+        when(bookingRepository.findEarliestStartByStatusAndStartBefore(eq(BookingStatus.WAITING),
+                any(LocalDateTime.class)))
+                .thenReturn(Optional.empty());
+
+        bookingSweeper.sweep();
+
+        assertEquals(0, meterRegistry.get("shareit.booking.sweeper.lag").gauge().value());
+    }
+}
@@ -0,0 +1,235 @@
+package ru.practicum.shareit.booking;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.booking.dto.BookingDtoForResponse;
+import ru.practicum.shareit.booking.dto.BookingEvent;
+import ru.practicum.shareit.booking.model.BookingEventType;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.lease.LeaseService;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BookingWaitlistPromoterTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2030, 1, 1, 12, 0);
+
+    @Mock
+    private BookingService bookingService;
+
+    @Mock
+    private BookingIntentRepository bookingIntentRepository;
+
+    private MeterRegistry meterRegistry;
+    private MutableClock clock;
+    private SharedLease lease;
+    private BookingWaitlistPromoter promoter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        clock = new MutableClock(NOW.toInstant(ZoneOffset.UTC));
+        lease = new SharedLease();
+        promoter = promoter("node-1");
+    }
+
+    @Test
+    void onlyRejectionsQueueItems() {
+        promoter.onBookingEvent(event(1L, BookingEventType.BOOKING_STATUS_CHANGED, BookingStatus.REJECTED));
+        promoter.onBookingEvent(event(1L, BookingEventType.BOOKING_STATUS_CHANGED, BookingStatus.REJECTED));
+        promoter.onBookingEvent(event(2L, BookingEventType.BOOKING_STATUS_CHANGED, BookingStatus.APPROVED));
+        promoter.onBookingEvent(event(3L, BookingEventType.BOOKING_CREATED, BookingStatus.WAITING));
+
+        assertEquals(1, promoter.getPendingCount());
+    }
+
+    @Test
+    void promoteDrainsQueueInBatches() {
+        for (long itemId = 1; itemId <= 5; itemId++) {
+            promoter.onBookingEvent(event(itemId, BookingEventType.BOOKING_STATUS_CHANGED, BookingStatus.REJECTED));
+        }
+        when(bookingService.promoteWaitlist(anyCollection(), any(LocalDateTime.class)))
+                .thenReturn(1);
+
+        promoter.promote();
+
+        verify(bookingService, times(2)).promoteWaitlist(argThat((Collection<Long> ids) -> ids.size() == 2),
+                any(LocalDateTime.class));
+        verify(bookingService).promoteWaitlist(argThat((Collection<Long> ids) -> ids.size() == 1),
+                any(LocalDateTime.class));
+        assertEquals(0, promoter.getPendingCount());
+        assertEquals(3.0, meterRegistry.counter("shareit.booking.waitlist.promoted").count());
+    }
+
+    @Test
+    void promoteRetriesFailedItemAfterBackoff() {
+        promoter.onBookingEvent(event(1L, BookingEventType.BOOKING_STATUS_CHANGED, BookingStatus.REJECTED));
+        when(bookingService.promoteWaitlist(anyCollection(), any(LocalDateTime.class)))
+                .thenThrow(new IllegalStateException("DB is down"))
+                .thenReturn(1);
+
+        promoter.promote();
+        assertEquals(1, promoter.getRetryCount());
+        promoter.promote();
+        verify(bookingService, times(1)).promoteWaitlist(anyCollection(), any(LocalDateTime.class));
+
+        clock.advance(Duration.ofSeconds(1));
+        promoter.promote();
+        verify(bookingService, times(2)).promoteWaitlist(anyCollection(), any(LocalDateTime.class));
+        assertEquals(0, promoter.getRetryCount());
+        assertEquals(1.0, meterRegistry.counter("shareit.booking.waitlist.promoted").count());
+    }
+
+    @Test
+    void promoteIsolatesFailingItemAndKeepsProcessingOthers() {
+        for (long itemId = 1; itemId <= 4; itemId++) {
+            promoter.onBookingEvent(event(itemId, BookingEventType.BOOKING_STATUS_CHANGED, BookingStatus.REJECTED));
+        }
+        when(bookingService.promoteWaitlist(anyCollection(), any(LocalDateTime.class)))
+                .thenAnswer(invocation -> {
+                    final Collection<Long> itemIds = invocation.getArgument(0);
+                    if (itemIds.contains(1L)) {
+                        throw new IllegalStateException("Broken intent");
+                    }
+
+                    return itemIds.size();
+                });
+
+        promoter.promote();
+
+        assertEquals(0, promoter.getPendingCount());
+        assertEquals(1, promoter.getRetryCount());
+        assertEquals(3.0, meterRegistry.counter("shareit.booking.waitlist.promoted").count());
+        verify(bookingService).promoteWaitlist(eq(List.of(1L)), any(LocalDateTime.class));
+    }
+
+    @Test
+    void promoteGivesUpAfterMaxAttempts() {
+        promoter.onBookingEvent(event(1L, BookingEventType.BOOKING_STATUS_CHANGED, BookingStatus.REJECTED));
+        when(bookingService.promoteWaitlist(anyCollection(), any(LocalDateTime.class)))
+                .thenThrow(new IllegalStateException("Broken intent"));
+
+        for (int attempt = 0; attempt < 3; attempt++) {
+            promoter.promote();
+            clock.advance(Duration.ofSeconds(4));
+        }
+        promoter.promote();
+
+        verify(bookingService, times(3)).promoteWaitlist(anyCollection(), any(LocalDateTime.class));
+        assertEquals(0, promoter.getRetryCount());
+        assertEquals(0, promoter.getPendingCount());
+    }
+
+    @Test
+    void rescanQueuesItemsWithStoredIntents() {
+        when(bookingIntentRepository.findItemIdsAfter(0L, PageRequest.of(0, 2)))
+                .thenReturn(List.of(1L, 3L));
+        when(bookingIntentRepository.findItemIdsAfter(3L, PageRequest.of(0, 2)))
+                .thenReturn(List.of(7L));
+        when(bookingIntentRepository.findItemIdsAfter(7L, PageRequest.of(0, 2)))
+                .thenReturn(List.of());
+
+        promoter.rescan();
+
+        assertEquals(3, promoter.getPendingCount());
+    }
+
+    @Test
+    void twoPromotersPromoteSharedIntentOnce() {
+        final BookingWaitlistPromoter other = promoter("node-2");
+        promoter.onBookingEvent(event(1L, BookingEventType.BOOKING_STATUS_CHANGED, BookingStatus.REJECTED));
+        other.onBookingEvent(event(1L, BookingEventType.BOOKING_STATUS_CHANGED, BookingStatus.REJECTED));
+        when(bookingService.promoteWaitlist(eq(List.of(1L)), any(LocalDateTime.class)))
+                .thenReturn(1);
+
+        promoter.promote();
+        other.promote();
+
+        verify(bookingService, times(1)).promoteWaitlist(anyCollection(), any(LocalDateTime.class));
+        assertEquals(0, promoter.getPendingCount());
+        assertEquals(1, other.getPendingCount());
+    }
+
+    @Test
+    void promoterTakesOverQueueAfterLeaseExpires() {
+        final BookingWaitlistPromoter other = promoter("node-2");
+        promoter.onBookingEvent(event(1L, BookingEventType.BOOKING_STATUS_CHANGED, BookingStatus.REJECTED));
+        other.onBookingEvent(event(2L, BookingEventType.BOOKING_STATUS_CHANGED, BookingStatus.REJECTED));
+        when(bookingService.promoteWaitlist(anyCollection(), any(LocalDateTime.class)))
+                .thenReturn(1);
+
+        promoter.promote();
+        lease.expire();
+        other.promote();
+
+        verify(bookingService).promoteWaitlist(eq(List.of(1L)), any(LocalDateTime.class));
+        verify(bookingService).promoteWaitlist(eq(List.of(2L)), any(LocalDateTime.class));
+        assertEquals(0, other.getPendingCount());
+    }
+
+    @Test
+    void rescanWithoutLeaseSkipsRepository() {
+        lease.heldBy("node-2").tryAcquire(BookingWaitlistPromoter.LEASE_NAME, Duration.ofMinutes(1));
+
+        promoter.rescan();
+
+        verifyNoInteractions(bookingIntentRepository);
+        assertEquals(0, promoter.getPendingCount());
+    }
+
+    @Test
+    void promoteWithEmptyQueue() {
+        promoter.promote();
+
+        verifyNoInteractions(bookingService);
+    }
+
+    private BookingWaitlistPromoter promoter(String node) {
+        return new BookingWaitlistPromoter(bookingService, bookingIntentRepository, lease.heldBy(node), meterRegistry,
+                clock, 2, 3, Duration.ofSeconds(1), Duration.ofMinutes(1));
+    }
+
+    private static BookingEvent event(long itemId, BookingEventType type, BookingStatus status) {
+        return new BookingEvent(type, 1L, new BookingDtoForResponse(itemId, status, LocalDateTime.now(),
+                LocalDateTime.now().plusDays(1), 2L, itemId, "Test item name"));
+    }
+
+    private static class SharedLease {
+        private String holder;
+
+        LeaseService heldBy(String node) {
+            return (name, duration) -> {
+                assertEquals(BookingWaitlistPromoter.LEASE_NAME, name);
+                synchronized (this) {
+                    if (holder == null) {
+                        holder = node;
+                    }
+
+                    return holder.equals(node);
+                }
+            };
+        }
+
+        synchronized void expire() {
+            holder = null;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package ru.practicum.shareit.booking;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicReference;
+
+class MutableClock extends Clock {
+    private final ZoneId zone;
+    private final AtomicReference<Instant> instant;
+
+    MutableClock(Instant instant) {
+        this(ZoneOffset.UTC, new AtomicReference<>(instant));
+    }
+
+    private MutableClock(ZoneId zone, AtomicReference<Instant> instant) {
+        this.zone = zone;
+        this.instant = instant;
+    }
+
+    void advance(Duration duration) {
+        instant.updateAndGet(current -> current.plus(duration));
+    }
+
+    @Override
+    public ZoneId getZone() {
+        return zone;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+        return zone.equals(this.zone) ? this : new MutableClock(zone, instant);
+    }
+
+    @Override
+    public Instant instant() {
+        return instant.get();
+    }
+}
@@ -1,5 +1,9 @@
 package ru.practicum.shareit.booking.dto;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.json.JsonTest;
@@ -7,12 +11,18 @@ import org.springframework.boot.test.json.JacksonTester;
 import org.springframework.boot.test.json.JsonContent;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.ItemRequest;
+import ru.practicum.shareit.user.model.User;
 
 import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
 import java.time.LocalDateTime;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+@Slf4j
 @JsonTest
 class BookingMapperTest {
 
@@ -22,6 +32,9 @@ class BookingMapperTest {
     @Autowired
     private JacksonTester<BookingDtoForResponse> jsonBookingDtoForResponse;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @Test
     void toBooking() throws Exception {
         Booking booking = Booking.builder()
@@ -55,4 +68,110 @@ class BookingMapperTest {
         assertThat(result).extractingJsonPathStringValue("$.end").isEqualTo("2022-10-21T19:30:00");
         assertThat(result).extractingJsonPathStringValue("$.status").isEqualTo("WAITING");
     }
-}
\ No newline at end of file
+
+    @Test
+    void toBookingDtoForResponseSerializesFixedColumnSet() throws IOException {
+        final Booking booking = createBookingGraph();
+
+        JsonContent<BookingDtoForResponse> result =
+                jsonBookingDtoForResponse.write(BookingMapper.toBookingDtoForResponse(booking));
+
+        assertThat(result).extractingJsonPathNumberValue("$.item.id").isEqualTo(3);
+        assertThat(result).extractingJsonPathStringValue("$.item.name").isEqualTo("Test item name");
+        assertThat(result).extractingJsonPathNumberValue("$.booker.id").isEqualTo(2);
+        assertThat(result).doesNotHaveJsonPath("$.item.owner");
+        assertThat(result).doesNotHaveJsonPath("$.item.itemRequest");
+        assertThat(result).doesNotHaveJsonPath("$.booker.email");
+    }
+
+    @Test
+    void flatResponseIsSmallerAndAllocatesLessThanEntityGraph() throws IOException {
+        final Booking booking = createBookingGraph();
+        final int iterations = 20_000;
+        final EntityGraphResponse entityGraphResponse = new EntityGraphResponse(booking.getId(), booking.getStatus(),
+                booking.getStart(), booking.getEnd(), booking.getBooker(), booking.getItem());
+
+        final int entityGraphSize = objectMapper.writeValueAsBytes(entityGraphResponse).length;
+        final int flatSize = objectMapper.writeValueAsBytes(BookingMapper.toBookingDtoForResponse(booking)).length;
+
+        final long entityGraphAllocations = measureAllocations(iterations,
+                () -> objectMapper.writeValueAsBytes(new EntityGraphResponse(booking.getId(), booking.getStatus(),
+                        booking.getStart(), booking.getEnd(), booking.getBooker(), booking.getItem())));
+        final long flatAllocations = measureAllocations(iterations,
+                () -> objectMapper.writeValueAsBytes(BookingMapper.toBookingDtoForResponse(booking)));
+
+        log.info("Размер ответа: {} -> {} байт, выделено памяти на ответ: {} -> {} байт.",
+                entityGraphSize, flatSize, entityGraphAllocations / iterations, flatAllocations / iterations);
+        assertThat(flatSize).isLessThan(entityGraphSize / 2);
+        if (entityGraphAllocations > 0) {
+            assertThat(flatAllocations).isLessThan(entityGraphAllocations);
+        }
+    }
+
+    private static long measureAllocations(int iterations, SerializationTask task) throws IOException {
+        final ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+        if (!(threadMXBean instanceof com.sun.management.ThreadMXBean)) {
+            return 0;
+        }
+
+        final com.sun.management.ThreadMXBean allocationBean = (com.sun.management.ThreadMXBean) threadMXBean;
+        final long threadId = Thread.currentThread().getId();
+        for (int i = 0; i < iterations; i++) {
+            task.run();
+        }
+
+        final long before = allocationBean.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < iterations; i++) {
+            task.run();
+        }
+
+        return allocationBean.getThreadAllocatedBytes(threadId) - before;
+    }
+
+    private static Booking createBookingGraph() {
+        final User owner = User.builder()
+                .id(1L)
+                .name("Sergej Nishpal")
+                .email("sergej.nishpal@yandex.ru").build();
+        final User booker = User.builder()
+                .id(2L)
+                .name("Ivan Ivanov")
+                .email("ivan.ivanov@yandex.ru").build();
+        final ItemRequest itemRequest = ItemRequest.builder()
+                .id(4L)
+                .description("Test request description")
+                .created(LocalDateTime.of(2022, 10, 20, 12, 0, 0))
+                .requestor(booker).build();
+        final Item item = Item.builder()
+                .id(3L)
+                .name("Test item name")
+                .description("Test item description")
+                .available(true)
+                .owner(owner)
+                .itemRequest(itemRequest).build();
+        return Booking.builder()
+                .id(1L)
+                .start(LocalDateTime.of(2022, 10, 21, 15, 30, 0))
+                .end(LocalDateTime.of(2022, 10, 21, 19, 30, 0))
+                .status(BookingStatus.APPROVED)
+                .item(item)
+                .booker(booker)
+                .build();
+    }
+
+    @FunctionalInterface
+    private interface SerializationTask {
+        void run() throws IOException;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    private static class EntityGraphResponse {
+        private final Long id;
+        private final BookingStatus status;
+        private final LocalDateTime start;
+        private final LocalDateTime end;
+        private final User booker;
+        private final Item item;
+    }
+}
@@ -0,0 +1,155 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.dto.BookingDtoForResponse;
+import ru.practicum.shareit.booking.dto.BookingEvent;
+import ru.practicum.shareit.booking.model.BookingEventType;
+import ru.practicum.shareit.booking.model.BookingInterval;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.model.TimeInterval;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ItemAvailabilityCalendarTest {
+
+    private static final long ITEM_ID = 1L;
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    private ItemAvailabilityCalendar calendar;
+    private LocalDateTime base;
+
+    @BeforeEach
+    void setUp() {
+        calendar = new ItemAvailabilityCalendar(bookingRepository, 2);
+        base = LocalDateTime.now().plusDays(10).withNano(0);
+    }
+
+    @Test
+    void mergeJoinsOverlappingAndAdjacentIntervals() {
+        final List<TimeInterval> merged = ItemAvailabilityCalendar.merge(List.of(
+                interval(1L, 0, 2),
+                interval(2L, 1, 3),
+                interval(3L, 3, 4),
+                interval(4L, 6, 7),
+                interval(5L, 6, 8)));
+
+        assertEquals(2, merged.size());
+        assertEquals(hour(0), merged.get(0).getStart());
+        assertEquals(hour(4), merged.get(0).getEnd());
+        assertEquals(hour(6), merged.get(1).getStart());
+        assertEquals(hour(8), merged.get(1).getEnd());
+    }
+
+    @Test
+    void computeFreeIntervalsClipsToRange() {
+        final List<TimeInterval> busy = List.of(
+                new TimeInterval(hour(0), hour(2)),
+                new TimeInterval(hour(4), hour(5)),
+                new TimeInterval(hour(8), hour(10)),
+                new TimeInterval(hour(20), hour(21)));
+
+        final List<TimeInterval> free = ItemAvailabilityCalendar.computeFreeIntervals(busy, hour(1), hour(9));
+
+        assertEquals(2, free.size());
+        assertEquals(hour(2), free.get(0).getStart());
+        assertEquals(hour(4), free.get(0).getEnd());
+        assertEquals(hour(5), free.get(1).getStart());
+        assertEquals(hour(8), free.get(1).getEnd());
+    }
+
+    @Test
+    void computeFreeIntervalsWithoutBookingsReturnsWholeRange() {
+        final List<TimeInterval> free = ItemAvailabilityCalendar.computeFreeIntervals(List.of(), hour(1), hour(9));
+
+        assertEquals(1, free.size());
+        assertEquals(hour(1), free.get(0).getStart());
+        assertEquals(hour(9), free.get(0).getEnd());
+    }
+
+    @Test
+    void computeFreeIntervalsOfFullyBookedRangeIsEmpty() {
+        final List<TimeInterval> busy = List.of(new TimeInterval(hour(0), hour(10)));
+
+        assertTrue(ItemAvailabilityCalendar.computeFreeIntervals(busy, hour(1), hour(9)).isEmpty());
+    }
+
+    @Test
+    void getFreeIntervalsCachesBusyIntervalsOfItem() {
+        when(bookingRepository.findIntervalsByItemIdAndEndAfter(eq(ITEM_ID), anyCollection(), any()))
+                .thenReturn(List.of(interval(1L, 2, 4)));
+
+        final List<TimeInterval> first = calendar.getFreeIntervals(ITEM_ID, hour(0), hour(6));
+        final List<TimeInterval> second = calendar.getFreeIntervals(ITEM_ID, hour(3), hour(6));
+
+        assertEquals(2, first.size());
+        assertEquals(1, second.size());
+        assertEquals(hour(4), second.get(0).getStart());
+        verify(bookingRepository, times(1))
+                .findIntervalsByItemIdAndEndAfter(eq(ITEM_ID), anyCollection(), any());
+    }
+
+    @Test
+    void getFreeIntervalsStartsNoEarlierThanNow() {
+        when(bookingRepository.findIntervalsByItemIdAndEndAfter(eq(ITEM_ID), anyCollection(), any()))
+                .thenReturn(List.of());
+
+        final LocalDateTime before = LocalDateTime.now();
+        final List<TimeInterval> free = calendar.getFreeIntervals(ITEM_ID, before.minusDays(5), hour(1));
+
+        assertEquals(1, free.size());
+        assertTrue(!free.get(0).getStart().isBefore(before));
+    }
+
+    @Test
+    void bookingEventEvictsItem() {
+        when(bookingRepository.findIntervalsByItemIdAndEndAfter(eq(ITEM_ID), anyCollection(), any()))
+                .thenReturn(List.of())
+                .thenReturn(List.of(interval(1L, 2, 4)));
+
+        assertEquals(1, calendar.getFreeIntervals(ITEM_ID, hour(0), hour(6)).size());
+        calendar.onBookingEvent(new BookingEvent(BookingEventType.BOOKING_CREATED, 2L,
+                new BookingDtoForResponse(1L, BookingStatus.WAITING, hour(2), hour(4), 3L, ITEM_ID, "Дрель")));
+        assertEquals(2, calendar.getFreeIntervals(ITEM_ID, hour(0), hour(6)).size());
+
+        verify(bookingRepository, times(2))
+                .findIntervalsByItemIdAndEndAfter(eq(ITEM_ID), anyCollection(), any());
+    }
+
+    @Test
+    void cacheIsBoundedBySize() {
+        when(bookingRepository.findIntervalsByItemIdAndEndAfter(anyLong(), anyCollection(), any()))
+                .thenReturn(List.of());
+
+        calendar.getFreeIntervals(1L, hour(0), hour(1));
+        calendar.getFreeIntervals(2L, hour(0), hour(1));
+        calendar.getFreeIntervals(3L, hour(0), hour(1));
+        calendar.getFreeIntervals(1L, hour(0), hour(1));
+
+        verify(bookingRepository, times(2))
+                .findIntervalsByItemIdAndEndAfter(eq(1L), anyCollection(), any());
+    }
+
+    private BookingInterval interval(long bookingId, int startHour, int endHour) {
+        return new BookingInterval(bookingId, ITEM_ID, hour(startHour), hour(endHour));
+    }
+
+    private LocalDateTime hour(int hours) {
+        return base.plusHours(hours);
+    }
+}
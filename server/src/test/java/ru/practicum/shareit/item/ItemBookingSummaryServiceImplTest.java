@@ -0,0 +1,300 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.BookingArchiveRepository;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.model.BookingSnapshot;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemBookingSummary;
+import ru.practicum.shareit.lease.LeaseService;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ItemBookingSummaryServiceImplTest {
+
+    private ItemBookingSummaryService itemBookingSummaryService;
+
+    @Mock
+    private ItemRepository itemRepository;
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @Mock
+    private BookingArchiveRepository bookingArchiveRepository;
+
+    @Mock
+    private ItemBookingSummaryRepository summaryRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private LeaseService leaseService;
+
+    Item item;
+    User booker;
+    LocalDateTime now;
+
+    @BeforeEach
+    void setUp() {
+        itemBookingSummaryService = new ItemBookingSummaryServiceImpl(itemRepository, bookingRepository,
+                bookingArchiveRepository, summaryRepository, new TransactionTemplate(transactionManager), leaseService);
+
+        booker = User.builder()
+                .id(2L)
+                .name("Ivan").build();
+
+        item = Item.builder()
+                .id(1L)
+                .name("Test item name").build();
+
+        now = LocalDateTime.now();
+    }
+
+    @Test
+    void onBookingCreatedReplacesLaterNextBooking() {
+        final Booking later = createBooking(10L, now.plusDays(5));
+        final Booking earlier = createBooking(11L, now.plusDays(2));
+        when(summaryRepository.findByIdForUpdate(item.getId()))
+                .thenReturn(Optional.of(ItemBookingSummary.builder()
+                        .itemId(item.getId())
+                        .nextBooking(BookingSnapshot.of(later))
+                        .build()));
+
+        itemBookingSummaryService.onBookingCreated(earlier);
+
+        final ArgumentCaptor<ItemBookingSummary> captor = ArgumentCaptor.forClass(ItemBookingSummary.class);
+        verify(summaryRepository).save(captor.capture());
+        assertEquals(earlier.getId(), captor.getValue().getNextBooking().getBookingId());
+        verifyNoInteractions(bookingRepository);
+    }
+
+    @Test
+    void onBookingCreatedKeepsEarlierNextBooking() {
+        final Booking earlier = createBooking(10L, now.plusDays(2));
+        final Booking later = createBooking(11L, now.plusDays(5));
+        when(summaryRepository.findByIdForUpdate(item.getId()))
+                .thenReturn(Optional.of(ItemBookingSummary.builder()
+                        .itemId(item.getId())
+                        .nextBooking(BookingSnapshot.of(earlier))
+                        .build()));
+
+        itemBookingSummaryService.onBookingCreated(later);
+
+        final ArgumentCaptor<ItemBookingSummary> captor = ArgumentCaptor.forClass(ItemBookingSummary.class);
+        verify(summaryRepository).save(captor.capture());
+        assertEquals(earlier.getId(), captor.getValue().getNextBooking().getBookingId());
+    }
+
+    @Test
+    void onBookingRejectedRecomputesReferencedSummary() {
+        final Booking rejected = createBooking(10L, now.plusDays(2));
+        final Booking following = createBooking(11L, now.plusDays(5));
+        when(summaryRepository.findByIdForUpdate(item.getId()))
+                .thenReturn(Optional.of(ItemBookingSummary.builder()
+                        .itemId(item.getId())
+                        .nextBooking(BookingSnapshot.of(rejected))
+                        .build()));
+        when(bookingRepository.findLastBookingsByItemIds(anyCollection(), anyCollection()))
+                .thenReturn(List.of());
+        when(bookingRepository.findNextBookingsByItemIds(anyCollection(), anyCollection()))
+                .thenReturn(List.of(following));
+        rejected.setStatus(BookingStatus.REJECTED);
+
+        itemBookingSummaryService.onBookingStatusChanged(rejected);
+
+        final ArgumentCaptor<Collection<ItemBookingSummary>> captor = ArgumentCaptor.forClass(Collection.class);
+        verify(summaryRepository).saveAll(captor.capture());
+        assertEquals(following.getId(), captor.getValue().iterator().next().getNextBooking().getBookingId());
+    }
+
+    @Test
+    void onBookingRejectedIgnoresUnreferencedBooking() {
+        final Booking rejected = createBooking(10L, now.plusDays(5));
+        final Booking next = createBooking(11L, now.plusDays(2));
+        when(summaryRepository.findByIdForUpdate(item.getId()))
+                .thenReturn(Optional.of(ItemBookingSummary.builder()
+                        .itemId(item.getId())
+                        .nextBooking(BookingSnapshot.of(next))
+                        .build()));
+        rejected.setStatus(BookingStatus.REJECTED);
+
+        itemBookingSummaryService.onBookingStatusChanged(rejected);
+
+        verifyNoInteractions(bookingRepository);
+        verify(summaryRepository, never()).saveAll(any());
+    }
+
+    @Test
+    void getSummariesRecomputesStartedNextBooking() {
+        final Booking started = createBooking(10L, now.minusHours(1));
+        when(summaryRepository.findAllById(List.of(item.getId())))
+                .thenReturn(List.of(ItemBookingSummary.builder()
+                        .itemId(item.getId())
+                        .nextBooking(BookingSnapshot.of(started))
+                        .build()));
+        when(bookingRepository.findLastBookingsByItemIds(anyCollection(), anyCollection()))
+                .thenReturn(List.of(started));
+        when(bookingRepository.findNextBookingsByItemIds(anyCollection(), anyCollection()))
+                .thenReturn(List.of());
+
+        final Map<Long, ItemBookingSummary> summaries = itemBookingSummaryService.getSummaries(List.of(item.getId()));
+
+        final ItemBookingSummary summary = summaries.get(item.getId());
+        assertEquals(started.getId(), summary.getLastBooking().getBookingId());
+        assertNull(summary.getNextBooking());
+        verify(summaryRepository, never()).saveAll(any());
+    }
+
+    @Test
+    void summariesCountOnlyWaitingAndApprovedBookings() {
+        when(summaryRepository.findAllById(List.of(item.getId())))
+                .thenReturn(List.of());
+        when(bookingRepository.findLastBookingsByItemIds(anyCollection(), anyCollection()))
+                .thenReturn(List.of());
+        when(bookingRepository.findNextBookingsByItemIds(anyCollection(), anyCollection()))
+                .thenReturn(List.of());
+
+        itemBookingSummaryService.getSummaries(List.of(item.getId()));
+
+        final List<BookingStatus> statuses = List.of(BookingStatus.WAITING, BookingStatus.APPROVED);
+        verify(bookingRepository).findLastBookingsByItemIds(List.of(item.getId()), statuses);
+        verify(bookingRepository).findNextBookingsByItemIds(List.of(item.getId()), statuses);
+        verify(bookingArchiveRepository).findLastBookingsByItemIds(List.of(item.getId()), statuses);
+    }
+
+    @Test
+    void rebuildCreatesMissingSummariesChunkByChunk() {
+        when(leaseService.tryAcquire(eq(ItemBookingSummaryServiceImpl.REBUILD_LEASE_NAME), any(Duration.class)))
+                .thenReturn(true);
+        when(itemRepository.findIdsWithoutSummaryAfter(eq(0L), any(Pageable.class)))
+                .thenReturn(List.of(item.getId()));
+        when(itemRepository.findIdsWithoutSummaryAfter(eq(item.getId()), any(Pageable.class)))
+                .thenReturn(List.of());
+        when(bookingRepository.findLastBookingsByItemIds(anyCollection(), anyCollection()))
+                .thenReturn(List.of());
+        when(bookingRepository.findNextBookingsByItemIds(anyCollection(), anyCollection()))
+                .thenReturn(List.of());
+
+        itemBookingSummaryService.rebuild();
+
+        verify(summaryRepository).saveAll(any());
+        verify(transactionManager).commit(any());
+        verify(itemRepository, times(2)).findIdsWithoutSummaryAfter(anyLong(), any(Pageable.class));
+    }
+
+    @Test
+    void getSummariesReturnsFreshRowsWithoutQueries() {
+        final Booking next = createBooking(10L, now.plusDays(1));
+        when(summaryRepository.findAllById(List.of(item.getId())))
+                .thenReturn(List.of(ItemBookingSummary.builder()
+                        .itemId(item.getId())
+                        .nextBooking(BookingSnapshot.of(next))
+                        .build()));
+
+        final Map<Long, ItemBookingSummary> summaries = itemBookingSummaryService.getSummaries(List.of(item.getId()));
+
+        assertEquals(next.getId(), summaries.get(item.getId()).getNextBooking().getBookingId());
+        verifyNoInteractions(bookingRepository);
+    }
+
+    @Test
+    void rebuildWithoutLeaseSkipsItems() {
+        when(leaseService.tryAcquire(eq(ItemBookingSummaryServiceImpl.REBUILD_LEASE_NAME), any(Duration.class)))
+                .thenReturn(false);
+
+        itemBookingSummaryService.rebuild();
+
+        verifyNoInteractions(itemRepository, summaryRepository);
+    }
+
+    @Test
+    void rollRecomputesOnlyStartedSummaries() {
+        when(leaseService.tryAcquire(eq(ItemBookingSummaryServiceImpl.ROLL_LEASE_NAME), any(Duration.class)))
+                .thenReturn(true);
+        when(summaryRepository.findItemIdsWithNextBookingStartedBefore(any(LocalDateTime.class), eq(0L),
+                any(Pageable.class)))
+                .thenReturn(List.of());
+
+        itemBookingSummaryService.roll();
+
+        verifyNoInteractions(bookingRepository);
+        verify(summaryRepository, never()).saveAll(any());
+    }
+
+    @Test
+    void rollRecomputesStartedSummariesChunkByChunk() {
+        when(leaseService.tryAcquire(eq(ItemBookingSummaryServiceImpl.ROLL_LEASE_NAME), any(Duration.class)))
+                .thenReturn(true);
+        when(summaryRepository.findItemIdsWithNextBookingStartedBefore(any(LocalDateTime.class), eq(0L),
+                any(Pageable.class)))
+                .thenReturn(List.of(item.getId()));
+        when(summaryRepository.findItemIdsWithNextBookingStartedBefore(any(LocalDateTime.class), eq(item.getId()),
+                any(Pageable.class)))
+                .thenReturn(List.of());
+        when(bookingRepository.findLastBookingsByItemIds(anyCollection(), anyCollection()))
+                .thenReturn(List.of());
+        when(bookingRepository.findNextBookingsByItemIds(anyCollection(), anyCollection()))
+                .thenReturn(List.of());
+
+        itemBookingSummaryService.roll();
+
+        verify(summaryRepository).saveAll(any());
+        verify(transactionManager).commit(any());
+    }
+
+    @Test
+    void rollStopsWhenLeaseIsLost() {
+        when(leaseService.tryAcquire(eq(ItemBookingSummaryServiceImpl.ROLL_LEASE_NAME), any(Duration.class)))
+                .thenReturn(true, false);
+        when(summaryRepository.findItemIdsWithNextBookingStartedBefore(any(LocalDateTime.class), eq(0L),
+                any(Pageable.class)))
+                .thenReturn(List.of(item.getId()));
+        when(bookingRepository.findLastBookingsByItemIds(anyCollection(), anyCollection()))
+                .thenReturn(List.of());
+        when(bookingRepository.findNextBookingsByItemIds(anyCollection(), anyCollection()))
+                .thenReturn(List.of());
+
+        itemBookingSummaryService.roll();
+
+        verify(summaryRepository, times(1)).findItemIdsWithNextBookingStartedBefore(any(LocalDateTime.class),
+                anyLong(), any(Pageable.class));
+        verify(transactionManager).commit(any());
+    }
+
+    private Booking createBooking(long id, LocalDateTime start) {
+        return Booking.builder()
+                .id(id)
+                .item(item)
+                .booker(booker)
+                .start(start)
+                .end(start.plusDays(1))
+                .status(BookingStatus.WAITING)
+                .build();
+    }
+}
@@ -7,10 +7,13 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.CommentDtoForResponse;
+import ru.practicum.shareit.item.dto.FreeIntervalDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoForResponse;
 
@@ -25,6 +28,7 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -177,14 +181,17 @@ class ItemControllerTest {
 
     @Test
     void getByText() throws Exception {
-        when(itemService.getByText(anyLong(), anyString()))
-                .thenReturn(List.of(itemDtoUpdated));
+        when(itemService.getByText(anyLong(), anyString(), anyInt(), anyInt()))
+                .thenReturn(new SliceImpl<>(List.of(itemDtoUpdated), PageRequest.of(4, 5), false));
 
         mockMvc.perform(get("/items/search")
                         .header("X-Sharer-User-Id", 1L)
                         .param("text", "anyString()")
+                        .param("from", "20")
+                        .param("size", "5")
                         .characterEncoding(StandardCharsets.UTF_8))
                 .andExpect(status().isOk())
+                .andExpect(header().string(ItemController.HAS_MORE_HEADER, "false"))
                 .andExpect(jsonPath("$", hasSize(1)))
                 .andExpect(jsonPath("$[0].id", is(itemDtoUpdated.getId()), Long.class))
                 .andExpect(jsonPath("$[0].name", is(itemDtoUpdated.getName())))
@@ -192,10 +199,54 @@ class ItemControllerTest {
                 .andExpect(jsonPath("$[0].available", is(itemDtoUpdated.getAvailable())));
 
         verify(itemService, times(1))
-                .getByText(1L, "anyString()");
+                .getByText(1L, "anyString()", 20, 5);
 
     }
 
+    @Test
+    void getAvailability() throws Exception {
+        final LocalDateTime from = LocalDateTime.of(2030, 1, 1, 10, 0);
+        final LocalDateTime to = from.plusDays(2);
+        when(itemService.getAvailability(1L, 1L, from, to))
+                .thenReturn(List.of(new FreeIntervalDto(from, to)));
+
+        mockMvc.perform(get("/items/{itemId}/availability", 1L)
+                        .header("X-Sharer-User-Id", 1L)
+                        .param("from", "2030-01-01T10:00:00")
+                        .param("to", "2030-01-03T10:00:00")
+                        .characterEncoding(StandardCharsets.UTF_8))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].start", is("2030-01-01T10:00:00")))
+                .andExpect(jsonPath("$[0].end", is("2030-01-03T10:00:00")));
+
+        verify(itemService, times(1))
+                .getAvailability(1L, 1L, from, to);
+    }
+
+    @Test
+    void getByTextBetween() throws Exception {
+        final LocalDateTime start = LocalDateTime.of(2030, 1, 1, 10, 0);
+        final LocalDateTime end = start.plusDays(2);
+        when(itemService.getByText(1L, "дрель", start, end, 0, 1))
+                .thenReturn(new SliceImpl<>(List.of(itemDtoUpdated), PageRequest.of(0, 1), true));
+
+        mockMvc.perform(get("/items/search")
+                        .header("X-Sharer-User-Id", 1L)
+                        .param("text", "дрель")
+                        .param("start", "2030-01-01T10:00:00")
+                        .param("end", "2030-01-03T10:00:00")
+                        .param("from", "0")
+                        .param("size", "1")
+                        .characterEncoding(StandardCharsets.UTF_8))
+                .andExpect(status().isOk())
+                .andExpect(header().string(ItemController.HAS_MORE_HEADER, "true"))
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id", is(itemDtoUpdated.getId()), Long.class));
+
+        verify(itemService, never()).getByText(anyLong(), anyString(), anyInt(), anyInt());
+    }
+
     @Test
     void addComment() throws Exception {
         when(itemService.addComment(any(), anyLong(), anyLong()))
@@ -0,0 +1,72 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ItemLocksTest {
+
+    @Test
+    void testStripeCountIsRoundedToPowerOfTwo() {
+        assertEquals(64, new ItemLocks(64).getStripeCount());
+        assertEquals(128, new ItemLocks(65).getStripeCount());
+        assertEquals(2, new ItemLocks(1).getStripeCount());
+    }
+
+    @Test
+    void testLocksSerializeActionsOnSameItem() throws Exception {
+        final ItemLocks itemLocks = new ItemLocks(16);
+        final int[] counter = new int[1];
+        final ExecutorService executor = Executors.newFixedThreadPool(8);
+        final CountDownLatch startSignal = new CountDownLatch(1);
+        final List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            futures.add(executor.submit(() -> {
+                startSignal.await();
+                for (int i = 0; i < 1_000; i++) {
+                    itemLocks.withItemLocks(List.of(42L), () -> counter[0]++);
+                }
+
+                return null;
+            }));
+        }
+
+        startSignal.countDown();
+        for (Future<?> future : futures) {
+            future.get(10, TimeUnit.SECONDS);
+        }
+
+        executor.shutdown();
+        assertEquals(8_000, counter[0]);
+    }
+
+    @Test
+    void testLockingSeveralItemsInOppositeOrderDoesNotDeadlock() throws Exception {
+        final ItemLocks itemLocks = new ItemLocks(16);
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        final Future<?> forward = executor.submit(() -> {
+            for (int i = 0; i < 10_000; i++) {
+                itemLocks.withItemLocks(List.of(1L, 2L, 3L), () -> null);
+            }
+        });
+        final Future<?> backward = executor.submit(() -> {
+            for (int i = 0; i < 10_000; i++) {
+                itemLocks.withItemLocks(List.of(3L, 2L, 1L), () -> null);
+            }
+        });
+
+        forward.get(10, TimeUnit.SECONDS);
+        backward.get(10, TimeUnit.SECONDS);
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(1, TimeUnit.SECONDS));
+    }
+}
@@ -6,14 +6,23 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import ru.practicum.shareit.booking.BookingIntervalIndex;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.UserRepository;
 import ru.practicum.shareit.user.model.User;
 
+import java.time.LocalDateTime;
 import java.util.Collection;
+import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @DataJpaTest
 class ItemRepositoryTest {
@@ -101,7 +110,89 @@ class ItemRepositoryTest {
     @Test
     void testSearchByText() {
         final String textToSearch = "PEciA";
-        Collection<Item> itemsSpecialAndAvailable = itemRepository.search(textToSearch);
-        assertThat(itemsSpecialAndAvailable).hasSize(2).contains(item1, item3);
+        final List<Long> itemIdsSpecialAndAvailable = itemRepository.searchIds(textToSearch, PageRequest.of(0, 10));
+        assertThat(itemIdsSpecialAndAvailable).hasSize(2).contains(item1.getId(), item3.getId());
     }
-}
\ No newline at end of file
+
+    @Test
+    void testSearchByTextSkipsUnavailableItemsMatchedByName() {
+        item2.setName("Test item 2 special name");
+        testEntityManager.persistAndFlush(item2);
+
+        assertThat(itemRepository.searchIds("special", PageRequest.of(0, 10)))
+                .containsExactlyInAnyOrder(item1.getId(), item3.getId());
+    }
+
+    @Test
+    void testSearchByTextRanksNameMatchesFirstAndPages() {
+        item1.setName("Test item 1 name");
+        item1.setDescription("Test item 1 special description");
+        item3.setName("Test item 3 special name");
+        testEntityManager.persistAndFlush(item1);
+        testEntityManager.persistAndFlush(item3);
+
+        assertThat(itemRepository.searchIds("special", PageRequest.of(0, 10)))
+                .containsExactly(item3.getId(), item1.getId());
+        assertThat(itemRepository.searchIds("special", PageRequest.of(1, 1)))
+                .containsExactly(item1.getId());
+        assertThat(itemRepository.searchIds("special", OffsetPageRequest.of(1, 2)))
+                .containsExactly(item1.getId());
+    }
+
+    @Test
+    void testFindAllByIdGreaterThanOrderByIdAsc() {
+        final List<Item> items = itemRepository.findAllByIdGreaterThanOrderByIdAsc(item1.getId(),
+                PageRequest.of(0, 2));
+
+        assertThat(items).containsExactly(item2, item3);
+    }
+
+    @Test
+    void testFindIdsAfter() {
+        assertThat(itemRepository.findIdsAfter(item1.getId(), PageRequest.of(0, 2)))
+                .containsExactly(item2.getId(), item3.getId());
+        assertThat(itemRepository.findIdsAfter(item4.getId(), PageRequest.of(0, 2)))
+                .isEmpty();
+    }
+
+    @Test
+    void testSearchAvailableBetweenExcludesBookedItems() {
+        final LocalDateTime start = LocalDateTime.of(2030, 1, 1, 12, 0);
+        final Item item5 = Item.builder()
+                .owner(user1)
+                .name("Test item 5 special name")
+                .description("Test item 5 description")
+                .available(true).build();
+        testEntityManager.persist(item5);
+        persistBooking(item1, start.minusDays(1), start.plusDays(1), BookingStatus.APPROVED);
+        persistBooking(item3, start.minusDays(1), start.plusDays(1), BookingStatus.REJECTED);
+        persistBooking(item5, start.plusDays(2), start.plusDays(3), BookingStatus.WAITING);
+
+        final Slice<Item> items = itemRepository.searchAvailableBetween("PEciA", BookingIntervalIndex.BLOCKING_STATUSES,
+                start, start.plusDays(2), PageRequest.of(0, 10));
+
+        assertThat(items.getContent()).containsExactly(item3, item5);
+        assertFalse(items.hasNext());
+    }
+
+    @Test
+    void testSearchAvailableBetweenPages() {
+        final LocalDateTime start = LocalDateTime.of(2030, 1, 1, 12, 0);
+
+        final Slice<Item> items = itemRepository.searchAvailableBetween("test", BookingIntervalIndex.BLOCKING_STATUSES,
+                start, start.plusDays(1), PageRequest.of(0, 1));
+
+        assertThat(items.getContent()).containsExactly(item1);
+        assertTrue(items.hasNext());
+    }
+
+    private void persistBooking(Item item, LocalDateTime start, LocalDateTime end, BookingStatus status) {
+        testEntityManager.persist(Booking.builder()
+                .item(item)
+                .booker(user3)
+                .start(start)
+                .end(end)
+                .status(status)
+                .build());
+    }
+}
@@ -0,0 +1,123 @@
+package ru.practicum.shareit.item;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Slice;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Slf4j
+@SpringBootTest
+class ItemSearchBenchmarkTest {
+    private static final int ITEMS = 2_000;
+    private static final int BOOKINGS_PER_ITEM = 5;
+    private static final int QUERIES = 200;
+    private static final int PAGE_SIZE = 20;
+    private static final long P95_TARGET_MILLIS = 200;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Test
+    void testSearchBetweenMeetsLatencyTarget() {
+        final String token = "bench" + UUID.randomUUID().toString().replace("-", "");
+        final User owner = userRepository.save(User.builder()
+                .name("Owner")
+                .email(UUID.randomUUID() + "@search.test").build());
+        final User booker = userRepository.save(User.builder()
+                .name("Booker")
+                .email(UUID.randomUUID() + "@search.test").build());
+        final LocalDateTime origin = LocalDateTime.now().plusYears(1).withNano(0);
+        final Random random = new Random(42);
+
+        final List<Item> items = new ArrayList<>();
+        for (int i = 0; i < ITEMS; i++) {
+            items.add(Item.builder()
+                    .owner(owner)
+                    .name(i % 2 == 0 ? "Дрель " + token + " " + i : "Пила " + i)
+                    .description("Синтетическая вещь " + i)
+                    .available(i % 10 != 0).build());
+        }
+        itemRepository.saveAll(items);
+
+        final List<Booking> bookings = new ArrayList<>();
+        final BookingStatus[] statuses = BookingStatus.values();
+        for (Item item : items) {
+            for (int j = 0; j < BOOKINGS_PER_ITEM; j++) {
+                final LocalDateTime start = origin.plusHours(random.nextInt(24 * 365));
+                bookings.add(Booking.builder()
+                        .item(item)
+                        .booker(booker)
+                        .start(start)
+                        .end(start.plusHours(1 + random.nextInt(24 * 7)))
+                        .status(statuses[random.nextInt(statuses.length)]).build());
+            }
+        }
+        bookingRepository.saveAll(bookings);
+
+        final long[] latencies = new long[QUERIES];
+        for (int q = 0; q < QUERIES; q++) {
+            final LocalDateTime start = origin.plusHours(random.nextInt(24 * 365));
+            final LocalDateTime end = start.plusHours(1 + random.nextInt(24 * 3));
+            final long startedAt = System.nanoTime();
+            final Slice<ItemDto> page = itemService.getByText(owner.getId(), token, start, end, 0, PAGE_SIZE);
+            latencies[q] = System.nanoTime() - startedAt;
+
+            if (q % 50 == 0) {
+                assertEquals(expectedIds(items, bookings, token, start, end), page.getContent().stream()
+                        .map(ItemDto::getId)
+                        .collect(Collectors.toList()));
+            }
+        }
+
+        Arrays.sort(latencies);
+        final double p95 = latencies[QUERIES * 95 / 100] / 1_000_000.0;
+        log.info("Вещей: {}, бронирований: {}, запросов: {}, p50: {} мкс, p95: {} мкс.", ITEMS, bookings.size(),
+                QUERIES, latencies[QUERIES / 2] / 1_000, latencies[QUERIES * 95 / 100] / 1_000);
+
+        assertTrue(p95 < P95_TARGET_MILLIS);
+    }
+
+    private static List<Long> expectedIds(List<Item> items, List<Booking> bookings, String token,
+                                          LocalDateTime start, LocalDateTime end) {
+        return items.stream()
+                .filter(Item::getAvailable)
+                .filter(item -> item.getName().contains(token))
+                .filter(item -> bookings.stream()
+                        .filter(booking -> booking.getItem().equals(item))
+                        .filter(booking -> booking.getStatus() == BookingStatus.WAITING
+                                || booking.getStatus() == BookingStatus.APPROVED)
+                        .noneMatch(booking -> booking.getStart().isBefore(end) && booking.getEnd().isAfter(start)))
+                .map(Item::getId)
+                .sorted()
+                .limit(PAGE_SIZE)
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,142 @@
+package ru.practicum.shareit.item;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Slf4j
+@SpringBootTest(properties = "shareit.item-search.cache.size=100")
+class ItemSearchCacheBenchmarkTest {
+    private static final int ITEMS = 2_000;
+    private static final int WORDS = 500;
+    private static final int QUERIES = 5_000;
+    private static final int UPDATE_EVERY = 100;
+    private static final int PAGE_SIZE = 20;
+    private static final double HIT_RATIO_TARGET = 0.5;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private ItemSearchEngine itemSearchEngine;
+
+    @Autowired
+    private ItemSearchCache itemSearchCache;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void testZipfianWorkloadHitsCacheAndStaysConsistent() {
+        final String token = "zipf" + UUID.randomUUID().toString().replace("-", "").substring(0, 8);
+        final User owner = userRepository.save(User.builder()
+                .name("Owner")
+                .email(UUID.randomUUID() + "@search.test").build());
+        final Random random = new Random(42);
+
+        final List<Item> items = new ArrayList<>();
+        for (int i = 0; i < ITEMS; i++) {
+            items.add(Item.builder()
+                    .owner(owner)
+                    .name("Вещь " + word(token, random.nextInt(WORDS)))
+                    .description("Описание " + word(token, random.nextInt(WORDS)))
+                    .available(i % 10 != 0).build());
+        }
+        itemRepository.saveAll(items);
+        items.forEach(itemSearchEngine::indexAfterCommit);
+
+        final double[] cumulative = zipf(WORDS);
+        final String[] queries = new String[QUERIES];
+        for (int q = 0; q < QUERIES; q++) {
+            queries[q] = word(token, sample(cumulative, random));
+        }
+
+        long uncachedNanos = 0;
+        for (String query : queries) {
+            final long startedAt = System.nanoTime();
+            itemSearchEngine.search(query, 0, PAGE_SIZE + 1);
+            uncachedNanos += System.nanoTime() - startedAt;
+        }
+
+        final double hitsBefore = meterRegistry.get("shareit.item.search.cache.hits").counter().count();
+        final double missesBefore = meterRegistry.get("shareit.item.search.cache.misses").counter().count();
+        long cachedNanos = 0;
+        for (int q = 0; q < QUERIES; q++) {
+            if (q > 0 && q % UPDATE_EVERY == 0) {
+                final Item item = items.get(random.nextInt(ITEMS));
+                itemService.update(owner.getId(), item.getId(), ItemDto.builder()
+                        .name("Вещь " + word(token, sample(cumulative, random)))
+                        .available(random.nextBoolean()).build());
+                assertEquals(itemSearchEngine.search(queries[q], 0, PAGE_SIZE + 1),
+                        itemSearchCache.search(queries[q], 0, PAGE_SIZE + 1));
+            }
+
+            final long startedAt = System.nanoTime();
+            itemSearchCache.search(queries[q], 0, PAGE_SIZE + 1);
+            cachedNanos += System.nanoTime() - startedAt;
+        }
+
+        final double hits = meterRegistry.get("shareit.item.search.cache.hits").counter().count() - hitsBefore;
+        final double misses = meterRegistry.get("shareit.item.search.cache.misses").counter().count()
+                - missesBefore;
+        final double hitRatio = hits / (hits + misses);
+        log.info("Запросов: {}, доля попаданий: {}%, без кэша: {} нс, с кэшем: {} нс на запрос.", QUERIES,
+                Math.round(hitRatio * 100), uncachedNanos / QUERIES, cachedNanos / QUERIES);
+
+        for (int w = 0; w < WORDS; w += 25) {
+            assertEquals(itemSearchEngine.search(word(token, w), 0, PAGE_SIZE + 1),
+                    itemSearchCache.search(word(token, w), 0, PAGE_SIZE + 1));
+        }
+        assertTrue(hitRatio > HIT_RATIO_TARGET);
+    }
+
+    private static String word(String token, int rank) {
+        return String.format("%s%03d", token, rank);
+    }
+
+    private static double[] zipf(int n) {
+        final double[] cumulative = new double[n];
+        double sum = 0;
+        for (int i = 0; i < n; i++) {
+            sum += 1.0 / (i + 1);
+            cumulative[i] = sum;
+        }
+
+        for (int i = 0; i < n; i++) {
+            cumulative[i] /= sum;
+        }
+
+        return cumulative;
+    }
+
+    private static int sample(double[] cumulative, Random random) {
+        final double point = random.nextDouble();
+        for (int i = 0; i < cumulative.length; i++) {
+            if (point <= cumulative[i]) {
+                return i;
+            }
+        }
+
+        return cumulative.length - 1;
+    }
+}
@@ -0,0 +1,140 @@
+package ru.practicum.shareit.item;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ItemSearchCacheTest {
+
+    @Mock
+    private ItemSearchEngine itemSearchEngine;
+
+    private MeterRegistry meterRegistry;
+    private ItemSearchCache itemSearchCache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        itemSearchCache = new ItemSearchCache(itemSearchEngine, meterRegistry, 2, 3);
+    }
+
+    @Test
+    void searchServesNormalizedQueryFromCache() {
+        when(itemSearchEngine.search("ДРЕЛЬ", 0, 3))
+                .thenReturn(List.of(5L, 1L, 9L));
+
+        assertEquals(List.of(5L, 1L), itemSearchCache.search("дрель", 0, 2));
+        assertEquals(List.of(1L, 9L), itemSearchCache.search("Дрель", 1, 2));
+
+        verify(itemSearchEngine, times(1)).search("ДРЕЛЬ", 0, 3);
+        assertEquals(1, meterRegistry.get("shareit.item.search.cache.hits").counter().count());
+        assertEquals(1, meterRegistry.get("shareit.item.search.cache.misses").counter().count());
+        assertEquals(0.5, meterRegistry.get("shareit.item.search.cache.hit-ratio").gauge().value());
+    }
+
+    @Test
+    void searchBeyondWindowBypassesCacheUnlessResultIsComplete() {
+        when(itemSearchEngine.search("ДРЕЛЬ", 0, 3))
+                .thenReturn(List.of(5L, 1L, 9L));
+        when(itemSearchEngine.search("ДРЕЛЬ", 2, 2))
+                .thenReturn(List.of(9L, 11L));
+        when(itemSearchEngine.search("ПИЛА", 0, 3))
+                .thenReturn(List.of(7L));
+
+        itemSearchCache.search("дрель", 0, 2);
+        itemSearchCache.search("пила", 0, 2);
+
+        assertEquals(List.of(9L, 11L), itemSearchCache.search("дрель", 2, 2));
+        assertEquals(List.of(), itemSearchCache.search("пила", 2, 2));
+        verify(itemSearchEngine, never()).search("ПИЛА", 2, 2);
+    }
+
+    @Test
+    void searchEvictsLeastRecentlyUsedQuery() {
+        when(itemSearchEngine.search(anyString(), eq(0), eq(3)))
+                .thenReturn(List.of(1L));
+
+        itemSearchCache.search("дрель", 0, 1);
+        itemSearchCache.search("пила", 0, 1);
+        itemSearchCache.search("дрель", 0, 1);
+        itemSearchCache.search("клей", 0, 1);
+        itemSearchCache.search("дрель", 0, 1);
+        itemSearchCache.search("пила", 0, 1);
+
+        assertEquals(2, itemSearchCache.size());
+        verify(itemSearchEngine, times(1)).search("ДРЕЛЬ", 0, 3);
+        verify(itemSearchEngine, times(2)).search("ПИЛА", 0, 3);
+    }
+
+    @Test
+    void evictDropsQueriesListingChangedItem() {
+        when(itemSearchEngine.search("ДРЕЛЬ", 0, 3))
+                .thenReturn(List.of(5L));
+        when(itemSearchEngine.search("ПИЛА", 0, 3))
+                .thenReturn(List.of(7L));
+        itemSearchCache.search("дрель", 0, 1);
+        itemSearchCache.search("пила", 0, 1);
+
+        itemSearchCache.evictAfterCommit(item(5L, "Отвертка", "Крестовая", false));
+
+        itemSearchCache.search("дрель", 0, 1);
+        itemSearchCache.search("пила", 0, 1);
+        verify(itemSearchEngine, times(2)).search("ДРЕЛЬ", 0, 3);
+        verify(itemSearchEngine, times(1)).search("ПИЛА", 0, 3);
+        assertEquals(1, meterRegistry.get("shareit.item.search.cache.invalidated").counter().count());
+    }
+
+    @Test
+    void evictDropsQueriesMatchingNewItem() {
+        when(itemSearchEngine.search(anyString(), eq(0), eq(3)))
+                .thenReturn(List.of());
+        itemSearchCache.search("ручн", 0, 1);
+        itemSearchCache.search("пилы", 0, 1);
+
+        itemSearchCache.evictAfterCommit(item(9L, "Пила", "Ручная", true));
+
+        assertEquals(0, itemSearchCache.size());
+    }
+
+    @Test
+    void searchDoesNotCacheResultRacingWithUpdate() {
+        when(itemSearchEngine.search("ДРЕЛЬ", 0, 3))
+                .thenAnswer(invocation -> {
+                    itemSearchCache.evictAfterCommit(item(5L, "Дрель", "Ударная", true));
+                    return List.of(1L);
+                });
+
+        assertEquals(List.of(1L), itemSearchCache.search("дрель", 0, 1));
+        assertEquals(0, itemSearchCache.size());
+    }
+
+    @Test
+    void clearDropsAllQueries() {
+        when(itemSearchEngine.search(anyString(), eq(0), eq(3)))
+                .thenReturn(List.of(1L));
+        itemSearchCache.search("дрель", 0, 1);
+
+        itemSearchCache.clear();
+
+        assertEquals(0, itemSearchCache.size());
+    }
+
+    private static Item item(long id, String name, String description, boolean available) {
+        return Item.builder()
+                .id(id)
+                .name(name)
+                .description(description)
+                .available(available).build();
+    }
+}
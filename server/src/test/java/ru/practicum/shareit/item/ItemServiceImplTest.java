@@ -5,18 +5,25 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import ru.practicum.shareit.booking.BookingArchiveRepository;
 import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.dto.BookingDtoForResponse;
+import ru.practicum.shareit.booking.dto.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.exception.IncorrectCommentException;
+import ru.practicum.shareit.exception.IncorrectSearchPageException;
 import ru.practicum.shareit.exception.ItemNotFoundException;
 import ru.practicum.shareit.exception.UnauthorizedOperationException;
 import ru.practicum.shareit.item.dto.*;
+import ru.practicum.shareit.item.model.BookingSnapshot;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemBookingSummary;
+import ru.practicum.shareit.item.model.TimeInterval;
 import ru.practicum.shareit.request.ItemRequest;
 import ru.practicum.shareit.request.ItemRequestService;
 import ru.practicum.shareit.user.UserService;
@@ -25,7 +32,9 @@ import ru.practicum.shareit.user.model.User;
 import java.time.LocalDateTime;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -46,11 +55,26 @@ class ItemServiceImplTest {
     @Mock
     private BookingRepository bookingRepository;
 
+    @Mock
+    private BookingArchiveRepository bookingArchiveRepository;
+
     @Mock
     private CommentRepository commentRepository;
 
     @Mock
     private ItemRequestService itemRequestService;
+
+    @Mock
+    private ItemBookingSummaryService itemBookingSummaryService;
+
+    @Mock
+    private ItemAvailabilityCalendar itemAvailabilityCalendar;
+
+    @Mock
+    private ItemSearchEngine itemSearchEngine;
+
+    @Mock
+    private ItemSearchCache itemSearchCache;
     User owner;
     User booker;
     ItemRequest itemRequest;
@@ -64,7 +88,8 @@ class ItemServiceImplTest {
     @BeforeEach
     void setUp() {
         itemService = new ItemServiceImpl(userService, itemRepository,
-                bookingRepository, commentRepository, itemRequestService);
+                bookingRepository, bookingArchiveRepository, commentRepository, itemRequestService, itemBookingSummaryService,
+                itemAvailabilityCalendar, itemSearchEngine, itemSearchCache);
 
         owner = User.builder()
                 .id(1L)
@@ -121,6 +146,9 @@ class ItemServiceImplTest {
         assertEquals(itemDto, savedItemDto);
         verify(itemRepository).save(any(Item.class));
         verify(itemRepository, times(1)).save(any(Item.class));
+        verify(itemBookingSummaryService).createSummary(item.getId());
+        verify(itemSearchEngine).indexAfterCommit(item);
+        verify(itemSearchCache).evictAfterCommit(item);
     }
 
     @Test
@@ -173,12 +201,12 @@ class ItemServiceImplTest {
         futureBooking.setBooker(booker);
         when(itemRepository.findById(anyLong()))
                 .thenReturn(Optional.ofNullable(item));
-        when(bookingRepository.getCurrentOrPastBookingByItem(item))
-                .thenReturn(currentBooking);
-        when(bookingRepository.getFutureBookingByItem(item))
-                .thenReturn(futureBooking);
+        when(itemBookingSummaryService.getSummaries(List.of(item.getId())))
+                .thenReturn(Map.of(item.getId(), toSummary(currentBooking, futureBooking)));
         ItemDtoForResponse itemDtoForResponse = itemService.getById(1L, 1L);
         assertNotNull(itemDtoForResponse);
+        assertNotNull(itemDtoForResponse.getLastBooking());
+        assertNotNull(itemDtoForResponse.getNextBooking());
         assertEquals(item, ItemMapper.toItem(itemDto, owner, itemRequest));
     }
 
@@ -187,38 +215,180 @@ class ItemServiceImplTest {
         item.setComments(List.of(comment));
         currentBooking.setBooker(booker);
         futureBooking.setBooker(booker);
+        futureBooking.setItem(item);
         when(itemRepository.findAllByOwnerIdOrderByIdAsc(anyLong()))
                 .thenReturn(List.of(item));
-        when(bookingRepository.getCurrentOrPastBookingByItem(item))
-                .thenReturn(currentBooking);
-        when(bookingRepository.getFutureBookingByItem(item))
-                .thenReturn(futureBooking);
+        when(itemBookingSummaryService.getSummaries(List.of(item.getId())))
+                .thenReturn(Map.of(item.getId(), toSummary(currentBooking, futureBooking)));
         Collection<ItemDtoForResponse> items = itemService.getAll(booker.getId());
         assertNotNull(items);
         assertEquals(1, items.size());
+        final ItemDtoForResponse itemDtoForResponse = items.iterator().next();
+        assertNotNull(itemDtoForResponse.getLastBooking());
+        assertNotNull(itemDtoForResponse.getNextBooking());
+        verifyNoInteractions(bookingRepository);
+    }
+
+    @Test
+    void getAllWithoutItems() {
+        when(itemRepository.findAllByOwnerIdOrderByIdAsc(anyLong()))
+                .thenReturn(List.of());
+        Collection<ItemDtoForResponse> items = itemService.getAll(booker.getId());
+        assertTrue(items.isEmpty());
+        verifyNoInteractions(itemBookingSummaryService);
     }
 
     @Test
     void getByText() {
         String text = "text for search";
-        when(itemRepository.search(text))
-                .thenReturn(List.of(item));
-        Collection<ItemDto> items = itemService.getByText(booker.getId(), text);
+        item.setAvailable(true);
+        when(itemSearchCache.search(text, 0, 2))
+                .thenReturn(List.of(item.getId(), 99L));
+        when(itemRepository.findAllById(List.of(item.getId(), 99L)))
+                .thenReturn(List.of(item, Item.builder()
+                        .id(99L)
+                        .available(true).build()));
+        Slice<ItemDto> items = itemService.getByText(booker.getId(), text, 0, 1);
         assertNotNull(items);
-        assertEquals(1, items.size());
+        assertEquals(1, items.getNumberOfElements());
+        assertTrue(items.hasNext());
+    }
+
+    @Test
+    void getByTextKeepsRankOrderAndSkipsUnavailable() {
+        final Item saw = Item.builder()
+                .id(5L)
+                .name("Пила")
+                .description("Ручная пила")
+                .available(true).build();
+        final Item glue = Item.builder()
+                .id(7L)
+                .name("Клей")
+                .description("Клей для пилы")
+                .available(false).build();
+        item.setAvailable(true);
+        when(itemSearchCache.search("пил", 0, 11))
+                .thenReturn(List.of(5L, 7L, item.getId()));
+        when(itemRepository.findAllById(List.of(5L, 7L, item.getId())))
+                .thenReturn(List.of(item, glue, saw));
+
+        final Slice<ItemDto> items = itemService.getByText(booker.getId(), "пил", 0, 10);
+
+        assertEquals(List.of(5L, item.getId()), items.getContent().stream()
+                .map(ItemDto::getId)
+                .collect(Collectors.toList()));
+        assertFalse(items.hasNext());
+    }
+
+    @Test
+    void getByTextTopsUpPageWhenItemsTurnUnavailable() {
+        final Item glue = Item.builder()
+                .id(7L)
+                .name("Клей")
+                .available(false).build();
+        final Item saw = Item.builder()
+                .id(5L)
+                .name("Пила")
+                .available(true).build();
+        final Item file = Item.builder()
+                .id(9L)
+                .name("Напильник")
+                .available(true).build();
+        item.setAvailable(true);
+        when(itemSearchCache.search("пил", 0, 3))
+                .thenReturn(List.of(item.getId(), 7L, 8L));
+        when(itemRepository.findAllById(List.of(item.getId(), 7L, 8L)))
+                .thenReturn(List.of(item, glue));
+        when(itemSearchCache.search("пил", 3, 2))
+                .thenReturn(List.of(5L, 9L));
+        when(itemRepository.findAllById(List.of(5L, 9L)))
+                .thenReturn(List.of(saw, file));
+
+        final Slice<ItemDto> items = itemService.getByText(booker.getId(), "пил", 0, 2);
+
+        assertEquals(List.of(item.getId(), 5L), items.getContent().stream()
+                .map(ItemDto::getId)
+                .collect(Collectors.toList()));
+        assertTrue(items.hasNext());
+    }
+
+    @Test
+    void getByTextWithoutMoreAvailableItemsHasNoNext() {
+        item.setAvailable(true);
+        when(itemSearchCache.search("пил", 0, 2))
+                .thenReturn(List.of(item.getId(), 7L));
+        when(itemRepository.findAllById(List.of(item.getId(), 7L)))
+                .thenReturn(List.of(item));
+        when(itemSearchCache.search("пил", 2, 1))
+                .thenReturn(List.of());
+
+        final Slice<ItemDto> items = itemService.getByText(booker.getId(), "пил", 0, 1);
+
+        assertEquals(1, items.getNumberOfElements());
+        assertFalse(items.hasNext());
+    }
+
+    @Test
+    void getByTextCapsPageSize() {
+        when(itemSearchCache.search("дрель", 200, 101))
+                .thenReturn(List.of());
+
+        final Slice<ItemDto> items = itemService.getByText(booker.getId(), "дрель", 200, 1_000_000);
+
+        assertEquals(100, items.getSize());
+        assertFalse(items.hasContent());
+        verify(itemSearchCache).search("дрель", 200, 101);
+        verify(itemRepository, never()).findAllById(any());
+    }
+
+    @Test
+    void getByTextBeyondMaxWindow() {
+        assertThrows(IncorrectSearchPageException.class,
+                () -> itemService.getByText(booker.getId(), "дрель", 9_950, 100));
+        assertThrows(IncorrectSearchPageException.class,
+                () -> itemService.getByText(booker.getId(), "дрель", LocalDateTime.now(),
+                        LocalDateTime.now().plusDays(1), Integer.MAX_VALUE, 10));
+        verifyNoInteractions(itemSearchCache);
+        verify(itemRepository, never()).searchAvailableBetween(anyString(), any(), any(), any(), any());
+    }
+
+    @Test
+    void getByTextBetween() {
+        final LocalDateTime start = LocalDateTime.now().plusDays(1);
+        final LocalDateTime end = start.plusDays(2);
+        when(itemRepository.searchAvailableBetween(eq("дрель"), any(), eq(start), eq(end), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of(item), PageRequest.of(1, 5), true));
+
+        final Slice<ItemDto> items = itemService.getByText(booker.getId(), "дрель", start, end, 5, 5);
+
+        assertEquals(1, items.getNumberOfElements());
+        assertTrue(items.hasNext());
+        verify(itemRepository).searchAvailableBetween(eq("дрель"), any(), eq(start), eq(end),
+                eq(PageRequest.of(1, 5)));
+    }
+
+    @Test
+    void getByTextBetweenEmpty() {
+        final LocalDateTime start = LocalDateTime.now().plusDays(1);
+        final Slice<ItemDto> items = itemService.getByText(booker.getId(), "", start, start.plusDays(1), 0, 10);
+
+        assertFalse(items.hasContent());
+        verifyNoInteractions(itemRepository);
     }
 
     @Test
     void getByTextEmpty() {
         String text = "";
-        Collection<ItemDto> items = itemService.getByText(booker.getId(), text);
+        Slice<ItemDto> items = itemService.getByText(booker.getId(), text, 0, 10);
         assertNotNull(items);
-        assertEquals(0, items.size());
+        assertEquals(0, items.getNumberOfElements());
     }
 
     @Test
     void addComment() {
-        Page<Booking> bookings = new PageImpl<>(List.of(currentBooking));
+        currentBooking.setBooker(booker);
+        Slice<BookingDtoForResponse> bookings =
+                new SliceImpl<>(List.of(BookingMapper.toBookingDtoForResponse(currentBooking)));
 
         when(commentRepository.save(any(Comment.class)))
                 .thenReturn(comment);
@@ -228,6 +398,8 @@ class ItemServiceImplTest {
                 .thenReturn(booker);
         when(bookingRepository.getAllPastByBookerOrderByStartDesc(booker, PageRequest.of(0, 1)))
                 .thenReturn(bookings);
+        when(bookingArchiveRepository.getAllByBookerOrderByStartDesc(booker, PageRequest.of(0, 1)))
+                .thenReturn(new SliceImpl<>(List.of()));
         CommentDtoForResponse savedComment = itemService.addComment(commentDto, item.getId(), booker.getId());
         assertNotNull(savedComment);
         assertEquals(comment.getText(), savedComment.getText());
@@ -235,12 +407,32 @@ class ItemServiceImplTest {
         verify(commentRepository, times(1)).save(any(Comment.class));
     }
 
+    @Test
+    void addCommentAfterArchivedBooking() {
+        currentBooking.setBooker(booker);
+
+        when(commentRepository.save(any(Comment.class)))
+                .thenReturn(comment);
+        when(itemRepository.findById(anyLong()))
+                .thenReturn(Optional.ofNullable(item));
+        when(userService.getUser(anyLong()))
+                .thenReturn(booker);
+        when(bookingRepository.getAllPastByBookerOrderByStartDesc(booker, PageRequest.of(0, 1)))
+                .thenReturn(new SliceImpl<>(List.of()));
+        when(bookingArchiveRepository.getAllByBookerOrderByStartDesc(booker, PageRequest.of(0, 1)))
+                .thenReturn(new SliceImpl<>(List.of(BookingMapper.toBookingDtoForResponse(currentBooking))));
+
+        assertNotNull(itemService.addComment(commentDto, item.getId(), booker.getId()));
+        verify(commentRepository).save(any(Comment.class));
+    }
+
     @Test
     void addCommentByUserNotUsed() {
         currentBooking.setBooker(booker);
         currentBooking.setItem(Item.builder().id(33L).build());
 
-        Page<Booking> bookings = new PageImpl<>(List.of(currentBooking));
+        Slice<BookingDtoForResponse> bookings =
+                new SliceImpl<>(List.of(BookingMapper.toBookingDtoForResponse(currentBooking)));
 
         when(itemRepository.findById(anyLong()))
                 .thenReturn(Optional.ofNullable(item));
@@ -248,6 +440,8 @@ class ItemServiceImplTest {
                 .thenReturn(booker);
         when(bookingRepository.getAllPastByBookerOrderByStartDesc(any(User.class), any(Pageable.class)))
                 .thenReturn(bookings);
+        when(bookingArchiveRepository.getAllByBookerOrderByStartDesc(any(User.class), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of()));
 
         final Long itemId = item.getId();
         final Long bookerId = booker.getId();
@@ -290,6 +484,34 @@ class ItemServiceImplTest {
         });
     }
 
+    @Test
+    void getAvailability() {
+        item.setAvailable(true);
+        final LocalDateTime from = LocalDateTime.now().plusDays(1);
+        final LocalDateTime to = from.plusDays(3);
+        when(itemRepository.findById(anyLong()))
+                .thenReturn(Optional.ofNullable(item));
+        when(itemAvailabilityCalendar.getFreeIntervals(item.getId(), from, to))
+                .thenReturn(List.of(new TimeInterval(from, to)));
+
+        final List<FreeIntervalDto> freeIntervals = itemService.getAvailability(1L, item.getId(), from, to);
+        assertEquals(1, freeIntervals.size());
+        assertEquals(from, freeIntervals.get(0).getStart());
+        assertEquals(to, freeIntervals.get(0).getEnd());
+        verify(userService).validateUserExists(1L);
+    }
+
+    @Test
+    void getAvailabilityOfUnavailableItem() {
+        item.setAvailable(false);
+        when(itemRepository.findById(anyLong()))
+                .thenReturn(Optional.ofNullable(item));
+
+        final LocalDateTime from = LocalDateTime.now().plusDays(1);
+        assertTrue(itemService.getAvailability(1L, item.getId(), from, from.plusDays(1)).isEmpty());
+        verifyNoInteractions(itemAvailabilityCalendar);
+    }
+
     @Test
     void validateNotUsersItem() {
         when(itemRepository.findAllByOwnerIdOrderByIdAsc(anyLong()))
@@ -304,4 +526,12 @@ class ItemServiceImplTest {
         final String actualMessage = exception.getMessage();
         assertTrue(actualMessage.contains(expectedMessage));
     }
-}
\ No newline at end of file
+
+    private static ItemBookingSummary toSummary(Booking lastBooking, Booking nextBooking) {
+        return ItemBookingSummary.builder()
+                .itemId(lastBooking.getItem().getId())
+                .lastBooking(BookingSnapshot.of(lastBooking))
+                .nextBooking(BookingSnapshot.of(nextBooking))
+                .build();
+    }
+}
@@ -0,0 +1,36 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ItemTextAnalyzerTest {
+
+    @Test
+    void analyzeSplitsOnPunctuationAndIgnoresCase() {
+        assertEquals(List.of("дрел", "ударн", "18v", "мощн"),
+                ItemTextAnalyzer.analyze("ДРЕЛЬ ударная, 18V — мощная!"));
+        assertEquals(List.of(), ItemTextAnalyzer.analyze(" ,.- "));
+        assertEquals(List.of(), ItemTextAnalyzer.analyze(null));
+    }
+
+    @Test
+    void analyzeStemsRussianInflections() {
+        assertEquals(List.of("дрел", "дрел", "дрел", "дрел"), ItemTextAnalyzer.analyze("дрель дрели дрелью дрелей"));
+        assertEquals(List.of("пил", "пил", "пил"), ItemTextAnalyzer.analyze("пила пилы пилой"));
+        assertEquals(List.of("аккумуляторн", "аккумуляторн"),
+                ItemTextAnalyzer.analyze("аккумуляторная аккумуляторный"));
+        assertEquals(List.of("шуруповерт", "шуруповерт"), ItemTextAnalyzer.analyze("Шуруповёрт шуруповерты"));
+    }
+
+    @Test
+    void analyzeStemsEnglishInflections() {
+        assertEquals(List.of("drill", "drill", "drill", "drill"),
+                ItemTextAnalyzer.analyze("drill drills drilling drilled"));
+        assertEquals(List.of("battery", "battery", "box", "glass", "run"),
+                ItemTextAnalyzer.analyze("battery batteries boxes glasses running"));
+        assertEquals(List.of("speed", "bus"), ItemTextAnalyzer.analyze("speed bus"));
+    }
+}
@@ -0,0 +1,66 @@
+package ru.practicum.shareit.item;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ItemTextIndexCheckerTest {
+
+    @Mock
+    private ItemRepository itemRepository;
+
+    private MeterRegistry meterRegistry;
+    private ItemTextIndex itemTextIndex;
+    private ItemTextIndexChecker checker;
+    private Item drill;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        drill = Item.builder()
+                .id(1L)
+                .name("Дрель")
+                .description("Мощная")
+                .available(true).build();
+        itemTextIndex = new ItemTextIndex(itemRepository, 2);
+        checker = new ItemTextIndexChecker(itemTextIndex, itemRepository, meterRegistry);
+    }
+
+    @Test
+    void checkRepairsItemsMissingFromIndex() {
+        when(itemRepository.findAllByIdGreaterThanOrderByIdAsc(0L, PageRequest.of(0, ItemTextIndex.LOAD_BATCH_SIZE)))
+                .thenReturn(List.of(drill));
+        when(itemRepository.findById(1L))
+                .thenReturn(Optional.of(drill));
+
+        checker.check();
+
+        assertEquals(List.of(1L), itemTextIndex.search("дрель", 0, 10));
+        assertEquals(1.0, meterRegistry.counter("shareit.item.search.index.repaired").count());
+    }
+
+    @Test
+    void checkLeavesConsistentIndexUntouched() {
+        itemTextIndex.index(drill);
+        when(itemRepository.findAllByIdGreaterThanOrderByIdAsc(0L, PageRequest.of(0, ItemTextIndex.LOAD_BATCH_SIZE)))
+                .thenReturn(List.of(drill));
+
+        checker.check();
+
+        verify(itemRepository, never()).findById(anyLong());
+        assertEquals(0.0, meterRegistry.counter("shareit.item.search.index.repaired").count());
+    }
+}
@@ -0,0 +1,207 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ItemTextIndexTest {
+
+    @Mock
+    private ItemRepository itemRepository;
+
+    @Test
+    void loadIndexesItemsInBatchesOfExistingIds() {
+        final List<Long> firstIds = new ArrayList<>();
+        final List<Item> firstBatch = new ArrayList<>();
+        for (long id = 1; id <= ItemTextIndex.LOAD_BATCH_SIZE; id++) {
+            firstIds.add(id * 1000);
+            firstBatch.add(item(id * 1000, "Пила " + id, "Ручная пила", true));
+        }
+        final long lastId = firstIds.get(firstIds.size() - 1);
+        when(itemRepository.findIdsAfter(0L, PageRequest.of(0, ItemTextIndex.LOAD_BATCH_SIZE)))
+                .thenReturn(firstIds);
+        when(itemRepository.findIdsAfter(lastId, PageRequest.of(0, ItemTextIndex.LOAD_BATCH_SIZE)))
+                .thenReturn(List.of(lastId + 1));
+        when(itemRepository.findIdsAfter(lastId + 1, PageRequest.of(0, ItemTextIndex.LOAD_BATCH_SIZE)))
+                .thenReturn(List.of());
+        when(itemRepository.findAllById(firstIds))
+                .thenReturn(firstBatch);
+        when(itemRepository.findAllById(List.of(lastId + 1)))
+                .thenReturn(List.of(item(lastId + 1, "Дрель", "Аккумуляторная дрель", true)));
+
+        final ItemTextIndex index = new ItemTextIndex(itemRepository, 2);
+        index.load();
+
+        assertEquals(ItemTextIndex.LOAD_BATCH_SIZE + 1, index.size());
+        assertEquals(List.of(lastId + 1), index.search("дрел", 0, 10));
+    }
+
+    @Test
+    void searchMatchesSubstringsOfNameOrDescriptionIgnoringCase() {
+        final ItemTextIndex index = loaded(
+                item(1L, "Дрель ударная", "Мощная", true),
+                item(2L, "Перфоратор", "Сверлит как ДРЕЛЬ", true),
+                item(3L, "Дрель старая", "Не работает", false),
+                item(4L, "Test item 1 SpEcIaL name", "Test item 1 description", true));
+
+        assertEquals(List.of(1L, 2L), index.search("дРеЛь", 0, 10));
+        assertEquals(List.of(4L), index.search("PEciA", 0, 10));
+        assertEquals(List.of(1L), index.search("ударная", 0, 10));
+        assertEquals(List.of(1L), index.search("дрель ударная мощная", 0, 10));
+        assertEquals(List.of(), index.search("отвёртка", 0, 10));
+    }
+
+    @Test
+    void searchMatchesInflectedFormsInRussianAndEnglish() {
+        final ItemTextIndex index = loaded(
+                item(1L, "Дрель", "Мощная", true),
+                item(2L, "Набор", "Для дрелей и перфораторов", true),
+                item(3L, "Cordless drill", "Drilling without wires", true),
+                item(4L, "Клей", "Для дерева", true));
+
+        assertEquals(List.of(1L, 2L), index.search("дрели", 0, 10));
+        assertEquals(List.of(2L), index.search("перфоратор", 0, 10));
+        assertEquals(List.of(3L), index.search("drills", 0, 10));
+    }
+
+    @Test
+    void searchRanksNameMatchesAboveDescriptionMatches() {
+        final ItemTextIndex index = loaded(
+                item(1L, "Набор", "Пила и молоток", true),
+                item(2L, "Пила", "Острая", true),
+                item(3L, "Пила", "Пила по дереву", true),
+                item(4L, "Ножовка", "Пилы по металлу", true));
+
+        assertEquals(List.of(3L, 2L, 1L, 4L), index.search("пила", 0, 10));
+    }
+
+    @Test
+    void searchWeighsTermsByLiveDocuments() {
+        final ItemTextIndex index = loaded(
+                item(1L, "Пила", "Молоток", true),
+                item(2L, "Молоток", "Пила", true),
+                item(3L, "Набор", "Молоток", true),
+                item(4L, "Ящик", "Молоток", true));
+        for (long id = 5; id <= 7; id++) {
+            index.index(item(id, "Пила", "Старая", true));
+            index.index(item(id, "Клей", "Для дерева", true));
+        }
+
+        assertEquals(List.of(1L, 2L), index.search("пила молоток", 0, 10));
+    }
+
+    @Test
+    void searchReturnsRequestedPageOfRanking() {
+        final List<Item> items = new ArrayList<>();
+        for (long id = 1; id <= 30; id++) {
+            items.add(item(id, id % 3 == 0 ? "Пила " + id : "Набор " + id, "Пила и молоток", true));
+        }
+        final ItemTextIndex index = loaded(items.toArray(new Item[0]));
+
+        assertEquals(List.of(3L, 6L, 9L, 12L, 15L), index.search("пила", 0, 5));
+        assertEquals(List.of(18L, 21L, 24L, 27L, 30L), index.search("пила", 5, 5));
+        assertEquals(List.of(1L, 2L, 4L), index.search("пила", 10, 3));
+        assertEquals(List.of(), index.search("пила", 30, 5));
+    }
+
+    @Test
+    void searchShorterThanTrigramScansAvailableItems() {
+        final ItemTextIndex index = loaded(
+                item(1L, "Дрель", "Мощная", true),
+                item(2L, "Пила", "Острая", true),
+                item(3L, "Клей", "Для дерева", false));
+
+        assertEquals(List.of(1L), index.search("д", 0, 10));
+        assertEquals(List.of(2L), index.search("ил", 0, 10));
+    }
+
+    @Test
+    void indexReplacesTextAndAvailabilityOfUpdatedItem() {
+        final ItemTextIndex index = loaded(item(1L, "Дрель", "Мощная", true));
+
+        index.indexAfterCommit(item(1L, "Шуруповёрт", "Мощный", true));
+        assertEquals(List.of(), index.search("дрель", 0, 10));
+        assertEquals(List.of(1L), index.search("шуруп", 0, 10));
+
+        index.indexAfterCommit(item(1L, "Шуруповёрт", "Мощный", false));
+        assertEquals(List.of(), index.search("шуруп", 0, 10));
+        assertEquals(1, index.size());
+
+        index.indexAfterCommit(item(2L, "Дрель", "Новая", true));
+        assertEquals(List.of(2L), index.search("дрель", 0, 10));
+    }
+
+    @Test
+    void isConsistentComparesTextAndAvailability() {
+        final ItemTextIndex index = loaded(item(1L, "Дрель", "Мощная", true));
+
+        assertTrue(index.isConsistent(item(1L, "Дрель", "Мощная", true)));
+        assertFalse(index.isConsistent(item(1L, "Дрель", "Мощная", false)));
+        assertFalse(index.isConsistent(item(1L, "Пила", "Мощная", true)));
+        assertFalse(index.isConsistent(item(2L, "Дрель", "Мощная", true)));
+    }
+
+    @Test
+    void reindexKeepsUpdatesCommittedWhileLoading() {
+        final ItemTextIndex index = new ItemTextIndex(itemRepository, 2);
+        when(itemRepository.findIdsAfter(0L, PageRequest.of(0, ItemTextIndex.LOAD_BATCH_SIZE)))
+                .thenReturn(List.of(1L));
+        when(itemRepository.findIdsAfter(1L, PageRequest.of(0, ItemTextIndex.LOAD_BATCH_SIZE)))
+                .thenReturn(List.of());
+        when(itemRepository.findAllById(List.of(1L)))
+                .thenAnswer(invocation -> {
+                    index.index(item(1L, "Шуруповёрт", "Мощный", true));
+                    return List.of(item(1L, "Дрель", "Мощная", true));
+                });
+
+        assertEquals(1, index.reindex());
+        assertEquals(List.of(), index.search("дрель", 0, 10));
+        assertEquals(List.of(1L), index.search("шуруп", 0, 10));
+    }
+
+    @Test
+    void reindexOfEmptyTable() {
+        final ItemTextIndex index = new ItemTextIndex(itemRepository, 2);
+        when(itemRepository.findIdsAfter(0L, PageRequest.of(0, ItemTextIndex.LOAD_BATCH_SIZE)))
+                .thenReturn(List.of());
+
+        assertEquals(0, index.reindex());
+        verify(itemRepository, never()).findAllById(anyList());
+    }
+
+    private ItemTextIndex loaded(Item... items) {
+        final List<Long> ids = Arrays.stream(items)
+                .map(Item::getId)
+                .collect(Collectors.toList());
+        when(itemRepository.findIdsAfter(0L, PageRequest.of(0, ItemTextIndex.LOAD_BATCH_SIZE)))
+                .thenReturn(ids);
+        when(itemRepository.findIdsAfter(ids.get(ids.size() - 1), PageRequest.of(0, ItemTextIndex.LOAD_BATCH_SIZE)))
+                .thenReturn(List.of());
+        when(itemRepository.findAllById(ids))
+                .thenReturn(List.of(items));
+        final ItemTextIndex index = new ItemTextIndex(itemRepository, 2);
+        index.load();
+        return index;
+    }
+
+    private static Item item(long id, String name, String description, boolean available) {
+        return Item.builder()
+                .id(id)
+                .name(name)
+                .description(description)
+                .available(available).build();
+    }
+}
@@ -0,0 +1,121 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.item.model.Item;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LuceneItemSearchEngineTest {
+
+    @Mock
+    private ItemRepository itemRepository;
+
+    @TempDir
+    Path indexPath;
+
+    private LuceneItemSearchEngine engine;
+
+    @AfterEach
+    void tearDown() throws IOException {
+        if (engine != null) {
+            engine.close();
+        }
+    }
+
+    @Test
+    void searchMatchesSubstringsOfAvailableItemsIgnoringCase() {
+        engine = reindexed(
+                item(1L, "Дрель ударная", "Мощная", true),
+                item(2L, "Перфоратор", "Сверлит как ДРЕЛЬ", true),
+                item(3L, "Дрель старая", "Не работает", false),
+                item(4L, "Test item 1 SpEcIaL name", "Test item 1 description", true));
+
+        assertEquals(List.of(1L, 2L), engine.search("дРеЛь", 0, 10));
+        assertEquals(List.of(4L), engine.search("PEciA", 0, 10));
+        assertEquals(List.of(1L), engine.search("уд", 0, 10));
+        assertEquals(List.of(), engine.search("отвёртка", 0, 10));
+    }
+
+    @Test
+    void searchRanksNameMatchesFirstAndPages() {
+        engine = reindexed(
+                item(1L, "Набор", "Пила и молоток", true),
+                item(2L, "Пила", "Острая", true),
+                item(3L, "Ножовка", "Пила по металлу", true));
+
+        assertEquals(List.of(2L, 1L, 3L), engine.search("пила", 0, 10));
+        assertEquals(List.of(1L), engine.search("пила", 1, 1));
+        assertEquals(List.of(), engine.search("пила", 3, 5));
+    }
+
+    @Test
+    void indexAfterCommitIsSearchableWithoutReindex() {
+        engine = reindexed(item(1L, "Дрель", "Мощная", true));
+
+        engine.indexAfterCommit(item(1L, "Шуруповёрт", "Мощный", true));
+        engine.indexAfterCommit(item(2L, "Дрель", "Новая", true));
+
+        assertEquals(List.of(1L), engine.search("шуруп", 0, 10));
+        assertEquals(List.of(2L), engine.search("дрель", 0, 10));
+    }
+
+    @Test
+    void reindexDropsItemsMissingFromRepository() {
+        engine = reindexed(item(1L, "Дрель", "Мощная", true), item(2L, "Дрель", "Новая", true));
+        stubRepository(item(2L, "Дрель", "Новая", true));
+
+        assertEquals(1, engine.reindex());
+        assertEquals(List.of(2L), engine.search("дрель", 0, 10));
+    }
+
+    @Test
+    void indexIsKeptOnDiskBetweenEngines() throws IOException {
+        reindexed(item(1L, "Дрель", "Мощная", true)).close();
+
+        engine = new LuceneItemSearchEngine(itemRepository, indexPath.toString(), 2);
+
+        assertEquals(List.of(1L), engine.search("дрель", 0, 10));
+    }
+
+    private LuceneItemSearchEngine reindexed(Item... items) {
+        stubRepository(items);
+        final LuceneItemSearchEngine reindexed = new LuceneItemSearchEngine(itemRepository, indexPath.toString(), 2);
+        reindexed.reindex();
+        return reindexed;
+    }
+
+    private void stubRepository(Item... items) {
+        final List<Long> ids = Arrays.stream(items)
+                .map(Item::getId)
+                .collect(Collectors.toList());
+        lenient().when(itemRepository.findIdsAfter(0L, PageRequest.of(0, ItemTextIndex.LOAD_BATCH_SIZE)))
+                .thenReturn(ids);
+        lenient().when(itemRepository.findIdsAfter(ids.get(ids.size() - 1),
+                        PageRequest.of(0, ItemTextIndex.LOAD_BATCH_SIZE)))
+                .thenReturn(List.of());
+        lenient().when(itemRepository.findAllById(ids))
+                .thenReturn(List.of(items));
+    }
+
+    private static Item item(long id, String name, String description, boolean available) {
+        return Item.builder()
+                .id(id)
+                .name(name)
+                .description(description)
+                .available(available).build();
+    }
+}
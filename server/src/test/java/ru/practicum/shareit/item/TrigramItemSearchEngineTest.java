@@ -0,0 +1,51 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TrigramItemSearchEngineTest {
+
+    @Mock
+    private ItemTextIndex itemTextIndex;
+
+    private TrigramItemSearchEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        engine = new TrigramItemSearchEngine(itemTextIndex);
+    }
+
+    @Test
+    void searchReturnsIndexedIdsInRankOrder() {
+        when(itemTextIndex.search("item", 2, 3))
+                .thenReturn(List.of(5L, 7L, 1L));
+
+        assertEquals(List.of(5L, 7L, 1L), engine.search("item", 2, 3));
+    }
+
+    @Test
+    void indexAndReindexDelegateToIndex() {
+        final Item drill = Item.builder()
+                .id(1L)
+                .name("Item 1")
+                .description("Item 1 description")
+                .available(true).build();
+        when(itemTextIndex.reindex())
+                .thenReturn(1);
+
+        engine.indexAfterCommit(drill);
+
+        verify(itemTextIndex).indexAfterCommit(drill);
+        assertEquals(1, engine.reindex());
+    }
+}
@@ -7,6 +7,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.item.dto.ItemDtoForResponse;
@@ -24,6 +25,7 @@ import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -104,12 +106,13 @@ class ItemRequestControllerTest {
     @Test
     void getItemRequestsOfOther() throws Exception {
         when(itemRequestService.getAllRequestsOfOther(anyLong(), anyInt(), anyInt()))
-                .thenReturn(List.of(itemRequestDtoForResponse));
+                .thenReturn(new SliceImpl<>(List.of(itemRequestDtoForResponse)));
 
         mockMvc.perform(get("/requests/all")
                         .header("X-Sharer-User-Id", requestor.getId())
                         .characterEncoding(StandardCharsets.UTF_8))
                 .andExpect(status().isOk())
+                .andExpect(header().string(ItemRequestController.HAS_MORE_HEADER, "false"))
                 .andExpect(jsonPath("$[0].id", is(itemRequestDtoForResponse.getId()), Long.class))
                 .andExpect(jsonPath("$[0].description", is(itemRequestDtoForResponse.getDescription())));
 
@@ -0,0 +1,73 @@
+package ru.practicum.shareit.request;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import ru.practicum.shareit.user.model.User;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class ItemRequestRepositoryTest {
+
+    @Autowired
+    private TestEntityManager testEntityManager;
+
+    @Autowired
+    private ItemRequestRepository itemRequestRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    User requestor;
+    User other;
+
+    @BeforeEach
+    void setUp() {
+        requestor = User.builder()
+                .name("Sergej Nishpal")
+                .email("sergej.nishpal@yandex.ru")
+                .build();
+        testEntityManager.persist(requestor);
+
+        other = User.builder()
+                .name("John Doe")
+                .email("john.doe@mail.com")
+                .build();
+        testEntityManager.persist(other);
+
+        for (int i = 0; i < 3; i++) {
+            testEntityManager.persist(ItemRequest.builder()
+                    .description("Test request " + i)
+                    .created(LocalDateTime.now())
+                    .requestor(other)
+                    .build());
+        }
+    }
+
+    @Test
+    void testFindByRequestorIdNotRunsSingleStatement() {
+        testEntityManager.flush();
+        testEntityManager.clear();
+        final Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        final Slice<ItemRequest> itemRequests = itemRequestRepository.findByRequestorIdNot(requestor.getId(),
+                PageRequest.of(0, 2));
+
+        assertEquals(other.getName(), itemRequests.getContent().get(0).getRequestor().getName());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertThat(itemRequests.getContent()).hasSize(2);
+        assertTrue(itemRequests.hasNext());
+    }
+}
@@ -5,9 +5,9 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import ru.practicum.shareit.exception.ItemRequestNotFoundException;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestDtoForResponse;
@@ -113,17 +113,18 @@ class ItemRequestServiceImplTest {
 
     @Test
     void getAllRequestsOfOther() {
-        Page<ItemRequest> itemRequests = new PageImpl<>(List.of(itemRequestOther));
+        Slice<ItemRequest> itemRequests = new SliceImpl<>(List.of(itemRequestOther));
         when(userService.getUser(anyLong()))
                 .thenReturn(requestor);
         when(itemRequestRepository.findByRequestorIdNot(anyLong(), any(Pageable.class)))
                 .thenReturn(itemRequests);
 
-        Collection<ItemRequestDtoForResponse> otherItemRequests =
+        Slice<ItemRequestDtoForResponse> otherItemRequests =
                 itemRequestService.getAllRequestsOfOther(requestor.getId(), 0, 10);
 
         assertNotNull(otherItemRequests);
-        assertEquals(1, otherItemRequests.size());
+        assertEquals(1, otherItemRequests.getNumberOfElements());
+        assertFalse(otherItemRequests.hasNext());
         verify(itemRequestRepository).findByRequestorIdNot(anyLong(), any(Pageable.class));
         verify(itemRequestRepository, times(1))
                 .findByRequestorIdNot(anyLong(), any(Pageable.class));
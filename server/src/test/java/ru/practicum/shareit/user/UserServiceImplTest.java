@@ -5,6 +5,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.booking.BookingStateCountersService;
 import ru.practicum.shareit.exception.UserNotFoundException;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.dto.UserMapper;
@@ -23,13 +24,16 @@ class UserServiceImplTest {
 
     @Mock
     private UserRepository userRepository;
+
+    @Mock
+    private BookingStateCountersService bookingStateCountersService;
     private User userHaveId;
     private User savedUser;
     private User userHaveNotId;
 
     @BeforeEach
     public void setUp() {
-        userService = new UserServiceImpl(userRepository);
+        userService = new UserServiceImpl(userRepository, bookingStateCountersService);
 
         userHaveId = User.builder()
                 .id(1L)
@@ -108,6 +112,7 @@ class UserServiceImplTest {
         assertEquals(userHaveId, savedUser);
         verify(userRepository).save(any(User.class));
         verify(userRepository, times(1)).save(any(User.class));
+        verify(bookingStateCountersService).createCounters(userHaveId.getId());
     }
 
     @Test
@@ -168,6 +173,7 @@ class UserServiceImplTest {
     void deleteUser() {
         userService.deleteById(1L);
         verify(userRepository).deleteById(1L);
+        verify(bookingStateCountersService).deleteCounters(1L);
         verifyNoMoreInteractions(userRepository);
     }
 }
\ No newline at end of file